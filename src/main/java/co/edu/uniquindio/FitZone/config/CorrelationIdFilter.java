@@ -0,0 +1,101 @@
+package co.edu.uniquindio.FitZone.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Asigna a cada solicitud un ID de correlación, tomado del encabezado X-Correlation-Id si el cliente lo
+ * envía con un formato válido o generado en otro caso, y lo deja en el MDC para que aparezca en todos
+ * los registros de la solicitud y en la respuesta. También decide si la solicitud se muestrea para los
+ * registros DEBUG (ver DebugSamplingTurboFilter). La decisión es un HMAC-SHA256 del ID con la clave
+ * logging.debug-sampling.salt: un cliente no puede elegir IDs que siempre se muestreen para forzar
+ * registros DEBUG, y las instancias que comparten la clave muestrean igual una misma correlación. Sin
+ * clave configurada cada instancia genera una aleatoria al iniciar.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final int SAMPLING_BUCKETS = 10_000;
+
+    private static final String SAMPLING_ALGORITHM = "HmacSHA256";
+
+    private final int sampledBuckets;
+    // Mac no es seguro entre hilos; cada hilo usa su propia instancia con la misma clave
+    private final ThreadLocal<Mac> samplingMac;
+
+    public CorrelationIdFilter(@Value("${logging.debug-sampling.rate:0.01}") double samplingRate,
+                               @Value("${logging.debug-sampling.salt:}") String samplingSalt) {
+        this.sampledBuckets = (int) Math.round(Math.max(0, Math.min(1, samplingRate)) * SAMPLING_BUCKETS);
+        SecretKeySpec key = new SecretKeySpec(samplingKey(samplingSalt), SAMPLING_ALGORITHM);
+        this.samplingMac = ThreadLocal.withInitial(() -> newMac(key));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String correlationId = request.getHeader(HEADER);
+        if (correlationId == null || !VALID_ID.matcher(correlationId).matches()) {
+            correlationId = UUID.randomUUID().toString();
+        }
+
+        MDC.put(MDC_KEY, correlationId);
+        MDC.put(DebugSamplingTurboFilter.SAMPLED_KEY, Boolean.toString(isSampled(correlationId)));
+        response.setHeader(HEADER, correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+            MDC.remove(DebugSamplingTurboFilter.SAMPLED_KEY);
+        }
+    }
+
+    private boolean isSampled(String correlationId) {
+        if (sampledBuckets == 0) {
+            return false;
+        }
+        byte[] digest = samplingMac.get().doFinal(correlationId.getBytes(StandardCharsets.UTF_8));
+        return Math.floorMod(ByteBuffer.wrap(digest).getInt(), SAMPLING_BUCKETS) < sampledBuckets;
+    }
+
+    private static byte[] samplingKey(String salt) {
+        if (salt != null && !salt.isBlank()) {
+            return salt.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(SAMPLING_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No fue posible inicializar el muestreo de registros DEBUG", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package co.edu.uniquindio.FitZone.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Filtro de Logback que deja pasar los mensajes DEBUG y TRACE de la aplicación solo en las solicitudes
+ * muestreadas por CorrelationIdFilter. Se evalúa antes de formatear el mensaje, y también responde a
+ * logger.isDebugEnabled(), así que en una solicitud no muestreada el costo de un DEBUG es una consulta
+ * al MDC. Fuera de una solicitud (tareas programadas, hilos de fondo) decide el nivel del logger.
+ * Se configura en logback-spring.xml.
+ */
+public class DebugSamplingTurboFilter extends TurboFilter {
+
+    /**
+     * Clave del MDC con "true" si la solicitud en curso está muestreada.
+     */
+    public static final String SAMPLED_KEY = "debugSampled";
+
+    private String loggerPrefix = "co.edu.uniquindio.FitZone";
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.INFO) || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        String sampled = MDC.get(SAMPLED_KEY);
+        if (sampled == null || "true".equals(sampled)) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+}
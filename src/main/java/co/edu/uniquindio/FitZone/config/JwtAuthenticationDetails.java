@@ -0,0 +1,24 @@
+package co.edu.uniquindio.FitZone.config;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Detalles de autenticación que, además de la información de la solicitud web,
+ * conservan los claims del JWT ya verificados por JwtRequestFilter.
+ * Permite reutilizar los claims durante la solicitud sin volver a analizar el token.
+ */
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final transient Claims claims;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, Claims claims) {
+        super(request);
+        this.claims = claims;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+}
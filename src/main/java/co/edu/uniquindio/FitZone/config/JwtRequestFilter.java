@@ -1,19 +1,26 @@
 package co.edu.uniquindio.FitZone.config;
 
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
 import co.edu.uniquindio.FitZone.service.impl.UserDetailsServiceImpl;
+import co.edu.uniquindio.FitZone.service.impl.cache.TokenVersionRegistry;
+import co.edu.uniquindio.FitZone.service.impl.cache.UserDetailsCache;
 import co.edu.uniquindio.FitZone.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -29,12 +36,22 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtRequestFilter.class);
 
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserDetailsCache userDetailsCache;
     private final JwtUtil jwtUtil;
-
-    public JwtRequestFilter(UserDetailsServiceImpl userDetailsService, JwtUtil jwtUtil) {
-        this.userDetailsService = userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final boolean statelessEnabled;
+    private final MeterRegistry meterRegistry;
+
+    public JwtRequestFilter(UserDetailsCache userDetailsCache,
+                            JwtUtil jwtUtil,
+                            TokenVersionRegistry tokenVersionRegistry,
+                            MeterRegistry meterRegistry,
+                            @Value("${jwt.stateless.enabled:false}") boolean statelessEnabled) {
+        this.userDetailsCache = userDetailsCache;
         this.jwtUtil = jwtUtil;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.meterRegistry = meterRegistry;
+        this.statelessEnabled = statelessEnabled;
     }
 
     /**
@@ -54,7 +71,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String requestURI = request.getRequestURI();
 
         String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         // Saltar validación JWT para endpoints públicos de autenticación
         if (isPublicEndpoint(requestURI)) {
@@ -63,38 +80,59 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
 
             // ✅ AGREGAR TRY-CATCH para manejar tokens malformados
+            Timer.Sample verification = Timer.start(meterRegistry);
+            String outcome = "invalid";
             try {
                 // Verificar formato básico antes de procesar
                 if (isValidJwtFormat(jwt)) {
-                    username = jwtUtil.extractUsername(jwt);
+                    // Única verificación de firma por solicitud; los claims se reutilizan más abajo
+                    claims = jwtUtil.parseClaims(jwt);
+                    username = claims.getSubject();
+                    outcome = "valid";
                 } else {
                     logger.warn("Token JWT con formato inválido recibido en URI: {}", requestURI);
                 }
             } catch (MalformedJwtException e) {
+                outcome = "malformed";
                 logger.warn("Token JWT malformado recibido en URI: {}. Error: {}", requestURI, e.getMessage());
             } catch (ExpiredJwtException e) {
+                outcome = "expired";
                 logger.info("Token JWT expirado recibido en URI: {}. Usuario: {}", requestURI, e.getClaims().getSubject());
             } catch (IllegalArgumentException e) {
                 logger.error("Error procesando token JWT en URI: {}. Error: {}", requestURI, e.getMessage());
             } catch (Exception e) {
                 logger.error("Error inesperado procesando token JWT en URI: {}. Error: {}", requestURI, e.getMessage());
+            } finally {
+                verification.stop(Timer.builder("fitzone.jwt.verification")
+                        .description("Tiempo de análisis y verificación de firma de los tokens JWT")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
             }
         }
 
         // Solo proceder con autenticación si tenemos un username válido
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails;
+                if (canAuthenticateFromClaims(claims)) {
+                    // Modo sin estado: el principal se construye solo con los claims, sin consultar la base de datos
+                    userDetails = buildUserDetailsFromClaims(claims);
+                    if (userDetails == null) {
+                        logger.info("Token JWT revocado recibido en URI: {}. Usuario: {}", requestURI, username);
+                    }
+                } else {
+                    // Se resuelve desde la caché para evitar una consulta a la base de datos por solicitud
+                    userDetails = this.userDetailsCache.get(username);
+                }
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (userDetails != null && jwtUtil.validateClaims(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
-                    usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource()
-                            .buildDetails(request));
+                    usernamePasswordAuthenticationToken.setDetails(new JwtAuthenticationDetails(request, claims));
 
                     SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
                     logger.debug("Usuario {} autenticado exitosamente para URI: {}", username, requestURI);
@@ -108,6 +146,30 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verificar si el modo sin estado está habilitado y el token trae los claims necesarios para usarlo.
+     * Los tokens emitidos antes de este modo no traen los claims y siguen el camino con base de datos.
+     */
+    private boolean canAuthenticateFromClaims(Claims claims) {
+        return statelessEnabled
+                && tokenVersionRegistry.isReady()
+                && jwtUtil.extractUserId(claims) != null
+                && jwtUtil.extractTokenVersion(claims) != null
+                && claims.get(JwtUtil.CLAIM_ROLE, String.class) != null;
+    }
+
+    /**
+     * Construir el principal a partir de los claims, verificando la versión del token contra la tabla en memoria.
+     * @return los detalles del usuario, o null si el token fue revocado
+     */
+    private UserDetails buildUserDetailsFromClaims(Claims claims) {
+        if (!tokenVersionRegistry.isCurrent(jwtUtil.extractUserId(claims), jwtUtil.extractTokenVersion(claims))) {
+            return null;
+        }
+        UserRole role = UserRole.valueOf(claims.get(JwtUtil.CLAIM_ROLE, String.class));
+        return new User(claims.getSubject(), "", UserDetailsServiceImpl.authoritiesFor(role));
+    }
+
     /**
      * Verificar si la URI corresponde a un endpoint público que no requiere autenticación JWT
      */
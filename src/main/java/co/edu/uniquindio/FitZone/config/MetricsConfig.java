@@ -0,0 +1,22 @@
+package co.edu.uniquindio.FitZone.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las métricas propias de la aplicación.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Limita las combinaciones de clase y método del timer de servicios; las que superen el límite
+     * se descartan en lugar de crear series nuevas.
+     */
+    @Bean
+    public MeterFilter serviceMetricsCardinalityLimit(@Value("${metrics.service.max-methods:500}") int maxMethods) {
+        return MeterFilter.maximumAllowableTags(ServiceMetricsAspect.METRIC_NAME, "method", maxMethods, MeterFilter.deny());
+    }
+}
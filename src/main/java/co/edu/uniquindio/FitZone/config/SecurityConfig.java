@@ -1,15 +1,25 @@
 package co.edu.uniquindio.FitZone.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -21,15 +31,61 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
+    static final String PROMETHEUS_PATH = "/actuator/prometheus";
+    static final String METRICS_SCRAPER_AUTHORITY = "METRICS_SCRAPER";
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final JwtRequestFilter jwtRequestFilter;
 
     public SecurityConfig(JwtRequestFilter jwtRequestFilter) {
         this.jwtRequestFilter = jwtRequestFilter;
     }
 
+    /**
+     * Cadena propia para /actuator/prometheus: Prometheus se autentica con HTTP Basic y un usuario
+     * exclusivo con la autoridad METRICS_SCRAPER, que no existe en la base de datos ni puede usar la API.
+     * Sin metrics.scrape.password no hay usuario y el endpoint responde 401 a toda solicitud.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusSecurityFilterChain(HttpSecurity http,
+                                                             PasswordEncoder passwordEncoder,
+                                                             @Value("${metrics.scrape.username:prometheus}") String username,
+                                                             @Value("${metrics.scrape.password:}") String password) throws Exception {
+        InMemoryUserDetailsManager scrapers = new InMemoryUserDetailsManager();
+        if (password.isBlank()) {
+            logger.warn("metrics.scrape.password no está configurado, se rechazarán todas las solicitudes a {}", PROMETHEUS_PATH);
+        } else {
+            scrapers.createUser(User.withUsername(username)
+                    .password(passwordEncoder.encode(password))
+                    .authorities(METRICS_SCRAPER_AUTHORITY)
+                    .build());
+        }
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(scrapers);
+        provider.setPasswordEncoder(passwordEncoder);
+
+        http
+                .securityMatcher(PROMETHEUS_PATH)
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(HttpMethod.GET, PROMETHEUS_PATH).hasAuthority(METRICS_SCRAPER_AUTHORITY)
+                        .anyRequest().denyAll()
+                )
+                .httpBasic(Customizer.withDefaults())
+                .authenticationManager(new ProviderManager(provider))
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
@@ -38,6 +94,11 @@ public class SecurityConfig {
                         // ✅ PERMITIR TODOS LOS ENDPOINTS DE AUTH (INCLUYENDO login-2fa)
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/users/public/register").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/public/**").permitAll()
+                        // Los webhooks de Stripe se autentican con su firma
+                        .requestMatchers(HttpMethod.POST, "/payments/webhook").permitAll()
+                        // La importación masiva crea cuentas con cualquier rol
+                        .requestMatchers(HttpMethod.POST, "/users/import").hasAuthority("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -53,9 +114,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("https://frontend-fitzone-oaoh.vercel.app", "https://frontend-fitzone-oaoh-pk5wh3bel-juan-lopez-s-projects.vercel.app"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept", CorrelationIdFilter.HEADER));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization")); // ✅ Para que el frontend pueda leer headers
+        configuration.setExposedHeaders(Arrays.asList("Authorization", CorrelationIdFilter.HEADER)); // ✅ Para que el frontend pueda leer headers
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,54 @@
+package co.edu.uniquindio.FitZone.config;
+
+import com.sendgrid.Client;
+import com.sendgrid.SendGrid;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuración del cliente de SendGrid.
+ * Se crea un único cliente compartido por toda la aplicación, respaldado por un pool
+ * de conexiones HTTP, para reutilizar las conexiones TLS entre envíos.
+ */
+@Configuration
+public class SendGridConfig {
+
+    /**
+     * Cliente HTTP con pool de conexiones hacia la API de SendGrid.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient sendGridHttpClient(@Value("${email.http.max-connections:20}") int maxConnections,
+                                                  @Value("${email.http.connect-timeout:5s}") Duration connectTimeout,
+                                                  @Value("${email.http.read-timeout:10s}") Duration readTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(30, java.util.concurrent.TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Cliente de SendGrid reutilizable que envía a través del cliente HTTP compartido.
+     */
+    @Bean
+    public SendGrid sendGrid(@Value("${sendgrid.api.key}") String apiKey, CloseableHttpClient sendGridHttpClient) {
+        return new SendGrid(apiKey, new Client(sendGridHttpClient));
+    }
+}
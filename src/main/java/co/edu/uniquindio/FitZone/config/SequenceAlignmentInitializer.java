@@ -0,0 +1,96 @@
+package co.edu.uniquindio.FitZone.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alinea las secuencias de IDs con los datos existentes al iniciar la aplicación.
+ * Las tablas creadas con IDs de tipo IDENTITY ya tienen filas cuando la entidad pasa a usar una
+ * secuencia con optimizador pooled, y la secuencia recién creada empezaría en 1. Si la secuencia
+ * está por detrás del mayor ID de su tabla, se adelanta para que el siguiente bloque reservado
+ * empiece después de ese ID. Se ejecuta después de las migraciones de Flyway y antes de que los
+ * inicializadores de datos o las solicitudes inserten filas. Solo aplica en PostgreSQL.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SequenceAlignmentInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceAlignmentInitializer.class);
+
+    /**
+     * Secuencia y columna de ID de la tabla que la usa. allocationSize debe coincidir con el de
+     * la anotación @SequenceGenerator de la entidad.
+     */
+    record SequenceTarget(String sequence, String table, String idColumn, int allocationSize) {
+    }
+
+    static final List<SequenceTarget> TARGETS = List.of(
+            new SequenceTarget("users_seq", "users", "id_user", 50),
+            new SequenceTarget("franchises_seq", "franchises", "id_franchise", 50),
+            new SequenceTarget("timeslots_seq", "timeslots", "id_timeslot", 50),
+            new SequenceTarget("locations_seq", "locations", "id_location", 50),
+            new SequenceTarget("membership_types_seq", "membership_types", "id_membership_type", 50),
+            new SequenceTarget("memberships_seq", "memberships", "id_membership", 50),
+            new SequenceTarget("email_dead_letters_seq", "email_dead_letters", "id_email_dead_letter", 50),
+            new SequenceTarget("notification_batches_seq", "notification_batches", "id_notification_batch", 50),
+            new SequenceTarget("job_runs_seq", "job_runs", "id_job_run", 50),
+            new SequenceTarget("checkins_seq", "checkins", "id_check_in", 50),
+            new SequenceTarget("location_occupancy_snapshots_seq", "location_occupancy_snapshots", "id_snapshot", 50),
+            new SequenceTarget("payment_intents_seq", "payment_intents", "id_payment_intent", 50)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceAlignmentInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            logger.debug("Alineación de secuencias omitida sobre {}", product);
+            return;
+        }
+        TARGETS.forEach(this::align);
+    }
+
+    private void align(SequenceTarget target) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, target.sequence());
+        if (!Boolean.TRUE.equals(exists)) {
+            logger.warn("La secuencia {} no existe, no se alinea con la tabla {}", target.sequence(), target.table());
+            return;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(" + target.idColumn() + "), 0) FROM " + target.table(), Long.class);
+        Map<String, Object> state = jdbcTemplate.queryForMap(
+                "SELECT last_value, is_called FROM " + target.sequence());
+        long lastValue = ((Number) state.get("last_value")).longValue();
+        boolean called = Boolean.TRUE.equals(state.get("is_called"));
+
+        // Si la secuencia ya fue usada, el próximo bloque empieza después de last_value;
+        // si no, el próximo nextval devuelve last_value y el bloque termina en él
+        long current = (maxId == null ? 0 : maxId);
+        long required = current + target.allocationSize();
+        if (called ? lastValue >= current : lastValue >= required) {
+            return;
+        }
+
+        // Con is_called = false el próximo nextval devuelve exactamente este valor,
+        // y el optimizador pooled reserva el rango (maxId, maxId + allocationSize]
+        jdbcTemplate.queryForObject("SELECT setval(?::regclass, ?, false)", Long.class, target.sequence(), required);
+        logger.info("Secuencia {} alineada con {}.{} - Mayor ID: {}, Siguiente valor: {}",
+                target.sequence(), target.table(), target.idColumn(), maxId, required);
+    }
+}
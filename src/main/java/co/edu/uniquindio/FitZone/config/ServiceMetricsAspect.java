@@ -0,0 +1,48 @@
+package co.edu.uniquindio.FitZone.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide la duración de cada llamada pública a los servicios de la aplicación (las implementaciones de
+ * las interfaces I*Service y EmailService) en el timer fitzone.service.calls.
+ * Las etiquetas son la clase, el método y el tipo de excepción, todas acotadas por el código; nunca se
+ * etiquetan argumentos ni mensajes. Los percentiles y los histogramas se configuran con las propiedades
+ * management.metrics.distribution.* del prefijo fitzone.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "fitzone.service.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * co.edu.uniquindio.FitZone.service.interfaces.I*Service+.*(..)) " +
+            "|| execution(public * co.edu.uniquindio.FitZone.util.EmailService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Duración de las llamadas a los servicios")
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
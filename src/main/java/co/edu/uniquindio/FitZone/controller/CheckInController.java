@@ -0,0 +1,79 @@
+package co.edu.uniquindio.FitZone.controller;
+
+import co.edu.uniquindio.FitZone.dto.request.CheckInRequest;
+import co.edu.uniquindio.FitZone.dto.response.CheckInResponse;
+import co.edu.uniquindio.FitZone.dto.response.LocationOccupancyResponse;
+import co.edu.uniquindio.FitZone.exception.LocationNotFoundException;
+import co.edu.uniquindio.FitZone.service.interfaces.ICheckInService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST para el control de acceso a las sedes.
+ * Proporciona los endpoints que consultan los torniquetes y la recepción en cada ingreso y salida.
+ */
+@RestController
+@RequestMapping("/checkins")
+public class CheckInController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInController.class);
+
+    private final ICheckInService checkInService;
+
+    public CheckInController(ICheckInService checkInService) {
+        this.checkInService = checkInService;
+    }
+
+    /**
+     * Decide si un usuario puede ingresar a una sede. Un ingreso denegado también responde 200,
+     * con el motivo en la respuesta.
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<CheckInResponse> checkIn(@RequestBody CheckInRequest request) {
+        logger.debug("POST /checkins - Intento de ingreso - Usuario ID: {}, Sede ID: {}",
+            request.userId(), request.locationId());
+
+        if (request.userId() == null || request.locationId() == null) {
+            logger.warn("Intento de ingreso sin usuario o sede");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+
+        try {
+            return ResponseEntity.ok(checkInService.checkIn(request));
+        } catch (Exception e) {
+            logger.error("Error al procesar intento de ingreso - Usuario ID: {}, Sede ID: {}, Error: {}",
+                request.userId(), request.locationId(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    /**
+     * Registra la salida de un usuario de una sede y devuelve la ocupación resultante.
+     */
+    @PostMapping("/exit")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<LocationOccupancyResponse> checkOut(@RequestBody CheckInRequest request) {
+        logger.debug("POST /checkins/exit - Salida - Usuario ID: {}, Sede ID: {}",
+            request.userId(), request.locationId());
+
+        if (request.locationId() == null) {
+            logger.warn("Salida sin sede");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+
+        try {
+            return ResponseEntity.ok(checkInService.checkOut(request));
+        } catch (LocationNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        } catch (Exception e) {
+            logger.error("Error al procesar salida - Usuario ID: {}, Sede ID: {}, Error: {}",
+                request.userId(), request.locationId(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+}
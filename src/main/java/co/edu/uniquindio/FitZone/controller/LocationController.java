@@ -1,7 +1,9 @@
 package co.edu.uniquindio.FitZone.controller;
 
 import co.edu.uniquindio.FitZone.dto.request.LocationRequest;
+import co.edu.uniquindio.FitZone.dto.response.LocationOccupancyResponse;
 import co.edu.uniquindio.FitZone.dto.response.LocationResponse;
+import co.edu.uniquindio.FitZone.dto.response.OccupancyMinuteResponse;
 import co.edu.uniquindio.FitZone.service.interfaces.ILocationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -159,4 +161,31 @@ public class LocationController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
     }
+
+    @GetMapping("/{idLocation}/occupancy")
+    public ResponseEntity<LocationOccupancyResponse> getOccupancy(@PathVariable Long idLocation) {
+        logger.debug("GET /locations/{}/occupancy - Consulta de ocupación", idLocation);
+
+        try {
+            return ResponseEntity.ok(locationService.getOccupancy(idLocation));
+        } catch (Exception e) {
+            logger.error("Error al consultar ocupación - ID: {}, Error: {}",
+                idLocation, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+    }
+
+    @GetMapping("/{idLocation}/occupancy/history")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<List<OccupancyMinuteResponse>> getOccupancyHistory(@PathVariable Long idLocation) {
+        logger.debug("GET /locations/{}/occupancy/history - Consulta de actividad por minuto", idLocation);
+
+        try {
+            return ResponseEntity.ok(locationService.getOccupancyHistory(idLocation));
+        } catch (Exception e) {
+            logger.error("Error al consultar actividad por minuto - ID: {}, Error: {}",
+                idLocation, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+    }
 }
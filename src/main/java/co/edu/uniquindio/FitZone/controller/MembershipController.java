@@ -5,6 +5,7 @@ import co.edu.uniquindio.FitZone.dto.request.CreateMembershipRequest;
 import co.edu.uniquindio.FitZone.dto.request.PaymentIntentRequest;
 import co.edu.uniquindio.FitZone.dto.request.SuspendMembershipRequest;
 import co.edu.uniquindio.FitZone.dto.response.MembershipResponse;
+import co.edu.uniquindio.FitZone.exception.PaymentGatewayUnavailableException;
 import co.edu.uniquindio.FitZone.integration.payment.StripeService;
 import co.edu.uniquindio.FitZone.service.interfaces.IMembershipService;
 import com.stripe.exception.StripeException;
@@ -55,6 +56,10 @@ public class MembershipController {
                     request.amount(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error al crear intento de pago: " + e.getMessage());
+        } catch (PaymentGatewayUnavailableException e) {
+            logger.warn("Intento de pago rechazado, Stripe no disponible - Monto: {}, Error: {}",
+                    request.amount(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
     }
 
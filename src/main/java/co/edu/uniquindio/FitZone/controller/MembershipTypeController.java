@@ -1,16 +1,21 @@
 package co.edu.uniquindio.FitZone.controller;
 
 import co.edu.uniquindio.FitZone.dto.request.MembershipTypeRequest;
+import co.edu.uniquindio.FitZone.dto.response.MembershipTypeCatalogResponse;
 import co.edu.uniquindio.FitZone.dto.response.MembershipTypeResponse;
 import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
 import co.edu.uniquindio.FitZone.service.interfaces.IMembershipTypeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -24,9 +29,12 @@ public class MembershipTypeController {
     private static final Logger logger = LoggerFactory.getLogger(MembershipTypeController.class);
 
     private final IMembershipTypeService membershipTypeService;
+    private final Duration catalogMaxAge;
 
-    public MembershipTypeController(IMembershipTypeService membershipTypeService) {
+    public MembershipTypeController(IMembershipTypeService membershipTypeService,
+                                    @Value("${membership-types.http.max-age:60s}") Duration catalogMaxAge) {
         this.membershipTypeService = membershipTypeService;
+        this.catalogMaxAge = catalogMaxAge;
     }
 
 
@@ -101,16 +109,19 @@ public class MembershipTypeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<MembershipTypeResponse>> getAllMembershipTypes() {
+    public ResponseEntity<List<MembershipTypeResponse>> getAllMembershipTypes(WebRequest webRequest) {
         logger.debug("GET /membership-types - Consulta de todos los tipos de membresía");
-        
-        try {
-            List<MembershipTypeResponse> membershipTypes = membershipTypeService.getMembershipTypes();
-            logger.debug("Se encontraron {} tipos de membresía", membershipTypes.size());
-            return ResponseEntity.ok(membershipTypes);
-        } catch (Exception e) {
-            logger.error("Error al consultar todos los tipos de membresía - Error: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+
+        MembershipTypeCatalogResponse catalog = membershipTypeService.getMembershipTypeCatalog();
+        CacheControl cacheControl = CacheControl.maxAge(catalogMaxAge).cachePrivate().mustRevalidate();
+
+        // Si el cliente ya tiene esta versión del catálogo se responde 304 sin cuerpo
+        if (webRequest.checkNotModified(catalog.etag())) {
+            logger.debug("Catálogo de tipos de membresía sin cambios para el cliente - ETag: {}", catalog.etag());
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.etag()).cacheControl(cacheControl).build();
         }
+
+        logger.debug("Se encontraron {} tipos de membresía", catalog.membershipTypes().size());
+        return ResponseEntity.ok().eTag(catalog.etag()).cacheControl(cacheControl).body(catalog.membershipTypes());
     }
 }
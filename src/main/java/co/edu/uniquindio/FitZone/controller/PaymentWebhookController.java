@@ -0,0 +1,59 @@
+package co.edu.uniquindio.FitZone.controller;
+
+import co.edu.uniquindio.FitZone.integration.payment.StripeService;
+import co.edu.uniquindio.FitZone.service.impl.payment.PaymentConfirmationService;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador que recibe los webhooks de Stripe.
+ * No requiere autenticación: cada evento se acepta solo si su firma Stripe-Signature es válida.
+ */
+@RestController
+@RequestMapping("/payments")
+public class PaymentWebhookController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWebhookController.class);
+
+    private final StripeService stripeService;
+    private final PaymentConfirmationService paymentConfirmationService;
+
+    public PaymentWebhookController(StripeService stripeService, PaymentConfirmationService paymentConfirmationService) {
+        this.stripeService = stripeService;
+        this.paymentConfirmationService = paymentConfirmationService;
+    }
+
+    /**
+     * Recibe un evento de Stripe. Responde 400 si la firma no es válida para que Stripe no lo
+     * reintente como entregado, y 500 si el evento no pudo procesarse para que sí lo reintente.
+     */
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> handleWebhook(@RequestBody String payload,
+                                              @RequestHeader(value = "Stripe-Signature", required = false) String signature) {
+        Event event;
+        try {
+            event = stripeService.constructWebhookEvent(payload, signature);
+        } catch (SignatureVerificationException e) {
+            logger.warn("POST /payments/webhook - Firma de Stripe inválida: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        try {
+            paymentConfirmationService.handleEvent(event);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            logger.error("Error al procesar evento de Stripe - ID: {}, Tipo: {}, Error: {}",
+                event.getId(), event.getType(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
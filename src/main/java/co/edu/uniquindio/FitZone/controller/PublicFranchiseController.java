@@ -0,0 +1,40 @@
+package co.edu.uniquindio.FitZone.controller;
+
+import co.edu.uniquindio.FitZone.dto.response.FranchiseHoursNowResponse;
+import co.edu.uniquindio.FitZone.service.interfaces.IFranchiseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador público de la franquicia, sin autenticación.
+ * Permite consultar si la franquicia está abierta en este momento.
+ */
+@RestController
+@RequestMapping("/public/franchise")
+public class PublicFranchiseController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicFranchiseController.class);
+
+    private final IFranchiseService franchiseService;
+
+    public PublicFranchiseController(IFranchiseService franchiseService) {
+        this.franchiseService = franchiseService;
+    }
+
+    @GetMapping("/hours/now")
+    public ResponseEntity<FranchiseHoursNowResponse> getHoursNow() {
+        logger.debug("GET /public/franchise/hours/now - Consulta pública del horario actual");
+
+        try {
+            return ResponseEntity.ok(franchiseService.getHoursNow());
+        } catch (Exception e) {
+            logger.error("Error al consultar el horario actual de la franquicia - Error: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+    }
+}
@@ -3,16 +3,31 @@ package co.edu.uniquindio.FitZone.controller;
 
 import co.edu.uniquindio.FitZone.dto.request.UserRequest;
 import co.edu.uniquindio.FitZone.dto.request.UserUpdateRequest;
+import co.edu.uniquindio.FitZone.dto.response.UserImportReport;
+import co.edu.uniquindio.FitZone.dto.response.UserPageResponse;
 import co.edu.uniquindio.FitZone.dto.response.UserResponse;
+import co.edu.uniquindio.FitZone.exception.StreamingResponseAbortedException;
+import co.edu.uniquindio.FitZone.model.enums.UserImportFormat;
+import co.edu.uniquindio.FitZone.service.interfaces.IUserImportService;
 import co.edu.uniquindio.FitZone.service.interfaces.IUserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
 /**
  * Controlador REST para manejar las operaciones relacionadas con los usuarios.
@@ -25,9 +40,17 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     private final IUserService userService;
+    private final IUserImportService userImportService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userWriter;
 
-    public UserController(IUserService userService) {
+    public UserController(IUserService userService, IUserImportService userImportService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+        // Sin vaciar la salida después de cada usuario, el generador escribe por bloques
+        this.userWriter = objectMapper.writerFor(UserResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping("/register")
@@ -67,6 +90,21 @@ public class UserController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<UserImportReport> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body) {
+        UserImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? UserImportFormat.NDJSON
+                : UserImportFormat.CSV;
+        logger.info("POST /users/import - Importación masiva de usuarios solicitada - Formato: {}", format);
+
+        UserImportReport report = userImportService.importUsers(body, format);
+        logger.info("Importación masiva de usuarios completada - Filas: {}, Creados: {}, Fallidos: {}",
+            report.total(), report.created(), report.failed());
+        return ResponseEntity.ok(report);
+    }
+
     @PutMapping("/{idUser}")
     public ResponseEntity<UserResponse> updateUser(@PathVariable Long idUser, @RequestBody UserUpdateRequest request) {
         logger.info("PUT /users/{} - Actualización de usuario solicitada", idUser);
@@ -117,16 +155,63 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        logger.debug("GET /users - Consulta de todos los usuarios activos");
-        
+    public ResponseEntity<StreamingResponseBody> getAllUsers(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Los usuarios se escriben a medida que se leen del cursor, sin construir la lista completa
+        if (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+            logger.debug("GET /users - Consulta de todos los usuarios activos (NDJSON en streaming)");
+            StreamingResponseBody body = out -> {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.setRootValueSeparator(new SerializedString("\n"));
+                    writeActiveUsers(generator);
+                    generator.writeRaw('\n');
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+
+        logger.debug("GET /users - Consulta de todos los usuarios activos (arreglo JSON en streaming)");
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                writeActiveUsers(generator);
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<UserPageResponse> getUsersPage(@RequestParam(required = false) Long after,
+                                                         @RequestParam(required = false) Integer size) {
+        logger.debug("GET /users/page - Consulta de página de usuarios activos - Después de ID: {}, Tamaño: {}", after, size);
+
+        UserPageResponse page = userService.getActiveUsersPage(after, size);
+        logger.debug("Se encontraron {} usuarios en la página, siguiente cursor: {}", page.users().size(), page.nextCursor());
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Escribe todos los usuarios activos con el generador. Si la lectura falla a mitad del recorrido,
+     * el estado 200 y parte del cuerpo ya se enviaron, así que no se cierra el arreglo como si la lista
+     * estuviera completa: se registra el error y se lanza StreamingResponseAbortedException para que
+     * el servidor corte la conexión.
+     */
+    private void writeActiveUsers(JsonGenerator generator) {
         try {
-            List<UserResponse> users = userService.getAllUsers();
-            logger.debug("Se encontraron {} usuarios activos", users.size());
-            return ResponseEntity.ok(users);
-        } catch (Exception e) {
-            logger.error("Error al consultar todos los usuarios - Error: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            userService.forEachActiveUser(user -> writeUser(generator, user));
+        } catch (RuntimeException e) {
+            // Al cerrar el generador no se deben completar los corchetes pendientes
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            logger.error("Error al escribir los usuarios activos, se aborta la respuesta - Error: {}", e.getMessage(), e);
+            throw new StreamingResponseAbortedException("La lista de usuarios activos se interrumpió antes de terminar", e);
+        }
+    }
+
+    private void writeUser(JsonGenerator generator, UserResponse user) {
+        try {
+            userWriter.writeValue(generator, user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
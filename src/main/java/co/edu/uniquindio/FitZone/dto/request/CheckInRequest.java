@@ -0,0 +1,18 @@
+package co.edu.uniquindio.FitZone.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO para la solicitud de ingreso de un usuario a una sede.
+ * @param userId ID del usuario que intenta ingresar.
+ * @param locationId ID de la sede a la que intenta ingresar.
+ */
+public record CheckInRequest(
+
+        @NotNull(message = "El ID del usuario no puede ser nulo")
+        Long userId,
+
+        @NotNull(message = "El ID de la sede no puede ser nulo")
+        Long locationId
+) {
+}
@@ -0,0 +1,26 @@
+package co.edu.uniquindio.FitZone.dto.response;
+
+import co.edu.uniquindio.FitZone.model.enums.CheckInDecision;
+
+import java.time.LocalDateTime;
+
+/**
+ * CheckInResponse record que representa la decisión tomada ante un intento de ingreso a una sede.
+ * @param allowed indica si el ingreso fue permitido
+ * @param decision resultado del intento de ingreso
+ * @param message mensaje para mostrar en el torniquete
+ * @param userId ID del usuario
+ * @param locationId ID de la sede
+ * @param checkedInAt fecha y hora del intento
+ */
+public record CheckInResponse(
+
+        boolean allowed,
+        CheckInDecision decision,
+        String message,
+        Long userId,
+        Long locationId,
+        LocalDateTime checkedInAt
+
+) {
+}
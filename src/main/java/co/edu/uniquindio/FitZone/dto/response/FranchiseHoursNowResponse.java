@@ -0,0 +1,22 @@
+package co.edu.uniquindio.FitZone.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * FranchiseHoursNowResponse record que indica si la franquicia está abierta en este momento.
+ * @param franchise nombre de la franquicia
+ * @param open indica si la franquicia está abierta
+ * @param asOf momento de la consulta
+ * @param opensAt próxima apertura, si está cerrada
+ * @param closesAt próximo cierre, si está abierta
+ */
+public record FranchiseHoursNowResponse(
+
+        String franchise,
+        boolean open,
+        LocalDateTime asOf,
+        LocalDateTime opensAt,
+        LocalDateTime closesAt
+
+) {
+}
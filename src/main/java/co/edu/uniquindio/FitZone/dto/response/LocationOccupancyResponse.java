@@ -0,0 +1,25 @@
+package co.edu.uniquindio.FitZone.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * LocationOccupancyResponse record que representa la ocupación actual de una sede.
+ * @param idLocation ID de la sede
+ * @param occupancy personas dentro de la sede (ingresos menos salidas)
+ * @param entries ingresos del día operativo
+ * @param exits salidas del día operativo
+ * @param businessDay día operativo al que corresponden los contadores
+ * @param asOf momento de la lectura
+ */
+public record LocationOccupancyResponse(
+
+        Long idLocation,
+        long occupancy,
+        long entries,
+        long exits,
+        LocalDate businessDay,
+        LocalDateTime asOf
+
+) {
+}
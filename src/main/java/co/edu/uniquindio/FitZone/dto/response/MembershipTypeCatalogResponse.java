@@ -0,0 +1,17 @@
+package co.edu.uniquindio.FitZone.dto.response;
+
+import java.util.List;
+
+/**
+ * MembershipTypeCatalogResponse record que representa el catálogo completo de tipos de membresía
+ * junto con su versión, usada como ETag en GET /membership-types.
+ * @param membershipTypes tipos de membresía ordenados por ID
+ * @param etag ETag del catálogo
+ */
+public record MembershipTypeCatalogResponse(
+
+        List<MembershipTypeResponse> membershipTypes,
+        String etag
+
+) {
+}
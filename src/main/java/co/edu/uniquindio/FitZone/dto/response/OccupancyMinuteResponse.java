@@ -0,0 +1,20 @@
+package co.edu.uniquindio.FitZone.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * OccupancyMinuteResponse record que representa la actividad de una sede durante un minuto.
+ * @param minute inicio del minuto
+ * @param entries ingresos registrados en el minuto
+ * @param exits salidas registradas en el minuto
+ * @param peakOccupancy mayor ocupación alcanzada en el minuto
+ */
+public record OccupancyMinuteResponse(
+
+        LocalDateTime minute,
+        long entries,
+        long exits,
+        long peakOccupancy
+
+) {
+}
@@ -0,0 +1,20 @@
+package co.edu.uniquindio.FitZone.dto.response;
+
+import java.util.List;
+
+/**
+ * UserImportReport record que representa el resultado de una importación masiva de usuarios.
+ * @param total filas leídas del archivo
+ * @param created usuarios creados
+ * @param failed filas rechazadas
+ * @param rows resultado de cada fila, en el orden del archivo
+ */
+public record UserImportReport(
+
+        int total,
+        int created,
+        int failed,
+        List<UserImportRowResult> rows
+
+) {
+}
@@ -0,0 +1,22 @@
+package co.edu.uniquindio.FitZone.dto.response;
+
+import co.edu.uniquindio.FitZone.model.enums.UserImportRowStatus;
+
+/**
+ * UserImportRowResult record que representa el resultado de una fila de una importación masiva.
+ * @param line número de línea en el archivo (la cabecera del CSV es la línea 1)
+ * @param email correo electrónico de la fila, si se pudo leer
+ * @param status resultado de la fila
+ * @param userId ID del usuario creado, null si la fila falló
+ * @param error motivo del fallo, null si el usuario fue creado
+ */
+public record UserImportRowResult(
+
+        long line,
+        String email,
+        UserImportRowStatus status,
+        Long userId,
+        String error
+
+) {
+}
@@ -0,0 +1,16 @@
+package co.edu.uniquindio.FitZone.dto.response;
+
+import java.util.List;
+
+/**
+ * UserPageResponse record que representa una página de usuarios paginada por cursor.
+ * @param users usuarios de la página
+ * @param nextCursor ID a enviar como parámetro after para obtener la siguiente página, null si no hay más
+ */
+public record UserPageResponse(
+
+        List<UserResponse> users,
+        Long nextCursor
+
+) {
+}
@@ -0,0 +1,14 @@
+package co.edu.uniquindio.FitZone.exception;
+
+/**
+ * Excepción personalizada que se lanza cuando un correo electrónico no puede ser encolado o entregado.
+ */
+public class EmailDeliveryException extends RuntimeException {
+    public EmailDeliveryException(String message) {
+        super(message);
+    }
+
+    public EmailDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -49,6 +49,22 @@ public class GlobalExceptionHandler {
         return buildResponseEntity(HttpStatus.UNAUTHORIZED, "Unauthorized", exception.getMessage());
     }
 
+    @ExceptionHandler(EmailDeliveryException.class)
+    public ResponseEntity<Object> handleEmailDeliveryException(EmailDeliveryException exception){
+        return buildResponseEntity(HttpStatus.SERVICE_UNAVAILABLE, "Servicio no disponible", exception.getMessage());
+    }
+
+    @ExceptionHandler(PaymentGatewayUnavailableException.class)
+    public ResponseEntity<Object> handlePaymentGatewayUnavailableException(PaymentGatewayUnavailableException exception){
+        return buildResponseEntity(HttpStatus.SERVICE_UNAVAILABLE, "Servicio no disponible", exception.getMessage());
+    }
+
+    // La respuesta ya se envió en parte: se propaga la excepción para que el servidor cierre la conexión
+    @ExceptionHandler(StreamingResponseAbortedException.class)
+    public void handleStreamingResponseAbortedException(StreamingResponseAbortedException exception){
+        throw exception;
+    }
+
     // Manejo de errores de validación
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -0,0 +1,11 @@
+package co.edu.uniquindio.FitZone.exception;
+
+/**
+ * Excepción personalizada que se lanza cuando una llamada a la pasarela de pagos se rechaza sin
+ * intentarla, porque el circuito está abierto o se alcanzó el límite de llamadas concurrentes.
+ */
+public class PaymentGatewayUnavailableException extends RuntimeException {
+    public PaymentGatewayUnavailableException(String message) {
+        super(message);
+    }
+}
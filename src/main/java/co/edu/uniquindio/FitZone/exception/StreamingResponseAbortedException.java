@@ -0,0 +1,12 @@
+package co.edu.uniquindio.FitZone.exception;
+
+/**
+ * Excepción personalizada que se lanza cuando una respuesta en streaming falla después de haber
+ * enviado parte del cuerpo. No se convierte en una respuesta de error: se propaga hasta el
+ * servidor, que cierra la conexión para que el cliente no tome la respuesta parcial como completa.
+ */
+public class StreamingResponseAbortedException extends RuntimeException {
+    public StreamingResponseAbortedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
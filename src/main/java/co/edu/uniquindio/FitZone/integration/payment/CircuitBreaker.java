@@ -0,0 +1,166 @@
+package co.edu.uniquindio.FitZone.integration.payment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Circuito de protección para las llamadas a un servicio externo.
+ * Mientras está cerrado registra el resultado de las últimas llamadas en una ventana circular; si la
+ * proporción de fallos supera el umbral (con un mínimo de llamadas en la ventana) se abre y rechaza
+ * las llamadas sin intentarlas. Pasado el tiempo de apertura deja pasar unas pocas llamadas de prueba:
+ * si todas responden se cierra, y con el primer fallo vuelve a abrirse.
+ * Cada permiso recuerda la generación de estado en que se concedió; el resultado de una llamada que
+ * termina después de una transición se descarta, para que una llamada lenta admitida antes de la
+ * apertura no cuente como prueba ni vuelva a abrir el circuito.
+ * Las transiciones son poco frecuentes y cada llamada solo toma el monitor un instante, así que basta
+ * con métodos sincronizados.
+ */
+final class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Permiso concedido para una llamada.
+     * @param generation generación de estado en la que se concedió
+     * @param probe si es una de las llamadas de prueba del estado semiabierto
+     */
+    record Permit(long generation, boolean probe) { }
+
+    private final String name;
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final Consumer<State> onTransition;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    /**
+     * @param name nombre del servicio protegido, para el registro
+     * @param windowSize número de llamadas recientes que se evalúan
+     * @param minimumCalls llamadas mínimas en la ventana antes de evaluar la proporción de fallos
+     * @param failureRateThreshold porcentaje de fallos que abre el circuito
+     * @param openDuration tiempo que el circuito permanece abierto antes de probar de nuevo
+     * @param halfOpenCalls llamadas de prueba que deben responder para cerrar el circuito
+     * @param onTransition se invoca con el nuevo estado en cada transición
+     */
+    CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+                   Duration openDuration, int halfOpenCalls, Consumer<State> onTransition) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.onTransition = onTransition;
+    }
+
+    /**
+     * Solicita permiso para una llamada. Cada permiso concedido debe cerrarse con
+     * {@link #onSuccess(Permit)} o {@link #onFailure(Permit)}.
+     * @return el permiso, o null si el circuito está abierto o ya se concedieron todas las llamadas de prueba
+     */
+    synchronized Permit tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return null;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) {
+                return null;
+            }
+            probesStarted++;
+            return new Permit(generation, true);
+        }
+        return new Permit(generation, false);
+    }
+
+    /**
+     * Registra una llamada en la que el servicio respondió.
+     */
+    synchronized void onSuccess(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (permit.probe() && ++probesSucceeded >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * Registra una llamada en la que el servicio no respondió o respondió con un error propio.
+     */
+    synchronized void onFailure(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (permit.probe()) {
+                transition(State.OPEN);
+            }
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            logger.warn("Circuito de {} abierto - Fallos: {} de las últimas {} llamadas", name, failures, recorded);
+            transition(State.OPEN);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void transition(State target) {
+        state = target;
+        generation++;
+        switch (target) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                next = 0;
+                recorded = 0;
+                failures = 0;
+            }
+        }
+        logger.info("Circuito de {} en estado {}", name, target);
+        onTransition.accept(target);
+    }
+}
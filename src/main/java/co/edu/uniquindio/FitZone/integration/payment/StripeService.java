@@ -1,23 +1,99 @@
 package co.edu.uniquindio.FitZone.integration.payment;
 
-import com.stripe.Stripe;
+import co.edu.uniquindio.FitZone.exception.PaymentGatewayUnavailableException;
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
+import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
+import com.stripe.net.Webhook;
+import com.stripe.param.PaymentIntentCancelParams;
 import com.stripe.param.PaymentIntentCreateParams;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servicio para manejar la integración con Stripe.
+ * Las llamadas usan un StripeClient propio con la llave de la API y los tiempos de espera configurados,
+ * sin tocar la configuración global de la librería. Cada llamada pasa por un límite de llamadas
+ * concurrentes y por un circuito que, cuando Stripe falla de forma repetida, rechaza las llamadas de
+ * inmediato con PaymentGatewayUnavailableException en lugar de dejar hilos esperando a Stripe.
  */
 @Service
 public class StripeService {
 
-    @Value("${stripe.api.key.secret}")
-    private String secretKey;
+    private static final Logger logger = LoggerFactory.getLogger(StripeService.class);
+
+    /**
+     * Llamada a la API de Stripe.
+     */
+    @FunctionalInterface
+    private interface StripeCall<T> {
+        T execute() throws StripeException;
+    }
+
+    private final StripeClient stripeClient;
+    private final String webhookSecret;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore bulkhead;
+    private final Duration bulkheadMaxWait;
+    private final CircuitBreaker circuitBreaker;
+
+    public StripeService(MeterRegistry meterRegistry,
+                         @Value("${stripe.api.key.secret}") String secretKey,
+                         @Value("${stripe.webhook.secret:}") String webhookSecret,
+                         @Value("${stripe.api.base:}") String apiBase,
+                         @Value("${stripe.http.connect-timeout:5s}") Duration connectTimeout,
+                         @Value("${stripe.http.read-timeout:15s}") Duration readTimeout,
+                         @Value("${stripe.http.max-network-retries:1}") int maxNetworkRetries,
+                         @Value("${stripe.bulkhead.max-concurrent:20}") int maxConcurrent,
+                         @Value("${stripe.bulkhead.max-wait:500ms}") Duration bulkheadMaxWait,
+                         @Value("${stripe.circuit-breaker.window-size:20}") int windowSize,
+                         @Value("${stripe.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                         @Value("${stripe.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                         @Value("${stripe.circuit-breaker.open-duration:30s}") Duration openDuration,
+                         @Value("${stripe.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this.meterRegistry = meterRegistry;
+        this.webhookSecret = webhookSecret;
+        if (webhookSecret == null || webhookSecret.isBlank()) {
+            logger.warn("stripe.webhook.secret no está configurado, se rechazarán todos los webhooks de Stripe");
+        }
+
+        StripeClient.StripeClientBuilder builder = StripeClient.builder()
+                .setApiKey(secretKey)
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setReadTimeout((int) readTimeout.toMillis())
+                .setMaxNetworkRetries(maxNetworkRetries);
+        if (apiBase != null && !apiBase.isBlank()) {
+            logger.warn("Las llamadas a Stripe se envían a {}", apiBase);
+            builder.setApiBase(apiBase);
+        }
+        this.stripeClient = builder.build();
+
+        this.bulkhead = new Semaphore(Math.max(1, maxConcurrent));
+        this.bulkheadMaxWait = bulkheadMaxWait;
+        this.circuitBreaker = new CircuitBreaker("Stripe", windowSize, minimumCalls, failureRateThreshold,
+                openDuration, halfOpenCalls,
+                state -> meterRegistry.counter("fitzone.stripe.circuit.transitions", "state", state.name()).increment());
+
+        Gauge.builder("fitzone.stripe.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("Estado del circuito de Stripe: 0 cerrado, 1 abierto, 2 en prueba")
+                .register(meterRegistry);
+        Gauge.builder("fitzone.stripe.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Llamadas concurrentes a Stripe disponibles")
+                .register(meterRegistry);
+    }
 
     /**
      * Crea un PaymentIntent en Stripe.
@@ -27,28 +103,126 @@ public class StripeService {
      * @param description Descripción del pago.
      * @return El PaymentIntent creado.
      * @throws StripeException Si ocurre un error al interactuar con la API de Stripe.
+     * @throws PaymentGatewayUnavailableException Si la llamada se rechaza sin intentarla.
      */
     public PaymentIntent createPaymentIntent(Long amount, String currency, String description) throws StripeException {
 
-        Stripe.apiKey =  secretKey;
-
-        Map<String, Object> params = new HashMap<>();
-        params.put("amount", amount);
-        params.put("currency", currency);
-        params.put("description", description);
-
         PaymentIntentCreateParams createParams = PaymentIntentCreateParams.builder()
                 .setAmount(amount)
                 .setCurrency(currency)
                 .setDescription(description)
                 .build();
 
-        return  PaymentIntent.create(createParams);
+        return call("create_payment_intent", () -> stripeClient.paymentIntents().create(createParams));
     }
 
+    /**
+     * Consulta un PaymentIntent en Stripe.
+     *
+     * @param paymentIntentId ID de la intención de pago.
+     * @return El PaymentIntent con su estado actual.
+     * @throws StripeException Si ocurre un error al interactuar con la API de Stripe.
+     * @throws PaymentGatewayUnavailableException Si la llamada se rechaza sin intentarla.
+     */
     public PaymentIntent getPaymentIntent(String paymentIntentId) throws StripeException {
-        Stripe.apiKey =  secretKey;
-        return PaymentIntent.retrieve(paymentIntentId);
+        return call("retrieve_payment_intent", () -> stripeClient.paymentIntents().retrieve(paymentIntentId));
+    }
+
+    /**
+     * Cancela un PaymentIntent en Stripe, para que ya no pueda completarse el cobro.
+     *
+     * @param paymentIntentId ID de la intención de pago.
+     * @param reason          Motivo de la cancelación que queda registrado en Stripe.
+     * @return El PaymentIntent con su estado después de la cancelación.
+     * @throws StripeException Si ocurre un error al interactuar con la API de Stripe, incluido el caso
+     *                         en que la intención ya no admite cancelación (por ejemplo, ya fue cobrada).
+     * @throws PaymentGatewayUnavailableException Si la llamada se rechaza sin intentarla.
+     */
+    public PaymentIntent cancelPaymentIntent(String paymentIntentId, PaymentIntentCancelParams.CancellationReason reason)
+            throws StripeException {
+        PaymentIntentCancelParams cancelParams = PaymentIntentCancelParams.builder()
+                .setCancellationReason(reason)
+                .build();
+
+        return call("cancel_payment_intent", () -> stripeClient.paymentIntents().cancel(paymentIntentId, cancelParams));
+    }
+
+    /**
+     * Verifica la firma de un webhook de Stripe y construye el evento.
+     *
+     * @param payload   Cuerpo de la solicitud, sin modificar.
+     * @param signature Valor del encabezado Stripe-Signature.
+     * @return El evento verificado.
+     * @throws SignatureVerificationException Si la firma no es válida o está fuera de la tolerancia de tiempo.
+     */
+    public Event constructWebhookEvent(String payload, String signature) throws SignatureVerificationException {
+        return Webhook.constructEvent(payload, signature, webhookSecret == null ? "" : webhookSecret);
     }
 
+    /**
+     * Ejecuta una llamada dentro del límite de concurrencia y del circuito, midiendo su duración.
+     * Los errores de red, 429 y 5xx cuentan como fallos de Stripe; los rechazos de la solicitud
+     * (4xx) significan que Stripe respondió y no afectan el circuito.
+     */
+    private <T> T call(String operation, StripeCall<T> call) throws StripeException {
+        if (!acquireBulkhead()) {
+            reject(operation, "bulkhead_full");
+            throw new PaymentGatewayUnavailableException("Demasiadas solicitudes simultáneas a la pasarela de pagos, intente más tarde");
+        }
+        try {
+            CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+            if (permit == null) {
+                reject(operation, "circuit_open");
+                throw new PaymentGatewayUnavailableException("La pasarela de pagos no está disponible, intente más tarde");
+            }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "failure";
+            try {
+                T result = call.execute();
+                circuitBreaker.onSuccess(permit);
+                outcome = "success";
+                return result;
+            } catch (StripeException e) {
+                if (isGatewayFailure(e)) {
+                    circuitBreaker.onFailure(permit);
+                } else {
+                    circuitBreaker.onSuccess(permit);
+                    outcome = "client_error";
+                }
+                throw e;
+            } catch (RuntimeException e) {
+                circuitBreaker.onFailure(permit);
+                throw e;
+            } finally {
+                sample.stop(Timer.builder("fitzone.stripe.requests")
+                        .description("Duración de las llamadas a la API de Stripe")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadMaxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(String operation, String cause) {
+        meterRegistry.counter("fitzone.stripe.rejected", "operation", operation, "cause", cause).increment();
+        logger.warn("Llamada a Stripe rechazada sin intentarla - Operación: {}, Causa: {}", operation, cause);
+    }
+
+    private static boolean isGatewayFailure(StripeException e) {
+        return e instanceof ApiConnectionException
+                || e instanceof RateLimitException
+                || (e.getStatusCode() != null && e.getStatusCode() >= 500);
+    }
 }
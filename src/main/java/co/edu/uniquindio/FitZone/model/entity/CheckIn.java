@@ -0,0 +1,58 @@
+package co.edu.uniquindio.FitZone.model.entity;
+
+import co.edu.uniquindio.FitZone.model.enums.CheckInDecision;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity que representa un intento de ingreso de un usuario a una sede, permitido o no.
+ * Es un registro de solo inserción: guarda los IDs como columnas simples en lugar de
+ * relaciones para que las inserciones por lotes no tengan que cargar otras entidades.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "checkins", indexes = {
+        @Index(name = "idx_checkins_location_checked_in_at", columnList = "location_id, checked_in_at"),
+        @Index(name = "idx_checkins_user_checked_in_at", columnList = "user_id, checked_in_at")
+})
+public class CheckIn {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "checkins_seq")
+    @SequenceGenerator(name = "checkins_seq", sequenceName = "checkins_seq", allocationSize = 50)
+    private Long idCheckIn;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Column(name = "membership_id")
+    private Long membershipId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "decision", nullable = false, length = 30)
+    private CheckInDecision decision;
+
+    @Column(name = "allowed", nullable = false)
+    private boolean allowed;
+
+    @Column(name = "checked_in_at", nullable = false)
+    private LocalDateTime checkedInAt;
+
+    public CheckIn(Long userId, Long locationId, Long membershipId, CheckInDecision decision, LocalDateTime checkedInAt) {
+        this.userId = userId;
+        this.locationId = locationId;
+        this.membershipId = membershipId;
+        this.decision = decision;
+        this.allowed = decision.isAllowed();
+        this.checkedInAt = checkedInAt;
+    }
+}
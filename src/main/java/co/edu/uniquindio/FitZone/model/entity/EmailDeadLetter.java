@@ -0,0 +1,53 @@
+package co.edu.uniquindio.FitZone.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity que representa un correo electrónico que no pudo ser entregado.
+ * Se registra cuando SendGrid rechaza el envío de forma permanente o cuando
+ * se agotan los reintentos, para poder revisarlo o reenviarlo manualmente.
+ * No se guarda el HTML enviado: para reenviarlo se vuelve a renderizar la plantilla con las
+ * variables guardadas, que se omiten en las plantillas con códigos de un solo uso (OTP y
+ * recuperación de contraseña), así que esos correos no se pueden reenviar.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "email_dead_letters")
+public class EmailDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_dead_letters_seq")
+    @SequenceGenerator(name = "email_dead_letters_seq", sequenceName = "email_dead_letters_seq", allocationSize = 50)
+    private Long idEmailDeadLetter;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private String template;
+
+    /**
+     * Variables de la plantilla en JSON, null si el correo no se puede reenviar.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String templateVariables;
+
+    private Integer attempts;
+
+    private Integer lastStatusCode;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime failedAt;
+}
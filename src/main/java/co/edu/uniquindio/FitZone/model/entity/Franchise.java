@@ -19,7 +19,8 @@ import java.util.Set;
 public class Franchise {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "franchises_seq")
+    @SequenceGenerator(name = "franchises_seq", sequenceName = "franchises_seq", allocationSize = 50)
     private Long idFranchise;
 
     @Column(name = "name", nullable = false, unique = true)
@@ -0,0 +1,33 @@
+package co.edu.uniquindio.FitZone.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity que representa el bloqueo por arrendamiento (lease) de un trabajo programado.
+ * Solo el nodo dueño del lease vigente puede ejecutar el trabajo; si el nodo cae,
+ * el lease expira y otro nodo puede tomarlo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime acquiredAt;
+}
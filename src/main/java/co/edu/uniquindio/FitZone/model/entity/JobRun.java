@@ -0,0 +1,56 @@
+package co.edu.uniquindio.FitZone.model.entity;
+
+import co.edu.uniquindio.FitZone.model.enums.JobRunStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity que representa una ejecución de un trabajo programado que procesa una tabla por bloques.
+ * Guarda el último ID procesado de forma contigua (punto de control), de modo que si el nodo
+ * se reinicia a mitad de la ejecución, el trabajo continúa desde ese punto.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "job_runs", uniqueConstraints =
+        @UniqueConstraint(name = "uk_job_runs_job_name_run_date", columnNames = {"job_name", "run_date"}))
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_runs_seq")
+    @SequenceGenerator(name = "job_runs_seq", sequenceName = "job_runs_seq", allocationSize = 50)
+    private Long idJobRun;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobRunStatus status;
+
+    @Column(nullable = false)
+    private Long lastProcessedId;
+
+    @Column(nullable = false)
+    private Long scannedRows;
+
+    @Column(nullable = false)
+    private Long affectedRows;
+
+    private String owner;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
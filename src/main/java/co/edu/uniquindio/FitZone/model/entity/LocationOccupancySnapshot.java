@@ -0,0 +1,57 @@
+package co.edu.uniquindio.FitZone.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity que representa una instantánea de los contadores de ocupación de una sede.
+ * Se guarda periódicamente desde el rastreador de ocupación en memoria; la última instantánea
+ * del día operativo permite recuperar los contadores al reiniciar la aplicación.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "location_occupancy_snapshots", indexes = {
+        @Index(name = "idx_occupancy_snapshots_day_location", columnList = "business_day, location_id, captured_at"),
+        @Index(name = "idx_occupancy_snapshots_captured_at", columnList = "captured_at")
+})
+public class LocationOccupancySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "location_occupancy_snapshots_seq")
+    @SequenceGenerator(name = "location_occupancy_snapshots_seq", sequenceName = "location_occupancy_snapshots_seq", allocationSize = 50)
+    private Long idSnapshot;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Column(name = "business_day", nullable = false)
+    private LocalDate businessDay;
+
+    @Column(name = "entries", nullable = false)
+    private long entries;
+
+    @Column(name = "exits", nullable = false)
+    private long exits;
+
+    @Column(name = "occupancy", nullable = false)
+    private long occupancy;
+
+    @Column(name = "captured_at", nullable = false)
+    private LocalDateTime capturedAt;
+
+    public LocationOccupancySnapshot(Long locationId, LocalDate businessDay, long entries, long exits, LocalDateTime capturedAt) {
+        this.locationId = locationId;
+        this.businessDay = businessDay;
+        this.entries = entries;
+        this.exits = exits;
+        this.occupancy = Math.max(0, entries - exits);
+        this.capturedAt = capturedAt;
+    }
+}
@@ -8,21 +8,30 @@ import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Entity que representa una membresía en el sistema FitZone.
  * Contiene información sobre el usuario asociado, tipo de membresía,
  * ubicación, fechas de inicio y fin, estado, precio y detalles de suspensión.
+ * Una membresía nueva queda pendiente de pago hasta que Stripe confirma su intención de pago.
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "memberships")
+@Table(name = "memberships", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_memberships_payment_intent_id", columnNames = "payment_intent_id")
+}, indexes = {
+        @Index(name = "idx_memberships_status_end_date", columnList = "status, end_date"),
+        @Index(name = "idx_memberships_status_suspension_end", columnList = "status, suspension_end"),
+        @Index(name = "idx_memberships_status_payment_last_polled_at", columnList = "status, payment_last_polled_at")
+})
 public class Membership {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "memberships_seq")
+    @SequenceGenerator(name = "memberships_seq", sequenceName = "memberships_seq", allocationSize = 50)
     private Long idMembership;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -53,9 +62,20 @@ public class Membership {
 
     private String suspensionReason;
 
+    @Column(name = "payment_intent_id")
+    private String paymentIntentId;
+
+    @Column(name = "payment_requested_at")
+    private LocalDateTime paymentRequestedAt;
+
+    @Column(name = "payment_last_polled_at")
+    private LocalDateTime paymentLastPolledAt;
+
     @PrePersist
     protected void onCreated(){
-        status =  MembershipStatus.ACTIVE;
+        if (status == null) {
+            status = MembershipStatus.ACTIVE;
+        }
     }
 
 
@@ -22,7 +22,8 @@ import java.math.BigDecimal;
 public class MembershipType {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "membership_types_seq")
+    @SequenceGenerator(name = "membership_types_seq", sequenceName = "membership_types_seq", allocationSize = 50)
     private Long idMembershipType;
 
     @Enumerated(EnumType.STRING)
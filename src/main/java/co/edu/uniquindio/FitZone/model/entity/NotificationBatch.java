@@ -0,0 +1,63 @@
+package co.edu.uniquindio.FitZone.model.entity;
+
+import co.edu.uniquindio.FitZone.model.enums.NotificationBatchStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entity que representa un lote de correos enviado en una sola solicitud a SendGrid.
+ * Cada lote guarda los identificadores de referencia (por ejemplo, IDs de membresía) de sus
+ * destinatarios dentro de un trabajo. Si el trabajo se interrumpe, al volver a ejecutarlo se omiten
+ * los destinatarios cuyos lotes ya fueron enviados. El primer y el último identificador solo
+ * describen el lote; los identificadores no siguen el orden de creación y no sirven como rango.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "notification_batches",
+        indexes = @Index(name = "idx_notification_batches_job_key", columnList = "job_key"))
+public class NotificationBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_batches_seq")
+    @SequenceGenerator(name = "notification_batches_seq", sequenceName = "notification_batches_seq", allocationSize = 50)
+    private Long idNotificationBatch;
+
+    @Column(name = "job_key", nullable = false, length = 100)
+    private String jobKey;
+
+    @Column(nullable = false)
+    private Long firstReferenceId;
+
+    @Column(nullable = false)
+    private Long lastReferenceId;
+
+    @Column(nullable = false)
+    private Integer recipients;
+
+    @ElementCollection
+    @CollectionTable(name = "notification_batch_recipients",
+            joinColumns = @JoinColumn(name = "notification_batch_id"))
+    @Column(name = "reference_id", nullable = false)
+    private Set<Long> referenceIds = new HashSet<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationBatchStatus status;
+
+    private Integer attempts;
+
+    private Integer lastStatusCode;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,55 @@
+package co.edu.uniquindio.FitZone.model.entity;
+
+import co.edu.uniquindio.FitZone.model.enums.PaymentIntentStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity que representa una intención de pago de Stripe usada para comprar una membresía.
+ * La llave única sobre el ID de la intención de pago garantiza que cada intención compre
+ * a lo sumo una membresía, aunque la misma solicitud llegue varias veces al mismo tiempo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_intents", uniqueConstraints =
+        @UniqueConstraint(name = "uk_payment_intents_payment_intent_id", columnNames = "payment_intent_id"))
+public class PaymentIntentRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_intents_seq")
+    @SequenceGenerator(name = "payment_intents_seq", sequenceName = "payment_intents_seq", allocationSize = 50)
+    private Long idPaymentIntent;
+
+    @Column(name = "payment_intent_id", nullable = false)
+    private String paymentIntentId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "membership_id")
+    private Long membershipId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PaymentIntentStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public PaymentIntentRecord(String paymentIntentId, Long userId) {
+        this.paymentIntentId = paymentIntentId;
+        this.userId = userId;
+        this.status = PaymentIntentStatus.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -21,7 +21,8 @@ import java.util.Objects;
 public class Timeslot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "timeslots_seq")
+    @SequenceGenerator(name = "timeslots_seq", sequenceName = "timeslots_seq", allocationSize = 50)
     private Long idTimeslot;
 
     @Enumerated(EnumType.STRING)
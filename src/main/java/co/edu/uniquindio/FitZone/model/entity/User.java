@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long idUser;
 
     @Column(name = "email", nullable = false, unique = true)
@@ -59,6 +60,9 @@ public class User {
     @Column(name = "password_reset_token_expiry_date")
     private LocalDateTime passwordResetTokenExpiryDate;
 
+    @Column(name = "token_version")
+    private Long tokenVersion;
+
     public User(Long idUser, String email, String password, Location mainLocation, UserRole role, PersonalInformation personalInformation) {
         this.idUser = idUser;
         this.email = email;
@@ -73,6 +77,7 @@ public class User {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         isActive = true;
+        tokenVersion = 0L;
     }
 
     @PreUpdate
@@ -80,5 +85,20 @@ public class User {
         updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Versión actual de los tokens del usuario. Los registros antiguos pueden no tenerla.
+     * @return versión de los tokens, 0 si nunca se ha incrementado
+     */
+    public long currentTokenVersion() {
+        return tokenVersion == null ? 0L : tokenVersion;
+    }
+
+    /**
+     * Incrementa la versión de los tokens, invalidando todos los JWT emitidos previamente.
+     */
+    public void incrementTokenVersion() {
+        tokenVersion = currentTokenVersion() + 1;
+    }
+
 
 }
@@ -0,0 +1,33 @@
+package co.edu.uniquindio.FitZone.model.enums;
+
+import lombok.Getter;
+
+/**
+ * ENUM que representa el resultado de un intento de ingreso a una sede.
+ * Cada resultado tiene un mensaje para mostrar en el torniquete.
+ */
+@Getter
+public enum CheckInDecision {
+
+    ALLOWED("Ingreso permitido"),
+    UNKNOWN_LOCATION("La sede no existe"),
+    LOCATION_INACTIVE("La sede no se encuentra activa"),
+    NO_MEMBERSHIP("El usuario no tiene una membresía"),
+    USER_INACTIVE("El usuario se encuentra inactivo"),
+    MEMBERSHIP_PENDING_PAYMENT("La membresía está pendiente de confirmación del pago"),
+    MEMBERSHIP_CANCELLED("La membresía fue cancelada"),
+    MEMBERSHIP_EXPIRED("La membresía se encuentra vencida"),
+    MEMBERSHIP_SUSPENDED("La membresía se encuentra suspendida"),
+    LOCATION_NOT_ALLOWED("La membresía no da acceso a esta sede"),
+    OUTSIDE_OPENING_HOURS("La sede se encuentra fuera de su horario de atención");
+
+    private final String message;
+
+    CheckInDecision(String message) {
+        this.message = message;
+    }
+
+    public boolean isAllowed() {
+        return this == ALLOWED;
+    }
+}
@@ -0,0 +1,11 @@
+package co.edu.uniquindio.FitZone.model.enums;
+
+/**
+ * Enum que representa el estado de una ejecución de un trabajo programado por bloques.
+ */
+public enum JobRunStatus {
+
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -5,6 +5,7 @@ package co.edu.uniquindio.FitZone.model.enums;
  */
 public enum MembershipStatus {
 
+    PENDING_PAYMENT,
     ACTIVE,
     EXPIRED,
     SUSPENDED,
@@ -0,0 +1,10 @@
+package co.edu.uniquindio.FitZone.model.enums;
+
+/**
+ * Enum que representa el resultado del envío de un lote de notificaciones.
+ */
+public enum NotificationBatchStatus {
+
+    SENT,
+    FAILED
+}
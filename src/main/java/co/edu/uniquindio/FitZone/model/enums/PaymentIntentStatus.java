@@ -0,0 +1,11 @@
+package co.edu.uniquindio.FitZone.model.enums;
+
+/**
+ * Enum que representa el estado de una intención de pago registrada en el libro de pagos.
+ */
+public enum PaymentIntentStatus {
+
+    PENDING,
+    SUCCEEDED,
+    CANCELED
+}
@@ -0,0 +1,10 @@
+package co.edu.uniquindio.FitZone.model.enums;
+
+/**
+ * Enum que representa el formato de un archivo de importación masiva de usuarios.
+ */
+public enum UserImportFormat {
+
+    CSV,
+    NDJSON
+}
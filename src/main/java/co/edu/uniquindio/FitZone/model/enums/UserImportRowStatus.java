@@ -0,0 +1,10 @@
+package co.edu.uniquindio.FitZone.model.enums;
+
+/**
+ * Enum que representa el resultado de una fila en una importación masiva de usuarios.
+ */
+public enum UserImportRowStatus {
+
+    CREATED,
+    FAILED
+}
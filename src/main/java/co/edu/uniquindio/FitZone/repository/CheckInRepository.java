@@ -0,0 +1,11 @@
+package co.edu.uniquindio.FitZone.repository;
+
+import co.edu.uniquindio.FitZone.model.entity.CheckIn;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * CheckInRepository - Interfaz para operaciones CRUD de la entidad CheckIn.
+ * Extiende JpaRepository para proporcionar métodos de acceso a datos.
+ */
+public interface CheckInRepository extends JpaRepository<CheckIn, Long> {
+}
@@ -0,0 +1,11 @@
+package co.edu.uniquindio.FitZone.repository;
+
+import co.edu.uniquindio.FitZone.model.entity.EmailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * EmailDeadLetterRepository - Interfaz para operaciones CRUD de la entidad EmailDeadLetter.
+ * Extiende JpaRepository para proporcionar métodos de acceso a datos.
+ */
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+}
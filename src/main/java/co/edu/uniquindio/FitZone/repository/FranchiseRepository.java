@@ -1,8 +1,11 @@
 package co.edu.uniquindio.FitZone.repository;
 
 import co.edu.uniquindio.FitZone.model.entity.Franchise;
+import co.edu.uniquindio.FitZone.repository.projection.FranchiseTimeslot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,4 +21,13 @@ public interface FranchiseRepository extends JpaRepository<Franchise, Long> {
      */
     Optional<Franchise> findByName(String name);
 
+    /**
+     * Obtiene los horarios de atención de todas las franquicias sin cargar las entidades.
+     * @return Una lista con un elemento por franquicia y horario.
+     */
+    @Query("SELECT f.idFranchise AS franchiseId, f.name AS franchiseName, t.day AS day, " +
+            "t.openTime AS openTime, t.closeTime AS closeTime " +
+            "FROM Franchise f LEFT JOIN f.timeslots t")
+    List<FranchiseTimeslot> findAllTimeslots();
+
 }
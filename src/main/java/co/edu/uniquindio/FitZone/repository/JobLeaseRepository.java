@@ -0,0 +1,49 @@
+package co.edu.uniquindio.FitZone.repository;
+
+import co.edu.uniquindio.FitZone.model.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * JobLeaseRepository - Interfaz para operaciones CRUD de la entidad JobLease.
+ * Extiende JpaRepository para proporcionar métodos de acceso a datos.
+ */
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Toma o renueva el lease de un trabajo si está libre, expiró o ya pertenece al nodo.
+     * @param jobName Nombre del trabajo.
+     * @param owner Identificador del nodo.
+     * @param now Fecha y hora actual.
+     * @param leaseUntil Nueva fecha de expiración del lease.
+     * @return 1 si el nodo obtuvo el lease, 0 en caso contrario.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leaseUntil = :leaseUntil, " +
+            "l.acquiredAt = CASE WHEN l.owner = :owner THEN l.acquiredAt ELSE :now END " +
+            "WHERE l.jobName = :jobName AND (l.leaseUntil < :now OR l.owner = :owner)")
+    int tryAcquire(@Param("jobName") String jobName,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Libera el lease de un trabajo si pertenece al nodo.
+     * @param jobName Nombre del trabajo.
+     * @param owner Identificador del nodo.
+     * @param now Fecha y hora actual, que pasa a ser la expiración del lease.
+     * @return 1 si el lease fue liberado, 0 en caso contrario.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :now WHERE l.jobName = :jobName AND l.owner = :owner")
+    int release(@Param("jobName") String jobName,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
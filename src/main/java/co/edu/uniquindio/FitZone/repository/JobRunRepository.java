@@ -0,0 +1,33 @@
+package co.edu.uniquindio.FitZone.repository;
+
+import co.edu.uniquindio.FitZone.model.entity.JobRun;
+import co.edu.uniquindio.FitZone.model.enums.JobRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JobRunRepository - Interfaz para operaciones CRUD de la entidad JobRun.
+ * Extiende JpaRepository para proporcionar métodos de acceso a datos.
+ */
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    /**
+     * Busca la ejecución de un trabajo para una fecha.
+     * @param jobName Nombre del trabajo.
+     * @param runDate Fecha lógica de la ejecución.
+     * @return Un objeto Optional que contiene la ejecución si existe.
+     */
+    Optional<JobRun> findByJobNameAndRunDate(String jobName, LocalDate runDate);
+
+    /**
+     * Busca las ejecuciones de un trabajo que no tienen un estado dado y cuya fecha lógica es posterior a una fecha.
+     * @param jobName Nombre del trabajo.
+     * @param status Estado excluido.
+     * @param runDate Fecha a partir de la cual (sin incluirla) se buscan las ejecuciones.
+     * @return Una lista de ejecuciones del trabajo.
+     */
+    List<JobRun> findByJobNameAndStatusNotAndRunDateAfter(String jobName, JobRunStatus status, LocalDate runDate);
+}
@@ -0,0 +1,39 @@
+package co.edu.uniquindio.FitZone.repository;
+
+import co.edu.uniquindio.FitZone.model.entity.LocationOccupancySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * LocationOccupancySnapshotRepository - Interfaz para operaciones CRUD de la entidad LocationOccupancySnapshot.
+ * Extiende JpaRepository para proporcionar métodos de acceso a datos.
+ */
+public interface LocationOccupancySnapshotRepository extends JpaRepository<LocationOccupancySnapshot, Long> {
+
+    /**
+     * Obtiene la instantánea más reciente de cada sede para un día operativo.
+     * @param businessDay día operativo
+     * @return la última instantánea de cada sede con actividad ese día
+     */
+    @Query("SELECT s FROM LocationOccupancySnapshot s WHERE s.businessDay = :businessDay " +
+            "AND s.capturedAt = (SELECT MAX(s2.capturedAt) FROM LocationOccupancySnapshot s2 " +
+            "WHERE s2.businessDay = :businessDay AND s2.locationId = s.locationId)")
+    List<LocationOccupancySnapshot> findLatestByBusinessDay(@Param("businessDay") LocalDate businessDay);
+
+    /**
+     * Elimina las instantáneas anteriores a una fecha.
+     * @param capturedAt fecha límite
+     * @return cantidad de instantáneas eliminadas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LocationOccupancySnapshot s WHERE s.capturedAt < :capturedAt")
+    int deleteCapturedBefore(@Param("capturedAt") LocalDateTime capturedAt);
+}
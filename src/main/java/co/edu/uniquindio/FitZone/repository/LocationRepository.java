@@ -1,7 +1,9 @@
 package co.edu.uniquindio.FitZone.repository;
 
 import co.edu.uniquindio.FitZone.model.entity.Location;
+import co.edu.uniquindio.FitZone.repository.projection.LocationFranchise;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 
 import java.util.List;
@@ -67,4 +69,11 @@ public interface LocationRepository extends JpaRepository<Location,Long> {
      * @return Un objeto Optional que contiene la ubicación si se encuentra.
      */
     Optional<Location> findByAddress(String address);
+
+    /**
+     * Obtiene la franquicia a la que pertenece cada sede.
+     * @return Una lista con un elemento por sede.
+     */
+    @Query("SELECT l.idLocation AS locationId, l.franchise.idFranchise AS franchiseId FROM Location l")
+    List<LocationFranchise> findAllFranchiseIds();
 }
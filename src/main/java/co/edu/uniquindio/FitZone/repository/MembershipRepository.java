@@ -3,10 +3,21 @@ package co.edu.uniquindio.FitZone.repository;
 import co.edu.uniquindio.FitZone.dto.response.MembershipResponse;
 import co.edu.uniquindio.FitZone.model.entity.Membership;
 import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.repository.projection.KeysetChunk;
+import co.edu.uniquindio.FitZone.repository.projection.MembershipEligibility;
+import co.edu.uniquindio.FitZone.repository.projection.PendingPayment;
+import co.edu.uniquindio.FitZone.repository.projection.RenewalRecipient;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para gestionar las operaciones CRUD de la entidad Membership.
@@ -38,5 +49,208 @@ public interface MembershipRepository extends CrudRepository<Membership, Long> {
      */
     List<Membership> findByStatusAndEndDateIsBefore(MembershipStatus status, LocalDate suspensionEnd);
 
+    /**
+     * Construye la respuesta de la membresía de un usuario en una sola consulta.
+     * @param userId El ID del usuario.
+     * @return Un objeto Optional con la respuesta, vacío si el usuario no existe o no tiene membresía.
+     */
+    @Query("SELECT new co.edu.uniquindio.FitZone.dto.response.MembershipResponse(" +
+            "m.idMembership, u.idUser, t.name, l.idLocation, m.startDate, m.endDate, m.status) " +
+            "FROM User u JOIN u.membership m JOIN m.type t LEFT JOIN m.location l " +
+            "WHERE u.idUser = :userId")
+    Optional<MembershipResponse> findResponseByUserId(@Param("userId") Long userId);
+
+    /**
+     * Construye la respuesta de la membresía de un usuario, buscado por su número de documento,
+     * en una sola consulta.
+     * @param documentNumber El número de documento del usuario.
+     * @return Un objeto Optional con la respuesta, vacío si el usuario no existe o no tiene membresía.
+     */
+    @Query("SELECT new co.edu.uniquindio.FitZone.dto.response.MembershipResponse(" +
+            "m.idMembership, u.idUser, t.name, l.idLocation, m.startDate, m.endDate, m.status) " +
+            "FROM User u JOIN u.membership m JOIN m.type t LEFT JOIN m.location l " +
+            "WHERE u.personalInformation.documentNumber = :documentNumber")
+    Optional<MembershipResponse> findResponseByDocumentNumber(@Param("documentNumber") String documentNumber);
+
+    /**
+     * Busca la membresía de un usuario sin cargar la entidad del usuario.
+     * @param userId El ID del usuario.
+     * @return Un objeto Optional con la membresía, vacío si el usuario no existe o no tiene membresía.
+     */
+    @Query("SELECT m FROM User u JOIN u.membership m WHERE u.idUser = :userId")
+    Optional<Membership> findByUserId(@Param("userId") Long userId);
 
+    /**
+     * Obtiene los datos de los destinatarios de recordatorios de renovación en una sola consulta,
+     * ordenados por ID de membresía para poder enviarlos y reanudarlos por lotes.
+     * @param status El estado de la membresía.
+     * @param endDate La fecha exacta de finalización de la membresía.
+     * @return Una lista de proyecciones con el correo, el nombre y el tipo de membresía.
+     */
+    @Query("SELECT m.idMembership AS idMembership, u.email AS email, " +
+            "u.personalInformation.firstName AS firstName, t.name AS membershipType, m.endDate AS endDate " +
+            "FROM Membership m JOIN m.user u JOIN m.type t " +
+            "WHERE m.status = :status AND m.endDate = :endDate " +
+            "ORDER BY m.idMembership")
+    List<RenewalRecipient> findRenewalRecipients(@Param("status") MembershipStatus status,
+                                                 @Param("endDate") LocalDate endDate);
+
+    /**
+     * Calcula el siguiente bloque de membresías por paginación por llave (keyset) sobre el ID.
+     * @param afterId El último ID procesado; el bloque empieza después de él.
+     * @param chunkSize La cantidad máxima de membresías del bloque.
+     * @return El ID más alto del bloque y la cantidad de filas; el ID es null si no quedan membresías.
+     */
+    @Query(value = "SELECT MAX(c.id_membership) AS upToId, COUNT(*) AS rowCount FROM " +
+            "(SELECT id_membership FROM memberships WHERE id_membership > :afterId " +
+            "ORDER BY id_membership LIMIT :chunkSize) c", nativeQuery = true)
+    KeysetChunk findNextChunk(@Param("afterId") long afterId, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Obtiene el ID de membresía más alto, usado para medir el avance de los trabajos por bloques.
+     * @return El ID más alto, o null si no hay membresías.
+     */
+    @Query("SELECT MAX(m.idMembership) FROM Membership m")
+    Long findMaxId();
+
+    /**
+     * Reactiva en bloque las membresías suspendidas cuya suspensión terminó antes de la fecha dada,
+     * dentro de un rango de IDs. La fecha de finalización se extiende con los días de suspensión
+     * calculados en SQL.
+     * @param today La fecha límite para el fin de la suspensión.
+     * @param afterId El límite inferior del rango (exclusivo).
+     * @param upToId El límite superior del rango (inclusivo).
+     * @return Los IDs de las membresías reactivadas.
+     */
+    @Transactional
+    @Query(value = "UPDATE memberships SET " +
+            "end_date = end_date + COALESCE(suspension_end - suspension_start, 0), " +
+            "status = 'ACTIVE', suspension_end = NULL, suspension_reason = NULL " +
+            "WHERE status = 'SUSPENDED' AND suspension_end < :today " +
+            "AND id_membership > :afterId AND id_membership <= :upToId " +
+            "RETURNING id_membership", nativeQuery = true)
+    List<Long> reactivateSuspendedEndedBefore(@Param("today") LocalDate today,
+                                              @Param("afterId") long afterId,
+                                              @Param("upToId") long upToId);
+
+    /**
+     * Expira en bloque las membresías activas cuya fecha de finalización es anterior a la fecha dada,
+     * dentro de un rango de IDs.
+     * @param today La fecha límite para la finalización de la membresía.
+     * @param afterId El límite inferior del rango (exclusivo).
+     * @param upToId El límite superior del rango (inclusivo).
+     * @return Los IDs de las membresías expiradas.
+     */
+    @Transactional
+    @Query(value = "UPDATE memberships SET status = 'EXPIRED' " +
+            "WHERE status = 'ACTIVE' AND end_date < :today " +
+            "AND id_membership > :afterId AND id_membership <= :upToId " +
+            "RETURNING id_membership", nativeQuery = true)
+    List<Long> expireActiveEndedBefore(@Param("today") LocalDate today,
+                                       @Param("afterId") long afterId,
+                                       @Param("upToId") long upToId);
+
+    /**
+     * Obtiene los datos de elegibilidad de ingreso de todos los usuarios con membresía.
+     * @return Una lista con la membresía vigente de cada usuario y los datos que determinan su acceso.
+     */
+    @Query("SELECT u.idUser AS userId, u.isActive AS userActive, m.idMembership AS membershipId, " +
+            "m.status AS status, m.endDate AS endDate, m.suspensionStart AS suspensionStart, " +
+            "m.suspensionEnd AS suspensionEnd, l.idLocation AS locationId, t.accessToAllLocation AS accessToAllLocations " +
+            "FROM User u JOIN u.membership m JOIN m.type t LEFT JOIN m.location l")
+    List<MembershipEligibility> findAllEligibility();
+
+    /**
+     * Obtiene los datos de elegibilidad de ingreso de un usuario.
+     * @param userId El ID del usuario.
+     * @return Un objeto Optional con los datos, vacío si el usuario no existe o no tiene membresía.
+     */
+    @Query("SELECT u.idUser AS userId, u.isActive AS userActive, m.idMembership AS membershipId, " +
+            "m.status AS status, m.endDate AS endDate, m.suspensionStart AS suspensionStart, " +
+            "m.suspensionEnd AS suspensionEnd, l.idLocation AS locationId, t.accessToAllLocation AS accessToAllLocations " +
+            "FROM User u JOIN u.membership m JOIN m.type t LEFT JOIN m.location l WHERE u.idUser = :userId")
+    Optional<MembershipEligibility> findEligibilityByUserId(@Param("userId") Long userId);
+
+    /**
+     * Busca la membresía creada con una intención de pago.
+     * @param paymentIntentId El ID de la intención de pago de Stripe.
+     * @return Un objeto Optional con la membresía, vacío si ninguna usa esa intención de pago.
+     */
+    Optional<Membership> findByPaymentIntentId(String paymentIntentId);
+
+    /**
+     * Obtiene el ID del usuario de la membresía creada con una intención de pago.
+     * @param paymentIntentId El ID de la intención de pago de Stripe.
+     * @return Un objeto Optional con el ID del usuario.
+     */
+    @Query("SELECT m.user.idUser FROM Membership m WHERE m.paymentIntentId = :paymentIntentId")
+    Optional<Long> findUserIdByPaymentIntentId(@Param("paymentIntentId") String paymentIntentId);
+
+    /**
+     * Indica si la membresía de una intención de pago quedó en un estado sin haberse activado nunca.
+     * Las membresías pendientes no tienen fecha de fin hasta que el pago las activa.
+     * @param paymentIntentId El ID de la intención de pago de Stripe.
+     * @param status El estado de la membresía.
+     * @return true si la membresía está en ese estado y nunca se activó.
+     */
+    boolean existsByPaymentIntentIdAndStatusAndEndDateIsNull(String paymentIntentId, MembershipStatus status);
+
+    /**
+     * Obtiene las membresías en un estado solicitadas antes de una fecha, empezando por las que llevan
+     * más tiempo sin verificarse, para que la consulta periódica las recorra todas por turnos.
+     * @param status El estado de la membresía.
+     * @param requestedBefore La fecha límite de la solicitud de pago.
+     * @param limit La cantidad máxima de resultados.
+     * @return Una lista con la intención de pago y la fecha de solicitud de cada membresía.
+     */
+    @Query("SELECT m.paymentIntentId AS paymentIntentId, m.paymentRequestedAt AS paymentRequestedAt " +
+            "FROM Membership m " +
+            "WHERE m.status = :status AND m.paymentRequestedAt < :requestedBefore " +
+            "ORDER BY m.paymentLastPolledAt ASC NULLS FIRST, m.paymentRequestedAt")
+    List<PendingPayment> findPendingPayments(@Param("status") MembershipStatus status,
+                                             @Param("requestedBefore") LocalDateTime requestedBefore,
+                                             Limit limit);
+
+    /**
+     * Registra la fecha de la última verificación contra Stripe de varias intenciones de pago.
+     * @param paymentIntentIds Los IDs de las intenciones de pago verificadas.
+     * @param polledAt La fecha de la verificación.
+     * @return La cantidad de membresías actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Membership m SET m.paymentLastPolledAt = :polledAt WHERE m.paymentIntentId IN :paymentIntentIds")
+    int markPaymentsPolled(@Param("paymentIntentIds") List<String> paymentIntentIds,
+                           @Param("polledAt") LocalDateTime polledAt);
+
+    /**
+     * Activa la membresía de una intención de pago solo si sigue pendiente de pago.
+     * Si el webhook y la consulta a Stripe llegan al mismo tiempo, o desde varias instancias,
+     * solo una de ellas cambia la fila.
+     * @param paymentIntentId El ID de la intención de pago de Stripe.
+     * @param startDate La fecha de inicio de la membresía.
+     * @param endDate La fecha de finalización de la membresía.
+     * @return 1 si la membresía se activó, 0 si ya no estaba pendiente de pago.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Membership m SET m.status = co.edu.uniquindio.FitZone.model.enums.MembershipStatus.ACTIVE, " +
+            "m.startDate = :startDate, m.endDate = :endDate " +
+            "WHERE m.paymentIntentId = :paymentIntentId " +
+            "AND m.status = co.edu.uniquindio.FitZone.model.enums.MembershipStatus.PENDING_PAYMENT")
+    int activatePending(@Param("paymentIntentId") String paymentIntentId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Cancela la membresía de una intención de pago solo si sigue pendiente de pago.
+     * @param paymentIntentId El ID de la intención de pago de Stripe.
+     * @return 1 si la membresía se canceló, 0 si ya no estaba pendiente de pago.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Membership m SET m.status = co.edu.uniquindio.FitZone.model.enums.MembershipStatus.CANCELLED " +
+            "WHERE m.paymentIntentId = :paymentIntentId " +
+            "AND m.status = co.edu.uniquindio.FitZone.model.enums.MembershipStatus.PENDING_PAYMENT")
+    int cancelPending(@Param("paymentIntentId") String paymentIntentId);
 }
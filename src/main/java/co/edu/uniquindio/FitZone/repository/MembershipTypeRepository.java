@@ -2,7 +2,7 @@ package co.edu.uniquindio.FitZone.repository;
 
 import co.edu.uniquindio.FitZone.model.entity.MembershipType;
 import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,7 +11,7 @@ import java.util.Optional;
  * Repositorio para la entidad MembershipType.
  * Proporciona métodos para realizar operaciones CRUD y consultas personalizadas.
  */
-public interface MembershipTypeRepository extends CrudRepository<MembershipType, Long> {
+public interface MembershipTypeRepository extends JpaRepository<MembershipType, Long> {
 
     /**
      * Busca un tipo de membresía por su nombre.
@@ -0,0 +1,25 @@
+package co.edu.uniquindio.FitZone.repository;
+
+import co.edu.uniquindio.FitZone.model.entity.NotificationBatch;
+import co.edu.uniquindio.FitZone.model.enums.NotificationBatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * NotificationBatchRepository - Interfaz para operaciones CRUD de la entidad NotificationBatch.
+ * Extiende JpaRepository para proporcionar métodos de acceso a datos.
+ */
+public interface NotificationBatchRepository extends JpaRepository<NotificationBatch, Long> {
+
+    /**
+     * Busca los identificadores de referencia de los destinatarios de los lotes de un trabajo con un estado dado.
+     * @param jobKey Identificador del trabajo.
+     * @param status Estado de los lotes.
+     * @return Los identificadores de referencia incluidos en los lotes del trabajo con el estado indicado.
+     */
+    @Query("SELECT r FROM NotificationBatch b JOIN b.referenceIds r WHERE b.jobKey = :jobKey AND b.status = :status")
+    List<Long> findReferenceIds(@Param("jobKey") String jobKey, @Param("status") NotificationBatchStatus status);
+}
@@ -0,0 +1,42 @@
+package co.edu.uniquindio.FitZone.repository;
+
+import co.edu.uniquindio.FitZone.model.entity.PaymentIntentRecord;
+import co.edu.uniquindio.FitZone.model.enums.PaymentIntentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * PaymentIntentRepository - Interfaz para operaciones CRUD de la entidad PaymentIntentRecord.
+ * Extiende JpaRepository para proporcionar métodos de acceso a datos.
+ */
+public interface PaymentIntentRepository extends JpaRepository<PaymentIntentRecord, Long> {
+
+    /**
+     * Busca el registro de una intención de pago.
+     * @param paymentIntentId El ID de la intención de pago de Stripe.
+     * @return Un objeto Optional con el registro si existe.
+     */
+    Optional<PaymentIntentRecord> findByPaymentIntentId(String paymentIntentId);
+
+    /**
+     * Cambia el estado de una intención de pago que sigue pendiente.
+     * @param paymentIntentId El ID de la intención de pago de Stripe.
+     * @param status El nuevo estado.
+     * @param updatedAt Fecha del cambio.
+     * @return 1 si el registro cambió, 0 si no existe o ya no estaba pendiente.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentIntentRecord p SET p.status = :status, p.updatedAt = :updatedAt " +
+            "WHERE p.paymentIntentId = :paymentIntentId " +
+            "AND p.status = co.edu.uniquindio.FitZone.model.enums.PaymentIntentStatus.PENDING")
+    int resolvePending(@Param("paymentIntentId") String paymentIntentId,
+                       @Param("status") PaymentIntentStatus status,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -1,10 +1,22 @@
 package co.edu.uniquindio.FitZone.repository;
 
+import co.edu.uniquindio.FitZone.dto.response.UserResponse;
 import co.edu.uniquindio.FitZone.model.entity.User;
+import co.edu.uniquindio.FitZone.repository.projection.UserTokenState;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * UserRepository - Interfaz para operaciones CRUD de la entidad User.
@@ -53,4 +65,71 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByPasswordResetToken(String passwordResetToken);
 
+    /**
+     * Obtiene el estado de los tokens de los usuarios cuya versión fue incrementada o que están inactivos.
+     * @return Una lista con el estado de los tokens de esos usuarios.
+     */
+    @Query("select u.idUser as idUser, u.tokenVersion as tokenVersion, u.isActive as active " +
+            "from User u where u.tokenVersion > 0 or u.isActive = false")
+    List<UserTokenState> findRevokedTokenStates();
+
+    /**
+     * Obtiene el estado de los tokens de los usuarios modificados desde una fecha dada.
+     * @param since Fecha a partir de la cual se buscan modificaciones.
+     * @return Una lista con el estado de los tokens de los usuarios modificados.
+     */
+    @Query("select u.idUser as idUser, u.tokenVersion as tokenVersion, u.isActive as active " +
+            "from User u where u.updatedAt >= :since")
+    List<UserTokenState> findTokenStatesUpdatedSince(LocalDateTime since);
+
+    /**
+     * Recorre los usuarios activos como respuestas, leyendo desde un cursor de la base de datos.
+     * Debe consumirse dentro de una transacción (PostgreSQL solo usa el cursor sin autocommit)
+     * y cerrarse al terminar.
+     * @return Un Stream con los usuarios activos ordenados por ID.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new co.edu.uniquindio.FitZone.dto.response.UserResponse(" +
+            "u.idUser, u.personalInformation.firstName, u.personalInformation.lastName, u.email, " +
+            "u.personalInformation.documentType, u.personalInformation.documentNumber, " +
+            "u.personalInformation.phoneNumber, u.personalInformation.birthDate, " +
+            "u.personalInformation.emergencyContactPhone, u.personalInformation.medicalConditions, " +
+            "u.role, u.createdAt) " +
+            "FROM User u WHERE u.isActive = true ORDER BY u.idUser")
+    Stream<UserResponse> streamActiveUsers();
+
+    /**
+     * Obtiene una página de usuarios activos por paginación por llave (keyset) sobre el ID.
+     * @param afterId El último ID de la página anterior.
+     * @param limit El tamaño de la página.
+     * @return Una lista con los usuarios activos cuyo ID es mayor a afterId, ordenados por ID.
+     */
+    @Query("SELECT new co.edu.uniquindio.FitZone.dto.response.UserResponse(" +
+            "u.idUser, u.personalInformation.firstName, u.personalInformation.lastName, u.email, " +
+            "u.personalInformation.documentType, u.personalInformation.documentNumber, " +
+            "u.personalInformation.phoneNumber, u.personalInformation.birthDate, " +
+            "u.personalInformation.emergencyContactPhone, u.personalInformation.medicalConditions, " +
+            "u.role, u.createdAt) " +
+            "FROM User u WHERE u.isActive = true AND u.idUser > :afterId ORDER BY u.idUser")
+    List<UserResponse> findActivePageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Obtiene, de un conjunto de correos electrónicos, los que ya están registrados.
+     * @param emails Los correos electrónicos a verificar.
+     * @return Los correos electrónicos que ya pertenecen a un usuario.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Obtiene, de un conjunto de números de documento, los que ya están registrados.
+     * @param documentNumbers Los números de documento a verificar.
+     * @return Los números de documento que ya pertenecen a un usuario.
+     */
+    @Query("SELECT u.personalInformation.documentNumber FROM User u " +
+            "WHERE u.personalInformation.documentNumber IN :documentNumbers")
+    Set<String> findExistingDocumentNumbers(@Param("documentNumbers") Collection<String> documentNumbers);
 }
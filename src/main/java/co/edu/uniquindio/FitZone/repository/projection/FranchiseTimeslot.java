@@ -0,0 +1,22 @@
+package co.edu.uniquindio.FitZone.repository.projection;
+
+import co.edu.uniquindio.FitZone.model.enums.DayOfWeek;
+
+import java.time.LocalTime;
+
+/**
+ * Proyección con un horario de atención de una franquicia. Las franquicias sin horarios
+ * aparecen una vez con el día y las horas en null.
+ */
+public interface FranchiseTimeslot {
+
+    Long getFranchiseId();
+
+    String getFranchiseName();
+
+    DayOfWeek getDay();
+
+    LocalTime getOpenTime();
+
+    LocalTime getCloseTime();
+}
@@ -0,0 +1,12 @@
+package co.edu.uniquindio.FitZone.repository.projection;
+
+/**
+ * Proyección con los límites de un bloque calculado por paginación por llave (keyset).
+ * Se utiliza en los trabajos nocturnos que procesan tablas grandes por bloques.
+ */
+public interface KeysetChunk {
+
+    Long getUpToId();
+
+    long getRowCount();
+}
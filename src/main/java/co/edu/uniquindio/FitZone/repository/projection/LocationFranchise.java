@@ -0,0 +1,11 @@
+package co.edu.uniquindio.FitZone.repository.projection;
+
+/**
+ * Proyección con la franquicia a la que pertenece una sede.
+ */
+public interface LocationFranchise {
+
+    Long getLocationId();
+
+    Long getFranchiseId();
+}
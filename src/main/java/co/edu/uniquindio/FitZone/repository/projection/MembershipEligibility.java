@@ -0,0 +1,30 @@
+package co.edu.uniquindio.FitZone.repository.projection;
+
+import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección con los datos de la membresía vigente de un usuario que determinan si puede ingresar a una sede.
+ * Se utiliza para construir la tabla de elegibilidad del control de acceso.
+ */
+public interface MembershipEligibility {
+
+    Long getUserId();
+
+    boolean isUserActive();
+
+    Long getMembershipId();
+
+    MembershipStatus getStatus();
+
+    LocalDate getEndDate();
+
+    LocalDate getSuspensionStart();
+
+    LocalDate getSuspensionEnd();
+
+    Long getLocationId();
+
+    Boolean getAccessToAllLocations();
+}
@@ -0,0 +1,13 @@
+package co.edu.uniquindio.FitZone.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de una membresía pendiente de pago para la consulta periódica contra Stripe.
+ */
+public interface PendingPayment {
+
+    String getPaymentIntentId();
+
+    LocalDateTime getPaymentRequestedAt();
+}
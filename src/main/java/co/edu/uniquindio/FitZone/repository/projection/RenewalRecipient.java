@@ -0,0 +1,22 @@
+package co.edu.uniquindio.FitZone.repository.projection;
+
+import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección con los datos necesarios para enviar un recordatorio de renovación.
+ * Evita cargar la membresía, el usuario y el tipo de membresía como entidades.
+ */
+public interface RenewalRecipient {
+
+    Long getIdMembership();
+
+    String getEmail();
+
+    String getFirstName();
+
+    MembershipTypeName getMembershipType();
+
+    LocalDate getEndDate();
+}
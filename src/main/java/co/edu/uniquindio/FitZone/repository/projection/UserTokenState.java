@@ -0,0 +1,14 @@
+package co.edu.uniquindio.FitZone.repository.projection;
+
+/**
+ * Proyección con el estado de los tokens de un usuario.
+ * Se utiliza para mantener en memoria la tabla de versiones y revocaciones de JWT.
+ */
+public interface UserTokenState {
+
+    Long getIdUser();
+
+    Long getTokenVersion();
+
+    boolean isActive();
+}
@@ -5,25 +5,26 @@ import co.edu.uniquindio.FitZone.dto.request.ResetPasswordRequest;
 import co.edu.uniquindio.FitZone.exception.UserNotFoundException;
 import co.edu.uniquindio.FitZone.model.entity.User;
 import co.edu.uniquindio.FitZone.repository.UserRepository;
+import co.edu.uniquindio.FitZone.service.impl.cache.TokenVersionRegistry;
+import co.edu.uniquindio.FitZone.service.impl.cache.UserDetailsCache;
 import co.edu.uniquindio.FitZone.service.interfaces.IAuthService;
+import co.edu.uniquindio.FitZone.service.interfaces.IOtpStore;
 import co.edu.uniquindio.FitZone.util.EmailService;
 import co.edu.uniquindio.FitZone.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class AuthServiceImpl implements IAuthService {
@@ -31,28 +32,31 @@ public class AuthServiceImpl implements IAuthService {
     private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
 
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsServiceImpl userDetailsService;
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-    // Almacenamiento temporal de OTPs
-    private final Map<String, String> otpStorage = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> otpExpiry = new ConcurrentHashMap<>();
+    private final IOtpStore otpStore;
 
     public AuthServiceImpl(AuthenticationManager authenticationManager,
-                           UserDetailsServiceImpl userDetailsService,
                            JwtUtil jwtUtil,
                            UserRepository userRepository,
                            PasswordEncoder passwordEncoder,
-                           EmailService emailService) {
+                           EmailService emailService,
+                           UserDetailsCache userDetailsCache,
+                           TokenVersionRegistry tokenVersionRegistry,
+                           IOtpStore otpStore) {
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.otpStore = otpStore;
     }
 
     // ---------------- LOGIN CON 2FA ----------------
@@ -91,8 +95,7 @@ public class AuthServiceImpl implements IAuthService {
             throw new RuntimeException("OTP inválido o expirado");
         }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-        String token = jwtUtil.generateToken(userDetails);
+        String token = generateAccessToken(email);
 
         logger.info("Login completado para {}. JWT generado.", email);
         return token;
@@ -102,8 +105,7 @@ public class AuthServiceImpl implements IAuthService {
     @Override
     public String generateOTP(String email) {
         String otp = RandomStringUtils.randomNumeric(6);
-        otpStorage.put(email, otp);
-        otpExpiry.put(email, LocalDateTime.now().plusMinutes(5));
+        otpStore.save(email, otp);
         logger.info("OTP generado para {}: {}", email, otp);
         return otp;
     }
@@ -118,37 +120,19 @@ public class AuthServiceImpl implements IAuthService {
         context.setVariable("otp", otp);
         String subject = "Código de verificación - FitZone";
 
-        try {
-            emailService.sendTemplatedEmail(email, subject, "otp-template", context);
-        } catch (IOException e) {
-            throw new RuntimeException("Error enviando OTP: " + e.getMessage(), e);
-        }
+        emailService.sendTemplatedEmail(email, subject, "otp-template", context);
 
-        logger.info("OTP enviado a {}", email);
+        logger.info("OTP encolado para envío a {}", email);
     }
 
     @Override
     public boolean validateOTP(String email, String otp) {
-        if (!otpStorage.containsKey(email)) return false;
-
-        if (otpExpiry.get(email).isBefore(LocalDateTime.now())) {
-            otpStorage.remove(email);
-            otpExpiry.remove(email);
-            return false;
-        }
-
-        boolean valid = otpStorage.get(email).equals(otp);
-        if (valid) {
-            otpStorage.remove(email);
-            otpExpiry.remove(email);
-        }
-        return valid;
+        return otpStore.validate(email, otp);
     }
 
     @Override
     public String loginAfterOTP(String email) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-        String token = jwtUtil.generateToken(userDetails); // ✅ ahora sí es un JWT real
+        String token = generateAccessToken(email); // ✅ ahora sí es un JWT real
 
         logger.info("Login exitoso con OTP para usuario {}. JWT generado.", email);
         return token;
@@ -157,30 +141,29 @@ public class AuthServiceImpl implements IAuthService {
     @Override
     public String refreshAccessToken(String refreshToken) {
         try {
-            // 1. Validar el refresh token
-            if (!jwtUtil.validateToken(refreshToken)) {
+            // 1. Validar el refresh token (firma y expiración en una sola verificación)
+            Claims claims;
+            try {
+                claims = jwtUtil.parseClaims(refreshToken);
+            } catch (JwtException | IllegalArgumentException e) {
                 throw new RuntimeException("Refresh token inválido o expirado");
             }
 
             // 2. Extraer el username del refresh token
-            String username = jwtUtil.extractUsername(refreshToken);
+            String username = claims.getSubject();
 
-            // 3. Cargar UserDetails para verificar que el usuario existe
-            UserDetails userDetails;
-            try {
-                userDetails = userDetailsService.loadUserByUsername(username);
-            } catch (UsernameNotFoundException e) {
-                throw new RuntimeException("Usuario no encontrado");
-            }
+            // 3. Cargar el usuario para verificar que existe
+            User user = userRepository.findByEmail(username)
+                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-            // 4. Validar que el refresh token corresponde al usuario
-            // (opcional, dependiendo de tu estrategia)
-            if (!username.equals(userDetails.getUsername())) {
+            // 4. Validar que el refresh token no haya sido revocado (cambio de contraseña o desactivación)
+            Long tokenVersion = jwtUtil.extractTokenVersion(claims);
+            if (!user.isActive() || (tokenVersion != null && tokenVersion != user.currentTokenVersion())) {
                 throw new RuntimeException("Refresh token no válido para este usuario");
             }
 
             // 5. Generar nuevo access token
-            return jwtUtil.generateToken(userDetails);
+            return jwtUtil.generateToken(user.getEmail(), user.getIdUser(), user.getRole(), user.currentTokenVersion());
 
         } catch (Exception e) {
             throw new RuntimeException("Error refrescando token: " + e.getMessage(), e);
@@ -190,9 +173,9 @@ public class AuthServiceImpl implements IAuthService {
     @Override
     public String generateRefreshToken(String email) {
         try {
-            // Cargar UserDetails para generar el refresh token
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            return jwtUtil.generateRefreshToken(userDetails);
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("No se encontro ningun usuario con el correo electrónico: " + email));
+            return jwtUtil.generateRefreshToken(user.getEmail(), user.currentTokenVersion());
         } catch (UsernameNotFoundException e) {
             throw new RuntimeException("Usuario no encontrado: " + email, e);
         } catch (Exception e) {
@@ -200,9 +183,20 @@ public class AuthServiceImpl implements IAuthService {
         }
     }
 
+    /**
+     * Genera el access token de un usuario incluyendo su ID, rol y versión de tokens.
+     * @param email email del usuario autenticado
+     * @return access token firmado
+     */
+    private String generateAccessToken(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("No se encontro ningun usuario con el correo electrónico: " + email));
+        return jwtUtil.generateToken(user.getEmail(), user.getIdUser(), user.getRole(), user.currentTokenVersion());
+    }
+
     // ---------------- FORGOT PASSWORD ----------------
     @Override
-    public void requestPasswordReset(String email) throws IOException {
+    public void requestPasswordReset(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado"));
 
@@ -220,7 +214,7 @@ public class AuthServiceImpl implements IAuthService {
         String subject = "Recuperación de contraseña - FitZone";
         emailService.sendTemplatedEmail(user.getEmail(), subject, "password-reset", context);
 
-        logger.info("Correo de recuperación enviado a {}", email);
+        logger.info("Correo de recuperación encolado para envío a {}", email);
     }
 
     @Override
@@ -235,7 +229,11 @@ public class AuthServiceImpl implements IAuthService {
         user.setPassword(passwordEncoder.encode(request.newPassword()));
         user.setPasswordResetToken(null);
         user.setPasswordResetTokenExpiryDate(null);
+        // Los tokens emitidos antes del cambio de contraseña dejan de ser válidos
+        user.incrementTokenVersion();
         userRepository.save(user);
+        userDetailsCache.invalidate(user.getEmail());
+        tokenVersionRegistry.update(user.getIdUser(), user.currentTokenVersion(), user.isActive());
 
         logger.info("Contraseña restablecida para {}", user.getEmail());
     }
@@ -1,17 +1,21 @@
 package co.edu.uniquindio.FitZone.service.impl;
 
 import co.edu.uniquindio.FitZone.dto.request.TimeslotRequest;
+import co.edu.uniquindio.FitZone.dto.response.FranchiseHoursNowResponse;
 import co.edu.uniquindio.FitZone.dto.response.FranchiseResponse;
 import co.edu.uniquindio.FitZone.exception.FranchiseNotFoundException;
 import co.edu.uniquindio.FitZone.model.entity.Franchise;
 import co.edu.uniquindio.FitZone.model.entity.Timeslot;
 import co.edu.uniquindio.FitZone.repository.FranchiseRepository;
+import co.edu.uniquindio.FitZone.service.impl.hours.OpeningHoursEvaluator;
+import co.edu.uniquindio.FitZone.service.impl.hours.WeeklyHours;
 import co.edu.uniquindio.FitZone.service.interfaces.IFranchiseService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 /**
@@ -24,9 +28,11 @@ public class FranchiseServiceImpl implements IFranchiseService {
     private static final Logger logger = LoggerFactory.getLogger(FranchiseServiceImpl.class);
     
     private final FranchiseRepository franchiseRepository;
+    private final OpeningHoursEvaluator openingHoursEvaluator;
 
-    public FranchiseServiceImpl(FranchiseRepository franchiseRepository) {
+    public FranchiseServiceImpl(FranchiseRepository franchiseRepository, OpeningHoursEvaluator openingHoursEvaluator) {
         this.franchiseRepository = franchiseRepository;
+        this.openingHoursEvaluator = openingHoursEvaluator;
     }
 
 
@@ -43,7 +49,6 @@ public class FranchiseServiceImpl implements IFranchiseService {
                 });
         
         logger.debug("Franquicia FitZone encontrada con ID: {}", franchise.getIdFranchise());
-        logger.debug("Horarios actuales de la franquicia: {}", franchise.getTimeslots().size());
                 
         // Limpiar los horarios antiguos y agregar los nuevos
         logger.debug("Limpiando horarios antiguos de la franquicia");
@@ -65,7 +70,8 @@ public class FranchiseServiceImpl implements IFranchiseService {
         logger.debug("Guardando franquicia actualizada en la base de datos");
         Franchise updatedFranchise = franchiseRepository.save(franchise);
         logger.info("Horarios de la franquicia FitZone actualizados exitosamente. Total de horarios: {}", 
-            updatedFranchise.getTimeslots().size());
+            timeslots.size());
+        openingHoursEvaluator.reload();
 
         return new FranchiseResponse(
                 updatedFranchise.getIdFranchise(),
@@ -74,5 +80,21 @@ public class FranchiseServiceImpl implements IFranchiseService {
         );
     }
 
+    @Override
+    public FranchiseHoursNowResponse getHoursNow() {
+        WeeklyHours hours = openingHoursEvaluator.findByFranchiseName("FitZone")
+                .orElseThrow(() -> {
+                    logger.error("Franquicia FitZone no encontrada en los horarios compilados");
+                    return new FranchiseNotFoundException(" Franquicia no encontrada");
+                });
 
+        LocalDateTime now = LocalDateTime.now();
+        return new FranchiseHoursNowResponse(
+                "FitZone",
+                hours.isOpen(now),
+                now,
+                hours.nextOpening(now).orElse(null),
+                hours.nextClosing(now).orElse(null)
+        );
+    }
 }
@@ -1,7 +1,9 @@
 package co.edu.uniquindio.FitZone.service.impl;
 
 import co.edu.uniquindio.FitZone.dto.request.LocationRequest;
+import co.edu.uniquindio.FitZone.dto.response.LocationOccupancyResponse;
 import co.edu.uniquindio.FitZone.dto.response.LocationResponse;
+import co.edu.uniquindio.FitZone.dto.response.OccupancyMinuteResponse;
 import co.edu.uniquindio.FitZone.exception.FranchiseNotFoundException;
 import co.edu.uniquindio.FitZone.exception.LocationNotFoundException;
 import co.edu.uniquindio.FitZone.exception.ResourceAlreadyExistsException;
@@ -9,6 +11,9 @@ import co.edu.uniquindio.FitZone.model.entity.Franchise;
 import co.edu.uniquindio.FitZone.model.entity.Location;
 import co.edu.uniquindio.FitZone.repository.FranchiseRepository;
 import co.edu.uniquindio.FitZone.repository.LocationRepository;
+import co.edu.uniquindio.FitZone.service.impl.cache.LocationDirectory;
+import co.edu.uniquindio.FitZone.service.impl.checkin.OccupancyTracker;
+import co.edu.uniquindio.FitZone.service.impl.hours.OpeningHoursEvaluator;
 import co.edu.uniquindio.FitZone.service.interfaces.ILocationService;
 
 import org.slf4j.Logger;
@@ -23,6 +28,9 @@ import java.util.List;
  * Proporciona métodos para registrar, actualizar, eliminar y consultar sedes.
  * Utiliza repositorios para interactuar con la base de datos y maneja excepciones
  * específicas para casos como sede no encontrada o nombre ya registrado.
+ * Las consultas y las validaciones de unicidad se responden desde LocationDirectory,
+ * que se actualiza después de cada registro, actualización o desactivación. La ocupación se lee
+ * de OccupancyTracker, también en memoria.
  */
 @Service
 public class LocationServiceImpl implements ILocationService {
@@ -31,10 +39,18 @@ public class LocationServiceImpl implements ILocationService {
 
     private final LocationRepository locationRepository;
     private final FranchiseRepository franchiseRepository;
+    private final LocationDirectory locationDirectory;
+    private final OccupancyTracker occupancyTracker;
+    private final OpeningHoursEvaluator openingHoursEvaluator;
 
-    public LocationServiceImpl(LocationRepository locationRepository, FranchiseRepository franchiseRepository) {
+    public LocationServiceImpl(LocationRepository locationRepository, FranchiseRepository franchiseRepository,
+                               LocationDirectory locationDirectory, OccupancyTracker occupancyTracker,
+                               OpeningHoursEvaluator openingHoursEvaluator) {
         this.locationRepository = locationRepository;
         this.franchiseRepository = franchiseRepository;
+        this.locationDirectory = locationDirectory;
+        this.occupancyTracker = occupancyTracker;
+        this.openingHoursEvaluator = openingHoursEvaluator;
     }
 
 
@@ -52,16 +68,21 @@ public class LocationServiceImpl implements ILocationService {
 
         logger.debug("Franquicia FitZone encontrada, verificando duplicados");
 
-        if(locationRepository.existsByName(request.name())){
+        if(locationDirectory.existsByName(request.name())){
             logger.warn("Intento de registro de sede con nombre duplicado: {}", request.name());
             throw new ResourceAlreadyExistsException("El nombre de la sede ya se encuentra registrado");
         }
 
-        if(locationRepository.existsByAddress(request.address())){
+        if(locationDirectory.existsByAddress(request.address())){
             logger.warn("Intento de registro de sede con dirección duplicada: {}", request.address());
             throw  new ResourceAlreadyExistsException("La dirección ingresada ya corresponde a una sede registrada");
         }
 
+        if(locationDirectory.existsByPhoneNumber(request.phoneNumber())){
+            logger.warn("Intento de registro de sede con teléfono duplicado: {}", request.phoneNumber());
+            throw new ResourceAlreadyExistsException("El teléfono ingresado ya corresponde a una sede registrada");
+        }
+
         logger.debug("Validaciones de duplicados exitosas, creando nueva sede");
         Location location = new Location();
         location.setName(request.name());
@@ -76,13 +97,17 @@ public class LocationServiceImpl implements ILocationService {
         Location savedLocation = locationRepository.save(location);
         logger.info("Sede registrada exitosamente con ID: {}", savedLocation.getIdLocation());
 
-        return new LocationResponse(
+        LocationResponse response = new LocationResponse(
                 savedLocation.getIdLocation(),
                 savedLocation.getName(),
                 savedLocation.getAddress(),
                 savedLocation.getPhoneNumber(),
                 savedLocation.getIsActive()
         );
+        locationDirectory.put(response);
+        // La sede nueva necesita su franquicia en los horarios compilados para el control de acceso
+        openingHoursEvaluator.reload();
+        return response;
     }
 
 
@@ -100,17 +125,17 @@ public class LocationServiceImpl implements ILocationService {
 
         logger.debug("Sede encontrada: {} (ID: {})", existingLocation.getName(), idLocation);
 
-        if(!existingLocation.getName().equals(request.name()) && locationRepository.existsByName(request.name())){
+        if(!existingLocation.getName().equals(request.name()) && locationDirectory.existsByName(request.name())){
             logger.warn("Intento de actualización con nombre duplicado: {}", request.name());
             throw new ResourceAlreadyExistsException("El nuevo nombre de la sede ya se encuentra registrado");
         }
 
-        if(!existingLocation.getAddress().equals(request.address()) && locationRepository.existsByAddress(request.address())){
+        if(!existingLocation.getAddress().equals(request.address()) && locationDirectory.existsByAddress(request.address())){
             logger.warn("Intento de actualización con dirección duplicada: {}", request.address());
             throw new ResourceAlreadyExistsException("La nueva dirección de la sede ya se encuentra asignada a otra sede");
         }
 
-        if(!existingLocation.getPhoneNumber().equals(request.phoneNumber()) && locationRepository.existsByPhoneNumber(request.phoneNumber())){
+        if(!existingLocation.getPhoneNumber().equals(request.phoneNumber()) && locationDirectory.existsByPhoneNumber(request.phoneNumber())){
             logger.warn("Intento de actualización con teléfono duplicado: {}", request.phoneNumber());
             throw new ResourceAlreadyExistsException("El nuevo teléfono de la sede ya se encuentra asignado a otra sede");
         }
@@ -125,13 +150,15 @@ public class LocationServiceImpl implements ILocationService {
         logger.info("Sede actualizada exitosamente - ID: {}, Nombre: {}", 
             updatedLocation.getIdLocation(), updatedLocation.getName());
 
-        return new LocationResponse(
+        LocationResponse response = new LocationResponse(
                 updatedLocation.getIdLocation(),
                 updatedLocation.getName(),
                 updatedLocation.getAddress(),
                 updatedLocation.getPhoneNumber(),
                 updatedLocation.getIsActive()
         );
+        locationDirectory.put(response);
+        return response;
     }
 
     @Override
@@ -149,6 +176,13 @@ public class LocationServiceImpl implements ILocationService {
         
         logger.debug("Desactivando sede y guardando cambios");
         locationRepository.save(location);
+        locationDirectory.put(new LocationResponse(
+                location.getIdLocation(),
+                location.getName(),
+                location.getAddress(),
+                location.getPhoneNumber(),
+                location.getIsActive()
+        ));
         logger.info("Sede desactivada exitosamente - ID: {}, Nombre: {}", idLocation, location.getName());
     }
 
@@ -156,96 +190,83 @@ public class LocationServiceImpl implements ILocationService {
     public LocationResponse getLocationById(Long idLocation) {
         logger.debug("Consultando sede por ID: {}", idLocation);
 
-        Location location = locationRepository.findById(idLocation)
+        LocationResponse location = locationDirectory.findById(idLocation)
                 .orElseThrow( () -> {
                     logger.error("Sede no encontrada con ID: {}", idLocation);
                     return new LocationNotFoundException("Sede no encontrada");
                 });
 
-        logger.debug("Sede encontrada: {} (ID: {})", location.getName(), idLocation);
-        return new LocationResponse(
-                location.getIdLocation(),
-                location.getName(),
-                location.getAddress(),
-                location.getPhoneNumber(),
-                location.getIsActive()
-        );
+        logger.debug("Sede encontrada: {} (ID: {})", location.name(), idLocation);
+        return location;
     }
 
     @Override
     public List<LocationResponse> getAllLocations() {
         logger.debug("Consultando todas las sedes activas");
-        
-        List<Location> locations = locationRepository.findByIsActiveTrue();
-        logger.debug("Se encontraron {} sedes activas", locations.size());
 
-        return locations.stream()
-                .map(location -> new LocationResponse(
-                        location.getIdLocation(),
-                        location.getName(),
-                        location.getAddress(),
-                        location.getPhoneNumber(),
-                        location.getIsActive()
-                )).toList();
+        List<LocationResponse> locations = locationDirectory.findActive();
+        logger.debug("Se encontraron {} sedes activas", locations.size());
+        return locations;
     }
 
     @Override
     public LocationResponse getLocationByPhoneNumber(String phoneNumber) {
         logger.debug("Consultando sede por número de teléfono: {}", phoneNumber);
 
-        Location location = locationRepository.findByPhoneNumber(phoneNumber)
+        LocationResponse location = locationDirectory.findByPhoneNumber(phoneNumber)
                 .orElseThrow( () -> {
                     logger.error("Sede no encontrada con número de teléfono: {}", phoneNumber);
                     return new LocationNotFoundException("Sede no encontrada");
                 });
 
-        logger.debug("Sede encontrada por teléfono: {} (ID: {})", location.getName(), location.getIdLocation());
-        return new LocationResponse(
-                location.getIdLocation(),
-                location.getName(),
-                location.getAddress(),
-                location.getPhoneNumber(),
-                location.getIsActive()
-        );
+        logger.debug("Sede encontrada por teléfono: {} (ID: {})", location.name(), location.idLocation());
+        return location;
     }
 
     @Override
     public LocationResponse getLocationAddress(String address) {
         logger.debug("Consultando sede por dirección: {}", address);
 
-        Location location = locationRepository.findByAddress(address)
+        LocationResponse location = locationDirectory.findByAddress(address)
                 .orElseThrow( () -> {
                     logger.error("Sede no encontrada con dirección: {}", address);
                     return new LocationNotFoundException("Sede no encontrada");
                 });
 
-        logger.debug("Sede encontrada por dirección: {} (ID: {})", location.getName(), location.getIdLocation());
-        return new LocationResponse(
-                location.getIdLocation(),
-                location.getName(),
-                location.getAddress(),
-                location.getPhoneNumber(),
-                location.getIsActive()
-        );
+        logger.debug("Sede encontrada por dirección: {} (ID: {})", location.name(), location.idLocation());
+        return location;
     }
 
     @Override
     public LocationResponse getByName(String name) {
         logger.debug("Consultando sede por nombre: {}", name);
 
-        Location location = locationRepository.findByName(name)
+        LocationResponse location = locationDirectory.findByName(name)
                 .orElseThrow( () -> {
                     logger.error("Sede no encontrada con nombre: {}", name);
                     return new LocationNotFoundException("Sede no encontrada");
                 });
 
-        logger.debug("Sede encontrada por nombre: {} (ID: {})", name, location.getIdLocation());
-        return new LocationResponse(
-                location.getIdLocation(),
-                location.getName(),
-                location.getAddress(),
-                location.getPhoneNumber(),
-                location.getIsActive()
-        );
+        logger.debug("Sede encontrada por nombre: {} (ID: {})", name, location.idLocation());
+        return location;
+    }
+
+    @Override
+    public LocationOccupancyResponse getOccupancy(Long idLocation) {
+        requireLocation(idLocation);
+        return occupancyTracker.current(idLocation);
+    }
+
+    @Override
+    public List<OccupancyMinuteResponse> getOccupancyHistory(Long idLocation) {
+        requireLocation(idLocation);
+        return occupancyTracker.history(idLocation);
+    }
+
+    private void requireLocation(Long idLocation) {
+        if (locationDirectory.findById(idLocation).isEmpty()) {
+            logger.error("Sede no encontrada para consultar ocupación con ID: {}", idLocation);
+            throw new LocationNotFoundException("Sede no encontrada");
+        }
     }
 }
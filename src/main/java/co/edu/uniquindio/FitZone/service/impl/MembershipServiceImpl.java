@@ -3,26 +3,36 @@ package co.edu.uniquindio.FitZone.service.impl;
 import co.edu.uniquindio.FitZone.dto.request.CreateMembershipRequest;
 import co.edu.uniquindio.FitZone.dto.request.SuspendMembershipRequest;
 import co.edu.uniquindio.FitZone.dto.response.MembershipResponse;
+import co.edu.uniquindio.FitZone.dto.response.MembershipTypeResponse;
 import co.edu.uniquindio.FitZone.exception.LocationNotFoundException;
 import co.edu.uniquindio.FitZone.exception.MembershipTypeNotFoundException;
 import co.edu.uniquindio.FitZone.exception.ResourceAlreadyExistsException;
 import co.edu.uniquindio.FitZone.exception.UserNotFoundException;
-import co.edu.uniquindio.FitZone.integration.payment.StripeService;
 import co.edu.uniquindio.FitZone.model.entity.Location;
 import co.edu.uniquindio.FitZone.model.entity.Membership;
-import co.edu.uniquindio.FitZone.model.entity.MembershipType;
+import co.edu.uniquindio.FitZone.model.entity.PaymentIntentRecord;
 import co.edu.uniquindio.FitZone.model.entity.User;
 import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
 import co.edu.uniquindio.FitZone.repository.LocationRepository;
 import co.edu.uniquindio.FitZone.repository.MembershipRepository;
 import co.edu.uniquindio.FitZone.repository.MembershipTypeRepository;
+import co.edu.uniquindio.FitZone.repository.PaymentIntentRepository;
 import co.edu.uniquindio.FitZone.repository.UserRepository;
+import co.edu.uniquindio.FitZone.service.impl.cache.LocationDirectory;
+import co.edu.uniquindio.FitZone.service.impl.cache.MembershipTypeCatalog;
+import co.edu.uniquindio.FitZone.service.impl.cache.RecentPaymentIntents;
+import co.edu.uniquindio.FitZone.service.impl.checkin.MembershipEligibilityTable;
+import co.edu.uniquindio.FitZone.service.impl.payment.PaymentConfirmationService;
 import co.edu.uniquindio.FitZone.service.interfaces.IMembershipService;
-import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
@@ -31,6 +41,11 @@ import java.time.temporal.ChronoUnit;
  * Implementación del servicio de membresías.
  * Maneja la lógica de negocio relacionada con la creación, suspensión,
  * reactivación y cancelación de membresías.
+ * Las membresías se crean pendientes de pago sin llamar a Stripe en la solicitud;
+ * PaymentConfirmationService las activa cuando el pago se confirma.
+ * Cada intención de pago se registra en el libro payment_intents en la misma transacción que la
+ * membresía; su llave única hace que repetir la compra, incluso en paralelo, devuelva la membresía
+ * ya creada en lugar de crear otra.
  */
 @Service
 public class MembershipServiceImpl implements IMembershipService {
@@ -40,15 +55,27 @@ public class MembershipServiceImpl implements IMembershipService {
     private final MembershipRepository membershipRepository;
     private final UserRepository userRepository;
     private final MembershipTypeRepository membershipTypeRepository;
+    private final MembershipTypeCatalog membershipTypeCatalog;
     private final LocationRepository locationRepository;
-    private final StripeService stripeService;
-
-    public MembershipServiceImpl(MembershipRepository membershipRepository, UserRepository userRepository, MembershipTypeRepository membershipTypeRepository, LocationRepository locationRepository, StripeService stripeService) {
+    private final LocationDirectory locationDirectory;
+    private final PaymentConfirmationService paymentConfirmationService;
+    private final MembershipEligibilityTable eligibilityTable;
+    private final PaymentIntentRepository paymentIntentRepository;
+    private final RecentPaymentIntents recentPaymentIntents;
+    private final TransactionTemplate transactionTemplate;
+
+    public MembershipServiceImpl(MembershipRepository membershipRepository, UserRepository userRepository, MembershipTypeRepository membershipTypeRepository, MembershipTypeCatalog membershipTypeCatalog, LocationRepository locationRepository, LocationDirectory locationDirectory, PaymentConfirmationService paymentConfirmationService, MembershipEligibilityTable eligibilityTable, PaymentIntentRepository paymentIntentRepository, RecentPaymentIntents recentPaymentIntents, PlatformTransactionManager transactionManager) {
         this.membershipRepository = membershipRepository;
         this.userRepository = userRepository;
         this.membershipTypeRepository = membershipTypeRepository;
+        this.membershipTypeCatalog = membershipTypeCatalog;
         this.locationRepository = locationRepository;
-        this.stripeService = stripeService;
+        this.locationDirectory = locationDirectory;
+        this.paymentConfirmationService = paymentConfirmationService;
+        this.eligibilityTable = eligibilityTable;
+        this.paymentIntentRepository = paymentIntentRepository;
+        this.recentPaymentIntents = recentPaymentIntents;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
 
@@ -58,6 +85,18 @@ public class MembershipServiceImpl implements IMembershipService {
         logger.debug("Datos de la membresía - Tipo: {}, Sede: {}, PaymentIntent: {}", 
             request.MembershipTypeId(), request.mainLocationId(), request.paymentIntentId());
 
+        MembershipResponse recent = recentPaymentIntents.find(request.paymentIntentId(), request.userId()).orElse(null);
+        if (recent != null) {
+            logger.debug("Solicitud repetida para la intención de pago {}, respondida desde caché", request.paymentIntentId());
+            return recent;
+        }
+
+        if (paymentIntentRepository.findByPaymentIntentId(request.paymentIntentId()).isPresent()) {
+            logger.info("Solicitud repetida para la intención de pago {}, se devuelve la membresía existente",
+                request.paymentIntentId());
+            return membershipForPaymentIntent(request);
+        }
+
         //Validar que los recursos existan
         User user = userRepository.findById(request.userId())
                 .orElseThrow( () -> {
@@ -65,16 +104,29 @@ public class MembershipServiceImpl implements IMembershipService {
                     return new UserNotFoundException("El usuario no existe");
                 });
 
-        logger.debug("Usuario encontrado: {} (ID: {})", user.getPersonalInformation().getFirstName(), request.userId());
+        logger.debug("Usuario encontrado con ID: {}", request.userId());
 
         if(user.getMembership() != null){
-            logger.debug("Usuario ya tiene membresía con estado: {}", user.getMembership().getStatus());
+            // Solo el ID: leer otro campo aquí inicializaría la membresía perezosa solo para el registro
+            logger.debug("Usuario ya tiene membresía con ID: {}", user.getMembership().getIdMembership());
+
+            if (request.paymentIntentId().equals(user.getMembership().getPaymentIntentId())) {
+                // Solicitud repetida que llegó mientras se confirmaba la primera
+                logger.info("Solicitud repetida para la intención de pago {}, se devuelve la membresía existente",
+                    request.paymentIntentId());
+                return membershipForPaymentIntent(request);
+            }
 
             if(user.getMembership().getStatus() == MembershipStatus.ACTIVE){
                 logger.warn("Intento de crear membresía para usuario con membresía activa - ID: {}", request.userId());
                 throw new ResourceAlreadyExistsException("El usuario ya tiene una membresía activa");
             }
 
+            if(user.getMembership().getStatus() == MembershipStatus.PENDING_PAYMENT){
+                logger.warn("Intento de crear membresía para usuario con membresía pendiente de pago - ID: {}", request.userId());
+                throw new ResourceAlreadyExistsException("El usuario ya tiene una membresía pendiente de pago");
+            }
+
             if(user.getMembership().getStatus() == MembershipStatus.SUSPENDED ){
                 logger.warn("Intento de crear membresía para usuario con membresía suspendida - ID: {}, Razón: {}", 
                     request.userId(), user.getMembership().getSuspensionReason());
@@ -84,149 +136,159 @@ public class MembershipServiceImpl implements IMembershipService {
         }
 
         logger.debug("Validando tipo de membresía con ID: {}", request.MembershipTypeId());
-        MembershipType type = membershipTypeRepository.findById(request.MembershipTypeId())
+        MembershipTypeResponse type = membershipTypeCatalog.findById(request.MembershipTypeId())
                 .orElseThrow(()-> {
                     logger.error("Tipo de membresía no encontrado con ID: {}", request.MembershipTypeId());
                     return new MembershipTypeNotFoundException("Tipo de membresía no encontrada en el sistema");
                 });
 
         logger.debug("Validando sede principal con ID: {}", request.mainLocationId());
-        Location location = locationRepository.findById(request.mainLocationId())
-                .orElseThrow(()-> {
-                    logger.error("Sede principal no encontrada con ID: {}", request.mainLocationId());
-                    return new LocationNotFoundException("Sede principal no encontrada");
-                });
+        if(locationDirectory.findById(request.mainLocationId()).isEmpty()){
+            logger.error("Sede principal no encontrada con ID: {}", request.mainLocationId());
+            throw new LocationNotFoundException("Sede principal no encontrada");
+        }
+        Location location = locationRepository.getReferenceById(request.mainLocationId());
+
+        MembershipResponse response;
+        try {
+            response = transactionTemplate.execute(status -> savePendingMembership(request, user, type, location));
+        } catch (DataIntegrityViolationException e) {
+            // Otra solicitud con la misma intención de pago la registró primero
+            logger.warn("Intención de pago ya registrada por otra solicitud {}, se devuelve la membresía existente",
+                request.paymentIntentId());
+            return membershipForPaymentIntent(request);
+        }
 
-        try{
-            logger.debug("Verificando pago con Stripe - PaymentIntent: {}", request.paymentIntentId());
-            //Verificar el pago con Stripe usando el ID de la intención de pago
-            PaymentIntent paymentIntent = stripeService.getPaymentIntent(request.paymentIntentId());
+        logger.info("Membresía creada pendiente de pago - ID: {}, Usuario ID: {}, Tipo: {}",
+            response.id(), request.userId(), type.name());
+        return response;
+    }
 
-            if(!"succeeded".equals(paymentIntent.getStatus())){
-                logger.error("Pago no completado correctamente - PaymentIntent: {}, Estado: {}", 
-                    request.paymentIntentId(), paymentIntent.getStatus());
-                throw new RuntimeException("El pago no se ha completado correctamente");
+    /**
+     * Registra la intención de pago y crea la membresía pendiente en la transacción actual.
+     * La inserción en el libro va primero: si otra solicitud ya registró la misma intención, falla
+     * por la llave única antes de crear la membresía (en PostgreSQL espera a que la otra transacción
+     * termine). Solo la solicitud que registra la intención programa la verificación contra Stripe.
+     * La respuesta se guarda en RecentPaymentIntents antes de confirmar la transacción: la verificación
+     * empieza después del commit, así que si activa o cancela la membresía su invalidación siempre llega
+     * después y la caché no queda con la respuesta pendiente. Si la transacción no se confirma se descarta.
+     */
+    private MembershipResponse savePendingMembership(CreateMembershipRequest request, User user,
+                                                     MembershipTypeResponse type, Location location) {
+        PaymentIntentRecord paymentIntent = paymentIntentRepository.saveAndFlush(
+                new PaymentIntentRecord(request.paymentIntentId(), user.getIdUser()));
+
+        logger.debug("Creando membresía pendiente de pago - PaymentIntent: {}", request.paymentIntentId());
+        // La membresía queda pendiente hasta que Stripe confirme el pago (webhook o verificación en segundo plano)
+        Membership newMembership = new Membership();
+        newMembership.setUser(user);
+        // El tipo ya fue validado en el catálogo, basta con una referencia para la llave foránea
+        newMembership.setType(membershipTypeRepository.getReferenceById(type.idMembershipType()));
+        newMembership.setLocation(location);
+        newMembership.setPrice(type.monthlyPrice());
+        newMembership.setStartDate(LocalDate.now());
+        newMembership.setStatus(MembershipStatus.PENDING_PAYMENT);
+        newMembership.setPaymentIntentId(request.paymentIntentId());
+        newMembership.setPaymentRequestedAt(paymentIntent.getCreatedAt());
+        newMembership.setPaymentLastPolledAt(paymentIntent.getCreatedAt());
+
+        Membership savedMembership = membershipRepository.save(newMembership);
+        logger.debug("Membresía guardada con ID: {}", savedMembership.getIdMembership());
+        paymentIntent.setMembershipId(savedMembership.getIdMembership());
+        paymentIntentRepository.save(paymentIntent);
+
+        //Actualizamos la referencia de la membresía en el usuario
+        logger.debug("Actualizando referencia de membresía en el usuario");
+        user.setMembership(savedMembership);
+        user.setMainLocation(location);
+        userRepository.save(user);
+        eligibilityTable.refreshUserAfterCommit(user.getIdUser());
+        paymentConfirmationService.verifyAfterCommit(request.paymentIntentId());
+
+        MembershipResponse response = new MembershipResponse(
+                savedMembership.getIdMembership(),
+                user.getIdUser(),
+                type.name(),
+                request.mainLocationId(),
+                savedMembership.getStartDate(),
+                savedMembership.getEndDate(),
+                savedMembership.getStatus()
+        );
+        recentPaymentIntents.put(request.paymentIntentId(), request.userId(), response);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    recentPaymentIntents.invalidate(request.paymentIntentId());
+                }
             }
+        });
 
-            logger.debug("Pago verificado exitosamente, creando membresía en la base de datos");
-            // Creamos y guardamos la membresía en la base de datos
-            Membership newMembership = new Membership();
-            newMembership.setUser(user);
-            newMembership.setType(type);
-            newMembership.setLocation(location);
-            newMembership.setPrice(type.getMonthlyPrice());
-            newMembership.setStartDate(LocalDate.now());
-            newMembership.setEndDate(LocalDate.now().plusMonths(1));
-            newMembership.setStatus(MembershipStatus.ACTIVE);
-
-            Membership savedMembership = membershipRepository.save(newMembership);
-            logger.debug("Membresía guardada con ID: {}", savedMembership.getIdMembership());
-
-            //Actualizamos la referencia de la membresía en el usuario
-            logger.debug("Actualizando referencia de membresía en el usuario");
-            user.setMembership(savedMembership);
-            user.setMainLocation(location);
-            userRepository.save(user);
-
-            logger.info("Membresía creada exitosamente - ID: {}, Usuario: {}, Tipo: {}", 
-                savedMembership.getIdMembership(), user.getPersonalInformation().getFirstName(), type.getName());
-
-            //Retornamos la respuesta al cliente
-            return new MembershipResponse(
-                    savedMembership.getIdMembership(),
-                    savedMembership.getUser().getIdUser(),
-                    savedMembership.getType().getName(),
-                    savedMembership.getLocation().getIdLocation(),
-                    savedMembership.getStartDate(),
-                    savedMembership.getEndDate(),
-                    savedMembership.getStatus()
-            );
-
-        } catch (StripeException e) {
-            logger.error("Error al verificar el pago con Stripe - PaymentIntent: {}, Error: {}", 
-                request.paymentIntentId(), e.getMessage(), e);
-            throw new RuntimeException("Error al verificar el pago con Stripe: " + e.getMessage());
+        //Retornamos la respuesta al cliente
+        return response;
+    }
+
+    /**
+     * Devuelve la membresía ya creada con la intención de pago de la solicitud, para que repetir
+     * la solicitud no cree otra membresía. Solo se guarda en caché si el pago ya se resolvió: una
+     * membresía pendiente leída aquí puede activarse antes de guardarla y la caché la devolvería vencida.
+     * @param request solicitud de creación repetida
+     * @return la membresía del usuario
+     * @throws ResourceAlreadyExistsException si la intención de pago pertenece a otro usuario
+     */
+    private MembershipResponse membershipForPaymentIntent(CreateMembershipRequest request) {
+        Long ownerId = paymentIntentRepository.findByPaymentIntentId(request.paymentIntentId())
+                .map(PaymentIntentRecord::getUserId)
+                .orElse(null);
+        if (!request.userId().equals(ownerId)) {
+            logger.warn("Intención de pago ya usada por otro usuario - PaymentIntent: {}", request.paymentIntentId());
+            throw new ResourceAlreadyExistsException("La intención de pago ya fue usada para otra membresía");
         }
+        MembershipResponse membership = getMembershipByUserId(request.userId());
+        if (membership.status() != MembershipStatus.PENDING_PAYMENT) {
+            recentPaymentIntents.put(request.paymentIntentId(), request.userId(), membership);
+        }
+        return membership;
     }
 
     @Override
     public MembershipResponse getMembershipByUserId(Long userId) {
         logger.debug("Consultando membresía por ID de usuario: {}", userId);
 
-        User user = userRepository.findById(userId)
+        return membershipRepository.findResponseByUserId(userId)
                 .orElseThrow(() -> {
-                    logger.error("Usuario no encontrado para consultar membresía con ID: {}", userId);
-                    return new UserNotFoundException("El usuario no existe");
+                    if (!userRepository.existsById(userId)) {
+                        logger.error("Usuario no encontrado para consultar membresía con ID: {}", userId);
+                        return new UserNotFoundException("El usuario no existe");
+                    }
+                    logger.warn("Usuario sin membresía activa - ID: {}", userId);
+                    return new MembershipTypeNotFoundException("El usuario no tiene una membresía activa");
                 });
-
-        if (user.getMembership() == null) {
-            logger.warn("Usuario sin membresía activa - ID: {}", userId);
-            throw new MembershipTypeNotFoundException("El usuario no tiene una membresía activa");
-        }
-
-        logger.debug("Membresía encontrada para usuario: {} (ID: {})", 
-            user.getPersonalInformation().getFirstName(), userId);
-        
-        Membership membership = user.getMembership();
-        return new MembershipResponse(
-                membership.getIdMembership(),
-                membership.getUser().getIdUser(),
-                membership.getType().getName(),
-                membership.getLocation().getIdLocation(),
-                membership.getStartDate(),
-                membership.getEndDate(),
-                membership.getStatus()
-        );
     }
 
     @Override
     public MembershipResponse getMembershipByDocumentNumber(String documentNumber) {
         logger.debug("Consultando membresía por número de documento: {}", documentNumber);
 
-        User user = userRepository.findByPersonalInformation_DocumentNumber(documentNumber)
+        return membershipRepository.findResponseByDocumentNumber(documentNumber)
                 .orElseThrow(() -> {
-                    logger.error("Usuario no encontrado con número de documento: {}", documentNumber);
-                    return new UserNotFoundException("El usuario no existe");
+                    if (!userRepository.existsByPersonalInformation_DocumentNumber(documentNumber)) {
+                        logger.error("Usuario no encontrado con número de documento: {}", documentNumber);
+                        return new UserNotFoundException("El usuario no existe");
+                    }
+                    logger.warn("Usuario sin membresía activa - Documento: {}", documentNumber);
+                    return new MembershipTypeNotFoundException("El usuario no tiene una membresía activa");
                 });
-
-        if (user.getMembership() == null) {
-            logger.warn("Usuario sin membresía activa - Documento: {}", documentNumber);
-            throw new MembershipTypeNotFoundException("El usuario no tiene una membresía activa");
-        }
-
-        logger.debug("Membresía encontrada para usuario: {} (Documento: {})", 
-            user.getPersonalInformation().getFirstName(), documentNumber);
-        
-        Membership membership = user.getMembership();
-        return new MembershipResponse(
-                membership.getIdMembership(),
-                membership.getUser().getIdUser(),
-                membership.getType().getName(),
-                membership.getLocation().getIdLocation(),
-                membership.getStartDate(),
-                membership.getEndDate(),
-                membership.getStatus()
-        );
     }
 
     @Override
+    @Transactional
     public MembershipResponse suspendMembership(SuspendMembershipRequest request) {
         logger.info("Iniciando suspensión de membresía para usuario ID: {}", request.userId());
         logger.debug("Razón de suspensión: {}, Fecha fin suspensión: {}", 
             request.suspensionReason(), request.suspensionEnd());
 
-        User user = userRepository.findById(request.userId())
-                .orElseThrow(() -> {
-                    logger.error("Usuario no encontrado para suspender membresía con ID: {}", request.userId());
-                    return new UserNotFoundException("El usuario no existe");
-                });
-        
-        Membership membership = user.getMembership();
-
-        if (membership == null) {
-            logger.error("Usuario sin membresía para suspender - ID: {}", request.userId());
-            throw new MembershipTypeNotFoundException("El usuario no tiene una membresía");
-        }
+        Membership membership = findMembershipOfUser(request.userId());
 
         if (membership.getStatus() != MembershipStatus.ACTIVE) {
             logger.warn("Intento de suspender membresía no activa - ID: {}, Estado: {}", 
@@ -241,33 +303,25 @@ public class MembershipServiceImpl implements IMembershipService {
         membership.setSuspensionEnd(request.suspensionEnd());
 
         Membership updatedMembership = membershipRepository.save(membership);
-        logger.info("Membresía suspendida exitosamente - ID: {}, Usuario: {}, Razón: {}", 
-            updatedMembership.getIdMembership(), user.getPersonalInformation().getFirstName(), request.suspensionReason());
-
-        return new MembershipResponse(
-                updatedMembership.getIdMembership(),
-                updatedMembership.getUser().getIdUser(),
-                updatedMembership.getType().getName(),
-                updatedMembership.getLocation().getIdLocation(),
-                updatedMembership.getStartDate(),
-                updatedMembership.getEndDate(),
-                updatedMembership.getStatus()
-        );
+        eligibilityTable.refreshUserAfterCommit(request.userId());
+        logger.info("Membresía suspendida exitosamente - ID: {}, Usuario ID: {}, Razón: {}", 
+            updatedMembership.getIdMembership(), request.userId(), request.suspensionReason());
+
+        return getMembershipByUserId(request.userId());
     }
 
     @Override
+    @Transactional
     public MembershipResponse reactivateMembership(Long userId) {
         logger.info("Iniciando reactivación de membresía para usuario ID: {}", userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    logger.error("Usuario no encontrado para reactivar membresía con ID: {}", userId);
-                    return new UserNotFoundException("El usuario no existe");
-                });
-        
-        Membership membership = user.getMembership();
+        Membership membership = membershipRepository.findByUserId(userId).orElse(null);
 
         if (membership == null || membership.getStatus() != MembershipStatus.SUSPENDED) {
+            if (membership == null && !userRepository.existsById(userId)) {
+                logger.error("Usuario no encontrado para reactivar membresía con ID: {}", userId);
+                throw new UserNotFoundException("El usuario no existe");
+            }
             logger.warn("Intento de reactivar membresía no suspendida - ID: {}, Estado: {}", 
                 membership != null ? membership.getIdMembership() : "null", 
                 membership != null ? membership.getStatus() : "null");
@@ -288,35 +342,26 @@ public class MembershipServiceImpl implements IMembershipService {
         membership.setSuspensionEnd(null);
 
         Membership updatedMembership = membershipRepository.save(membership);
-        logger.info("Membresía reactivada exitosamente - ID: {}, Usuario: {}, Nueva fecha fin: {}", 
-            updatedMembership.getIdMembership(), user.getPersonalInformation().getFirstName(), updatedMembership.getEndDate());
-
-        return new MembershipResponse(
-                updatedMembership.getIdMembership(),
-                updatedMembership.getUser().getIdUser(),
-                updatedMembership.getType().getName(),
-                updatedMembership.getLocation().getIdLocation(),
-                updatedMembership.getStartDate(),
-                updatedMembership.getEndDate(),
-                updatedMembership.getStatus()
-        );
+        eligibilityTable.refreshUserAfterCommit(userId);
+        logger.info("Membresía reactivada exitosamente - ID: {}, Usuario ID: {}, Nueva fecha fin: {}", 
+            updatedMembership.getIdMembership(), userId, updatedMembership.getEndDate());
+
+        return getMembershipByUserId(userId);
     }
 
     @Override
+    @Transactional
     public void cancelMembership(Long userId) {
         logger.info("Iniciando cancelación de membresía para usuario ID: {}", userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    logger.error("Usuario no encontrado para cancelar membresía con ID: {}", userId);
-                    return new UserNotFoundException("El usuario no existe");
-                });
-        
-        Membership membership = user.getMembership();
+        Membership membership = findMembershipOfUser(userId);
 
-        if (membership == null) {
-            logger.error("Usuario sin membresía para cancelar - ID: {}", userId);
-            throw new MembershipTypeNotFoundException("El usuario no tiene una membresía");
+        if (membership.getStatus() == MembershipStatus.PENDING_PAYMENT) {
+            // La intención de pago sigue abierta en Stripe; cancelarla solo aquí dejaría un cobro posterior
+            // sin membresía. PaymentConfirmationService la cancela en Stripe al vencer la espera máxima
+            logger.warn("Intento de cancelar membresía pendiente de pago - ID: {}, PaymentIntent: {}",
+                membership.getIdMembership(), membership.getPaymentIntentId());
+            throw new ResourceAlreadyExistsException("La membresía está pendiente de pago y no puede cancelarse");
         }
 
         logger.debug("Cancelando membresía - ID: {}, Estado actual: {}", 
@@ -324,8 +369,28 @@ public class MembershipServiceImpl implements IMembershipService {
         
         membership.setStatus(MembershipStatus.CANCELLED);
         membershipRepository.save(membership);
+        eligibilityTable.refreshUserAfterCommit(userId);
         
-        logger.info("Membresía cancelada exitosamente - ID: {}, Usuario: {}", 
-            membership.getIdMembership(), user.getPersonalInformation().getFirstName());
+        logger.info("Membresía cancelada exitosamente - ID: {}, Usuario ID: {}", 
+            membership.getIdMembership(), userId);
+    }
+
+    /**
+     * Obtiene la membresía de un usuario sin cargar la entidad del usuario.
+     * @param userId ID del usuario
+     * @return la membresía del usuario
+     * @throws UserNotFoundException si el usuario no existe
+     * @throws MembershipTypeNotFoundException si el usuario no tiene membresía
+     */
+    private Membership findMembershipOfUser(Long userId) {
+        return membershipRepository.findByUserId(userId)
+                .orElseThrow(() -> {
+                    if (!userRepository.existsById(userId)) {
+                        logger.error("Usuario no encontrado con ID: {}", userId);
+                        return new UserNotFoundException("El usuario no existe");
+                    }
+                    logger.error("Usuario sin membresía - ID: {}", userId);
+                    return new MembershipTypeNotFoundException("El usuario no tiene una membresía");
+                });
     }
 }
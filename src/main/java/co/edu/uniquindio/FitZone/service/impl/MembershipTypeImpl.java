@@ -1,24 +1,26 @@
 package co.edu.uniquindio.FitZone.service.impl;
 
 import co.edu.uniquindio.FitZone.dto.request.MembershipTypeRequest;
+import co.edu.uniquindio.FitZone.dto.response.MembershipTypeCatalogResponse;
 import co.edu.uniquindio.FitZone.dto.response.MembershipTypeResponse;
 import co.edu.uniquindio.FitZone.exception.MembershipTypeNotFoundException;
 import co.edu.uniquindio.FitZone.exception.ResourceAlreadyExistsException;
 import co.edu.uniquindio.FitZone.model.entity.MembershipType;
 import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
 import co.edu.uniquindio.FitZone.repository.MembershipTypeRepository;
+import co.edu.uniquindio.FitZone.service.impl.cache.MembershipTypeCatalog;
 import co.edu.uniquindio.FitZone.service.interfaces.IMembershipTypeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.StreamSupport;
 
 /**
  * Implementación del servicio para gestionar tipos de membresía.
  * Proporciona métodos para crear, actualizar, consultar por ID o nombre, y listar todos los tipos de membresía.
  * Utiliza un repositorio para interactuar con la base de datos y maneja excepciones específicas.
+ * Las consultas se responden desde MembershipTypeCatalog, que se recarga después de cada creación o actualización.
  * Incluye logging detallado para facilitar el seguimiento de las operaciones.
  */
 @Service
@@ -27,9 +29,11 @@ public class MembershipTypeImpl implements IMembershipTypeService {
     private static final Logger logger = LoggerFactory.getLogger(MembershipTypeImpl.class);
 
     private final MembershipTypeRepository membershipTypeRepository;
+    private final MembershipTypeCatalog membershipTypeCatalog;
 
-    public MembershipTypeImpl(MembershipTypeRepository membershipTypeRepository) {
+    public MembershipTypeImpl(MembershipTypeRepository membershipTypeRepository, MembershipTypeCatalog membershipTypeCatalog) {
         this.membershipTypeRepository = membershipTypeRepository;
+        this.membershipTypeCatalog = membershipTypeCatalog;
     }
 
     @Override
@@ -50,6 +54,7 @@ public class MembershipTypeImpl implements IMembershipTypeService {
         MembershipType savedMembershipType = membershipTypeRepository.save(membershipType);
         logger.info("Tipo de membresía creado exitosamente - ID: {}, Nombre: {}", 
             savedMembershipType.getIdMembershipType(), savedMembershipType.getName());
+        membershipTypeCatalog.reload();
 
         return new MembershipTypeResponse(
                 savedMembershipType.getIdMembershipType(),
@@ -96,6 +101,7 @@ public class MembershipTypeImpl implements IMembershipTypeService {
         MembershipType updatedMembershipType = membershipTypeRepository.save(membershipType);
         logger.info("Tipo de membresía actualizado exitosamente - ID: {}, Nombre: {}", 
             updatedMembershipType.getIdMembershipType(), updatedMembershipType.getName());
+        membershipTypeCatalog.reload();
 
         return new MembershipTypeResponse(
                 updatedMembershipType.getIdMembershipType(),
@@ -113,70 +119,46 @@ public class MembershipTypeImpl implements IMembershipTypeService {
     public MembershipTypeResponse getMembershipTypeById(Long id) {
         logger.debug("Consultando tipo de membresía por ID: {}", id);
 
-        MembershipType membershipType = membershipTypeRepository.findById(id)
+        MembershipTypeResponse membershipType = membershipTypeCatalog.findById(id)
                 .orElseThrow(() -> {
                     logger.error("Tipo de membresía no encontrado con ID: {}", id);
                     return new MembershipTypeNotFoundException("Tipo de membresía no encontrado");
                 });
 
-        logger.debug("Tipo de membresía encontrado: {} (ID: {})", membershipType.getName(), id);
-        return new MembershipTypeResponse(
-                membershipType.getIdMembershipType(),
-                membershipType.getName(),
-                membershipType.getDescription(),
-                membershipType.getMonthlyPrice(),
-                membershipType.getAccessToAllLocation(),
-                membershipType.getGroupClassesSessionsIncluded(),
-                membershipType.getPersonalTrainingIncluded(),
-                membershipType.getSpecializedClassesIncluded()
-        );
+        logger.debug("Tipo de membresía encontrado: {} (ID: {})", membershipType.name(), id);
+        return membershipType;
     }
 
     @Override
     public MembershipTypeResponse getMembershipTypeByName(MembershipTypeName name) {
         logger.debug("Consultando tipo de membresía por nombre: {}", name);
 
-        MembershipType membershipType = membershipTypeRepository.findByName(name)
+        MembershipTypeResponse membershipType = membershipTypeCatalog.findByName(name)
                 .orElseThrow(() -> {
                     logger.error("Tipo de membresía no encontrado con nombre: {}", name);
                     return new MembershipTypeNotFoundException("Tipo de membresía no encontrado");
                 });
 
-        logger.debug("Tipo de membresía encontrado por nombre: {} (ID: {})", name, membershipType.getIdMembershipType());
-        return new MembershipTypeResponse(
-                membershipType.getIdMembershipType(),
-                membershipType.getName(),
-                membershipType.getDescription(),
-                membershipType.getMonthlyPrice(),
-                membershipType.getAccessToAllLocation(),
-                membershipType.getGroupClassesSessionsIncluded(),
-                membershipType.getPersonalTrainingIncluded(),
-                membershipType.getSpecializedClassesIncluded()
-        );
+        logger.debug("Tipo de membresía encontrado por nombre: {} (ID: {})", name, membershipType.idMembershipType());
+        return membershipType;
     }
 
     @Override
     public List<MembershipTypeResponse> getMembershipTypes() {
         logger.debug("Consultando todos los tipos de membresía");
 
-        List<MembershipTypeResponse> membershipTypes = StreamSupport
-                .stream(membershipTypeRepository.findAll().spliterator(), false)
-                .map(m -> new MembershipTypeResponse(
-                        m.getIdMembershipType(),
-                        m.getName(),
-                        m.getDescription(),
-                        m.getMonthlyPrice(),
-                        m.getAccessToAllLocation(),
-                        m.getGroupClassesSessionsIncluded(),
-                        m.getPersonalTrainingIncluded(),
-                        m.getSpecializedClassesIncluded()
-                ))
-                .toList();
+        List<MembershipTypeResponse> membershipTypes = membershipTypeCatalog.snapshot().all();
 
         logger.debug("Se encontraron {} tipos de membresía", membershipTypes.size());
         return membershipTypes;
     }
 
+    @Override
+    public MembershipTypeCatalogResponse getMembershipTypeCatalog() {
+        MembershipTypeCatalog.Snapshot snapshot = membershipTypeCatalog.snapshot();
+        return new MembershipTypeCatalogResponse(snapshot.all(), snapshot.etag());
+    }
+
     /**
      * Método privado para mapear un MembershipTypeRequest a una entidad MembershipType
      * @param membershipTypeRequest DTO de solicitud que contiene los datos del tipo de membresía
@@ -1,15 +1,18 @@
 package co.edu.uniquindio.FitZone.service.impl;
 
 import co.edu.uniquindio.FitZone.model.entity.User;
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
 import co.edu.uniquindio.FitZone.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Clase que implementa UserDetailsService para cargar los detalles del usuario
@@ -43,11 +46,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     return new UsernameNotFoundException("No se encontro ningun usuario con el correo electrónico: " + email);
                 });
 
-        logger.debug("Usuario encontrado para autenticación - ID: {}, Nombre: {}, Email: {}", 
-            user.getIdUser(), user.getPersonalInformation().getFirstName(), email);
+        logger.debug("Usuario encontrado para autenticación - ID: {}, Email: {}", user.getIdUser(), email);
 
-        //Por ahora, solo usamos el email y la contraseña
         logger.debug("Creando UserDetails para Spring Security - Email: {}", email);
-        return new org.springframework.security.core.userdetails.User(user.getEmail(), user.getPassword(), new ArrayList<>());
+        return new org.springframework.security.core.userdetails.User(user.getEmail(), user.getPassword(),
+                authoritiesFor(user.getRole()));
+    }
+
+    /**
+     * Autoridades de Spring Security que corresponden a un rol. Las usan tanto la autenticación con base
+     * de datos como la autenticación sin estado de JwtRequestFilter, para que ambas autoricen igual.
+     * @param role rol del usuario
+     * @return lista con una autoridad con el nombre del rol
+     */
+    public static List<GrantedAuthority> authoritiesFor(UserRole role) {
+        return List.of(new SimpleGrantedAuthority(role.name()));
     }
 }
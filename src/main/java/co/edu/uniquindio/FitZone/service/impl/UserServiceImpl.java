@@ -3,6 +3,7 @@ package co.edu.uniquindio.FitZone.service.impl;
 import co.edu.uniquindio.FitZone.dto.request.LoginRequest;
 import co.edu.uniquindio.FitZone.dto.request.UserRequest;
 import co.edu.uniquindio.FitZone.dto.request.UserUpdateRequest;
+import co.edu.uniquindio.FitZone.dto.response.UserPageResponse;
 import co.edu.uniquindio.FitZone.dto.response.UserResponse;
 import co.edu.uniquindio.FitZone.exception.ResourceAlreadyExistsException;
 import co.edu.uniquindio.FitZone.exception.UnauthorizedRegistrationException;
@@ -11,15 +12,23 @@ import co.edu.uniquindio.FitZone.model.entity.PersonalInformation;
 import co.edu.uniquindio.FitZone.model.entity.User;
 import co.edu.uniquindio.FitZone.model.enums.UserRole;
 import co.edu.uniquindio.FitZone.repository.UserRepository;
+import co.edu.uniquindio.FitZone.service.impl.cache.TokenVersionRegistry;
+import co.edu.uniquindio.FitZone.service.impl.checkin.MembershipEligibilityTable;
+import co.edu.uniquindio.FitZone.service.impl.cache.UserDetailsCache;
 import co.edu.uniquindio.FitZone.service.interfaces.IUserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Clase SERVICE - Que implementa los métodos declarados en IUserService
@@ -31,10 +40,24 @@ public class UserServiceImpl implements IUserService{
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final UserDetailsCache userDetailsCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final MembershipEligibilityTable eligibilityTable;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           UserDetailsCache userDetailsCache, TokenVersionRegistry tokenVersionRegistry,
+                           MembershipEligibilityTable eligibilityTable,
+                           @Value("${users.page.default-size:50}") int defaultPageSize,
+                           @Value("${users.page.max-size:500}") int maxPageSize) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.eligibilityTable = eligibilityTable;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
 
@@ -164,6 +187,7 @@ public class UserServiceImpl implements IUserService{
      * @return
      */
     @Override
+    @Transactional
     public UserResponse updateUser(Long idUser, UserUpdateRequest request) {
         logger.info("Iniciando actualización de usuario - ID: {}", idUser);
         logger.debug("Campos a actualizar - Nombre: {}, Apellido: {}, Email: {}, Documento: {}",
@@ -176,8 +200,10 @@ public class UserServiceImpl implements IUserService{
                     return new UserNotFoundException("Usuario no encontrado con el ID: " + idUser);
                 });
 
-        logger.debug("Usuario encontrado para actualización: {} (ID: {})",
-            existingUser.getPersonalInformation().getFirstName(), idUser);
+        logger.debug("Usuario encontrado para actualización - ID: {}", idUser);
+
+        // El email es la llave de la caché de autenticación; se recuerda el anterior para invalidarlo también
+        String previousEmail = existingUser.getEmail();
 
         // Actualizar solo los campos que no son nulos en la solicitud
         if(request.firstName() != null) {
@@ -194,6 +220,8 @@ public class UserServiceImpl implements IUserService{
                 throw new ResourceAlreadyExistsException("El nuevo email ya se encuentra registrado por otro usuario.");
             }
             existingUser.setEmail(request.email());
+            // El email es el subject de los tokens: los emitidos con el anterior dejan de ser válidos
+            existingUser.incrementTokenVersion();
             logger.debug("Email actualizado: {}", request.email());
         }
         if(request.documentNumber() != null && !existingUser.getPersonalInformation().getDocumentNumber().equals(request.documentNumber())) {
@@ -227,6 +255,8 @@ public class UserServiceImpl implements IUserService{
 
         logger.debug("Guardando usuario actualizado en la base de datos");
         UserResponse response = getUserResponse(existingUser);
+        userDetailsCache.invalidateAfterCommit(previousEmail, existingUser.getEmail());
+        tokenVersionRegistry.updateAfterCommit(existingUser.getIdUser(), existingUser.currentTokenVersion(), existingUser.isActive());
         logger.info("Usuario actualizado exitosamente - ID: {}, Email: {}", idUser, response.email());
         return response;
     }
@@ -289,11 +319,14 @@ public class UserServiceImpl implements IUserService{
                     return new UserNotFoundException("Usuario no encontrado con el ID: " + idUser);
                 });
 
-        logger.debug("Usuario encontrado para eliminación: {} (ID: {})",
-            user.getPersonalInformation().getFirstName(), idUser);
+        logger.debug("Usuario encontrado para eliminación - ID: {}", idUser);
 
         user.setActive(false);
+        user.incrementTokenVersion();
         userRepository.save(user);
+        userDetailsCache.invalidate(user.getEmail());
+        tokenVersionRegistry.update(user.getIdUser(), user.currentTokenVersion(), false);
+        eligibilityTable.refreshUserAfterCommit(user.getIdUser());
         logger.info("Usuario desactivado exitosamente - ID: {}, Email: {}", idUser, user.getEmail());
     }
 
@@ -312,8 +345,7 @@ public class UserServiceImpl implements IUserService{
                     return new UserNotFoundException("El id ingresado no existe");
                 });
 
-        logger.debug("Usuario encontrado por ID: {} (ID: {})",
-            user.getPersonalInformation().getFirstName(), idUser);
+        logger.debug("Usuario encontrado por ID: {}", idUser);
 
         return new UserResponse(
                 user.getIdUser(),
@@ -332,32 +364,35 @@ public class UserServiceImpl implements IUserService{
     }
 
     /**
-     * Este método me devuelve todos los usuarios activos
-     * @return
+     * Este método devuelve una página de usuarios activos, usando el ID del último usuario como cursor
+     * @param afterId último ID de la página anterior, null para la primera página
+     * @param size tamaño de la página, null para el tamaño por defecto
+     * @return página de usuarios y cursor de la siguiente página
      */
     @Override
-    public List<UserResponse> getAllUsers() {
-        logger.debug("Consultando todos los usuarios activos");
-
-        List<User> users = userRepository.findByIsActiveTrue();
-        logger.debug("Se encontraron {} usuarios activos", users.size());
-
-        return users.stream()
-                .map(user -> new UserResponse(
-                        user.getIdUser(),
-                        user.getPersonalInformation().getFirstName(),
-                        user.getPersonalInformation().getLastName(),
-                        user.getEmail(),
-                        user.getPersonalInformation().getDocumentType(), // Agregado
-                        user.getPersonalInformation().getDocumentNumber(), // Agregado
-                        user.getPersonalInformation().getPhoneNumber(),
-                        user.getPersonalInformation().getBirthDate(), // Agregado
-                        user.getPersonalInformation().getEmergencyContactPhone(), // Agregado
-                        user.getPersonalInformation().getMedicalConditions(), // Agregado
-                        user.getRole(),
-                        user.getCreatedAt()
-                ))
-                .toList();
+    public UserPageResponse getActiveUsersPage(Long afterId, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        long cursor = afterId == null ? 0L : afterId;
+        logger.debug("Consultando página de usuarios activos - Después de ID: {}, Tamaño: {}", cursor, pageSize);
+
+        List<UserResponse> users = userRepository.findActivePageAfter(cursor, Limit.of(pageSize));
+        Long nextCursor = users.size() == pageSize ? users.get(users.size() - 1).idUser() : null;
+        return new UserPageResponse(users, nextCursor);
+    }
+
+    /**
+     * Este método recorre todos los usuarios activos desde un cursor de la base de datos.
+     * Las filas se leen por bloques y se proyectan directamente a UserResponse, por lo que
+     * la memoria usada no depende de la cantidad de usuarios
+     * @param consumer acción a ejecutar con cada usuario
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachActiveUser(Consumer<UserResponse> consumer) {
+        logger.debug("Recorriendo usuarios activos desde cursor");
+        try (Stream<UserResponse> users = userRepository.streamActiveUsers()) {
+            users.forEach(consumer);
+        }
     }
 
     /**
@@ -375,8 +410,7 @@ public class UserServiceImpl implements IUserService{
                     return new UserNotFoundException("El email ingresado no existe");
                 });
 
-        logger.debug("Usuario encontrado por email: {} (ID: {})",
-            user.getPersonalInformation().getFirstName(), user.getIdUser());
+        logger.debug("Usuario encontrado por email - ID: {}", user.getIdUser());
 
         return new UserResponse(
                 user.getIdUser(),
@@ -409,8 +443,7 @@ public class UserServiceImpl implements IUserService{
                     return new UserNotFoundException("El número de documento ingresado no existe");
                 });
 
-        logger.debug("Usuario encontrado por documento: {} (ID: {})",
-            user.getPersonalInformation().getFirstName(), user.getIdUser());
+        logger.debug("Usuario encontrado por documento - ID: {}", user.getIdUser());
 
         return new UserResponse(
                 user.getIdUser(),
@@ -0,0 +1,170 @@
+package co.edu.uniquindio.FitZone.service.impl.cache;
+
+import co.edu.uniquindio.FitZone.dto.response.LocationResponse;
+import co.edu.uniquindio.FitZone.model.entity.Location;
+import co.edu.uniquindio.FitZone.repository.LocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Directorio en memoria de las sedes, activas e inactivas.
+ * Mantiene una instantánea inmutable con índices por ID, nombre, teléfono y dirección, que responde
+ * las consultas y las validaciones de unicidad sin ir a la base de datos. Cada registro, actualización
+ * o desactivación hecha en este nodo construye una copia nueva de la instantánea con la sede modificada
+ * y la publica de forma atómica; los lectores nunca ven una instantánea a medio construir. Se refresca
+ * por completo periódicamente para recoger los cambios hechos en otras instancias.
+ */
+@Component
+public class LocationDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationDirectory.class);
+
+    /**
+     * Instantánea inmutable del directorio.
+     * @param all todas las sedes ordenadas por ID
+     * @param active sedes activas ordenadas por ID
+     */
+    private record Snapshot(List<LocationResponse> all,
+                            List<LocationResponse> active,
+                            Map<Long, LocationResponse> byId,
+                            Map<String, LocationResponse> byName,
+                            Map<String, LocationResponse> byPhoneNumber,
+                            Map<String, LocationResponse> byAddress) {
+
+        static Snapshot of(Collection<LocationResponse> locations) {
+            List<LocationResponse> all = new ArrayList<>(locations);
+            all.sort(Comparator.comparing(LocationResponse::idLocation));
+
+            Map<Long, LocationResponse> byId = new HashMap<>();
+            Map<String, LocationResponse> byName = new HashMap<>();
+            Map<String, LocationResponse> byPhoneNumber = new HashMap<>();
+            Map<String, LocationResponse> byAddress = new HashMap<>();
+            for (LocationResponse location : all) {
+                byId.put(location.idLocation(), location);
+                putIfPresent(byName, location.name(), location);
+                putIfPresent(byPhoneNumber, location.phoneNumber(), location);
+                putIfPresent(byAddress, location.address(), location);
+            }
+
+            return new Snapshot(
+                    List.copyOf(all),
+                    all.stream().filter(l -> Boolean.TRUE.equals(l.isActive())).toList(),
+                    Map.copyOf(byId),
+                    Map.copyOf(byName),
+                    Map.copyOf(byPhoneNumber),
+                    Map.copyOf(byAddress));
+        }
+
+        private static void putIfPresent(Map<String, LocationResponse> index, String key, LocationResponse location) {
+            if (key != null) {
+                index.put(key, location);
+            }
+        }
+    }
+
+    private final LocationRepository locationRepository;
+
+    private volatile Snapshot snapshot;
+
+    public LocationDirectory(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    public Optional<LocationResponse> findById(Long idLocation) {
+        return Optional.ofNullable(snapshot().byId().get(idLocation));
+    }
+
+    public Optional<LocationResponse> findByName(String name) {
+        return Optional.ofNullable(snapshot().byName().get(name));
+    }
+
+    public Optional<LocationResponse> findByPhoneNumber(String phoneNumber) {
+        return Optional.ofNullable(snapshot().byPhoneNumber().get(phoneNumber));
+    }
+
+    public Optional<LocationResponse> findByAddress(String address) {
+        return Optional.ofNullable(snapshot().byAddress().get(address));
+    }
+
+    /**
+     * @return las sedes activas ordenadas por ID
+     */
+    public List<LocationResponse> findActive() {
+        return snapshot().active();
+    }
+
+    public boolean existsByName(String name) {
+        return snapshot().byName().containsKey(name);
+    }
+
+    public boolean existsByPhoneNumber(String phoneNumber) {
+        return snapshot().byPhoneNumber().containsKey(phoneNumber);
+    }
+
+    public boolean existsByAddress(String address) {
+        return snapshot().byAddress().containsKey(address);
+    }
+
+    /**
+     * Publica una copia de la instantánea con la sede registrada o modificada por este nodo.
+     * Debe llamarse después de que el cambio quedó confirmado en la base de datos.
+     * @param location estado actual de la sede
+     */
+    public synchronized void put(LocationResponse location) {
+        Map<Long, LocationResponse> locations = new HashMap<>(snapshot().byId());
+        locations.put(location.idLocation(), location);
+        snapshot = Snapshot.of(locations.values());
+        logger.debug("Directorio de sedes actualizado - ID: {}, Sedes: {}", location.idLocation(), locations.size());
+    }
+
+    /**
+     * Vuelve a leer todas las sedes desde la base de datos y reemplaza la instantánea.
+     */
+    public synchronized void reload() {
+        List<LocationResponse> locations = new ArrayList<>();
+        for (Location location : locationRepository.findAll()) {
+            locations.add(new LocationResponse(
+                    location.getIdLocation(),
+                    location.getName(),
+                    location.getAddress(),
+                    location.getPhoneNumber(),
+                    location.getIsActive()
+            ));
+        }
+        snapshot = Snapshot.of(locations);
+        logger.debug("Directorio de sedes cargado - Sedes: {}", locations.size());
+    }
+
+    /**
+     * Refresco periódico, solo si el directorio ya fue cargado.
+     */
+    @Scheduled(fixedDelayString = "${locations.directory.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (snapshot != null) {
+            reload();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                reload();
+            }
+            return snapshot;
+        }
+    }
+}
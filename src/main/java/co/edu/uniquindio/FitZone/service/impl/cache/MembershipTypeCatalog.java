@@ -0,0 +1,135 @@
+package co.edu.uniquindio.FitZone.service.impl.cache;
+
+import co.edu.uniquindio.FitZone.dto.response.MembershipTypeResponse;
+import co.edu.uniquindio.FitZone.model.entity.MembershipType;
+import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
+import co.edu.uniquindio.FitZone.repository.MembershipTypeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Catálogo en memoria de los tipos de membresía.
+ * El catálogo tiene pocas filas y cambia muy poco, así que se mantiene una instantánea inmutable,
+ * indexada por ID y por nombre, que se reemplaza completa de forma atómica. Se carga en la primera
+ * lectura, se recarga cuando este nodo crea o actualiza un tipo y se refresca periódicamente para
+ * recoger los cambios hechos en otras instancias. La instantánea incluye un ETag calculado a partir
+ * de su contenido, igual en todas las instancias, para que los clientes puedan revalidar.
+ */
+@Component
+public class MembershipTypeCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(MembershipTypeCatalog.class);
+
+    /**
+     * Instantánea inmutable del catálogo.
+     * @param all tipos de membresía ordenados por ID
+     * @param byId tipos de membresía por ID
+     * @param byName tipos de membresía por nombre
+     * @param etag ETag fuerte calculado a partir del contenido
+     */
+    public record Snapshot(List<MembershipTypeResponse> all,
+                           Map<Long, MembershipTypeResponse> byId,
+                           Map<MembershipTypeName, MembershipTypeResponse> byName,
+                           String etag) {
+    }
+
+    private final MembershipTypeRepository membershipTypeRepository;
+
+    private volatile Snapshot snapshot;
+
+    public MembershipTypeCatalog(MembershipTypeRepository membershipTypeRepository) {
+        this.membershipTypeRepository = membershipTypeRepository;
+    }
+
+    /**
+     * Obtiene la instantánea vigente, cargándola si aún no existe.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                reload();
+            }
+            return snapshot;
+        }
+    }
+
+    public Optional<MembershipTypeResponse> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public Optional<MembershipTypeResponse> findByName(MembershipTypeName name) {
+        return Optional.ofNullable(snapshot().byName().get(name));
+    }
+
+    /**
+     * Vuelve a leer el catálogo desde la base de datos y reemplaza la instantánea.
+     */
+    public synchronized void reload() {
+        List<MembershipTypeResponse> all = new ArrayList<>();
+        for (MembershipType type : membershipTypeRepository.findAll()) {
+            all.add(toResponse(type));
+        }
+        all.sort(Comparator.comparing(MembershipTypeResponse::idMembershipType));
+
+        Map<Long, MembershipTypeResponse> byId = new HashMap<>();
+        Map<MembershipTypeName, MembershipTypeResponse> byName = new EnumMap<>(MembershipTypeName.class);
+        for (MembershipTypeResponse type : all) {
+            byId.put(type.idMembershipType(), type);
+            byName.put(type.name(), type);
+        }
+
+        String previousEtag = snapshot == null ? null : snapshot.etag();
+        snapshot = new Snapshot(List.copyOf(all), Map.copyOf(byId), Map.copyOf(byName), etagOf(all));
+        if (!snapshot.etag().equals(previousEtag)) {
+            logger.debug("Catálogo de tipos de membresía cargado - Tipos: {}, ETag: {}", all.size(), snapshot.etag());
+        }
+    }
+
+    /**
+     * Refresco periódico, solo si el catálogo ya fue cargado.
+     */
+    @Scheduled(fixedDelayString = "${membership-types.catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (snapshot != null) {
+            reload();
+        }
+    }
+
+    private static MembershipTypeResponse toResponse(MembershipType type) {
+        return new MembershipTypeResponse(
+                type.getIdMembershipType(),
+                type.getName(),
+                type.getDescription(),
+                type.getMonthlyPrice(),
+                type.getAccessToAllLocation(),
+                type.getGroupClassesSessionsIncluded(),
+                type.getPersonalTrainingIncluded(),
+                type.getSpecializedClassesIncluded()
+        );
+    }
+
+    private static String etagOf(List<MembershipTypeResponse> all) {
+        // Se usa la representación en texto de los registros, que no depende de la instancia
+        StringBuilder content = new StringBuilder();
+        for (MembershipTypeResponse type : all) {
+            content.append(type).append('\n');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,60 @@
+package co.edu.uniquindio.FitZone.service.impl.cache;
+
+import co.edu.uniquindio.FitZone.dto.response.MembershipResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché en memoria de las compras de membresía recientes, por ID de intención de pago.
+ * Los reintentos de un cliente con la misma intención de pago se responden desde aquí sin
+ * consultar la base de datos. La entrada se invalida cuando el pago se confirma o se cancela
+ * en este nodo, y expira después de un tiempo configurable.
+ */
+@Component
+public class RecentPaymentIntents {
+
+    private record Purchase(Long userId, MembershipResponse membership) {
+    }
+
+    private final Cache<String, Purchase> cache;
+
+    public RecentPaymentIntents(MeterRegistry meterRegistry,
+                                @Value("${payments.intents.cache.max-size:10000}") long maxSize,
+                                @Value("${payments.intents.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recentPaymentIntents");
+    }
+
+    /**
+     * @param paymentIntentId ID de la intención de pago
+     * @param userId usuario que repite la compra
+     * @return la membresía comprada con la intención de pago, solo si la compró el mismo usuario
+     */
+    public Optional<MembershipResponse> find(String paymentIntentId, Long userId) {
+        Purchase purchase = cache.getIfPresent(paymentIntentId);
+        if (purchase == null || !purchase.userId().equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(purchase.membership());
+    }
+
+    public void put(String paymentIntentId, Long userId, MembershipResponse membership) {
+        cache.put(paymentIntentId, new Purchase(userId, membership));
+    }
+
+    public void invalidate(String paymentIntentId) {
+        cache.invalidate(paymentIntentId);
+    }
+}
@@ -0,0 +1,150 @@
+package co.edu.uniquindio.FitZone.service.impl.cache;
+
+import co.edu.uniquindio.FitZone.repository.UserRepository;
+import co.edu.uniquindio.FitZone.repository.projection.UserTokenState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabla en memoria con las versiones de token y las revocaciones de los usuarios.
+ * Solo guarda a los usuarios cuya versión fue incrementada o que fueron desactivados,
+ * el resto se asume con versión 0. Se refresca periódicamente desde la base de datos
+ * y se actualiza de inmediato cuando este mismo nodo modifica un usuario.
+ * Es utilizada por el modo de autenticación sin estado de JwtRequestFilter.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    private static final long REVOKED = -1L;
+
+    /**
+     * Margen para no perder cambios confirmados mientras se ejecutaba el refresco anterior.
+     */
+    private static final long REFRESH_OVERLAP_SECONDS = 5;
+
+    private final UserRepository userRepository;
+    private final boolean statelessEnabled;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+    private volatile LocalDateTime lastRefresh;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${jwt.stateless.enabled:false}") boolean statelessEnabled) {
+        this.userRepository = userRepository;
+        this.statelessEnabled = statelessEnabled;
+        Gauge.builder("fitzone.jwt.token.versions", versions, Map::size)
+                .description("Usuarios con versión de token o revocación registrada")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga completa de la tabla cuando la aplicación está lista.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        if (!statelessEnabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<UserTokenState> states = userRepository.findRevokedTokenStates();
+        states.forEach(this::apply);
+        lastRefresh = startedAt;
+        ready = true;
+        logger.info("Tabla de versiones de token cargada - Entradas: {}", versions.size());
+    }
+
+    /**
+     * Refresco incremental con los usuarios modificados desde el último refresco.
+     */
+    @Scheduled(fixedDelayString = "${jwt.stateless.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<UserTokenState> changes = userRepository
+                .findTokenStatesUpdatedSince(lastRefresh.minusSeconds(REFRESH_OVERLAP_SECONDS));
+        changes.forEach(this::apply);
+        lastRefresh = startedAt;
+        logger.debug("Tabla de versiones de token refrescada - Cambios: {}, Entradas: {}", changes.size(), versions.size());
+    }
+
+    /**
+     * Registra de inmediato el nuevo estado de un usuario modificado en este nodo.
+     * @param userId ID del usuario
+     * @param tokenVersion versión actual de sus tokens
+     * @param active si el usuario sigue activo
+     */
+    public void update(Long userId, long tokenVersion, boolean active) {
+        if (!active) {
+            versions.put(userId, REVOKED);
+        } else if (tokenVersion == 0) {
+            versions.remove(userId);
+        } else {
+            versions.put(userId, tokenVersion);
+        }
+    }
+
+    /**
+     * Registra el nuevo estado de un usuario cuando la transacción actual se confirme, o de inmediato si
+     * no hay una transacción activa. Así una transacción revertida no deja una versión que la base de datos no tiene.
+     * @param userId ID del usuario
+     * @param tokenVersion versión actual de sus tokens
+     * @param active si el usuario sigue activo
+     */
+    public void updateAfterCommit(Long userId, long tokenVersion, boolean active) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(userId, tokenVersion, active);
+                }
+            });
+        } else {
+            update(userId, tokenVersion, active);
+        }
+    }
+
+    /**
+     * Indica si la tabla ya fue cargada y puede usarse para autenticar sin consultar la base de datos.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Verifica si la versión de un token coincide con la versión vigente del usuario.
+     * @param userId ID del usuario dueño del token
+     * @param tokenVersion versión contenida en el token
+     * @return true si el token no ha sido revocado
+     */
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long current = versions.get(userId);
+        if (current == null) {
+            return tokenVersion == 0;
+        }
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    private void apply(UserTokenState state) {
+        update(state.getIdUser(), state.getTokenVersion() == null ? 0L : state.getTokenVersion(), state.isActive());
+    }
+}
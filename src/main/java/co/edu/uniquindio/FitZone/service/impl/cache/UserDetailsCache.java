@@ -0,0 +1,101 @@
+package co.edu.uniquindio.FitZone.service.impl.cache;
+
+import co.edu.uniquindio.FitZone.service.impl.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Caché en memoria de los UserDetails resueltos por correo electrónico.
+ * Evita consultar la base de datos en cada solicitud autenticada con JWT.
+ * La caché es acotada en tamaño y sus entradas expiran después de un tiempo configurable.
+ * Se debe invalidar cuando cambia la contraseña, el rol, el email o el estado de un usuario, después
+ * de confirmar el cambio: invalidar antes deja una ventana en la que otra solicitud vuelve a cargar
+ * los datos anteriores y la caché los conserva hasta que expiran.
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(UserDetailsServiceImpl userDetailsService,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.user-details-cache.max-size:10000}") long maxSize,
+                            @Value("${security.user-details-cache.ttl:5m}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // Expone aciertos, fallos y desalojos a través de /actuator/metrics (cache.gets, cache.evictions, ...)
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    /**
+     * Obtiene los detalles del usuario desde la caché, o los carga desde la base de datos si no están.
+     * @param email correo electrónico del usuario
+     * @return UserDetails del usuario
+     * @throws UsernameNotFoundException si el usuario no existe
+     */
+    public UserDetails get(String email) throws UsernameNotFoundException {
+        return cache.get(email, userDetailsService::loadUserByUsername);
+    }
+
+    /**
+     * Elimina de la caché los detalles de un usuario.
+     * @param email correo electrónico del usuario a invalidar
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        logger.debug("Invalidando UserDetails en caché - Email: {}", email);
+        cache.invalidate(email);
+    }
+
+    /**
+     * Elimina de la caché los detalles de los usuarios indicados cuando la transacción actual se
+     * confirme, o de inmediato si no hay una transacción activa.
+     * @param emails correos electrónicos a invalidar, por ejemplo el anterior y el nuevo de un usuario
+     */
+    public void invalidateAfterCommit(String... emails) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (String email : emails) {
+                        invalidate(email);
+                    }
+                }
+            });
+        } else {
+            for (String email : emails) {
+                invalidate(email);
+            }
+        }
+    }
+
+    /**
+     * Elimina todas las entradas de la caché.
+     */
+    public void invalidateAll() {
+        logger.debug("Invalidando todas las entradas de la caché de UserDetails");
+        cache.invalidateAll();
+    }
+}
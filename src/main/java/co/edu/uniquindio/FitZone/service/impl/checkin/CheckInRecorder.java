@@ -0,0 +1,149 @@
+package co.edu.uniquindio.FitZone.service.impl.checkin;
+
+import co.edu.uniquindio.FitZone.model.entity.CheckIn;
+import co.edu.uniquindio.FitZone.repository.CheckInRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro asíncrono de los intentos de ingreso en la tabla checkins.
+ * La decisión de ingreso no espera a la base de datos: cada evento se encola en una cola acotada
+ * y un único hilo virtual la vacía por lotes, insertando cada lote en una sola transacción.
+ * Si la cola está llena o un lote no puede guardarse, los eventos se descartan y se cuentan;
+ * el registro es un historial y no debe frenar el torniquete.
+ */
+@Component
+public class CheckInRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInRecorder.class);
+
+    private final CheckInRepository checkInRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    private final BlockingQueue<CheckIn> queue;
+    private final Counter recorded;
+    private final Counter droppedQueueFull;
+    private final Counter droppedWriteFailed;
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public CheckInRecorder(CheckInRepository checkInRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${checkins.queue.capacity:10000}") int queueCapacity,
+                           @Value("${checkins.batch-size:500}") int batchSize,
+                           @Value("${checkins.flush-interval-ms:200}") long flushIntervalMs) {
+        this.checkInRepository = checkInRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("fitzone.checkins.queue.size", queue, BlockingQueue::size)
+                .description("Intentos de ingreso pendientes de registrar")
+                .register(meterRegistry);
+        this.recorded = Counter.builder("fitzone.checkins.recorded")
+                .description("Intentos de ingreso registrados en la tabla checkins")
+                .register(meterRegistry);
+        this.droppedQueueFull = Counter.builder("fitzone.checkins.dropped")
+                .description("Intentos de ingreso descartados sin registrar")
+                .tag("cause", "queue_full")
+                .register(meterRegistry);
+        this.droppedWriteFailed = Counter.builder("fitzone.checkins.dropped")
+                .description("Intentos de ingreso descartados sin registrar")
+                .tag("cause", "write_failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia el hilo virtual que vacía la cola.
+     */
+    @PostConstruct
+    public void start() {
+        writer = Thread.ofVirtual().name("checkin-writer").start(this::consume);
+        logger.info("Registro de ingresos iniciado - Tamaño de lote: {}, Capacidad de la cola: {}",
+                batchSize, queue.remainingCapacity());
+    }
+
+    /**
+     * Detiene el hilo de escritura y guarda los eventos que sigan en la cola.
+     */
+    @PreDestroy
+    public void stop() {
+        // No se interrumpe el hilo para no cortar un lote a mitad de la escritura;
+        // la espera de la cola es corta y el hilo termina en la siguiente vuelta
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<CheckIn> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Encola un intento de ingreso para su registro. Nunca bloquea.
+     * @param checkIn intento de ingreso a registrar
+     */
+    public void record(CheckIn checkIn) {
+        if (!queue.offer(checkIn)) {
+            droppedQueueFull.increment();
+            logger.warn("Cola de registro de ingresos llena, se descarta el ingreso del usuario {} en la sede {}",
+                    checkIn.getUserId(), checkIn.getLocationId());
+        }
+    }
+
+    private void consume() {
+        List<CheckIn> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                CheckIn first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<CheckIn> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> checkInRepository.saveAll(batch));
+            recorded.increment(batch.size());
+            logger.debug("Lote de ingresos registrado - Eventos: {}", batch.size());
+        } catch (RuntimeException e) {
+            // Cualquier fallo (también al abrir la transacción o la conexión) descarta solo este lote;
+            // si la excepción escapara, el único hilo de escritura terminaría y la cola dejaría de vaciarse
+            droppedWriteFailed.increment(batch.size());
+            logger.error("No fue posible registrar un lote de {} ingresos: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package co.edu.uniquindio.FitZone.service.impl.checkin;
+
+import co.edu.uniquindio.FitZone.dto.request.CheckInRequest;
+import co.edu.uniquindio.FitZone.dto.response.CheckInResponse;
+import co.edu.uniquindio.FitZone.dto.response.LocationOccupancyResponse;
+import co.edu.uniquindio.FitZone.dto.response.LocationResponse;
+import co.edu.uniquindio.FitZone.exception.LocationNotFoundException;
+import co.edu.uniquindio.FitZone.model.entity.CheckIn;
+import co.edu.uniquindio.FitZone.model.enums.CheckInDecision;
+import co.edu.uniquindio.FitZone.service.impl.cache.LocationDirectory;
+import co.edu.uniquindio.FitZone.service.impl.hours.OpeningHoursEvaluator;
+import co.edu.uniquindio.FitZone.service.interfaces.ICheckInService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Implementación del servicio de control de acceso a las sedes.
+ * La decisión se toma con datos en memoria (directorio de sedes, tabla de elegibilidad y horarios),
+ * sin consultar la base de datos, y el intento se registra de forma asíncrona.
+ */
+@Service
+public class CheckInServiceImpl implements ICheckInService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInServiceImpl.class);
+
+    private final LocationDirectory locationDirectory;
+    private final MembershipEligibilityTable eligibilityTable;
+    private final OpeningHoursEvaluator openingHoursEvaluator;
+    private final CheckInRecorder checkInRecorder;
+    private final OccupancyTracker occupancyTracker;
+    private final MeterRegistry meterRegistry;
+
+    public CheckInServiceImpl(LocationDirectory locationDirectory,
+                              MembershipEligibilityTable eligibilityTable,
+                              OpeningHoursEvaluator openingHoursEvaluator,
+                              CheckInRecorder checkInRecorder,
+                              OccupancyTracker occupancyTracker,
+                              MeterRegistry meterRegistry) {
+        this.locationDirectory = locationDirectory;
+        this.eligibilityTable = eligibilityTable;
+        this.openingHoursEvaluator = openingHoursEvaluator;
+        this.checkInRecorder = checkInRecorder;
+        this.occupancyTracker = occupancyTracker;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public CheckInResponse checkIn(CheckInRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDateTime now = LocalDateTime.now();
+
+        MembershipEligibilityTable.Entry entry = null;
+        CheckInDecision decision;
+        Optional<LocationResponse> location = locationDirectory.findById(request.locationId());
+        if (location.isEmpty()) {
+            decision = CheckInDecision.UNKNOWN_LOCATION;
+        } else if (!Boolean.TRUE.equals(location.get().isActive())) {
+            decision = CheckInDecision.LOCATION_INACTIVE;
+        } else {
+            entry = eligibilityTable.get(request.userId());
+            decision = entry == null
+                    ? CheckInDecision.NO_MEMBERSHIP
+                    : entry.evaluate(request.locationId(), now.toLocalDate());
+            if (decision.isAllowed() && !openingHoursEvaluator.isLocationOpen(request.locationId(), now)) {
+                decision = CheckInDecision.OUTSIDE_OPENING_HOURS;
+            }
+        }
+
+        if (decision.isAllowed()) {
+            occupancyTracker.recordEntry(request.locationId());
+        }
+        checkInRecorder.record(new CheckIn(request.userId(), request.locationId(),
+                entry == null ? null : entry.membershipId(), decision, now));
+        sample.stop(Timer.builder("fitzone.checkins.decision")
+                .description("Latencia de la decisión de ingreso")
+                .tag("decision", decision.name())
+                .register(meterRegistry));
+
+        if (decision.isAllowed()) {
+            logger.debug("Ingreso permitido - Usuario ID: {}, Sede ID: {}", request.userId(), request.locationId());
+        } else {
+            logger.info("Ingreso denegado - Usuario ID: {}, Sede ID: {}, Motivo: {}",
+                    request.userId(), request.locationId(), decision);
+        }
+        return new CheckInResponse(decision.isAllowed(), decision, decision.getMessage(),
+                request.userId(), request.locationId(), now);
+    }
+
+    @Override
+    public LocationOccupancyResponse checkOut(CheckInRequest request) {
+        if (locationDirectory.findById(request.locationId()).isEmpty()) {
+            logger.warn("Salida registrada en una sede inexistente - Sede ID: {}", request.locationId());
+            throw new LocationNotFoundException("Sede no encontrada");
+        }
+        if (!occupancyTracker.recordExit(request.locationId())) {
+            logger.debug("Salida ignorada, la sede figura vacía - Usuario ID: {}, Sede ID: {}",
+                    request.userId(), request.locationId());
+        }
+        return occupancyTracker.current(request.locationId());
+    }
+}
@@ -0,0 +1,181 @@
+package co.edu.uniquindio.FitZone.service.impl.checkin;
+
+import co.edu.uniquindio.FitZone.model.enums.CheckInDecision;
+import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.repository.MembershipRepository;
+import co.edu.uniquindio.FitZone.repository.projection.MembershipEligibility;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabla en memoria con la elegibilidad de ingreso de cada usuario con membresía.
+ * Guarda solo los datos que el control de acceso necesita y los evalúa contra la fecha del día,
+ * así las transiciones del trabajo nocturno (expiración y reactivación) no requieren actualizarla:
+ * una membresía vencida o cuya suspensión terminó se trata igual que lo hará el trabajo.
+ * Se actualiza por usuario cuando este nodo crea, activa por pago, suspende, reactiva o cancela una
+ * membresía, o desactiva un usuario, y se recarga completa periódicamente para recoger los cambios de otras instancias.
+ */
+@Component
+public class MembershipEligibilityTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MembershipEligibilityTable.class);
+
+    /**
+     * Datos de la membresía vigente de un usuario.
+     */
+    public record Entry(Long membershipId,
+                        boolean userActive,
+                        MembershipStatus status,
+                        LocalDate endDate,
+                        LocalDate suspensionStart,
+                        LocalDate suspensionEnd,
+                        Long locationId,
+                        boolean accessToAllLocations) {
+
+        /**
+         * Evalúa si la membresía permite ingresar a una sede en una fecha, sin considerar el horario.
+         */
+        public CheckInDecision evaluate(Long requestedLocationId, LocalDate today) {
+            if (!userActive) {
+                return CheckInDecision.USER_INACTIVE;
+            }
+            if (status == MembershipStatus.PENDING_PAYMENT) {
+                return CheckInDecision.MEMBERSHIP_PENDING_PAYMENT;
+            }
+            if (status == MembershipStatus.CANCELLED) {
+                return CheckInDecision.MEMBERSHIP_CANCELLED;
+            }
+            if (status == MembershipStatus.EXPIRED) {
+                return CheckInDecision.MEMBERSHIP_EXPIRED;
+            }
+
+            LocalDate effectiveEndDate = endDate;
+            if (status == MembershipStatus.SUSPENDED) {
+                // El trabajo nocturno reactiva las suspensiones terminadas y extiende la fecha de fin
+                if (suspensionEnd == null || !suspensionEnd.isBefore(today)) {
+                    return CheckInDecision.MEMBERSHIP_SUSPENDED;
+                }
+                if (effectiveEndDate != null && suspensionStart != null) {
+                    effectiveEndDate = effectiveEndDate.plusDays(ChronoUnit.DAYS.between(suspensionStart, suspensionEnd));
+                }
+            }
+            if (effectiveEndDate != null && effectiveEndDate.isBefore(today)) {
+                return CheckInDecision.MEMBERSHIP_EXPIRED;
+            }
+
+            if (!accessToAllLocations && !requestedLocationId.equals(locationId)) {
+                return CheckInDecision.LOCATION_NOT_ALLOWED;
+            }
+            return CheckInDecision.ALLOWED;
+        }
+    }
+
+    private final MembershipRepository membershipRepository;
+
+    private volatile Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public MembershipEligibilityTable(MembershipRepository membershipRepository, MeterRegistry meterRegistry) {
+        this.membershipRepository = membershipRepository;
+        Gauge.builder("fitzone.checkins.eligibility.entries", this, table -> table.entries.size())
+                .description("Usuarios con membresía en la tabla de elegibilidad de ingreso")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga completa de la tabla cuando la aplicación está lista.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        reload();
+        ready = true;
+    }
+
+    /**
+     * Recarga periódica completa, para recoger los cambios hechos en otras instancias.
+     */
+    @Scheduled(fixedDelayString = "${checkins.eligibility.refresh-interval-ms:300000}",
+            initialDelayString = "${checkins.eligibility.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (ready) {
+            reload();
+        }
+    }
+
+    /**
+     * Obtiene la elegibilidad de un usuario. Si la tabla aún no fue cargada se consulta la base de datos.
+     * @param userId ID del usuario
+     * @return los datos de su membresía, o null si no tiene
+     */
+    public Entry get(Long userId) {
+        if (!ready) {
+            return membershipRepository.findEligibilityByUserId(userId).map(MembershipEligibilityTable::toEntry).orElse(null);
+        }
+        return entries.get(userId);
+    }
+
+    /**
+     * Vuelve a leer la elegibilidad de un usuario cuando la transacción actual se confirme,
+     * o de inmediato si no hay una transacción activa.
+     * @param userId ID del usuario cuya membresía o estado cambió
+     */
+    public void refreshUserAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshUser(userId);
+                }
+            });
+        } else {
+            refreshUser(userId);
+        }
+    }
+
+    private synchronized void refreshUser(Long userId) {
+        Entry entry = membershipRepository.findEligibilityByUserId(userId).map(MembershipEligibilityTable::toEntry).orElse(null);
+        if (entry == null) {
+            entries.remove(userId);
+        } else {
+            entries.put(userId, entry);
+        }
+        logger.debug("Elegibilidad de ingreso actualizada - Usuario ID: {}, Estado: {}",
+                userId, entry == null ? null : entry.status());
+    }
+
+    private synchronized void reload() {
+        List<MembershipEligibility> rows = membershipRepository.findAllEligibility();
+        Map<Long, Entry> loaded = new ConcurrentHashMap<>(Math.max(16, rows.size() * 4 / 3 + 1));
+        for (MembershipEligibility row : rows) {
+            loaded.put(row.getUserId(), toEntry(row));
+        }
+        entries = loaded;
+        logger.debug("Tabla de elegibilidad de ingreso cargada - Entradas: {}", loaded.size());
+    }
+
+    private static Entry toEntry(MembershipEligibility row) {
+        return new Entry(
+                row.getMembershipId(),
+                row.isUserActive(),
+                row.getStatus(),
+                row.getEndDate(),
+                row.getSuspensionStart(),
+                row.getSuspensionEnd(),
+                row.getLocationId(),
+                Boolean.TRUE.equals(row.getAccessToAllLocations()));
+    }
+}
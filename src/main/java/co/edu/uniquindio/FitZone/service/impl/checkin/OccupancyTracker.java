@@ -0,0 +1,304 @@
+package co.edu.uniquindio.FitZone.service.impl.checkin;
+
+import co.edu.uniquindio.FitZone.dto.response.LocationOccupancyResponse;
+import co.edu.uniquindio.FitZone.dto.response.OccupancyMinuteResponse;
+import co.edu.uniquindio.FitZone.model.entity.LocationOccupancySnapshot;
+import co.edu.uniquindio.FitZone.repository.LocationOccupancySnapshotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de ocupación en tiempo real por sede, sin bloqueos.
+ * Cada sede tiene un LongAdder de ingresos y otro de salidas para el día operativo en curso, que
+ * empieza a la hora configurada en occupancy.day-start, y un AtomicLong con las personas dentro que
+ * las salidas decrementan con compareAndSet para no bajar de cero; al cambiar de día los contadores
+ * se reemplazan por unos nuevos. Además se lleva un histograma por minuto de las últimas 24 horas en
+ * un buffer circular de 1440 posiciones que se reutilizan. Las lecturas nunca van a la base de datos:
+ * los contadores se guardan periódicamente como instantáneas, y la última del día se usa para
+ * recuperarlos al reiniciar. Los contadores son de esta instancia.
+ */
+@Component
+public class OccupancyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyTracker.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Contadores de un día operativo. Las últimas cifras guardadas evitan repetir instantáneas sin cambios.
+     */
+    private static final class Counters {
+        final LocalDate businessDay;
+        final LongAdder entries = new LongAdder();
+        final LongAdder exits = new LongAdder();
+        final AtomicLong occupancy = new AtomicLong();
+        volatile long savedEntries = -1;
+        volatile long savedExits = -1;
+
+        Counters(LocalDate businessDay) {
+            this.businessDay = businessDay;
+        }
+
+        /**
+         * Descuenta una persona si hay alguna dentro. La comprobación y el decremento son una sola
+         * operación atómica, así dos salidas concurrentes con una sola persona dentro no cuentan ambas.
+         */
+        boolean tryDecrement() {
+            long current = occupancy.get();
+            while (current > 0) {
+                if (occupancy.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+                current = occupancy.get();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Actividad de un minuto, identificado por los minutos transcurridos desde la época.
+     */
+    private static final class MinuteBucket {
+        final long epochMinute;
+        final LongAdder entries = new LongAdder();
+        final LongAdder exits = new LongAdder();
+        final AtomicLong peakOccupancy = new AtomicLong();
+
+        MinuteBucket(long epochMinute) {
+            this.epochMinute = epochMinute;
+        }
+    }
+
+    private static final class LocationOccupancy {
+        final AtomicReference<Counters> counters;
+        final AtomicReferenceArray<MinuteBucket> history = new AtomicReferenceArray<>(MINUTES_PER_DAY);
+
+        LocationOccupancy(LocalDate businessDay) {
+            this.counters = new AtomicReference<>(new Counters(businessDay));
+        }
+    }
+
+    private final LocationOccupancySnapshotRepository snapshotRepository;
+    private final MeterRegistry meterRegistry;
+    private final LocalTime dayStart;
+    private final Duration snapshotRetention;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Map<Long, LocationOccupancy> locations = new ConcurrentHashMap<>();
+
+    public OccupancyTracker(LocationOccupancySnapshotRepository snapshotRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${occupancy.day-start:04:00}") LocalTime dayStart,
+                            @Value("${occupancy.snapshot-retention:30d}") Duration snapshotRetention) {
+        this.snapshotRepository = snapshotRepository;
+        this.meterRegistry = meterRegistry;
+        this.dayStart = dayStart;
+        this.snapshotRetention = snapshotRetention;
+    }
+
+    /**
+     * Registra un ingreso a una sede.
+     * @param locationId ID de una sede existente
+     */
+    public void recordEntry(Long locationId) {
+        Instant now = Instant.now();
+        LocationOccupancy location = location(locationId);
+        Counters counters = counters(location, businessDay(now));
+        counters.entries.increment();
+        long occupancy = counters.occupancy.incrementAndGet();
+
+        MinuteBucket bucket = bucket(location, now);
+        bucket.entries.increment();
+        bucket.peakOccupancy.accumulateAndGet(occupancy, Math::max);
+    }
+
+    /**
+     * Registra una salida de una sede. Si la sede figura vacía la salida no se cuenta, para que una
+     * salida sin ingreso registrado (por ejemplo, de antes de un reinicio) no descuente ingresos futuros.
+     * @param locationId ID de una sede existente
+     * @return true si la salida se contó
+     */
+    public boolean recordExit(Long locationId) {
+        Instant now = Instant.now();
+        LocationOccupancy location = location(locationId);
+        Counters counters = counters(location, businessDay(now));
+        if (!counters.tryDecrement()) {
+            return false;
+        }
+        counters.exits.increment();
+        bucket(location, now).exits.increment();
+        return true;
+    }
+
+    /**
+     * Lee la ocupación actual de una sede desde memoria.
+     * @param locationId ID de una sede existente
+     */
+    public LocationOccupancyResponse current(Long locationId) {
+        Instant now = Instant.now();
+        Counters counters = counters(location(locationId), businessDay(now));
+        long entries = counters.entries.sum();
+        long exits = counters.exits.sum();
+        return new LocationOccupancyResponse(locationId, counters.occupancy.get(), entries, exits,
+                counters.businessDay, LocalDateTime.ofInstant(now, zone));
+    }
+
+    /**
+     * Obtiene la actividad por minuto de las últimas 24 horas, en orden cronológico.
+     * Solo se incluyen los minutos con ingresos o salidas.
+     * @param locationId ID de una sede existente
+     */
+    public List<OccupancyMinuteResponse> history(Long locationId) {
+        LocationOccupancy location = location(locationId);
+        long currentMinute = Instant.now().getEpochSecond() / 60;
+
+        List<OccupancyMinuteResponse> minutes = new ArrayList<>();
+        for (long minute = currentMinute - MINUTES_PER_DAY + 1; minute <= currentMinute; minute++) {
+            MinuteBucket bucket = location.history.get(slot(minute));
+            if (bucket != null && bucket.epochMinute == minute) {
+                minutes.add(new OccupancyMinuteResponse(
+                        LocalDateTime.ofInstant(Instant.ofEpochSecond(minute * 60), zone),
+                        bucket.entries.sum(),
+                        bucket.exits.sum(),
+                        bucket.peakOccupancy.get()));
+            }
+        }
+        return minutes;
+    }
+
+    /**
+     * Recupera los contadores del día operativo en curso a partir de las últimas instantáneas guardadas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        LocalDate today = businessDay(Instant.now());
+        List<LocationOccupancySnapshot> snapshots = snapshotRepository.findLatestByBusinessDay(today);
+        for (LocationOccupancySnapshot snapshot : snapshots) {
+            Counters counters = counters(location(snapshot.getLocationId()), today);
+            counters.entries.add(snapshot.getEntries());
+            counters.exits.add(snapshot.getExits());
+            counters.occupancy.set(Math.max(0, snapshot.getEntries() - snapshot.getExits()));
+            counters.savedEntries = snapshot.getEntries();
+            counters.savedExits = snapshot.getExits();
+        }
+        logger.info("Contadores de ocupación recuperados - Día operativo: {}, Sedes: {}", today, snapshots.size());
+    }
+
+    /**
+     * Guarda una instantánea de las sedes cuyos contadores cambiaron desde la anterior
+     * y elimina las instantáneas que superan el tiempo de retención.
+     */
+    @Scheduled(fixedDelayString = "${occupancy.snapshot-interval-ms:60000}",
+            initialDelayString = "${occupancy.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        LocalDateTime capturedAt = LocalDateTime.now(zone);
+        List<LocationOccupancySnapshot> changed = new ArrayList<>();
+        List<Counters> saved = new ArrayList<>();
+        locations.forEach((locationId, location) -> {
+            Counters counters = location.counters.get();
+            long entries = counters.entries.sum();
+            long exits = counters.exits.sum();
+            if (entries != counters.savedEntries || exits != counters.savedExits) {
+                changed.add(new LocationOccupancySnapshot(locationId, counters.businessDay, entries, exits, capturedAt));
+                saved.add(counters);
+            }
+        });
+
+        try {
+            if (!changed.isEmpty()) {
+                snapshotRepository.saveAll(changed);
+                for (int i = 0; i < changed.size(); i++) {
+                    saved.get(i).savedEntries = changed.get(i).getEntries();
+                    saved.get(i).savedExits = changed.get(i).getExits();
+                }
+                logger.debug("Instantáneas de ocupación guardadas - Sedes: {}", changed.size());
+            }
+            int deleted = snapshotRepository.deleteCapturedBefore(capturedAt.minus(snapshotRetention));
+            if (deleted > 0) {
+                logger.debug("Instantáneas de ocupación eliminadas por retención: {}", deleted);
+            }
+        } catch (DataAccessException e) {
+            logger.error("No fue posible guardar las instantáneas de ocupación: {}", e.getMessage(), e);
+        }
+    }
+
+    private LocationOccupancy location(Long locationId) {
+        LocationOccupancy location = locations.get(locationId);
+        if (location != null) {
+            return location;
+        }
+        LocationOccupancy created = new LocationOccupancy(businessDay(Instant.now()));
+        LocationOccupancy existing = locations.putIfAbsent(locationId, created);
+        if (existing != null) {
+            return existing;
+        }
+        Gauge.builder("fitzone.locations.occupancy", this, tracker -> tracker.current(locationId).occupancy())
+                .description("Personas dentro de la sede según los ingresos y salidas registrados")
+                .tag("location", String.valueOf(locationId))
+                .register(meterRegistry);
+        return created;
+    }
+
+    /**
+     * Obtiene los contadores del día operativo indicado, reemplazando los de un día anterior.
+     */
+    private Counters counters(LocationOccupancy location, LocalDate businessDay) {
+        Counters current = location.counters.get();
+        while (current.businessDay.isBefore(businessDay)) {
+            Counters next = new Counters(businessDay);
+            if (location.counters.compareAndSet(current, next)) {
+                return next;
+            }
+            current = location.counters.get();
+        }
+        return current;
+    }
+
+    /**
+     * Obtiene el bucket del minuto actual, reutilizando la posición del mismo minuto del día anterior.
+     */
+    private MinuteBucket bucket(LocationOccupancy location, Instant now) {
+        long minute = now.getEpochSecond() / 60;
+        int slot = slot(minute);
+        MinuteBucket current = location.history.get(slot);
+        while (current == null || current.epochMinute < minute) {
+            MinuteBucket next = new MinuteBucket(minute);
+            if (location.history.compareAndSet(slot, current, next)) {
+                return next;
+            }
+            current = location.history.get(slot);
+        }
+        return current;
+    }
+
+    private static int slot(long epochMinute) {
+        return (int) Math.floorMod(epochMinute, (long) MINUTES_PER_DAY);
+    }
+
+    private LocalDate businessDay(Instant instant) {
+        return LocalDateTime.ofInstant(instant, zone).minusSeconds(dayStart.toSecondOfDay()).toLocalDate();
+    }
+}
@@ -0,0 +1,123 @@
+package co.edu.uniquindio.FitZone.service.impl.hours;
+
+import co.edu.uniquindio.FitZone.repository.FranchiseRepository;
+import co.edu.uniquindio.FitZone.repository.LocationRepository;
+import co.edu.uniquindio.FitZone.repository.projection.FranchiseTimeslot;
+import co.edu.uniquindio.FitZone.repository.projection.LocationFranchise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Horarios de atención de las franquicias compilados en memoria.
+ * Los horarios de cada franquicia se compilan en un WeeklyHours y cada sede se resuelve a la
+ * franquicia a la que pertenece, así saber si una sede o una franquicia está abierta no requiere
+ * cargar la colección de horarios. La instantánea se reemplaza completa cuando cambian los horarios
+ * o se registra una sede en este nodo, y se refresca periódicamente para recoger los cambios de
+ * otras instancias.
+ */
+@Component
+public class OpeningHoursEvaluator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpeningHoursEvaluator.class);
+
+    private record Snapshot(Map<Long, WeeklyHours> byFranchiseId,
+                            Map<String, WeeklyHours> byFranchiseName,
+                            Map<Long, WeeklyHours> byLocationId) {
+    }
+
+    private final FranchiseRepository franchiseRepository;
+    private final LocationRepository locationRepository;
+
+    private volatile Snapshot snapshot;
+
+    public OpeningHoursEvaluator(FranchiseRepository franchiseRepository, LocationRepository locationRepository) {
+        this.franchiseRepository = franchiseRepository;
+        this.locationRepository = locationRepository;
+    }
+
+    /**
+     * @param franchiseName nombre de la franquicia
+     * @return el horario semanal compilado de la franquicia, si existe
+     */
+    public Optional<WeeklyHours> findByFranchiseName(String franchiseName) {
+        return Optional.ofNullable(snapshot().byFranchiseName().get(franchiseName));
+    }
+
+    /**
+     * Indica si una sede está abierta en un momento dado según el horario de su franquicia.
+     * @param locationId ID de la sede
+     * @param dateTime fecha y hora local
+     * @return false si la sede no se conoce
+     */
+    public boolean isLocationOpen(Long locationId, LocalDateTime dateTime) {
+        WeeklyHours hours = snapshot().byLocationId().get(locationId);
+        return hours != null && hours.isOpen(dateTime);
+    }
+
+    /**
+     * Vuelve a leer los horarios y las sedes desde la base de datos y reemplaza la instantánea.
+     */
+    public synchronized void reload() {
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, List<WeeklyHours.Slot>> slots = new HashMap<>();
+        for (FranchiseTimeslot row : franchiseRepository.findAllTimeslots()) {
+            names.put(row.getFranchiseId(), row.getFranchiseName());
+            List<WeeklyHours.Slot> franchiseSlots = slots.computeIfAbsent(row.getFranchiseId(), id -> new ArrayList<>());
+            if (row.getDay() != null && row.getOpenTime() != null && row.getCloseTime() != null) {
+                franchiseSlots.add(new WeeklyHours.Slot(row.getDay(), row.getOpenTime(), row.getCloseTime()));
+            }
+        }
+
+        Map<Long, WeeklyHours> byFranchiseId = new HashMap<>();
+        Map<String, WeeklyHours> byFranchiseName = new HashMap<>();
+        slots.forEach((franchiseId, franchiseSlots) -> {
+            WeeklyHours hours = WeeklyHours.compile(franchiseSlots);
+            byFranchiseId.put(franchiseId, hours);
+            byFranchiseName.put(names.get(franchiseId), hours);
+        });
+
+        Map<Long, WeeklyHours> byLocationId = new HashMap<>();
+        for (LocationFranchise row : locationRepository.findAllFranchiseIds()) {
+            WeeklyHours hours = byFranchiseId.get(row.getFranchiseId());
+            if (hours != null) {
+                byLocationId.put(row.getLocationId(), hours);
+            }
+        }
+
+        snapshot = new Snapshot(Map.copyOf(byFranchiseId), Map.copyOf(byFranchiseName), Map.copyOf(byLocationId));
+        logger.debug("Horarios de atención compilados - Franquicias: {}, Sedes: {}",
+                byFranchiseId.size(), byLocationId.size());
+    }
+
+    /**
+     * Refresco periódico, solo si los horarios ya fueron cargados.
+     */
+    @Scheduled(fixedDelayString = "${opening-hours.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (snapshot != null) {
+            reload();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                reload();
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package co.edu.uniquindio.FitZone.service.impl.hours;
+
+import co.edu.uniquindio.FitZone.model.enums.DayOfWeek;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Horario semanal compilado de una franquicia: un bit por minuto de la semana (10.080 bits),
+ * empezando el lunes a las 00:00. Junto al mapa de bits se precalcula, para cada minuto, cuántos
+ * minutos faltan para la siguiente apertura y para el siguiente cierre, así las consultas de
+ * abierto/cerrado y de próxima apertura son un acceso a un arreglo. Es inmutable.
+ */
+public final class WeeklyHours {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    /**
+     * Horario de un día. Si la hora de cierre es anterior a la de apertura, el horario termina
+     * al día siguiente; si son iguales, la franquicia atiende las 24 horas desde la apertura.
+     */
+    public record Slot(DayOfWeek day, LocalTime openTime, LocalTime closeTime) {
+    }
+
+    private final BitSet open;
+    private final int[] minutesUntilOpen;
+    private final int[] minutesUntilClose;
+
+    private WeeklyHours(BitSet open) {
+        this.open = open;
+        this.minutesUntilOpen = distances(open, true);
+        this.minutesUntilClose = distances(open, false);
+    }
+
+    /**
+     * Compila los horarios de una franquicia en el mapa de bits semanal.
+     * @param slots horarios de la franquicia, a lo sumo uno por día
+     */
+    public static WeeklyHours compile(Collection<Slot> slots) {
+        BitSet open = new BitSet(MINUTES_PER_WEEK);
+        for (Slot slot : slots) {
+            int openMinute = minuteOfDay(slot.openTime());
+            int closeMinute = minuteOfDay(slot.closeTime());
+            int length = closeMinute > openMinute
+                    ? closeMinute - openMinute
+                    : closeMinute - openMinute + MINUTES_PER_DAY;
+            int start = slot.day().ordinal() * MINUTES_PER_DAY + openMinute;
+            int end = start + length;
+            if (end <= MINUTES_PER_WEEK) {
+                open.set(start, end);
+            } else {
+                // El horario del domingo que termina después de la medianoche sigue el lunes
+                open.set(start, MINUTES_PER_WEEK);
+                open.set(0, end - MINUTES_PER_WEEK);
+            }
+        }
+        return new WeeklyHours(open);
+    }
+
+    public boolean isOpen(LocalDateTime dateTime) {
+        return open.get(minuteOfWeek(dateTime));
+    }
+
+    /**
+     * @return el momento de la próxima apertura, o vacío si está abierto o nunca abre
+     */
+    public Optional<LocalDateTime> nextOpening(LocalDateTime dateTime) {
+        return after(dateTime, minutesUntilOpen[minuteOfWeek(dateTime)]);
+    }
+
+    /**
+     * @return el momento del próximo cierre, o vacío si está cerrado o nunca cierra
+     */
+    public Optional<LocalDateTime> nextClosing(LocalDateTime dateTime) {
+        return after(dateTime, minutesUntilClose[minuteOfWeek(dateTime)]);
+    }
+
+    private static Optional<LocalDateTime> after(LocalDateTime dateTime, int minutes) {
+        if (minutes <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(dateTime.truncatedTo(ChronoUnit.MINUTES).plusMinutes(minutes));
+    }
+
+    /**
+     * Para cada minuto calcula cuántos minutos faltan para el siguiente minuto cuyo bit vale
+     * {@code value}: 0 si ya lo tiene y -1 si ningún minuto de la semana lo tiene. Recorre la
+     * semana dos veces hacia atrás para resolver la vuelta del domingo al lunes.
+     */
+    private static int[] distances(BitSet open, boolean value) {
+        int[] distances = new int[MINUTES_PER_WEEK];
+        int next = -1;
+        for (int i = 2 * MINUTES_PER_WEEK - 1; i >= 0; i--) {
+            int minute = i % MINUTES_PER_WEEK;
+            if (open.get(minute) == value) {
+                next = i;
+            }
+            if (i < MINUTES_PER_WEEK) {
+                distances[minute] = next < 0 ? -1 : next - i;
+            }
+        }
+        return distances;
+    }
+
+    private static int minuteOfWeek(LocalDateTime dateTime) {
+        int day = dateTime.getDayOfWeek().getValue() - 1;
+        return day * MINUTES_PER_DAY + minuteOfDay(dateTime.toLocalTime());
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,141 @@
+package co.edu.uniquindio.FitZone.service.impl.importer;
+
+import co.edu.uniquindio.FitZone.dto.request.UserRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lee un archivo CSV separado por comas cuya primera fila contiene los nombres de los campos de
+ * UserRequest (firstName, lastName, email, documentType, ...). Admite campos entre comillas dobles,
+ * con comillas escapadas ("") y saltos de línea dentro del campo. Las celdas vacías se toman como
+ * valores nulos y las columnas desconocidas se ignoran.
+ */
+final class CsvUserRowReader implements UserRowReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long line = 0;
+
+    CsvUserRowReader(InputStream input, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (header == null && !readHeader()) {
+            return null;
+        }
+
+        long start;
+        List<String> values;
+        do {
+            start = line + 1;
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isBlank());
+
+        if (values.size() != header.size()) {
+            return ImportRow.failed(start, null,
+                    "Se esperaban " + header.size() + " columnas y se encontraron " + values.size());
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (!value.isEmpty()) {
+                fields.put(header.get(i), value);
+            }
+        }
+
+        try {
+            return ImportRow.parsed(start, objectMapper.convertValue(fields, UserRequest.class));
+        } catch (IllegalArgumentException e) {
+            return ImportRow.invalid(start, fields.get("email"), e);
+        }
+    }
+
+    private boolean readHeader() throws IOException {
+        List<String> names = readRecord();
+        if (names == null) {
+            return false;
+        }
+        header = new ArrayList<>(names.size());
+        for (String name : names) {
+            header.add(name.trim());
+        }
+        if (!header.isEmpty() && !header.get(0).isEmpty() && header.get(0).charAt(0) == BOM) {
+            header.set(0, header.get(0).substring(1));
+        }
+        return true;
+    }
+
+    /**
+     * Lee un registro completo, que puede ocupar varias líneas si tiene campos entre comillas.
+     * @return los valores del registro, o null si el archivo terminó
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (c == -1) {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,35 @@
+package co.edu.uniquindio.FitZone.service.impl.importer;
+
+import co.edu.uniquindio.FitZone.dto.request.UserRequest;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+/**
+ * Fila leída de un archivo de importación: la solicitud de registro, o el error que impidió leerla.
+ * @param line número de línea donde empieza la fila
+ * @param request solicitud leída, null si la fila no se pudo interpretar
+ * @param email correo electrónico de la fila, si se conoce
+ * @param error motivo por el que la fila no se pudo interpretar
+ */
+record ImportRow(long line, UserRequest request, String email, String error) {
+
+    static ImportRow parsed(long line, UserRequest request) {
+        return new ImportRow(line, request, request.email(), null);
+    }
+
+    static ImportRow failed(long line, String email, String error) {
+        return new ImportRow(line, null, email, error);
+    }
+
+    /**
+     * Construye una fila fallida a partir de un error de conversión de Jackson,
+     * indicando el campo con el valor inválido cuando se conoce.
+     */
+    static ImportRow invalid(long line, String email, Throwable error) {
+        Throwable cause = error instanceof JsonMappingException ? error : error.getCause();
+        if (cause instanceof JsonMappingException mappingException && !mappingException.getPath().isEmpty()) {
+            String field = mappingException.getPath().get(mappingException.getPath().size() - 1).getFieldName();
+            return failed(line, email, "Valor inválido para el campo " + field);
+        }
+        return failed(line, email, "Fila con formato inválido");
+    }
+}
@@ -0,0 +1,51 @@
+package co.edu.uniquindio.FitZone.service.impl.importer;
+
+import co.edu.uniquindio.FitZone.dto.request.UserRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lee un archivo NDJSON con un objeto UserRequest por línea.
+ * Cada línea se convierte por separado, así una línea mal formada solo invalida su propia fila.
+ */
+final class NdjsonUserRowReader implements UserRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader requestReader;
+    private long line = 0;
+
+    NdjsonUserRowReader(InputStream input, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.requestReader = objectMapper.readerFor(UserRequest.class);
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        try {
+            return ImportRow.parsed(line, requestReader.readValue(text));
+        } catch (JsonProcessingException e) {
+            return ImportRow.invalid(line, null, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,365 @@
+package co.edu.uniquindio.FitZone.service.impl.importer;
+
+import co.edu.uniquindio.FitZone.dto.request.UserRequest;
+import co.edu.uniquindio.FitZone.dto.response.UserImportReport;
+import co.edu.uniquindio.FitZone.dto.response.UserImportRowResult;
+import co.edu.uniquindio.FitZone.exception.UnauthorizedRegistrationException;
+import co.edu.uniquindio.FitZone.model.entity.PersonalInformation;
+import co.edu.uniquindio.FitZone.model.entity.User;
+import co.edu.uniquindio.FitZone.model.enums.UserImportFormat;
+import co.edu.uniquindio.FitZone.model.enums.UserImportRowStatus;
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
+import co.edu.uniquindio.FitZone.repository.LocationRepository;
+import co.edu.uniquindio.FitZone.repository.UserRepository;
+import co.edu.uniquindio.FitZone.service.impl.cache.LocationDirectory;
+import co.edu.uniquindio.FitZone.service.interfaces.IUserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Importación masiva de usuarios desde archivos CSV o NDJSON.
+ * El archivo se lee como flujo y se procesa por lotes. Para cada lote los duplicados se verifican
+ * con una sola consulta por correo y otra por número de documento, las contraseñas se cifran en
+ * paralelo sobre un pool acotado (BCrypt es costoso en CPU) y los usuarios se insertan con
+ * inserciones JDBC por lotes, posibles porque los IDs salen de una secuencia con optimizador pooled.
+ * Cada fila respeta la misma jerarquía de roles que el registro individual: solo un ADMIN puede
+ * asignar un rol igual o superior al propio.
+ */
+@Service
+public class UserImportServiceImpl implements IUserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private final UserRepository userRepository;
+    private final LocationRepository locationRepository;
+    private final LocationDirectory locationDirectory;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final ExecutorService hashExecutor;
+
+    private final Counter createdRows;
+    private final Counter failedRows;
+    private final Timer batchTimer;
+
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 LocationRepository locationRepository,
+                                 LocationDirectory locationDirectory,
+                                 PasswordEncoder passwordEncoder,
+                                 ObjectMapper objectMapper,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${users.import.batch-size:500}") int batchSize,
+                                 @Value("${users.import.hash-parallelism:0}") int hashParallelism) {
+        this.userRepository = userRepository;
+        this.locationRepository = locationRepository;
+        this.locationDirectory = locationDirectory;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+
+        int threads = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+        this.hashExecutor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("user-import-hash-", 0).daemon(true).factory());
+
+        this.createdRows = Counter.builder("fitzone.users.import.rows")
+                .description("Filas procesadas por la importación masiva de usuarios")
+                .tag("outcome", "created")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("fitzone.users.import.rows")
+                .description("Filas procesadas por la importación masiva de usuarios")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("fitzone.users.import.batch")
+                .description("Duración de cada lote de la importación masiva de usuarios")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportReport importUsers(InputStream input, UserImportFormat format) {
+        UserRole importingUserRole = importingUserRole();
+        logger.info("Iniciando importación masiva de usuarios - Formato: {}, Tamaño de lote: {}, Rol importador: {}",
+                format, batchSize, importingUserRole);
+        long startedAt = System.nanoTime();
+
+        List<UserImportRowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenDocuments = new HashSet<>();
+
+        try (UserRowReader reader = format == UserImportFormat.CSV
+                ? new CsvUserRowReader(input, objectMapper)
+                : new NdjsonUserRowReader(input, objectMapper)) {
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    batchTimer.record(() -> processBatch(batch, importingUserRole, seenEmails, seenDocuments, results));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchTimer.record(() -> processBatch(batch, importingUserRole, seenEmails, seenDocuments, results));
+            }
+        } catch (IOException e) {
+            logger.error("Error al leer el archivo de importación después de {} filas: {}", results.size(), e.getMessage());
+            throw new UncheckedIOException("Error al leer el archivo de importación", e);
+        }
+
+        int created = (int) results.stream().filter(r -> r.status() == UserImportRowStatus.CREATED).count();
+        int failed = results.size() - created;
+        logger.info("Importación masiva finalizada - Filas: {}, Creados: {}, Fallidos: {}, Duración: {} ms",
+                results.size(), created, failed, (System.nanoTime() - startedAt) / 1_000_000);
+        return new UserImportReport(results.size(), created, failed, results);
+    }
+
+    /**
+     * Procesa un lote de filas y agrega su resultado al reporte, en el orden del archivo.
+     */
+    private void processBatch(List<ImportRow> batch, UserRole importingUserRole, Set<String> seenEmails,
+                              Set<String> seenDocuments, List<UserImportRowResult> results) {
+        UserImportRowResult[] outcome = new UserImportRowResult[batch.size()];
+
+        // Validación de campos, del rol asignado y de duplicados dentro del mismo archivo
+        List<Integer> candidates = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ImportRow row = batch.get(i);
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error == null) {
+                error = authorizeRole(importingUserRole, roleOf(row.request()));
+            }
+            if (error == null && !seenEmails.add(row.request().email())) {
+                error = "El email está repetido en el archivo";
+            }
+            if (error == null && !seenDocuments.add(row.request().documentNumber())) {
+                error = "El número de documento está repetido en el archivo";
+            }
+            if (error != null) {
+                outcome[i] = failed(row, error);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // Duplicados contra la base de datos, una consulta por conjunto; las sedes se validan en memoria
+        if (!candidates.isEmpty()) {
+            Set<String> existingEmails = userRepository.findExistingEmails(
+                    candidates.stream().map(i -> batch.get(i).request().email()).toList());
+            Set<String> existingDocuments = userRepository.findExistingDocumentNumbers(
+                    candidates.stream().map(i -> batch.get(i).request().documentNumber()).toList());
+
+            candidates.removeIf(i -> {
+                UserRequest request = batch.get(i).request();
+                String error = null;
+                if (existingEmails.contains(request.email())) {
+                    error = "El email ya se encuentra registrado.";
+                } else if (existingDocuments.contains(request.documentNumber())) {
+                    error = "El número de documento ya se encuentra registrado.";
+                } else if (request.mainLocationId() != null && locationDirectory.findById(request.mainLocationId()).isEmpty()) {
+                    error = "No existe la sede con ID: " + request.mainLocationId();
+                }
+                if (error != null) {
+                    outcome[i] = failed(batch.get(i), error);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        if (!candidates.isEmpty()) {
+            List<User> users = buildUsers(batch, candidates);
+            insert(batch, candidates, users, outcome);
+        }
+
+        for (UserImportRowResult result : outcome) {
+            if (result.status() == UserImportRowStatus.CREATED) {
+                createdRows.increment();
+            } else {
+                failedRows.increment();
+            }
+            results.add(result);
+        }
+        logger.debug("Lote de importación procesado - Filas: {}, Insertados: {}", batch.size(), candidates.size());
+    }
+
+    /**
+     * Construye las entidades del lote cifrando las contraseñas en paralelo.
+     */
+    private List<User> buildUsers(List<ImportRow> batch, List<Integer> candidates) {
+        List<CompletableFuture<String>> hashes = candidates.stream()
+                .map(i -> batch.get(i).request().password())
+                .map(password -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hashExecutor))
+                .toList();
+
+        List<User> users = new ArrayList<>(candidates.size());
+        for (int c = 0; c < candidates.size(); c++) {
+            UserRequest request = batch.get(candidates.get(c)).request();
+            User user = new User();
+            user.setEmail(request.email());
+            user.setPassword(hashes.get(c).join());
+            user.setRole(roleOf(request));
+            user.setPersonalInformation(getPersonalInformation(request));
+            if (request.mainLocationId() != null) {
+                user.setMainLocation(locationRepository.getReferenceById(request.mainLocationId()));
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Inserta el lote en una sola transacción. Si falla (por ejemplo, porque otra solicitud registró
+     * el mismo email mientras tanto), se reintenta fila por fila para aislar las filas conflictivas.
+     */
+    private void insert(List<ImportRow> batch, List<Integer> candidates, List<User> users, UserImportRowResult[] outcome) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAllAndFlush(users);
+                // Libera las entidades del contexto de persistencia, que sigue abierto durante la solicitud
+                entityManager.clear();
+            });
+            for (int c = 0; c < candidates.size(); c++) {
+                outcome[candidates.get(c)] = created(batch.get(candidates.get(c)), users.get(c).getIdUser());
+            }
+            return;
+        } catch (DataAccessException e) {
+            logger.warn("Falló la inserción por lotes de {} usuarios, se reintenta fila por fila: {}",
+                    users.size(), e.getMostSpecificCause().getMessage());
+        }
+
+        for (int c = 0; c < candidates.size(); c++) {
+            ImportRow row = batch.get(candidates.get(c));
+            User user = users.get(c);
+            user.setIdUser(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.saveAndFlush(user);
+                    entityManager.clear();
+                });
+                outcome[candidates.get(c)] = created(row, user.getIdUser());
+            } catch (DataAccessException e) {
+                outcome[candidates.get(c)] = failed(row, "No se pudo registrar el usuario: el email o el documento ya existen");
+            }
+        }
+    }
+
+    /**
+     * Obtiene el rol del usuario autenticado que realiza la importación.
+     */
+    private static UserRole importingUserRole() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (authentication == null ? List.<GrantedAuthority>of() : authentication.getAuthorities()).stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> Arrays.stream(UserRole.values()).anyMatch(role -> role.name().equals(authority)))
+                .map(UserRole::valueOf)
+                .findFirst()
+                .orElseThrow(() -> {
+                    logger.error("Rol de usuario autenticado no encontrado para la importación masiva");
+                    return new UnauthorizedRegistrationException("Rol de usuario autenticado no encontrado");
+                });
+    }
+
+    /**
+     * Aplica la regla de registerUser: un ADMIN puede asignar cualquier rol y los demás roles
+     * solo roles con un nivel de jerarquía inferior al propio.
+     * @return el motivo del rechazo, o null si el rol está permitido
+     */
+    private static String authorizeRole(UserRole importingUserRole, UserRole role) {
+        if (importingUserRole != UserRole.ADMIN && importingUserRole.getHierarchyLevel() <= role.getHierarchyLevel()) {
+            return "El usuario con rol " + importingUserRole.name() + " no está autorizado para registrar un usuario con rol " + role.name();
+        }
+        return null;
+    }
+
+    private static UserRole roleOf(UserRequest request) {
+        return request.role() != null ? request.role() : UserRole.MEMBER;
+    }
+
+    /**
+     * Verifica los campos obligatorios de la solicitud.
+     * @return el motivo del rechazo, o null si la solicitud es válida
+     */
+    private static String validate(UserRequest request) {
+        if (isBlank(request.firstName()) || isBlank(request.lastName())) {
+            return "El nombre y el apellido son obligatorios";
+        }
+        if (isBlank(request.email()) || !request.email().contains("@")) {
+            return "El email debe ser válido";
+        }
+        if (request.documentType() == null || isBlank(request.documentNumber())) {
+            return "El tipo y el número de documento son obligatorios";
+        }
+        if (isBlank(request.password())) {
+            return "La contraseña no puede estar vacía";
+        }
+        if (isBlank(request.phoneNumber()) || isBlank(request.emergencyContactPhone())) {
+            return "El teléfono y el teléfono de emergencia son obligatorios";
+        }
+        if (request.birthDate() == null) {
+            return "La fecha de cumpleaños no puede ser nula";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static PersonalInformation getPersonalInformation(UserRequest request) {
+        PersonalInformation personalInformation = new PersonalInformation();
+        personalInformation.setFirstName(request.firstName());
+        personalInformation.setLastName(request.lastName());
+        personalInformation.setDocumentType(request.documentType());
+        personalInformation.setDocumentNumber(request.documentNumber());
+        personalInformation.setBirthDate(request.birthDate());
+        personalInformation.setMedicalConditions(request.medicalConditions());
+        personalInformation.setEmergencyContactPhone(request.emergencyContactPhone());
+        personalInformation.setPhoneNumber(request.phoneNumber());
+        return personalInformation;
+    }
+
+    private static UserImportRowResult created(ImportRow row, Long userId) {
+        return new UserImportRowResult(row.line(), row.email(), UserImportRowStatus.CREATED, userId, null);
+    }
+
+    private static UserImportRowResult failed(ImportRow row, String error) {
+        return new UserImportRowResult(row.line(), row.email(), UserImportRowStatus.FAILED, null, error);
+    }
+}
@@ -0,0 +1,15 @@
+package co.edu.uniquindio.FitZone.service.impl.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lector secuencial de las filas de un archivo de importación de usuarios.
+ */
+interface UserRowReader extends Closeable {
+
+    /**
+     * @return la siguiente fila, o null si el archivo terminó
+     */
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,157 @@
+package co.edu.uniquindio.FitZone.service.impl.mail;
+
+import co.edu.uniquindio.FitZone.model.entity.NotificationBatch;
+import co.edu.uniquindio.FitZone.model.enums.NotificationBatchStatus;
+import co.edu.uniquindio.FitZone.repository.NotificationBatchRepository;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envío masivo de un mismo correo a muchos destinatarios usando personalizaciones de SendGrid.
+ * El HTML se renderiza una sola vez con marcadores, y cada personalización aporta los valores
+ * de sustitución de su destinatario. Los lotes se envían en paralelo con un límite de concurrencia
+ * y el resultado de cada lote se registra en notification_batches junto con los identificadores de sus
+ * destinatarios, de modo que una nueva ejecución del mismo trabajo omite exactamente los destinatarios
+ * que ya fueron enviados.
+ */
+@Component
+public class BulkEmailSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkEmailSender.class);
+
+    /**
+     * Máximo de personalizaciones que SendGrid acepta por solicitud.
+     */
+    private static final int MAX_PERSONALIZATIONS = 1000;
+
+    private final EmailDispatcher emailDispatcher;
+    private final NotificationBatchRepository batchRepository;
+    private final MeterRegistry meterRegistry;
+    private final String fromEmail;
+    private final int batchSize;
+    private final int concurrency;
+
+    public BulkEmailSender(EmailDispatcher emailDispatcher,
+                           NotificationBatchRepository batchRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${sendgrid.from.email}") String fromEmail,
+                           @Value("${email.bulk.batch-size:1000}") int batchSize,
+                           @Value("${email.bulk.concurrency:4}") int concurrency) {
+        this.emailDispatcher = emailDispatcher;
+        this.batchRepository = batchRepository;
+        this.meterRegistry = meterRegistry;
+        this.fromEmail = fromEmail;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_PERSONALIZATIONS));
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Envía un correo a todos los destinatarios en lotes y espera a que terminen todos los lotes.
+     * @param jobKey identificador del trabajo, igual entre reintentos de la misma ejecución lógica
+     * @param template nombre de la plantilla usada, para las métricas
+     * @param subject asunto del correo
+     * @param htmlBody cuerpo HTML con los marcadores de sustitución
+     * @param recipients destinatarios con sus valores de sustitución
+     * @return resumen del envío
+     */
+    public BulkSendSummary send(String jobKey, String template, String subject, String htmlBody, List<BulkRecipient> recipients) {
+        Set<Long> sentIds = new HashSet<>(batchRepository.findReferenceIds(jobKey, NotificationBatchStatus.SENT));
+        List<BulkRecipient> pending = recipients.stream()
+                .filter(recipient -> !sentIds.contains(recipient.referenceId()))
+                .sorted(Comparator.comparing(BulkRecipient::referenceId))
+                .toList();
+        int skipped = recipients.size() - pending.size();
+        if (skipped > 0) {
+            logger.info("Reanudando trabajo {} - Destinatarios ya enviados: {}, Pendientes: {}", jobKey, skipped, pending.size());
+        }
+
+        List<List<BulkRecipient>> batches = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i += batchSize) {
+            batches.add(pending.subList(i, Math.min(i + batchSize, pending.size())));
+        }
+
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<BulkRecipient> batch : batches) {
+                permits.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        boolean sent = sendBatch(jobKey, template, subject, htmlBody, batch);
+                        (sent ? delivered : failed).addAndGet(batch.size());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        logger.info("Envío masivo {} completado - Lotes: {}, Entregados: {}, Fallidos: {}, Omitidos: {}",
+                jobKey, batches.size(), delivered.get(), failed.get(), skipped);
+        return new BulkSendSummary(recipients.size(), skipped, delivered.get(), failed.get());
+    }
+
+    private boolean sendBatch(String jobKey, String template, String subject, String htmlBody, List<BulkRecipient> batch) {
+        Mail mail = new Mail();
+        mail.setFrom(new Email(fromEmail));
+        mail.setSubject(subject);
+        mail.addContent(new Content("text/html", htmlBody));
+        for (BulkRecipient recipient : batch) {
+            Personalization personalization = new Personalization();
+            personalization.addTo(new Email(recipient.email()));
+            recipient.substitutions().forEach(personalization::addSubstitution);
+            mail.addPersonalization(personalization);
+        }
+
+        Long firstId = batch.get(0).referenceId();
+        Long lastId = batch.get(batch.size() - 1).referenceId();
+        String label = batch.size() + " destinatarios [" + firstId + "-" + lastId + "]";
+
+        DeliveryResult result;
+        try {
+            result = emailDispatcher.send(mail, template, label);
+        } catch (RuntimeException e) {
+            logger.error("Error inesperado enviando el lote {} del trabajo {}: {}", label, jobKey, e.getMessage(), e);
+            result = new DeliveryResult(false, 0, null, e.getMessage());
+        }
+
+        NotificationBatch record = new NotificationBatch();
+        record.setJobKey(jobKey);
+        record.setFirstReferenceId(firstId);
+        record.setLastReferenceId(lastId);
+        record.setRecipients(batch.size());
+        batch.forEach(recipient -> record.getReferenceIds().add(recipient.referenceId()));
+        record.setStatus(result.delivered() ? NotificationBatchStatus.SENT : NotificationBatchStatus.FAILED);
+        record.setAttempts(result.attempts());
+        record.setLastStatusCode(result.statusCode());
+        String error = result.error();
+        record.setLastError(error == null || error.length() <= 1000 ? error : error.substring(0, 1000));
+        record.setCompletedAt(LocalDateTime.now());
+        batchRepository.save(record);
+
+        meterRegistry.counter("fitzone.email.bulk.batches", "template", template, "status", record.getStatus().name()).increment();
+        meterRegistry.counter("fitzone.email.bulk.recipients", "template", template, "status", record.getStatus().name())
+                .increment(batch.size());
+        return result.delivered();
+    }
+}
@@ -0,0 +1,12 @@
+package co.edu.uniquindio.FitZone.service.impl.mail;
+
+import java.util.Map;
+
+/**
+ * Destinatario de un envío masivo con sus valores de sustitución.
+ * @param referenceId identificador de referencia (por ejemplo, ID de membresía), usado para reanudar el trabajo
+ * @param email correo electrónico del destinatario
+ * @param substitutions valores que reemplazan los marcadores de la plantilla para este destinatario
+ */
+public record BulkRecipient(Long referenceId, String email, Map<String, String> substitutions) {
+}
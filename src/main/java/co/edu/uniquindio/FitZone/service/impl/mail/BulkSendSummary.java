@@ -0,0 +1,11 @@
+package co.edu.uniquindio.FitZone.service.impl.mail;
+
+/**
+ * Resumen de un envío masivo realizado por BulkEmailSender.
+ * @param recipients destinatarios recibidos
+ * @param skipped destinatarios omitidos porque ya estaban en un lote enviado
+ * @param delivered destinatarios incluidos en lotes aceptados por SendGrid
+ * @param failed destinatarios incluidos en lotes fallidos
+ */
+public record BulkSendSummary(int recipients, int skipped, int delivered, int failed) {
+}
@@ -0,0 +1,11 @@
+package co.edu.uniquindio.FitZone.service.impl.mail;
+
+/**
+ * Resultado de un envío a SendGrid realizado por EmailDispatcher.
+ * @param delivered si SendGrid aceptó el correo
+ * @param attempts número de intentos realizados
+ * @param statusCode último código de estado HTTP recibido, null si no hubo respuesta
+ * @param error último mensaje de error, null si el correo fue aceptado
+ */
+public record DeliveryResult(boolean delivered, int attempts, Integer statusCode, String error) {
+}
@@ -0,0 +1,332 @@
+package co.edu.uniquindio.FitZone.service.impl.mail;
+
+import co.edu.uniquindio.FitZone.exception.EmailDeliveryException;
+import co.edu.uniquindio.FitZone.model.entity.EmailDeadLetter;
+import co.edu.uniquindio.FitZone.repository.EmailDeadLetterRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendgrid.Method;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canal asíncrono de envío de correos electrónicos a través de SendGrid.
+ * Los correos se encolan en una cola acotada y son enviados por un grupo de hilos virtuales
+ * que comparten el mismo cliente de SendGrid. Los errores transitorios (errores de red,
+ * 429 y 5xx) se reintentan con espera exponencial; los rechazos permanentes y los correos
+ * que agotan sus reintentos se registran en la tabla email_dead_letters, sin el HTML enviado.
+ * Al detener la aplicación se deja de aceptar correos y se espera a que la cola se vacíe durante
+ * email.shutdown.drain-timeout; los que no alcanzan a enviarse también se registran como fallidos.
+ */
+@Component
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private final SendGrid sendGrid;
+    private final EmailDeadLetterRepository deadLetterRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String fromEmail;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration drainTimeout;
+
+    private final BlockingQueue<OutboundEmail> queue;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private final Timer queueWait;
+    private final Counter deadLetters;
+
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+
+    public EmailDispatcher(SendGrid sendGrid,
+                           EmailDeadLetterRepository deadLetterRepository,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${sendgrid.from.email}") String fromEmail,
+                           @Value("${email.queue.capacity:1000}") int queueCapacity,
+                           @Value("${email.workers:4}") int workers,
+                           @Value("${email.retry.max-attempts:4}") int maxAttempts,
+                           @Value("${email.retry.initial-backoff:500ms}") Duration initialBackoff,
+                           @Value("${email.retry.max-backoff:10s}") Duration maxBackoff,
+                           @Value("${email.shutdown.drain-timeout:10s}") Duration drainTimeout) {
+        this.sendGrid = sendGrid;
+        this.deadLetterRepository = deadLetterRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.fromEmail = fromEmail;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.drainTimeout = drainTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("fitzone.email.queue.size", queue, BlockingQueue::size)
+                .description("Correos pendientes en la cola de envío")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("fitzone.email.queue.wait")
+                .description("Tiempo que un correo espera en la cola antes de su primer intento")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder("fitzone.email.dead.letters")
+                .description("Correos descartados y registrados en la tabla de fallidos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia los hilos virtuales que consumen la cola.
+     */
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            workerThreads.add(Thread.ofVirtual().name("email-worker-" + i).start(this::consume));
+        }
+        logger.info("Canal de envío de correos iniciado - Trabajadores: {}, Capacidad de la cola: {}",
+                workers, queue.remainingCapacity());
+    }
+
+    /**
+     * Deja de aceptar correos y espera a que los trabajadores vacíen la cola y terminen los envíos en curso,
+     * hasta email.shutdown.drain-timeout. Después detiene los trabajadores y registra como fallidos
+     * los correos que no se alcanzaron a enviar, para que no se pierdan sin rastro.
+     */
+    @PreDestroy
+    public void stop() {
+        accepting = false;
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while ((!queue.isEmpty() || inFlight.get() > 0) && System.nanoTime() < deadline) {
+            if (!sleep(Duration.ofMillis(50))) {
+                break;
+            }
+        }
+
+        running = false;
+        workerThreads.forEach(Thread::interrupt);
+        for (Thread worker : workerThreads) {
+            try {
+                worker.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<OutboundEmail> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (OutboundEmail email : pending) {
+            deadLetter(email, new DeliveryResult(false, 0, null, "Canal de envío detenido antes de enviar el correo"));
+        }
+        if (!pending.isEmpty()) {
+            logger.warn("Canal de envío de correos detenido, {} correos pendientes registrados como fallidos", pending.size());
+        }
+    }
+
+    /**
+     * Encola un correo electrónico para su envío asíncrono.
+     * @param toEmail destinatario
+     * @param subject asunto
+     * @param htmlBody cuerpo HTML
+     * @param template nombre de la plantilla usada, para las métricas
+     * @param templateVariables variables de la plantilla para poder reenviar el correo si falla;
+     *                          null si el correo contiene datos que no se deben guardar
+     * @return futuro que se completa cuando SendGrid acepta el correo, o de forma excepcional si se descarta
+     * @throws EmailDeliveryException si la cola está llena o el canal se está deteniendo
+     */
+    public CompletableFuture<Void> enqueue(String toEmail, String subject, String htmlBody, String template,
+                                           Map<String, String> templateVariables) {
+        if (!accepting) {
+            throw new EmailDeliveryException("El canal de envío de correos se está deteniendo, intente más tarde");
+        }
+        OutboundEmail email = new OutboundEmail(toEmail, subject, htmlBody, template, templateVariables,
+                Instant.now(), new CompletableFuture<>());
+        if (!queue.offer(email)) {
+            meterRegistry.counter("fitzone.email.rejected", "template", template).increment();
+            logger.warn("Cola de correos llena, se rechaza el correo para {} (plantilla: {})", toEmail, template);
+            throw new EmailDeliveryException("La cola de envío de correos está llena, intente más tarde");
+        }
+        return email.result();
+    }
+
+    private void consume() {
+        while (running) {
+            OutboundEmail email;
+            try {
+                email = queue.take();
+                inFlight.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queueWait.record(Duration.between(email.enqueuedAt(), Instant.now()));
+            try {
+                deliver(email);
+            } catch (RuntimeException e) {
+                logger.error("Error inesperado enviando correo a {}: {}", email.toEmail(), e.getMessage(), e);
+                email.result().completeExceptionally(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private void deliver(OutboundEmail email) {
+        DeliveryResult result = send(buildMail(email), email.template(), email.toEmail());
+        if (result.delivered()) {
+            email.result().complete(null);
+        } else {
+            deadLetter(email, result);
+        }
+    }
+
+    /**
+     * Envía un correo a SendGrid en el hilo actual, reintentando los errores transitorios
+     * (errores de red, 429 y 5xx) con espera exponencial.
+     * @param mail correo a enviar, puede contener varias personalizaciones
+     * @param template nombre de la plantilla usada, para las métricas
+     * @param recipientLabel descripción de los destinatarios para el registro
+     * @return resultado del envío con el número de intentos y el último error
+     */
+    public DeliveryResult send(Mail mail, String template, String recipientLabel) {
+        Request request = new Request();
+        request.setMethod(Method.POST);
+        request.setEndpoint("mail/send");
+        try {
+            request.setBody(mail.build());
+        } catch (IOException e) {
+            throw new EmailDeliveryException("No fue posible construir el correo para " + recipientLabel, e);
+        }
+
+        Duration backoff = initialBackoff;
+        Integer lastStatus = null;
+        String lastError = null;
+        int attempt = 0;
+
+        while (attempt < maxAttempts) {
+            attempt++;
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome;
+            boolean retryable;
+            try {
+                Response response = sendGrid.api(request);
+                lastStatus = response.getStatusCode();
+                if (lastStatus >= 200 && lastStatus < 300) {
+                    sample.stop(sendTimer(template, "success"));
+                    meterRegistry.counter("fitzone.email.sent", "template", template).increment();
+                    logger.debug("Correo enviado a {} (plantilla: {}, intento: {})", recipientLabel, template, attempt);
+                    return new DeliveryResult(true, attempt, lastStatus, null);
+                }
+                lastError = response.getBody();
+                retryable = lastStatus == 429 || lastStatus >= 500;
+                outcome = retryable ? "retryable" : "rejected";
+            } catch (IOException e) {
+                lastError = e.getMessage();
+                retryable = true;
+                outcome = "io_error";
+            }
+            sample.stop(sendTimer(template, outcome));
+
+            if (!retryable) {
+                break;
+            }
+            if (attempt < maxAttempts) {
+                logger.warn("Fallo transitorio enviando correo a {} (intento {}/{}, estado: {}), reintentando en {} ms",
+                        recipientLabel, attempt, maxAttempts, lastStatus, backoff.toMillis());
+                if (!sleep(backoff)) {
+                    break;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : backoff.multipliedBy(2);
+            }
+        }
+
+        logger.error("No fue posible entregar el correo a {} (plantilla: {}, estado: {}): {}",
+                recipientLabel, template, lastStatus, lastError);
+        return new DeliveryResult(false, attempt, lastStatus, lastError);
+    }
+
+    private Mail buildMail(OutboundEmail email) {
+        return new Mail(new Email(fromEmail), email.subject(), new Email(email.toEmail()),
+                new Content("text/html", email.htmlBody()));
+    }
+
+    private Timer sendTimer(String template, String outcome) {
+        return Timer.builder("fitzone.email.send")
+                .description("Latencia de cada intento de envío a SendGrid")
+                .tag("template", template)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private boolean sleep(Duration duration) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void deadLetter(OutboundEmail email, DeliveryResult result) {
+        deadLetters.increment();
+        String lastError = result.error();
+        try {
+            EmailDeadLetter deadLetter = new EmailDeadLetter();
+            deadLetter.setRecipient(email.toEmail());
+            deadLetter.setSubject(email.subject());
+            deadLetter.setTemplate(email.template());
+            deadLetter.setTemplateVariables(toJson(email.templateVariables()));
+            deadLetter.setAttempts(result.attempts());
+            deadLetter.setLastStatusCode(result.statusCode());
+            deadLetter.setLastError(lastError == null || lastError.length() <= 1000 ? lastError : lastError.substring(0, 1000));
+            deadLetter.setFailedAt(LocalDateTime.now());
+            deadLetterRepository.save(deadLetter);
+        } catch (RuntimeException e) {
+            logger.error("No fue posible registrar el correo fallido para {}: {}", email.toEmail(), e.getMessage(), e);
+        }
+        email.result().completeExceptionally(new EmailDeliveryException(
+                "No fue posible entregar el correo a " + email.toEmail() + " (estado: " + result.statusCode() + ")"));
+    }
+
+    private String toJson(Map<String, String> templateVariables) {
+        if (templateVariables == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(templateVariables);
+        } catch (JsonProcessingException e) {
+            logger.warn("No fue posible guardar las variables de la plantilla del correo fallido: {}", e.getMessage());
+            return null;
+        }
+    }
+}
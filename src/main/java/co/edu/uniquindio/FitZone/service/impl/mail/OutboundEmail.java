@@ -0,0 +1,25 @@
+package co.edu.uniquindio.FitZone.service.impl.mail;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Correo electrónico pendiente de envío en la cola de EmailDispatcher.
+ * @param toEmail destinatario
+ * @param subject asunto
+ * @param htmlBody cuerpo HTML ya renderizado
+ * @param template nombre de la plantilla usada, para las métricas
+ * @param templateVariables variables con las que se renderizó la plantilla, se guardan si el correo
+ *                          termina en la tabla de fallidos; null si no se deben guardar
+ * @param enqueuedAt momento en que se encoló
+ * @param result futuro que se completa cuando el correo se entrega o se descarta
+ */
+public record OutboundEmail(String toEmail,
+                            String subject,
+                            String htmlBody,
+                            String template,
+                            Map<String, String> templateVariables,
+                            Instant enqueuedAt,
+                            CompletableFuture<Void> result) {
+}
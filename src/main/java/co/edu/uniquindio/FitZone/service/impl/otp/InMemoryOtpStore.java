@@ -0,0 +1,168 @@
+package co.edu.uniquindio.FitZone.service.impl.otp;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import co.edu.uniquindio.FitZone.service.interfaces.IOtpStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Almacenamiento en memoria de los códigos OTP de inicio de sesión.
+ * Cada email tiene un único registro con el código, su fecha de expiración y los intentos fallidos.
+ * Las entradas expiran de forma activa (rueda de temporizadores de Caffeine), el número de entradas
+ * está acotado y un código se consume con una única operación atómica de comparar y eliminar.
+ * Es la implementación por defecto; solo sirve cuando una única instancia atiende el login.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements IOtpStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryOtpStore.class);
+
+    /**
+     * Registro de un OTP emitido.
+     * @param code código enviado al usuario
+     * @param expiresAt instante en el que deja de ser válido
+     * @param failedAttempts intentos fallidos de validación
+     */
+    record OtpEntry(String code, Instant expiresAt, int failedAttempts) {
+
+        OtpEntry withFailedAttempt() {
+            return new OtpEntry(code, expiresAt, failedAttempts + 1);
+        }
+    }
+
+    private final Duration ttl;
+    private final int maxAttempts;
+    private final Cache<String, OtpEntry> cache;
+    private final ConcurrentMap<String, OtpEntry> entries;
+
+    private final Counter sweeps;
+    private final Counter expired;
+    private final Counter evicted;
+    private final Counter exhausted;
+
+    public InMemoryOtpStore(MeterRegistry meterRegistry,
+                    @Value("${otp.ttl:5m}") Duration ttl,
+                    @Value("${otp.max-entries:100000}") long maxEntries,
+                    @Value("${otp.max-attempts:5}") int maxAttempts) {
+        this.ttl = ttl;
+        this.maxAttempts = maxAttempts;
+
+        this.sweeps = Counter.builder("fitzone.otp.sweeps")
+                .description("Barridos de OTPs expirados")
+                .register(meterRegistry);
+        this.expired = evictionCounter(meterRegistry, "expired");
+        this.evicted = evictionCounter(meterRegistry, "size");
+        this.exhausted = evictionCounter(meterRegistry, "attempts");
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new DeadlineExpiry())
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String email, OtpEntry entry, RemovalCause cause) -> {
+                    if (cause == RemovalCause.EXPIRED) {
+                        expired.increment();
+                    } else if (cause == RemovalCause.SIZE) {
+                        evicted.increment();
+                    }
+                })
+                .build();
+        this.entries = cache.asMap();
+
+        Gauge.builder("fitzone.otp.entries", cache, Cache::estimatedSize)
+                .description("OTPs vigentes en memoria")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(String email, String code) {
+        entries.put(email, new OtpEntry(code, Instant.now().plus(ttl), 0));
+    }
+
+    @Override
+    public boolean validate(String email, String code) {
+        OtpEntry entry = entries.get(email);
+        if (entry == null) {
+            return false;
+        }
+
+        if (entry.expiresAt().isBefore(Instant.now())) {
+            entries.remove(email, entry);
+            return false;
+        }
+
+        if (entry.code().equals(code)) {
+            // Solo una validación concurrente puede consumir el mismo código
+            return entries.remove(email, entry);
+        }
+
+        entries.computeIfPresent(email, (key, current) -> {
+            OtpEntry updated = current.withFailedAttempt();
+            if (updated.failedAttempts() >= maxAttempts) {
+                exhausted.increment();
+                logger.warn("OTP descartado por exceso de intentos fallidos para {}", email);
+                return null;
+            }
+            return updated;
+        });
+        return false;
+    }
+
+    /**
+     * Barrido periódico de entradas expiradas que aún no han sido retiradas por el planificador.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${otp.sweep-interval-ms:60000}")
+    public void sweep() {
+        sweeps.increment();
+        cache.cleanUp();
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("fitzone.otp.evictions")
+                .description("OTPs retirados sin ser consumidos")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expiración basada en la fecha límite del registro, de modo que registrar un intento
+     * fallido no extiende la vida del código.
+     */
+    private static final class DeadlineExpiry implements Expiry<String, OtpEntry> {
+
+        @Override
+        public long expireAfterCreate(String email, OtpEntry entry, long currentTime) {
+            return remainingNanos(entry);
+        }
+
+        @Override
+        public long expireAfterUpdate(String email, OtpEntry entry, long currentTime, long currentDuration) {
+            return remainingNanos(entry);
+        }
+
+        @Override
+        public long expireAfterRead(String email, OtpEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long remainingNanos(OtpEntry entry) {
+            return Math.max(0, Duration.between(Instant.now(), entry.expiresAt()).toNanos());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package co.edu.uniquindio.FitZone.service.impl.otp;
+
+import co.edu.uniquindio.FitZone.service.interfaces.IOtpStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Almacenamiento de códigos OTP compartido entre instancias, respaldado por la tabla otp_codes.
+ * En PostgreSQL la tabla es UNLOGGED: los OTP son efímeros y no necesitan sobrevivir a una caída,
+ * así que se evita el costo del WAL. La validación exitosa es un único DELETE por llave primaria
+ * y los códigos expirados se eliminan por lotes usando el índice sobre expires_at.
+ * La tabla y su índice los crea la migración V7__otp_codes.sql.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "jdbc")
+public class JdbcOtpStore implements IOtpStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcOtpStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final int maxAttempts;
+    private final int sweepBatchSize;
+
+    private final Counter sweeps;
+    private final Counter expired;
+    private final Counter exhausted;
+    private final AtomicLong liveEntries = new AtomicLong();
+
+    public JdbcOtpStore(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${otp.ttl:5m}") Duration ttl,
+                        @Value("${otp.max-attempts:5}") int maxAttempts,
+                        @Value("${otp.jdbc.sweep-batch-size:1000}") int sweepBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.maxAttempts = maxAttempts;
+        this.sweepBatchSize = sweepBatchSize;
+
+        this.sweeps = Counter.builder("fitzone.otp.sweeps")
+                .description("Barridos de OTPs expirados")
+                .register(meterRegistry);
+        this.expired = Counter.builder("fitzone.otp.evictions")
+                .description("OTPs retirados sin ser consumidos")
+                .tag("cause", "expired")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("fitzone.otp.evictions")
+                .description("OTPs retirados sin ser consumidos")
+                .tag("cause", "attempts")
+                .register(meterRegistry);
+        // Se actualiza en cada barrido para no consultar la tabla en cada lectura de métricas
+        Gauge.builder("fitzone.otp.entries", liveEntries, AtomicLong::get)
+                .description("OTPs vigentes en la tabla compartida")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(String email, String code) {
+        Timestamp expiresAt = Timestamp.from(Instant.now().plus(ttl));
+        int updated = jdbcTemplate.update(
+                "UPDATE otp_codes SET code = ?, expires_at = ?, failed_attempts = 0 WHERE email = ?",
+                code, expiresAt, email);
+        if (updated > 0) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO otp_codes (email, code, expires_at, failed_attempts) VALUES (?, ?, ?, 0)",
+                    email, code, expiresAt);
+        } catch (DuplicateKeyException e) {
+            // Otra instancia insertó el código al mismo tiempo, el último en escribir gana
+            jdbcTemplate.update(
+                    "UPDATE otp_codes SET code = ?, expires_at = ?, failed_attempts = 0 WHERE email = ?",
+                    code, expiresAt, email);
+        }
+    }
+
+    @Override
+    public boolean validate(String email, String code) {
+        Timestamp now = Timestamp.from(Instant.now());
+
+        // Comparar y eliminar en una sola sentencia: solo una instancia puede consumir el código
+        int consumed = jdbcTemplate.update(
+                "DELETE FROM otp_codes WHERE email = ? AND code = ? AND expires_at > ?",
+                email, code, now);
+        if (consumed > 0) {
+            return true;
+        }
+
+        int attempted = jdbcTemplate.update(
+                "UPDATE otp_codes SET failed_attempts = failed_attempts + 1 WHERE email = ? AND expires_at > ?",
+                email, now);
+        if (attempted > 0) {
+            int discarded = jdbcTemplate.update(
+                    "DELETE FROM otp_codes WHERE email = ? AND failed_attempts >= ?",
+                    email, maxAttempts);
+            if (discarded > 0) {
+                exhausted.increment();
+                logger.warn("OTP descartado por exceso de intentos fallidos para {}", email);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${otp.sweep-interval-ms:60000}")
+    public void sweep() {
+        sweeps.increment();
+        Timestamp now = Timestamp.from(Instant.now());
+
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM otp_codes WHERE email IN " +
+                            "(SELECT email FROM otp_codes WHERE expires_at <= ? LIMIT ?)",
+                    now, sweepBatchSize);
+            total += deleted;
+        } while (deleted == sweepBatchSize);
+
+        if (total > 0) {
+            expired.increment(total);
+            logger.debug("OTPs expirados eliminados: {}", total);
+        }
+        Long remaining = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM otp_codes", Long.class);
+        liveEntries.set(remaining == null ? 0 : remaining);
+    }
+}
@@ -0,0 +1,284 @@
+package co.edu.uniquindio.FitZone.service.impl.payment;
+
+import co.edu.uniquindio.FitZone.exception.PaymentGatewayUnavailableException;
+import co.edu.uniquindio.FitZone.integration.payment.StripeService;
+import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.model.enums.PaymentIntentStatus;
+import co.edu.uniquindio.FitZone.repository.MembershipRepository;
+import co.edu.uniquindio.FitZone.repository.PaymentIntentRepository;
+import co.edu.uniquindio.FitZone.repository.projection.PendingPayment;
+import co.edu.uniquindio.FitZone.service.impl.cache.RecentPaymentIntents;
+import co.edu.uniquindio.FitZone.service.impl.checkin.MembershipEligibilityTable;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCancelParams;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Confirmación de pagos de membresías fuera del flujo de la solicitud.
+ * Las membresías se crean pendientes de pago y se activan cuando llega el webhook
+ * payment_intent.succeeded de Stripe. Como respaldo, cada membresía nueva se verifica contra
+ * Stripe en un hilo virtual apenas se confirma su creación (el webhook pudo llegar antes que la
+ * membresía), y un trabajo periódico consulta por turnos las que siguen pendientes, empezando por
+ * las que llevan más tiempo sin verificarse. Las que superan la espera máxima se consultan en Stripe
+ * antes de cancelarlas y se cancelan también allí, para que el cobro no pueda completarse después.
+ * Un pago confirmado para una intención ya cancelada se registra como error y se cuenta en
+ * fitzone.payments.succeeded_after_cancel para reembolsarlo o conciliarlo. Todas las rutas terminan en una actualización condicional sobre el
+ * ID de la intención de pago, así que repetir un evento o procesarlo en varias instancias no
+ * tiene efecto. El estado de la intención en el libro payment_intents se actualiza igual y se
+ * descarta la respuesta guardada en RecentPaymentIntents para que la siguiente consulta vea el cambio.
+ */
+@Service
+public class PaymentConfirmationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentConfirmationService.class);
+
+    static final String PAYMENT_INTENT_SUCCEEDED = "payment_intent.succeeded";
+    static final String PAYMENT_INTENT_CANCELED = "payment_intent.canceled";
+
+    private final MembershipRepository membershipRepository;
+    private final PaymentIntentRepository paymentIntentRepository;
+    private final RecentPaymentIntents recentPaymentIntents;
+    private final StripeService stripeService;
+    private final MembershipEligibilityTable eligibilityTable;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration pollMinAge;
+    private final Duration pendingMaxAge;
+    private final int pollBatchSize;
+
+    private final ExecutorService verifier = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("payment-verifier-", 0).factory());
+
+    public PaymentConfirmationService(MembershipRepository membershipRepository,
+                                      PaymentIntentRepository paymentIntentRepository,
+                                      RecentPaymentIntents recentPaymentIntents,
+                                      StripeService stripeService,
+                                      MembershipEligibilityTable eligibilityTable,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${payments.poll.min-age:2m}") Duration pollMinAge,
+                                      @Value("${payments.pending.max-age:24h}") Duration pendingMaxAge,
+                                      @Value("${payments.poll.batch-size:100}") int pollBatchSize) {
+        this.membershipRepository = membershipRepository;
+        this.paymentIntentRepository = paymentIntentRepository;
+        this.recentPaymentIntents = recentPaymentIntents;
+        this.stripeService = stripeService;
+        this.eligibilityTable = eligibilityTable;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.pollMinAge = pollMinAge;
+        this.pendingMaxAge = pendingMaxAge;
+        this.pollBatchSize = pollBatchSize;
+    }
+
+    @PreDestroy
+    public void stop() {
+        verifier.shutdownNow();
+    }
+
+    /**
+     * Procesa un evento de Stripe ya verificado. Los tipos que no afectan membresías se ignoran.
+     * @param event evento recibido por el webhook
+     */
+    public void handleEvent(Event event) {
+        String type = event.getType();
+        if (!PAYMENT_INTENT_SUCCEEDED.equals(type) && !PAYMENT_INTENT_CANCELED.equals(type)) {
+            logger.debug("Evento de Stripe ignorado - ID: {}, Tipo: {}", event.getId(), type);
+            return;
+        }
+
+        String paymentIntentId = paymentIntentId(event);
+        if (paymentIntentId == null) {
+            logger.warn("Evento de Stripe sin intención de pago - ID: {}, Tipo: {}", event.getId(), type);
+            return;
+        }
+        logger.info("Evento de Stripe recibido - ID: {}, Tipo: {}, PaymentIntent: {}", event.getId(), type, paymentIntentId);
+        if (PAYMENT_INTENT_SUCCEEDED.equals(type)) {
+            activate(paymentIntentId, "webhook");
+        } else {
+            cancel(paymentIntentId, "webhook");
+        }
+    }
+
+    /**
+     * Verifica el pago contra Stripe en segundo plano cuando la transacción actual se confirme,
+     * o de inmediato si no hay una transacción activa.
+     * @param paymentIntentId ID de la intención de pago de la membresía creada
+     */
+    public void verifyAfterCommit(String paymentIntentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitVerification(paymentIntentId);
+                }
+            });
+        } else {
+            submitVerification(paymentIntentId);
+        }
+    }
+
+    /**
+     * Consulta en Stripe un lote de las membresías que siguen pendientes después de la espera mínima,
+     * empezando por las que llevan más tiempo sin verificarse. Las que superaron la espera máxima sin
+     * pago confirmado se cancelan en Stripe y luego aquí.
+     */
+    @Scheduled(fixedDelayString = "${payments.poll.interval-ms:60000}",
+            initialDelayString = "${payments.poll.interval-ms:60000}")
+    public void pollPending() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<PendingPayment> pending = membershipRepository.findPendingPayments(
+                MembershipStatus.PENDING_PAYMENT, now.minus(pollMinAge), Limit.of(pollBatchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Se marcan antes de consultarlas: aunque Stripe falle, la siguiente ronda sigue con las demás
+        membershipRepository.markPaymentsPolled(pending.stream().map(PendingPayment::getPaymentIntentId).toList(), now);
+        logger.debug("Verificando {} membresías pendientes de pago", pending.size());
+
+        LocalDateTime abandonedBefore = now.minus(pendingMaxAge);
+        for (PendingPayment payment : pending) {
+            boolean expired = payment.getPaymentRequestedAt().isBefore(abandonedBefore);
+            verify(payment.getPaymentIntentId(), expired ? "timeout" : "poll", expired);
+        }
+    }
+
+    private void submitVerification(String paymentIntentId) {
+        try {
+            verifier.execute(() -> verify(paymentIntentId, "creation", false));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Verificación de pago no programada, la hará el trabajo periódico - PaymentIntent: {}", paymentIntentId);
+        }
+    }
+
+    /**
+     * Consulta el estado de la intención en Stripe y activa o cancela la membresía según corresponda.
+     * @param expired si la membresía superó la espera máxima; una intención aún sin cobrar se cancela
+     *                en Stripe y, solo si Stripe confirma la cancelación, se cancela la membresía
+     */
+    private void verify(String paymentIntentId, String source, boolean expired) {
+        try {
+            PaymentIntent paymentIntent = stripeService.getPaymentIntent(paymentIntentId);
+            switch (paymentIntent.getStatus()) {
+                case "succeeded" -> activate(paymentIntentId, source);
+                case "canceled" -> cancel(paymentIntentId, source);
+                default -> {
+                    if (expired) {
+                        cancelInStripe(paymentIntentId, source);
+                    } else {
+                        logger.debug("Pago aún no confirmado - PaymentIntent: {}, Estado: {}",
+                                paymentIntentId, paymentIntent.getStatus());
+                    }
+                }
+            }
+        } catch (StripeException e) {
+            logger.warn("No fue posible consultar o cancelar la intención de pago en Stripe - PaymentIntent: {}, Error: {}",
+                    paymentIntentId, e.getMessage());
+        } catch (PaymentGatewayUnavailableException e) {
+            logger.debug("Verificación de pago aplazada, Stripe no disponible - PaymentIntent: {}", paymentIntentId);
+        } catch (RuntimeException e) {
+            logger.error("Error verificando el pago - PaymentIntent: {}, Error: {}", paymentIntentId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cancela en Stripe una intención vencida y, si Stripe la deja cancelada, cancela la membresía.
+     * Si Stripe rechaza la cancelación (por ejemplo, porque el cobro se completó entre la consulta y la
+     * cancelación) la membresía sigue pendiente y la siguiente consulta verá el estado real.
+     */
+    private void cancelInStripe(String paymentIntentId, String source) throws StripeException {
+        PaymentIntent cancelled = stripeService.cancelPaymentIntent(paymentIntentId,
+                PaymentIntentCancelParams.CancellationReason.ABANDONED);
+        if ("canceled".equals(cancelled.getStatus())) {
+            cancel(paymentIntentId, source);
+        } else {
+            logger.warn("Stripe no canceló la intención de pago vencida - PaymentIntent: {}, Estado: {}",
+                    paymentIntentId, cancelled.getStatus());
+        }
+    }
+
+    private void activate(String paymentIntentId, String source) {
+        LocalDate today = LocalDate.now();
+        int activated = membershipRepository.activatePending(paymentIntentId, today, today.plusMonths(1));
+        record("activated", source, activated);
+        resolve(paymentIntentId, PaymentIntentStatus.SUCCEEDED);
+        if (activated > 0) {
+            logger.info("Membresía activada por pago confirmado - PaymentIntent: {}, Origen: {}", paymentIntentId, source);
+            refreshEligibility(paymentIntentId);
+        } else if (membershipRepository.existsByPaymentIntentIdAndStatusAndEndDateIsNull(paymentIntentId, MembershipStatus.CANCELLED)) {
+            // El cliente pagó una membresía que se canceló sin llegar a activarse: no se reactiva, se reembolsa o concilia
+            meterRegistry.counter("fitzone.payments.succeeded_after_cancel", "source", source).increment();
+            logger.error("Pago confirmado para una membresía cancelada, requiere reembolso o conciliación - " +
+                    "PaymentIntent: {}, Origen: {}", paymentIntentId, source);
+        } else {
+            logger.debug("Pago confirmado sin membresía pendiente - PaymentIntent: {}, Origen: {}", paymentIntentId, source);
+        }
+    }
+
+    private void cancel(String paymentIntentId, String source) {
+        int cancelled = membershipRepository.cancelPending(paymentIntentId);
+        record("cancelled", source, cancelled);
+        resolve(paymentIntentId, PaymentIntentStatus.CANCELED);
+        if (cancelled > 0) {
+            logger.info("Membresía pendiente cancelada - PaymentIntent: {}, Origen: {}", paymentIntentId, source);
+            refreshEligibility(paymentIntentId);
+        }
+    }
+
+    private void resolve(String paymentIntentId, PaymentIntentStatus status) {
+        if (paymentIntentRepository.resolvePending(paymentIntentId, status, LocalDateTime.now()) > 0) {
+            logger.debug("Intención de pago resuelta - PaymentIntent: {}, Estado: {}", paymentIntentId, status);
+        }
+        recentPaymentIntents.invalidate(paymentIntentId);
+    }
+
+    private void refreshEligibility(String paymentIntentId) {
+        membershipRepository.findUserIdByPaymentIntentId(paymentIntentId)
+                .ifPresent(eligibilityTable::refreshUserAfterCommit);
+    }
+
+    private void record(String outcome, String source, int changed) {
+        meterRegistry.counter("fitzone.payments.confirmations",
+                "outcome", changed > 0 ? outcome : "unchanged",
+                "source", source).increment();
+    }
+
+    private String paymentIntentId(Event event) {
+        // Se lee el JSON crudo para no depender de que la versión de la API del evento
+        // coincida con la de la librería
+        String rawJson = event.getDataObjectDeserializer().getRawJson();
+        if (rawJson == null) {
+            return null;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(rawJson).get("id");
+            return id == null || id.isNull() ? null : id.asText();
+        } catch (IOException e) {
+            logger.warn("No fue posible leer el objeto del evento de Stripe - ID: {}", event.getId());
+            return null;
+        }
+    }
+}
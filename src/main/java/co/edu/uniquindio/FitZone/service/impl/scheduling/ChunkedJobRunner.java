@@ -0,0 +1,269 @@
+package co.edu.uniquindio.FitZone.service.impl.scheduling;
+
+import co.edu.uniquindio.FitZone.model.entity.JobRun;
+import co.edu.uniquindio.FitZone.model.enums.JobRunStatus;
+import co.edu.uniquindio.FitZone.repository.JobRunRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Ejecutor de trabajos programados que recorren una tabla por bloques de IDs.
+ * Los bloques se calculan por paginación por llave (keyset) y se procesan en paralelo con un
+ * límite de trabajadores. El último ID procesado de forma contigua se guarda en job_runs como
+ * punto de control, y la ejecución está protegida por un lease en base de datos para que solo
+ * un nodo la realice. El procesamiento de cada bloque debe ser idempotente, porque los bloques
+ * posteriores al punto de control se vuelven a procesar al reanudar.
+ */
+@Component
+public class ChunkedJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedJobRunner.class);
+
+    /**
+     * Calcula el siguiente bloque a partir del último ID procesado.
+     */
+    @FunctionalInterface
+    public interface ChunkSource {
+        /**
+         * @param afterId último ID procesado
+         * @param chunkSize cantidad máxima de filas del bloque
+         * @return el bloque, o null si no quedan filas
+         */
+        Chunk next(long afterId, int chunkSize);
+    }
+
+    /**
+     * Procesa las filas con ID en el rango (afterId, upToId].
+     */
+    @FunctionalInterface
+    public interface ChunkProcessor {
+        /**
+         * @return cantidad de filas modificadas
+         */
+        int process(long afterId, long upToId);
+    }
+
+    /**
+     * Bloque de filas con ID en el rango (afterId, upToId].
+     */
+    public record Chunk(long afterId, long upToId, long rows) {
+    }
+
+    private final JobRunRepository jobRunRepository;
+    private final JobLeaseService jobLeaseService;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Duration leaseDuration;
+
+    /**
+     * Filas pendientes por trabajo según el último punto de control, expuestas como métrica de retraso.
+     */
+    private final Map<String, AtomicLong> lag = new ConcurrentHashMap<>();
+
+    public ChunkedJobRunner(JobRunRepository jobRunRepository,
+                            JobLeaseService jobLeaseService,
+                            MeterRegistry meterRegistry,
+                            @Value("${jobs.chunk-size:5000}") int chunkSize,
+                            @Value("${jobs.parallelism:4}") int parallelism,
+                            @Value("${jobs.lease-duration:10m}") Duration leaseDuration) {
+        this.jobRunRepository = jobRunRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Indica si existe una ejecución sin terminar del trabajo para la fecha dada.
+     * @param jobName nombre del trabajo
+     * @param runDate fecha lógica de la ejecución
+     * @return true si la ejecución existe y no se completó
+     */
+    public boolean hasUnfinishedRun(String jobName, LocalDate runDate) {
+        return jobRunRepository.findByJobNameAndRunDate(jobName, runDate)
+                .map(run -> run.getStatus() != JobRunStatus.COMPLETED)
+                .orElse(false);
+    }
+
+    /**
+     * Ejecuta o reanuda el trabajo para la fecha dada, si este nodo obtiene el lease.
+     * @param jobName nombre del trabajo
+     * @param runDate fecha lógica de la ejecución
+     * @param source cálculo de los bloques
+     * @param processor procesamiento de cada bloque
+     * @param maxId ID más alto de la tabla, para la métrica de retraso
+     * @return la ejecución con su estado final, o vacío si otro nodo tiene el lease o ya estaba completada
+     */
+    public Optional<JobRun> run(String jobName, LocalDate runDate, ChunkSource source,
+                                ChunkProcessor processor, LongSupplier maxId) {
+        if (!jobLeaseService.tryAcquire(jobName, leaseDuration)) {
+            logger.info("El trabajo {} se está ejecutando en otro nodo, se omite", jobName);
+            return Optional.empty();
+        }
+        try {
+            JobRun run = jobRunRepository.findByJobNameAndRunDate(jobName, runDate).orElseGet(() -> newRun(jobName, runDate));
+            if (run.getStatus() == JobRunStatus.COMPLETED) {
+                logger.info("El trabajo {} ya fue completado para {}", jobName, runDate);
+                return Optional.empty();
+            }
+            if (run.getIdJobRun() != null) {
+                logger.info("Reanudando trabajo {} para {} desde el ID {}", jobName, runDate, run.getLastProcessedId());
+            }
+            run.setStatus(JobRunStatus.RUNNING);
+            run.setOwner(jobLeaseService.getNodeId());
+            run.setUpdatedAt(LocalDateTime.now());
+            run = jobRunRepository.save(run);
+
+            return Optional.of(execute(run, source, processor, maxId));
+        } finally {
+            jobLeaseService.release(jobName);
+        }
+    }
+
+    private JobRun execute(JobRun run, ChunkSource source, ChunkProcessor processor, LongSupplier maxId) {
+        String jobName = run.getJobName();
+        AtomicLong pending = lag.computeIfAbsent(jobName, name -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("fitzone.job.lag", value, AtomicLong::get)
+                    .description("IDs pendientes entre el punto de control y el ID más alto de la tabla")
+                    .tag("job", name)
+                    .register(meterRegistry);
+            return value;
+        });
+        Timer chunkTimer = Timer.builder("fitzone.job.chunk.duration")
+                .description("Tiempo de procesamiento de cada bloque")
+                .tag("job", jobName)
+                .register(meterRegistry);
+        long highestId = maxId.getAsLong();
+        pending.set(Math.max(0, highestId - run.getLastProcessedId()));
+
+        Checkpoint checkpoint = new Checkpoint(run, pending, highestId);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Semaphore permits = new Semaphore(parallelism);
+        long startedAt = System.nanoTime();
+        long leaseRenewedAt = startedAt;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long afterId = run.getLastProcessedId();
+            while (!failed.get()) {
+                Chunk chunk = source.next(afterId, chunkSize);
+                if (chunk == null) {
+                    break;
+                }
+                permits.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        int affected = chunkTimer.record(() -> processor.process(chunk.afterId(), chunk.upToId()));
+                        meterRegistry.counter("fitzone.job.rows", "job", jobName, "kind", "scanned").increment(chunk.rows());
+                        meterRegistry.counter("fitzone.job.rows", "job", jobName, "kind", "affected").increment(affected);
+                        checkpoint.complete(chunk, affected);
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        logger.error("Error procesando el bloque ({}, {}] del trabajo {}: {}",
+                                chunk.afterId(), chunk.upToId(), jobName, e.getMessage(), e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+                afterId = chunk.upToId();
+
+                // Renueva el lease antes de que expire mientras sigue habiendo bloques
+                if (Duration.ofNanos(System.nanoTime() - leaseRenewedAt).compareTo(leaseDuration.dividedBy(3)) > 0) {
+                    if (!jobLeaseService.tryAcquire(jobName, leaseDuration)) {
+                        logger.error("Se perdió el lease del trabajo {}, se detiene la ejecución", jobName);
+                        failed.set(true);
+                    }
+                    leaseRenewedAt = System.nanoTime();
+                }
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        JobRun finished = checkpoint.finish(failed.get() ? JobRunStatus.FAILED : JobRunStatus.COMPLETED);
+        meterRegistry.timer("fitzone.job.run.duration", "job", jobName, "status", finished.getStatus().name())
+                .record(elapsed);
+        double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+        logger.info("Trabajo {} finalizado - Estado: {}, Filas recorridas: {}, Filas modificadas: {}, Duración: {} ms, Filas/s: {}",
+                jobName, finished.getStatus(), finished.getScannedRows(), finished.getAffectedRows(),
+                elapsed.toMillis(), Math.round(finished.getScannedRows() / seconds));
+        return finished;
+    }
+
+    private JobRun newRun(String jobName, LocalDate runDate) {
+        JobRun run = new JobRun();
+        run.setJobName(jobName);
+        run.setRunDate(runDate);
+        run.setLastProcessedId(0L);
+        run.setScannedRows(0L);
+        run.setAffectedRows(0L);
+        run.setStartedAt(LocalDateTime.now());
+        return run;
+    }
+
+    /**
+     * Punto de control de una ejecución. Como los bloques terminan en desorden, solo avanza
+     * hasta el último bloque completado sin huecos antes de él.
+     */
+    private class Checkpoint {
+
+        private final JobRun run;
+        private final AtomicLong pending;
+        private final long highestId;
+        private final Map<Long, Chunk> completed = new HashMap<>();
+
+        Checkpoint(JobRun run, AtomicLong pending, long highestId) {
+            this.run = run;
+            this.pending = pending;
+            this.highestId = highestId;
+        }
+
+        synchronized void complete(Chunk chunk, int affected) {
+            completed.put(chunk.afterId(), chunk);
+            run.setScannedRows(run.getScannedRows() + chunk.rows());
+            run.setAffectedRows(run.getAffectedRows() + affected);
+
+            long watermark = run.getLastProcessedId();
+            Chunk next;
+            while ((next = completed.remove(watermark)) != null) {
+                watermark = next.upToId();
+            }
+            if (watermark != run.getLastProcessedId()) {
+                run.setLastProcessedId(watermark);
+                run.setUpdatedAt(LocalDateTime.now());
+                jobRunRepository.save(run);
+                pending.set(Math.max(0, highestId - watermark));
+            }
+        }
+
+        synchronized JobRun finish(JobRunStatus status) {
+            run.setStatus(status);
+            run.setUpdatedAt(LocalDateTime.now());
+            if (status == JobRunStatus.COMPLETED) {
+                run.setFinishedAt(run.getUpdatedAt());
+                pending.set(0);
+            }
+            return jobRunRepository.save(run);
+        }
+    }
+}
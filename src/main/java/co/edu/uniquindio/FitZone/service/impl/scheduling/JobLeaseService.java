@@ -0,0 +1,86 @@
+package co.edu.uniquindio.FitZone.service.impl.scheduling;
+
+import co.edu.uniquindio.FitZone.model.entity.JobLease;
+import co.edu.uniquindio.FitZone.repository.JobLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Servicio de bloqueo por arrendamiento (lease) en base de datos para los trabajos programados.
+ * Garantiza que, con varias réplicas desplegadas, un trabajo sea ejecutado por un solo nodo a la vez.
+ */
+@Service
+public class JobLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final String nodeId;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.nodeId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Intenta tomar o renovar el lease de un trabajo.
+     * @param jobName nombre del trabajo
+     * @param duration duración del lease
+     * @return true si este nodo es dueño del lease
+     */
+    public boolean tryAcquire(String jobName, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(duration);
+        if (jobLeaseRepository.tryAcquire(jobName, nodeId, now, leaseUntil) > 0) {
+            return true;
+        }
+        if (jobLeaseRepository.existsById(jobName)) {
+            return false;
+        }
+
+        // Primera ejecución del trabajo: se crea el registro del lease
+        JobLease lease = new JobLease();
+        lease.setJobName(jobName);
+        lease.setOwner(nodeId);
+        lease.setLeaseUntil(leaseUntil);
+        lease.setAcquiredAt(now);
+        try {
+            jobLeaseRepository.saveAndFlush(lease);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Otro nodo creó el lease del trabajo {} al mismo tiempo", jobName);
+            return false;
+        }
+    }
+
+    /**
+     * Libera el lease de un trabajo si pertenece a este nodo.
+     * @param jobName nombre del trabajo
+     */
+    public void release(String jobName) {
+        jobLeaseRepository.release(jobName, nodeId, LocalDateTime.now());
+    }
+
+    /**
+     * Identificador de este nodo como dueño de leases.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
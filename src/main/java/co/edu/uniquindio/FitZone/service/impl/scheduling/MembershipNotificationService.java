@@ -1,72 +1,228 @@
 package co.edu.uniquindio.FitZone.service.impl.scheduling;
 
+import co.edu.uniquindio.FitZone.model.entity.JobRun;
 import co.edu.uniquindio.FitZone.model.entity.Membership;
+import co.edu.uniquindio.FitZone.model.enums.JobRunStatus;
 import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.repository.JobRunRepository;
 import co.edu.uniquindio.FitZone.repository.MembershipRepository;
+import co.edu.uniquindio.FitZone.repository.projection.RenewalRecipient;
+import co.edu.uniquindio.FitZone.service.impl.mail.BulkEmailSender;
+import co.edu.uniquindio.FitZone.service.impl.mail.BulkRecipient;
+import co.edu.uniquindio.FitZone.service.impl.mail.BulkSendSummary;
 import co.edu.uniquindio.FitZone.util.EmailService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 import org.thymeleaf.context.Context;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio para el envío de notificaciones de renovación de membresías.
  * Este servicio se ejecuta diariamente a las 6:00 AM y envía recordatorios
  * a los usuarios cuyas membresías están por expirar en 7 días y en 1 día.
+ * En el envío masivo cada recordatorio se registra en job_runs con la fecha de expiración de las
+ * membresías como fecha lógica, y al iniciar la aplicación se reanudan los que quedaron sin terminar.
  */
 @Service
 public class MembershipNotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(MembershipNotificationService.class);
 
+    private static final String TEMPLATE = "membership-renewal-reminder";
+    private static final String SUBJECT = "Recordatorio de Renovación - FitZone";
+    private static final String JOB_NAME_PREFIX = "renewal-reminder-";
+    private static final long[] REMINDER_DAYS = {7, 1};
+
+    // Marcadores que SendGrid reemplaza por los valores de cada destinatario en el envío masivo
+    private static final String USER_NAME_TOKEN = "-userName-";
+    private static final String MEMBERSHIP_TYPE_TOKEN = "-membershipType-";
+    private static final String EXPIRY_DATE_TOKEN = "-expiryDate-";
+
     private final MembershipRepository membershipRepository;
     private final EmailService emailService;
+    private final BulkEmailSender bulkEmailSender;
+    private final JobRunRepository jobRunRepository;
+    private final JobLeaseService jobLeaseService;
+    private final boolean bulkMode;
+    private final Duration leaseDuration;
 
-    public MembershipNotificationService(MembershipRepository membershipRepository, EmailService emailService) {
+    public MembershipNotificationService(MembershipRepository membershipRepository,
+                                         EmailService emailService,
+                                         BulkEmailSender bulkEmailSender,
+                                         JobRunRepository jobRunRepository,
+                                         JobLeaseService jobLeaseService,
+                                         @Value("${notifications.renewal.mode:bulk}") String mode,
+                                         @Value("${jobs.lease-duration:10m}") Duration leaseDuration) {
         this.membershipRepository = membershipRepository;
         this.emailService = emailService;
+        this.bulkEmailSender = bulkEmailSender;
+        this.jobRunRepository = jobRunRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.bulkMode = "bulk".equalsIgnoreCase(mode);
+        this.leaseDuration = leaseDuration;
     }
 
     /**
      * Método programado para enviar recordatorios de renovación de membresías.
      * Se ejecuta todos los días a las 6:00 AM.
-     * @throws IOException Si ocurre un error al enviar el correo electrónico.
      */
     @Scheduled(cron = "0 0 6 * * *") // Se ejecuta todos los días a las 6:00 AM
-    public void sendRenewalReminders() throws IOException {
+    public void sendRenewalReminders() {
         logger.info("Iniciando proceso de envío de recordatorios de renovación de membresías");
         LocalDate today = LocalDate.now();
         logger.debug("Fecha de ejecución: {}", today);
 
-        // Membresías que expiran en 7 días
-        LocalDate sevenDaysFromNow = today.plusDays(7);
-        logger.debug("Buscando membresías que expiran en 7 días - Fecha: {}", sevenDaysFromNow);
-        List<Membership> expiringInSevenDays = membershipRepository.findByStatusAndEndDate(MembershipStatus.ACTIVE, sevenDaysFromNow);
-        logger.info("Se encontraron {} membresías que expiran en 7 días", expiringInSevenDays.size());
-        sendNotification(expiringInSevenDays, 7);
+        if (bulkMode) {
+            for (long reminderDays : REMINDER_DAYS) {
+                sendBulkNotification(today.plusDays(reminderDays), reminderDays, today);
+            }
+        } else {
+            // Membresías que expiran en 7 días
+            LocalDate sevenDaysFromNow = today.plusDays(7);
+            logger.debug("Buscando membresías que expiran en 7 días - Fecha: {}", sevenDaysFromNow);
+            List<Membership> expiringInSevenDays = membershipRepository.findByStatusAndEndDate(MembershipStatus.ACTIVE, sevenDaysFromNow);
+            logger.info("Se encontraron {} membresías que expiran en 7 días", expiringInSevenDays.size());
+            sendNotification(expiringInSevenDays, 7);
 
-        // Membresías que expiran en 1 día
-        LocalDate oneDayFromNow = today.plusDays(1);
-        logger.debug("Buscando membresías que expiran en 1 día - Fecha: {}", oneDayFromNow);
-        List<Membership> expiringInOneDay = membershipRepository.findByStatusAndEndDate(MembershipStatus.ACTIVE, oneDayFromNow);
-        logger.info("Se encontraron {} membresías que expiran en 1 día", expiringInOneDay.size());
-        sendNotification(expiringInOneDay, 1);
+            // Membresías que expiran en 1 día
+            LocalDate oneDayFromNow = today.plusDays(1);
+            logger.debug("Buscando membresías que expiran en 1 día - Fecha: {}", oneDayFromNow);
+            List<Membership> expiringInOneDay = membershipRepository.findByStatusAndEndDate(MembershipStatus.ACTIVE, oneDayFromNow);
+            logger.info("Se encontraron {} membresías que expiran en 1 día", expiringInOneDay.size());
+            sendNotification(expiringInOneDay, 1);
+        }
 
         logger.info("Proceso de envío de recordatorios de renovación completado");
     }
 
+    /**
+     * Reanuda los recordatorios masivos que quedaron sin terminar, por ejemplo porque el nodo se
+     * reinició durante el envío o porque algún lote falló. Un recordatorio solo se reanuda mientras
+     * no le corresponda ya el siguiente (el de 7 días deja de reanudarse cuando falta 1 día) y los
+     * lotes ya enviados se omiten.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedReminders() {
+        if (!bulkMode) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < REMINDER_DAYS.length; i++) {
+            long reminderDays = REMINDER_DAYS[i];
+            long nextReminderDays = i + 1 < REMINDER_DAYS.length ? REMINDER_DAYS[i + 1] : 0;
+            List<JobRun> unfinished = jobRunRepository.findByJobNameAndStatusNotAndRunDateAfter(
+                    jobName(reminderDays), JobRunStatus.COMPLETED, today.plusDays(nextReminderDays));
+            for (JobRun run : unfinished) {
+                logger.info("Reanudando recordatorios de {} días para las membresías que expiran el {} - Estado anterior: {}",
+                        reminderDays, run.getRunDate(), run.getStatus());
+                sendBulkNotification(run.getRunDate(), reminderDays, today);
+            }
+        }
+    }
+
+    /**
+     * Envía los recordatorios de las membresías que expiran en una fecha usando el envío masivo.
+     * La plantilla se renderiza una sola vez con marcadores y SendGrid sustituye los datos de cada
+     * destinatario. El trabajo se identifica por el recordatorio y la fecha de expiración, no por el día
+     * en que se ejecuta, así que al reanudarlo otro día continúa con los lotes pendientes.
+     * @param endDate Fecha de expiración de las membresías.
+     * @param reminderDays Recordatorio al que corresponde el envío (7 o 1 día antes).
+     * @param today Fecha de ejecución.
+     */
+    private void sendBulkNotification(LocalDate endDate, long reminderDays, LocalDate today) {
+        String jobName = jobName(reminderDays);
+        if (!jobLeaseService.tryAcquire(jobName, leaseDuration)) {
+            logger.info("El trabajo {} se está ejecutando en otro nodo, se omite", jobName);
+            return;
+        }
+        try {
+            List<RenewalRecipient> recipients = membershipRepository.findRenewalRecipients(MembershipStatus.ACTIVE, endDate);
+            logger.info("Se encontraron {} membresías que expiran el {}", recipients.size(), endDate);
+            if (recipients.isEmpty()) {
+                return;
+            }
+
+            JobRun run = jobRunRepository.findByJobNameAndRunDate(jobName, endDate).orElseGet(() -> newRun(jobName, endDate));
+            run.setStatus(JobRunStatus.RUNNING);
+            run.setOwner(jobLeaseService.getNodeId());
+            run.setUpdatedAt(LocalDateTime.now());
+            run = jobRunRepository.save(run);
+
+            BulkSendSummary summary = sendBulk(recipients, endDate, reminderDays, ChronoUnit.DAYS.between(today, endDate));
+
+            run.setScannedRows((long) summary.recipients());
+            run.setAffectedRows((long) summary.skipped() + summary.delivered());
+            run.setStatus(summary.failed() == 0 ? JobRunStatus.COMPLETED : JobRunStatus.FAILED);
+            run.setUpdatedAt(LocalDateTime.now());
+            if (run.getStatus() == JobRunStatus.COMPLETED) {
+                run.setFinishedAt(run.getUpdatedAt());
+            }
+            jobRunRepository.save(run);
+        } finally {
+            jobLeaseService.release(jobName);
+        }
+    }
+
+    private BulkSendSummary sendBulk(List<RenewalRecipient> recipients, LocalDate endDate, long reminderDays, long daysRemaining) {
+        Context context = new Context();
+        context.setVariable("userName", USER_NAME_TOKEN);
+        context.setVariable("membershipType", MEMBERSHIP_TYPE_TOKEN);
+        context.setVariable("expiryDate", EXPIRY_DATE_TOKEN);
+        context.setVariable("daysRemaining", daysRemaining);
+        context.setVariable("renewalLink", ""); // Falta remplazar con el enlace para renovar la membresía
+        context.setVariable("gymPhone", "***");
+        context.setVariable("gymEmail", "fitzoneuq@gmail.com");
+        String htmlBody = emailService.render(TEMPLATE, context);
+
+        // SendGrid no escapa los valores de sustitución, por eso se escapan aquí
+        List<BulkRecipient> bulkRecipients = recipients.stream()
+                .map(recipient -> new BulkRecipient(recipient.getIdMembership(), recipient.getEmail(), Map.of(
+                        USER_NAME_TOKEN, HtmlUtils.htmlEscape(String.valueOf(recipient.getFirstName())),
+                        MEMBERSHIP_TYPE_TOKEN, String.valueOf(recipient.getMembershipType()),
+                        EXPIRY_DATE_TOKEN, String.valueOf(recipient.getEndDate()))))
+                .toList();
+
+        // La clave de los lotes usa el recordatorio y no los días restantes, que son menos al reanudar otro día
+        String jobKey = "renewal-reminder:" + endDate + ":" + reminderDays + "d";
+        BulkSendSummary summary = bulkEmailSender.send(jobKey, TEMPLATE, SUBJECT, htmlBody, bulkRecipients);
+        logger.info("Resumen de notificaciones enviadas - Total: {}, Exitosas: {}, Fallidas: {}, Omitidas: {}, Días restantes: {}",
+                summary.recipients(), summary.delivered(), summary.failed(), summary.skipped(), daysRemaining);
+        return summary;
+    }
+
+    private static String jobName(long reminderDays) {
+        return JOB_NAME_PREFIX + reminderDays + "d";
+    }
+
+    private static JobRun newRun(String jobName, LocalDate endDate) {
+        JobRun run = new JobRun();
+        run.setJobName(jobName);
+        run.setRunDate(endDate);
+        run.setLastProcessedId(0L);
+        run.setScannedRows(0L);
+        run.setAffectedRows(0L);
+        run.setStartedAt(LocalDateTime.now());
+        return run;
+    }
+
     /**
      * Envía notificaciones por correo electrónico a los usuarios cuyas membresías están por expirar.
      * @param memberships Lista de membresías que están por expirar.
      * @param daysRemaining Días restantes para la expiración de la membresía.
-     * @throws IOException Si ocurre un error al enviar el correo electrónico.
      */
-    private void sendNotification(List<Membership> memberships, long daysRemaining) throws IOException {
+    private void sendNotification(List<Membership> memberships, long daysRemaining) {
         if (memberships.isEmpty()) {
             logger.debug("No hay membresías para enviar notificaciones con {} días restantes", daysRemaining);
             return;
@@ -80,11 +236,8 @@ public class MembershipNotificationService {
 
         for (Membership membership : memberships) {
             try {
-                logger.debug("Enviando notificación de renovación para usuario: {} (ID: {}), Email: {}, Días restantes: {}", 
-                    membership.getUser().getPersonalInformation().getFirstName(), 
-                    membership.getUser().getIdUser(),
-                    membership.getUser().getEmail(),
-                    daysRemaining);
+                logger.debug("Enviando notificación de renovación - Membresía ID: {}, Días restantes: {}",
+                    membership.getIdMembership(), daysRemaining);
 
                 Context context = new Context();
                 context.setVariable("userName", membership.getUser().getPersonalInformation().getFirstName());
@@ -95,20 +248,15 @@ public class MembershipNotificationService {
                 context.setVariable("gymPhone", "***");
                 context.setVariable("gymEmail", "fitzoneuq@gmail.com");
 
-                String subject = "Recordatorio de Renovación - FitZone";
-                emailService.sendTemplatedEmail(membership.getUser().getEmail(), subject, "membership-renewal-reminder", context);
+                emailService.sendTemplatedEmail(membership.getUser().getEmail(), SUBJECT, TEMPLATE, context);
                 
                 notificationsSent++;
-                logger.debug("Notificación enviada exitosamente para usuario: {} (Email: {})", 
-                    membership.getUser().getPersonalInformation().getFirstName(), 
-                    membership.getUser().getEmail());
+                logger.debug("Notificación encolada - Membresía ID: {}", membership.getIdMembership());
 
             } catch (Exception e) {
                 notificationsFailed++;
-                logger.error("Error al enviar notificación para usuario: {} (Email: {}), Error: {}", 
-                    membership.getUser().getPersonalInformation().getFirstName(), 
-                    membership.getUser().getEmail(), 
-                    e.getMessage(), e);
+                logger.error("Error al enviar notificación - Membresía ID: {}, Error: {}",
+                    membership.getIdMembership(), e.getMessage(), e);
             }
         }
 
@@ -3,8 +3,10 @@ package co.edu.uniquindio.FitZone.service.impl.scheduling;
 import co.edu.uniquindio.FitZone.model.entity.Membership;
 import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
 import co.edu.uniquindio.FitZone.repository.MembershipRepository;
+import co.edu.uniquindio.FitZone.repository.projection.KeysetChunk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -16,16 +18,33 @@ import java.util.List;
  * Servicio para la reactivación automática de membresías suspendidas
  * y la expiración automática de membresías activas.
  * Esta clase utiliza una tarea programada que se ejecuta diariamente a medianoche.
+ * Por defecto las transiciones se aplican con sentencias UPDATE masivas sobre bloques de IDs,
+ * a través de ChunkedJobRunner, que reparte los bloques entre varios trabajadores, guarda un punto
+ * de control y usa un lease para que solo un nodo ejecute el trabajo. El procesamiento membresía
+ * por membresía se conserva como alternativa (memberships.status-job.mode=per-entity).
  */
 @Service
 public class MembershipReactivationAndExpirationService {
 
     private static final Logger logger = LoggerFactory.getLogger(MembershipReactivationAndExpirationService.class);
 
+    /**
+     * Cantidad de IDs por línea en el registro de auditoría.
+     */
+    private static final int AUDIT_LOG_CHUNK = 500;
+
+    private static final String JOB_NAME = "membership-status";
+
     private final MembershipRepository membershipRepository;
-    
-    public MembershipReactivationAndExpirationService(MembershipRepository membershipRepository) {
+    private final ChunkedJobRunner chunkedJobRunner;
+    private final boolean bulkMode;
+
+    public MembershipReactivationAndExpirationService(MembershipRepository membershipRepository,
+                                                      ChunkedJobRunner chunkedJobRunner,
+                                                      @Value("${memberships.status-job.mode:bulk}") String mode) {
         this.membershipRepository = membershipRepository;
+        this.chunkedJobRunner = chunkedJobRunner;
+        this.bulkMode = !"per-entity".equalsIgnoreCase(mode);
     }
 
     /**
@@ -38,6 +57,73 @@ public class MembershipReactivationAndExpirationService {
         LocalDate today = LocalDate.now();
         logger.debug("Fecha de ejecución: {}", today);
 
+        if (bulkMode) {
+            runInChunks(today);
+            return;
+        }
+
+        int reactivatedMemberships = reactivateOneByOne(today);
+        int expiredMemberships = expireOneByOne(today);
+
+        logger.info("Proceso de gestión automática de estados de membresías completado - Reactivaciones: {}, Expiraciones: {}", 
+            reactivatedMemberships, expiredMemberships);
+    }
+
+    /**
+     * Reanuda la ejecución del día si quedó sin terminar, por ejemplo porque el nodo
+     * que la ejecutaba se reinició o perdió su lease.
+     */
+    @Scheduled(fixedDelayString = "${jobs.resume-interval-ms:300000}", initialDelayString = "${jobs.resume-interval-ms:300000}")
+    public void resumeUnfinishedRun() {
+        LocalDate today = LocalDate.now();
+        if (bulkMode && chunkedJobRunner.hasUnfinishedRun(JOB_NAME, today)) {
+            logger.info("Se encontró una ejecución sin terminar del trabajo {} para {}", JOB_NAME, today);
+            runInChunks(today);
+        }
+    }
+
+    /**
+     * Ejecuta las transiciones por bloques de IDs. En cada bloque primero se reactivan las membresías
+     * suspendidas y luego se expiran las activas vencidas, igual que en el procesamiento completo.
+     * Ambas sentencias son idempotentes, por lo que un bloque puede repetirse al reanudar.
+     * @param today fecha de ejecución
+     */
+    private void runInChunks(LocalDate today) {
+        chunkedJobRunner.run(JOB_NAME, today,
+                (afterId, chunkSize) -> {
+                    KeysetChunk chunk = membershipRepository.findNextChunk(afterId, chunkSize);
+                    return chunk.getUpToId() == null
+                            ? null
+                            : new ChunkedJobRunner.Chunk(afterId, chunk.getUpToId(), chunk.getRowCount());
+                },
+                (afterId, upToId) -> {
+                    List<Long> reactivatedIds = membershipRepository.reactivateSuspendedEndedBefore(today, afterId, upToId);
+                    logAudit("reactivadas", reactivatedIds);
+                    List<Long> expiredIds = membershipRepository.expireActiveEndedBefore(today, afterId, upToId);
+                    logAudit("expiradas", expiredIds);
+                    return reactivatedIds.size() + expiredIds.size();
+                },
+                () -> {
+                    Long maxId = membershipRepository.findMaxId();
+                    return maxId == null ? 0L : maxId;
+                });
+    }
+
+    private void logAudit(String action, List<Long> ids) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        for (int i = 0; i < ids.size(); i += AUDIT_LOG_CHUNK) {
+            logger.debug("Membresías {}: {}", action, ids.subList(i, Math.min(i + AUDIT_LOG_CHUNK, ids.size())));
+        }
+    }
+
+    /**
+     * Reactiva las membresías suspendidas cargándolas y guardándolas una por una.
+     * @param today fecha de ejecución
+     * @return cantidad de membresías reactivadas
+     */
+    private int reactivateOneByOne(LocalDate today) {
         // Lógica para reactivar automáticamente las membresías suspendidas
         logger.debug("Buscando membresías suspendidas que deben reactivarse");
         List<Membership> suspendedMemberships = membershipRepository.findByStatusAndSuspensionEndIsBefore(MembershipStatus.SUSPENDED, today);
@@ -48,9 +134,8 @@ public class MembershipReactivationAndExpirationService {
         
         for (Membership membership : suspendedMemberships) {
             try {
-                logger.debug("Reactivando membresía suspendida - ID: {}, Usuario: {} (ID: {}), Fecha fin suspensión: {}", 
+                logger.debug("Reactivando membresía suspendida - ID: {}, Usuario ID: {}, Fecha fin suspensión: {}", 
                     membership.getIdMembership(),
-                    membership.getUser().getPersonalInformation().getFirstName(),
                     membership.getUser().getIdUser(),
                     membership.getSuspensionEnd());
 
@@ -67,23 +152,29 @@ public class MembershipReactivationAndExpirationService {
                 membershipRepository.save(membership);
                 
                 reactivatedMemberships++;
-                logger.debug("Membresía reactivada exitosamente - ID: {}, Usuario: {}, Nueva fecha fin: {}", 
+                logger.debug("Membresía reactivada exitosamente - ID: {}, Nueva fecha fin: {}", 
                     membership.getIdMembership(),
-                    membership.getUser().getPersonalInformation().getFirstName(),
                     membership.getEndDate());
                     
             } catch (Exception e) {
                 reactivationErrors++;
-                logger.error("Error al reactivar membresía - ID: {}, Usuario: {}, Error: {}", 
+                logger.error("Error al reactivar membresía - ID: {}, Error: {}", 
                     membership.getIdMembership(),
-                    membership.getUser().getPersonalInformation().getFirstName(),
                     e.getMessage(), e);
             }
         }
 
         logger.info("Resumen de reactivaciones - Total encontradas: {}, Exitosas: {}, Errores: {}", 
             suspendedMemberships.size(), reactivatedMemberships, reactivationErrors);
+        return reactivatedMemberships;
+    }
 
+    /**
+     * Expira las membresías activas vencidas cargándolas y guardándolas una por una.
+     * @param today fecha de ejecución
+     * @return cantidad de membresías expiradas
+     */
+    private int expireOneByOne(LocalDate today) {
         // Lógica para cambiar el estado de las membresías que ya expiraron
         logger.debug("Buscando membresías activas que han expirado");
         List<Membership> activeAndExpiredMemberships = membershipRepository.findByStatusAndEndDateIsBefore(MembershipStatus.ACTIVE, today);
@@ -94,9 +185,8 @@ public class MembershipReactivationAndExpirationService {
         
         for (Membership membership : activeAndExpiredMemberships) {
             try {
-                logger.debug("Expirando membresía activa - ID: {}, Usuario: {} (ID: {}), Fecha fin: {}", 
+                logger.debug("Expirando membresía activa - ID: {}, Usuario ID: {}, Fecha fin: {}", 
                     membership.getIdMembership(),
-                    membership.getUser().getPersonalInformation().getFirstName(),
                     membership.getUser().getIdUser(),
                     membership.getEndDate());
 
@@ -106,23 +196,18 @@ public class MembershipReactivationAndExpirationService {
                 membershipRepository.save(membership);
                 
                 expiredMemberships++;
-                logger.debug("Membresía expirada exitosamente - ID: {}, Usuario: {}", 
-                    membership.getIdMembership(),
-                    membership.getUser().getPersonalInformation().getFirstName());
+                logger.debug("Membresía expirada exitosamente - ID: {}", membership.getIdMembership());
                     
             } catch (Exception e) {
                 expirationErrors++;
-                logger.error("Error al expirar membresía - ID: {}, Usuario: {}, Error: {}", 
+                logger.error("Error al expirar membresía - ID: {}, Error: {}", 
                     membership.getIdMembership(),
-                    membership.getUser().getPersonalInformation().getFirstName(),
                     e.getMessage(), e);
             }
         }
 
         logger.info("Resumen de expiraciones - Total encontradas: {}, Exitosas: {}, Errores: {}", 
             activeAndExpiredMemberships.size(), expiredMemberships, expirationErrors);
-
-        logger.info("Proceso de gestión automática de estados de membresías completado - Reactivaciones: {}, Expiraciones: {}", 
-            reactivatedMemberships, expiredMemberships);
+        return expiredMemberships;
     }
 }
@@ -0,0 +1,66 @@
+package co.edu.uniquindio.FitZone.service.impl.template;
+
+import java.io.Writer;
+
+/**
+ * Writer no sincronizado sobre un StringBuilder que puede reiniciarse y reutilizarse.
+ * Solo debe usarse desde un hilo a la vez.
+ */
+class StringBuilderWriter extends Writer {
+
+    private final StringBuilder builder;
+
+    StringBuilderWriter(int initialCapacity) {
+        this.builder = new StringBuilder(initialCapacity);
+    }
+
+    @Override
+    public void write(int c) {
+        builder.append((char) c);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        builder.append(buffer, offset, length);
+    }
+
+    @Override
+    public void write(String str) {
+        builder.append(str);
+    }
+
+    @Override
+    public void write(String str, int offset, int length) {
+        builder.append(str, offset, offset + length);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+        builder.append(csq);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Vacía el contenido conservando la capacidad reservada.
+     */
+    void reset() {
+        builder.setLength(0);
+    }
+
+    int capacity() {
+        return builder.capacity();
+    }
+
+    @Override
+    public String toString() {
+        return builder.toString();
+    }
+}
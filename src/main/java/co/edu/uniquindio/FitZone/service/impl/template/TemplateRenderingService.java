@@ -0,0 +1,100 @@
+package co.edu.uniquindio.FitZone.service.impl.template;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de renderizado de las plantillas de correo electrónico.
+ * Las plantillas transaccionales se analizan al iniciar la aplicación, de modo que quedan
+ * en la caché de plantillas de Thymeleaf y un error en ellas se detecta en el arranque y no
+ * en el primer envío. El HTML se escribe sobre buffers reutilizables tomados de un pool,
+ * lo que evita crecer un StringWriter nuevo en cada renderizado.
+ */
+@Service
+public class TemplateRenderingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateRenderingService.class);
+
+    /**
+     * Plantillas que se cargan al iniciar la aplicación.
+     */
+    private static final List<String> PRELOADED_TEMPLATES = List.of(
+            "otp-template", "password-reset", "membership-renewal-reminder");
+
+    private static final int INITIAL_BUFFER_CAPACITY = 16 * 1024;
+
+    /**
+     * Los buffers que crecen por encima de este tamaño no se devuelven al pool.
+     */
+    private static final int MAX_POOLED_BUFFER_CAPACITY = 256 * 1024;
+
+    private final TemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<StringBuilderWriter> writers;
+    private final Map<String, Timer> renderTimers = new ConcurrentHashMap<>();
+
+    public TemplateRenderingService(TemplateEngine templateEngine,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${email.template.writer-pool-size:16}") int writerPoolSize) {
+        this.templateEngine = templateEngine;
+        this.meterRegistry = meterRegistry;
+        this.writers = new ArrayBlockingQueue<>(writerPoolSize);
+    }
+
+    /**
+     * Analiza y deja en caché las plantillas transaccionales.
+     */
+    @PostConstruct
+    public void preload() {
+        for (String template : PRELOADED_TEMPLATES) {
+            render(template, new Context());
+        }
+        logger.info("Plantillas de correo precargadas: {}", PRELOADED_TEMPLATES);
+    }
+
+    /**
+     * Renderiza una plantilla de Thymeleaf con el contexto dado.
+     * @param templateName nombre de la plantilla
+     * @param context contexto con las variables de la plantilla
+     * @return HTML generado
+     */
+    public String render(String templateName, Context context) {
+        StringBuilderWriter writer = writers.poll();
+        if (writer == null) {
+            writer = new StringBuilderWriter(INITIAL_BUFFER_CAPACITY);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            templateEngine.process(templateName, context, writer);
+            return writer.toString();
+        } finally {
+            sample.stop(renderTimer(templateName));
+            writer.reset();
+            if (writer.capacity() <= MAX_POOLED_BUFFER_CAPACITY) {
+                writers.offer(writer);
+            }
+        }
+    }
+
+    private Timer renderTimer(String templateName) {
+        return renderTimers.computeIfAbsent(templateName, name -> Timer.builder("fitzone.template.render")
+                .description("Tiempo de renderizado de las plantillas de correo")
+                .tag("template", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
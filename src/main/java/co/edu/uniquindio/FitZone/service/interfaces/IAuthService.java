@@ -3,7 +3,6 @@ package co.edu.uniquindio.FitZone.service.interfaces;
 import co.edu.uniquindio.FitZone.dto.request.LoginRequest;
 import co.edu.uniquindio.FitZone.dto.request.ResetPasswordRequest;
 
-import java.io.IOException;
 
 /**
  * Interfaz que define los métodos del servicio de autenticación
@@ -33,7 +32,7 @@ public interface IAuthService {
      * Solicita el reseteo de contraseña enviando un token al correo
      * @param email del usuario que solicita el reseteo
      */
-    void requestPasswordReset(String email) throws IOException;
+    void requestPasswordReset(String email);
 
     /**
      * Resetea la contraseña usando el token de verificación
@@ -0,0 +1,27 @@
+package co.edu.uniquindio.FitZone.service.interfaces;
+
+import co.edu.uniquindio.FitZone.dto.request.CheckInRequest;
+import co.edu.uniquindio.FitZone.dto.response.CheckInResponse;
+import co.edu.uniquindio.FitZone.dto.response.LocationOccupancyResponse;
+
+/**
+ * Define los contratos del servicio de control de acceso a las sedes.
+ */
+public interface ICheckInService {
+
+    /**
+     * Decide si un usuario puede ingresar a una sede en este momento y registra el intento.
+     * Considera el estado del usuario y de su membresía, las sedes a las que da acceso y el horario
+     * de atención de la sede.
+     * @param request usuario y sede del intento de ingreso
+     * @return CheckInResponse con la decisión tomada
+     */
+    CheckInResponse checkIn(CheckInRequest request);
+
+    /**
+     * Registra la salida de un usuario de una sede para llevar la ocupación.
+     * @param request usuario y sede de la salida
+     * @return LocationOccupancyResponse con la ocupación de la sede después de la salida
+     */
+    LocationOccupancyResponse checkOut(CheckInRequest request);
+}
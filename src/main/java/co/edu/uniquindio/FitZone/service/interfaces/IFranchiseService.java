@@ -1,6 +1,7 @@
 package co.edu.uniquindio.FitZone.service.interfaces;
 
 import co.edu.uniquindio.FitZone.dto.request.TimeslotRequest;
+import co.edu.uniquindio.FitZone.dto.response.FranchiseHoursNowResponse;
 import co.edu.uniquindio.FitZone.dto.response.FranchiseResponse;
 import co.edu.uniquindio.FitZone.model.entity.Timeslot;
 
@@ -18,4 +19,11 @@ public interface IFranchiseService {
      */
     FranchiseResponse updateTimeslots(Set<TimeslotRequest> timeslots);
 
+    /**
+     * Indica si la franquicia está abierta en este momento y cuándo abre o cierra.
+     * Se responde desde los horarios compilados en memoria.
+     * @return el estado actual del horario de la franquicia.
+     */
+    FranchiseHoursNowResponse getHoursNow();
+
 }
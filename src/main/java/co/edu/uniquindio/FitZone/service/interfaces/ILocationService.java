@@ -1,7 +1,9 @@
 package co.edu.uniquindio.FitZone.service.interfaces;
 
 import co.edu.uniquindio.FitZone.dto.request.LocationRequest;
+import co.edu.uniquindio.FitZone.dto.response.LocationOccupancyResponse;
 import co.edu.uniquindio.FitZone.dto.response.LocationResponse;
+import co.edu.uniquindio.FitZone.dto.response.OccupancyMinuteResponse;
 
 import java.util.List;
 
@@ -75,4 +77,19 @@ public interface ILocationService {
      */
     LocationResponse getByName(String name);
 
+    /**
+     * Obtiene la ocupación actual de una sede.
+     * Este método responde desde los contadores en memoria, sin consultar la base de datos.
+     * @param idLocation ID de la sede
+     * @return LocationOccupancyResponse objeto con los ingresos, salidas y ocupación del día operativo
+     */
+    LocationOccupancyResponse getOccupancy(Long idLocation);
+
+    /**
+     * Obtiene la actividad por minuto de una sede durante las últimas 24 horas.
+     * @param idLocation ID de la sede
+     * @return List<OccupancyMinuteResponse> minutos con ingresos o salidas, en orden cronológico
+     */
+    List<OccupancyMinuteResponse> getOccupancyHistory(Long idLocation);
+
 }
@@ -57,7 +57,7 @@ public interface IMembershipService {
 
     /**
      * Cancela una membresía activa o suspendida de un usuario.
-     * Cambia el estado de la membresía a CANCELLED.
+     * Cambia el estado de la membresía a CANCELLED. Una membresía pendiente de pago no se cancela.
      *
      * @param userId ID del usuario.
      */
@@ -1,6 +1,7 @@
 package co.edu.uniquindio.FitZone.service.interfaces;
 
 import co.edu.uniquindio.FitZone.dto.request.MembershipTypeRequest;
+import co.edu.uniquindio.FitZone.dto.response.MembershipTypeCatalogResponse;
 import co.edu.uniquindio.FitZone.dto.response.MembershipTypeResponse;
 import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
 
@@ -53,4 +54,11 @@ public interface IMembershipTypeService {
      */
     List<MembershipTypeResponse> getMembershipTypes();
 
+    /**
+     * Obtiene el catálogo completo de tipos de membresía junto con su ETag.
+     * La lista y el ETag provienen de la misma instantánea, así el ETag siempre corresponde al contenido.
+     * @return MembershipTypeCatalogResponse catálogo de tipos de membresía y su ETag
+     */
+    MembershipTypeCatalogResponse getMembershipTypeCatalog();
+
 }
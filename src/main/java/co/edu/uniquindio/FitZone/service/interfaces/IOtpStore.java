@@ -0,0 +1,30 @@
+package co.edu.uniquindio.FitZone.service.interfaces;
+
+/**
+ * Define el contrato del almacenamiento de códigos OTP de inicio de sesión.
+ * Permite elegir entre un almacenamiento en memoria (un solo nodo) y uno compartido
+ * en base de datos para despliegues con varias instancias de FitZone.
+ */
+public interface IOtpStore {
+
+    /**
+     * Guarda un nuevo OTP para el email, reemplazando cualquier código anterior.
+     * @param email email del usuario
+     * @param code código generado
+     */
+    void save(String email, String code);
+
+    /**
+     * Valida un OTP. Si es correcto se consume de forma atómica; si es incorrecto se registra
+     * el intento fallido y al superar el máximo de intentos el código se descarta.
+     * @param email email del usuario
+     * @param code código ingresado
+     * @return true si el código es válido y no había sido consumido
+     */
+    boolean validate(String email, String code);
+
+    /**
+     * Elimina los códigos expirados.
+     */
+    void sweep();
+}
@@ -0,0 +1,23 @@
+package co.edu.uniquindio.FitZone.service.interfaces;
+
+import co.edu.uniquindio.FitZone.dto.response.UserImportReport;
+import co.edu.uniquindio.FitZone.model.enums.UserImportFormat;
+
+import java.io.InputStream;
+
+/**
+ * Define los contratos del servicio de importación masiva de usuarios.
+ * Se utiliza al incorporar una nueva sede, para registrar a todos sus miembros a partir de un archivo.
+ */
+public interface IUserImportService {
+
+    /**
+     * Importa los usuarios contenidos en un archivo CSV o NDJSON.
+     * El archivo se lee como flujo y se procesa por lotes: las filas inválidas o duplicadas se
+     * rechazan individualmente sin detener la importación del resto.
+     * @param input flujo con el contenido del archivo
+     * @param format formato del archivo
+     * @return UserImportReport con el resultado de cada fila
+     */
+    UserImportReport importUsers(InputStream input, UserImportFormat format);
+}
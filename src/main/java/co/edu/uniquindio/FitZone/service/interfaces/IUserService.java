@@ -3,9 +3,10 @@ package co.edu.uniquindio.FitZone.service.interfaces;
 import co.edu.uniquindio.FitZone.dto.request.UserRequest;
 import co.edu.uniquindio.FitZone.dto.request.UserUpdateRequest;
 import co.edu.uniquindio.FitZone.dto.request.LoginRequest;
+import co.edu.uniquindio.FitZone.dto.response.UserPageResponse;
 import co.edu.uniquindio.FitZone.dto.response.UserResponse;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Define los contratos del servicio de usuario.
@@ -27,7 +28,19 @@ public interface IUserService {
 
     UserResponse getUserById(Long idUser);
 
-    List<UserResponse> getAllUsers();
+    /**
+     * Obtiene una página de usuarios activos usando el ID como cursor.
+     * @param afterId último ID de la página anterior, null para la primera página
+     * @param size tamaño de la página, null para el tamaño por defecto
+     * @return la página de usuarios y el cursor de la siguiente
+     */
+    UserPageResponse getActiveUsersPage(Long afterId, Integer size);
+
+    /**
+     * Recorre todos los usuarios activos desde un cursor de la base de datos, sin cargarlos en memoria.
+     * @param consumer acción a ejecutar con cada usuario, en orden de ID
+     */
+    void forEachActiveUser(Consumer<UserResponse> consumer);
 
     UserResponse getUserByEmail(String email);
 
@@ -1,83 +1,135 @@
 package co.edu.uniquindio.FitZone.util;
 
-import com.sendgrid.Method;
-import com.sendgrid.Request;
-import com.sendgrid.Response;
-import com.sendgrid.SendGrid;
-import com.sendgrid.helpers.mail.Mail;
-import com.sendgrid.helpers.mail.objects.Content;
-import com.sendgrid.helpers.mail.objects.Email;
-import org.springframework.beans.factory.annotation.Value;
+import co.edu.uniquindio.FitZone.exception.EmailDeliveryException;
+import co.edu.uniquindio.FitZone.model.entity.EmailDeadLetter;
+import co.edu.uniquindio.FitZone.repository.EmailDeadLetterRepository;
+import co.edu.uniquindio.FitZone.service.impl.mail.EmailDispatcher;
+import co.edu.uniquindio.FitZone.service.impl.template.TemplateRenderingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 
-import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Servicio para enviar correos electrónicos utilizando SendGrid.
  * Este servicio permite enviar correos electrónicos simples o correos electrónicos
- * basados en plantillas de Thymeleaf.
+ * basados en plantillas de Thymeleaf. El envío es asíncrono: los correos se encolan
+ * en EmailDispatcher y el llamador recibe un futuro que puede esperar o ignorar.
+ * Si un correo no se puede entregar queda registrado con las variables de su plantilla para
+ * reenviarlo, salvo los que contienen códigos de un solo uso.
  */
 @Service
 public class EmailService {
 
-    @Value("${sendgrid.api.key}")
-    private String sendGridApiKey;
+    private static final String RAW_TEMPLATE = "raw";
 
-    @Value("${sendgrid.from.email}")
-    private String fromEmail;
+    /**
+     * Plantillas con códigos de un solo uso: sus variables no se guardan si el envío falla.
+     * Los códigos expiran en minutos, así que el usuario debe solicitar uno nuevo.
+     */
+    private static final Set<String> SENSITIVE_TEMPLATES = Set.of("otp-template", "password-reset");
+
+    private static final TypeReference<Map<String, String>> VARIABLES_TYPE = new TypeReference<>() {
+    };
 
-    private final TemplateEngine templateEngine;
+    private final TemplateRenderingService templateRenderingService;
+    private final EmailDispatcher emailDispatcher;
+    private final EmailDeadLetterRepository deadLetterRepository;
+    private final ObjectMapper objectMapper;
 
-    public EmailService(TemplateEngine templateEngine) {
-        this.templateEngine = templateEngine;
+    public EmailService(TemplateRenderingService templateRenderingService, EmailDispatcher emailDispatcher,
+                        EmailDeadLetterRepository deadLetterRepository, ObjectMapper objectMapper) {
+        this.templateRenderingService = templateRenderingService;
+        this.emailDispatcher = emailDispatcher;
+        this.deadLetterRepository = deadLetterRepository;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Envia un correo electrónico utilizando SendGrid.
+     * Encola un correo electrónico para ser enviado utilizando SendGrid.
+     * Si el envío falla no se puede reenviar, porque el cuerpo no se guarda.
      * @param toEmail destinatario del correo electrónico
      * @param subject asunto del correo electrónico
      * @param body cuerpo del correo electrónico en formato HTML
-     * @throws RuntimeException si ocurre un error al enviar el correo electrónico
+     * @return futuro que se completa cuando el correo es entregado a SendGrid
+     * @throws EmailDeliveryException si la cola de envío está llena
      */
-    public void sendEmail(String toEmail, String subject, String body) {
+    public CompletableFuture<Void> sendEmail(String toEmail, String subject, String body) {
+        return emailDispatcher.enqueue(toEmail, subject, body, RAW_TEMPLATE, null);
+    }
 
-        Email from = new Email(fromEmail);
-        Email to = new Email(toEmail);
-        Content content = new Content("text/html", body);
-        Mail mail = new Mail(from,subject,to,content);
+    /**
+     * Encola un correo electrónico generado a partir de una plantilla de Thymeleaf.
+     * La plantilla se procesa en el hilo del llamador y el envío se realiza de forma asíncrona.
+     * @param toEmail destinatario del correo electrónico
+     * @param subject asunto del correo electrónico
+     * @param templateName nombre de la plantilla de Thymeleaf a utilizar
+     * @param context contexto que se utilizará para procesar la plantilla
+     * @return futuro que se completa cuando el correo es entregado a SendGrid
+     * @throws EmailDeliveryException si la cola de envío está llena
+     */
+    public CompletableFuture<Void> sendTemplatedEmail(String toEmail, String subject, String templateName, Context context) {
+        // Procesa la plantilla con el contexto para generar el HTML
+        String htmlBody = templateRenderingService.render(templateName, context);
+        Map<String, String> variables = SENSITIVE_TEMPLATES.contains(templateName) ? null : variables(context);
+        return emailDispatcher.enqueue(toEmail, subject, htmlBody, templateName, variables);
+    }
 
-        SendGrid sg = new SendGrid(sendGridApiKey);
-        Request request = new Request();
-        try{
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
-            Response response = sg.api(request);
-            System.out.println(response.getStatusCode());
-            System.out.println(response.getBody());
-            System.out.println(response.getHeaders());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /**
+     * Reenvía un correo registrado como fallido, renderizando de nuevo su plantilla con las variables
+     * guardadas, y elimina el registro.
+     * @param idEmailDeadLetter ID del correo fallido
+     * @return futuro que se completa cuando el correo es entregado a SendGrid
+     * @throws EmailDeliveryException si el correo no existe, no se puede reenviar o la cola está llena
+     */
+    @Transactional
+    public CompletableFuture<Void> replayDeadLetter(Long idEmailDeadLetter) {
+        EmailDeadLetter deadLetter = deadLetterRepository.findById(idEmailDeadLetter)
+                .orElseThrow(() -> new EmailDeliveryException("No existe el correo fallido con ID: " + idEmailDeadLetter));
+        if (deadLetter.getTemplateVariables() == null) {
+            throw new EmailDeliveryException("El correo fallido con ID " + idEmailDeadLetter
+                    + " no se puede reenviar porque su contenido no se guarda");
+        }
+
+        Context context = new Context();
+        try {
+            objectMapper.readValue(deadLetter.getTemplateVariables(), VARIABLES_TYPE).forEach(context::setVariable);
+        } catch (JsonProcessingException e) {
+            throw new EmailDeliveryException("No fue posible leer las variables del correo fallido con ID: " + idEmailDeadLetter, e);
         }
 
+        CompletableFuture<Void> result = sendTemplatedEmail(deadLetter.getRecipient(), deadLetter.getSubject(),
+                deadLetter.getTemplate(), context);
+        deadLetterRepository.delete(deadLetter);
+        return result;
     }
 
     /**
-     * Envia un correo electrónico utilizando una plantilla de Thymeleaf.
-     * Este método procesa una plantilla de Thymeleaf con el contexto proporcionado
-     * y envía el correo electrónico resultante.
-     * @param toEmail destinatario del correo electrónico
-     * @param subject asunto del correo electrónico
+     * Procesa una plantilla de Thymeleaf y devuelve el HTML resultante, sin enviarlo.
      * @param templateName nombre de la plantilla de Thymeleaf a utilizar
      * @param context contexto que se utilizará para procesar la plantilla
-     * @throws IOException si ocurre un error al procesar la plantilla
+     * @return HTML generado
      */
-    public void sendTemplatedEmail(String toEmail, String subject, String templateName, Context context) throws IOException {
-        // Procesa la plantilla con el contexto para generar el HTML
-        String htmlBody = templateEngine.process(templateName, context);
-        sendEmail(toEmail, subject, htmlBody);
+    public String render(String templateName, Context context) {
+        return templateRenderingService.render(templateName, context);
     }
 
+    /**
+     * Copia las variables del contexto como texto, que es como las usan las plantillas de correo.
+     */
+    private static Map<String, String> variables(Context context) {
+        Map<String, String> variables = new HashMap<>();
+        for (String name : context.getVariableNames()) {
+            Object value = context.getVariable(name);
+            variables.put(name, value == null ? null : String.valueOf(value));
+        }
+        return variables;
+    }
 }
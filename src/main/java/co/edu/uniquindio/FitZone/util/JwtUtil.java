@@ -1,5 +1,6 @@
 package co.edu.uniquindio.FitZone.util;
 
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,12 +11,16 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     private final Key key;
+    private final JwtParser parser;
     private final long expiration;
     private final long refreshExpiration;
 
@@ -23,6 +28,10 @@ public class JwtUtil {
                    @Value("${jwt.expiration}") long expiration,
                    @Value("${jwt.refreshExpiration}") long refreshExpiration) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        // El parser es inmutable y seguro entre hilos, se construye una sola vez
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
         this.expiration = expiration;
         this.refreshExpiration = refreshExpiration;
     }
@@ -32,6 +41,35 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername(), expiration);
     }
 
+    /**
+     * Genera un access token que además del email contiene el ID del usuario, su rol y la versión de sus tokens.
+     * Con estos claims el filtro puede construir la autenticación sin consultar la base de datos.
+     * @param email email del usuario (subject del token)
+     * @param userId ID del usuario
+     * @param role rol del usuario
+     * @param tokenVersion versión actual de los tokens del usuario
+     * @return access token firmado
+     */
+    public String generateToken(String email, Long userId, UserRole role, long tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_ROLE, role.name());
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
+        return createToken(claims, email, expiration);
+    }
+
+    /**
+     * Genera un refresh token ligado a la versión actual de los tokens del usuario.
+     * @param email email del usuario (subject del token)
+     * @param tokenVersion versión actual de los tokens del usuario
+     * @return refresh token firmado
+     */
+    public String generateRefreshToken(String email, long tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
+        return createToken(claims, email, refreshExpiration);
+    }
+
     // 🔹 NUEVO: Generar refresh token
     public String generateRefreshToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
@@ -54,46 +92,68 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifica la firma y la expiración del token en un solo paso y devuelve sus claims.
+     * La firma se verifica exactamente una vez, por lo que el resultado puede reutilizarse
+     * durante toda la solicitud en lugar de volver a analizar el token.
+     * @param token token JWT a analizar
+     * @return claims del token ya verificados
+     * @throws ExpiredJwtException si el token expiró
+     * @throws JwtException si el token es inválido o su firma no coincide
+     * @throws IllegalArgumentException si el token es nulo o vacío
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Valida que los claims ya verificados pertenezcan al usuario dado y no hayan expirado.
+     * @param claims claims obtenidos con {@link #parseClaims(String)}
+     * @param userDetails usuario contra el cual se valida el token
+     * @return true si el token corresponde al usuario y sigue vigente
+     */
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !isExpired(claims);
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(parseClaims(token), userDetails);
     }
 
     // 🔹 NUEVO: Validar token sin UserDetails (para refresh)
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
+            return !isExpired(parseClaims(token));
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseClaims(token).getSubject();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Obtiene la versión de tokens contenida en los claims.
+     * @param claims claims verificados
+     * @return la versión, o null si el token fue emitido sin ella
+     */
+    public Long extractTokenVersion(Claims claims) {
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return version == null ? null : version.longValue();
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Obtiene el ID de usuario contenido en los claims.
+     * @param claims claims verificados
+     * @return el ID, o null si el token fue emitido sin él
+     */
+    public Long extractUserId(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        return userId == null ? null : userId.longValue();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
-}
\ No newline at end of file
+}
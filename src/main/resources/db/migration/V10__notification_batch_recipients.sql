@@ -0,0 +1,13 @@
+-- Identificadores de referencia que se enviaron en cada lote de correos. Al reanudar un trabajo
+-- se omiten exactamente estos destinatarios; el rango [first_reference_id, last_reference_id] de
+-- notification_batches queda solo como referencia, porque los identificadores se reservan por nodo
+-- y no siguen el orden de creación. Los lotes enviados antes de esta migración no tienen detalle,
+-- así que una reanudación de esos trabajos vuelve a enviarlos.
+
+CREATE TABLE IF NOT EXISTS notification_batch_recipients (
+    notification_batch_id BIGINT NOT NULL,
+    reference_id BIGINT NOT NULL,
+    PRIMARY KEY (notification_batch_id, reference_id),
+    CONSTRAINT fk_notification_batch_recipients_batch
+        FOREIGN KEY (notification_batch_id) REFERENCES notification_batches (id_notification_batch)
+);
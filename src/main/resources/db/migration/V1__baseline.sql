@@ -0,0 +1,176 @@
+-- Esquema base generado a partir de las entidades JPA.
+-- Es idempotente para poder aplicarse sobre bases de datos creadas previamente con
+-- spring.jpa.hibernate.ddl-auto=update (spring.flyway.baseline-version=0): solo crea
+-- lo que falte. La tabla otp_codes la administra JdbcOtpStore.
+
+-- Secuencias de IDs (optimizador pooled, allocationSize = 50)
+CREATE SEQUENCE IF NOT EXISTS email_dead_letters_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS franchises_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS job_runs_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS locations_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS membership_types_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS memberships_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS notification_batches_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS timeslots_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS franchises (
+    id_franchise BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id_franchise)
+);
+
+CREATE TABLE IF NOT EXISTS timeslots (
+    id_timeslot BIGINT NOT NULL,
+    franchise_id BIGINT NOT NULL,
+    day_of_week VARCHAR(255) NOT NULL CHECK (day_of_week IN ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY')),
+    open_time TIME(6),
+    close_time TIME(6),
+    PRIMARY KEY (id_timeslot)
+);
+
+CREATE TABLE IF NOT EXISTS locations (
+    id_location BIGINT NOT NULL,
+    franchise_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    address VARCHAR(255) UNIQUE,
+    phone_number VARCHAR(255) NOT NULL UNIQUE,
+    is_active BOOLEAN NOT NULL,
+    PRIMARY KEY (id_location)
+);
+
+CREATE TABLE IF NOT EXISTS membership_types (
+    id_membership_type BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL UNIQUE CHECK (name IN ('BASIC','PREMIUM','VIP')),
+    description VARCHAR(255),
+    monthly_price NUMERIC(38,2) NOT NULL,
+    access_to_all_locations BOOLEAN NOT NULL,
+    group_classes_sessions_included INTEGER NOT NULL,
+    personal_training_included INTEGER NOT NULL,
+    specialized_classes_included BOOLEAN NOT NULL,
+    PRIMARY KEY (id_membership_type)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id_user BIGINT NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    main_location BIGINT,
+    membership_id BIGINT,
+    role VARCHAR(255) NOT NULL CHECK (role IN ('MEMBER','INSTRUCTOR','RECEPTIONIST','ADMIN')),
+    is_active BOOLEAN,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    document_type VARCHAR(255) NOT NULL CHECK (document_type IN ('CC','CE','TI','PP')),
+    document_number VARCHAR(50) NOT NULL UNIQUE,
+    birth_date DATE NOT NULL,
+    phone_number VARCHAR(20) NOT NULL,
+    medical_conditions VARCHAR(255),
+    emergency_contact_name VARCHAR(20) NOT NULL,
+    password_reset_token VARCHAR(255),
+    password_reset_token_expiry_date TIMESTAMP(6),
+    token_version BIGINT,
+    PRIMARY KEY (id_user)
+);
+
+-- Columna agregada después de que existieran bases de datos con la tabla users
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version BIGINT;
+
+CREATE TABLE IF NOT EXISTS memberships (
+    id_membership BIGINT NOT NULL,
+    user_ud BIGINT NOT NULL,
+    membership_type_id BIGINT NOT NULL,
+    location_id BIGINT,
+    price NUMERIC(38,2),
+    start_date DATE NOT NULL,
+    end_date DATE,
+    status VARCHAR(255) CHECK (status IN ('ACTIVE','EXPIRED','SUSPENDED','CANCELLED')),
+    suspension_reason VARCHAR(255),
+    suspension_start DATE,
+    suspension_end DATE,
+    PRIMARY KEY (id_membership)
+);
+
+CREATE TABLE IF NOT EXISTS email_dead_letters (
+    id_email_dead_letter BIGINT NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    template VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    attempts INTEGER,
+    last_status_code INTEGER,
+    last_error VARCHAR(1000),
+    failed_at TIMESTAMP(6),
+    PRIMARY KEY (id_email_dead_letter)
+);
+
+CREATE TABLE IF NOT EXISTS notification_batches (
+    id_notification_batch BIGINT NOT NULL,
+    job_key VARCHAR(100) NOT NULL,
+    first_reference_id BIGINT NOT NULL,
+    last_reference_id BIGINT NOT NULL,
+    recipients INTEGER NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('SENT','FAILED')),
+    attempts INTEGER,
+    last_status_code INTEGER,
+    last_error VARCHAR(1000),
+    completed_at TIMESTAMP(6),
+    PRIMARY KEY (id_notification_batch)
+);
+
+CREATE TABLE IF NOT EXISTS job_runs (
+    id_job_run BIGINT NOT NULL,
+    job_name VARCHAR(100) NOT NULL,
+    run_date DATE NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('RUNNING','COMPLETED','FAILED')),
+    owner VARCHAR(255),
+    last_processed_id BIGINT NOT NULL,
+    scanned_rows BIGINT NOT NULL,
+    affected_rows BIGINT NOT NULL,
+    started_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    finished_at TIMESTAMP(6),
+    PRIMARY KEY (id_job_run),
+    CONSTRAINT uk_job_runs_job_name_run_date UNIQUE (job_name, run_date)
+);
+
+CREATE TABLE IF NOT EXISTS job_leases (
+    job_name VARCHAR(100) NOT NULL,
+    owner VARCHAR(255) NOT NULL,
+    acquired_at TIMESTAMP(6),
+    lease_until TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (job_name)
+);
+
+-- Índices declarados en las entidades
+CREATE INDEX IF NOT EXISTS idx_memberships_status_end_date ON memberships (status, end_date);
+CREATE INDEX IF NOT EXISTS idx_memberships_status_suspension_end ON memberships (status, suspension_end);
+CREATE INDEX IF NOT EXISTS idx_notification_batches_job_key ON notification_batches (job_key);
+
+-- Llaves foráneas, con los mismos nombres que genera Hibernate para no duplicarlas
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkdjhpvntd1y1ytqia4ernxn6cr') THEN
+        ALTER TABLE locations ADD CONSTRAINT fkdjhpvntd1y1ytqia4ernxn6cr FOREIGN KEY (franchise_id) REFERENCES franchises;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkpuljelx4962g84rmcisjy27wv') THEN
+        ALTER TABLE memberships ADD CONSTRAINT fkpuljelx4962g84rmcisjy27wv FOREIGN KEY (location_id) REFERENCES locations;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkfw7800cb1uobhmcxc4nm7fdof') THEN
+        ALTER TABLE memberships ADD CONSTRAINT fkfw7800cb1uobhmcxc4nm7fdof FOREIGN KEY (membership_type_id) REFERENCES membership_types;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkike1ox5yuar7aigeona7yn2u1') THEN
+        ALTER TABLE memberships ADD CONSTRAINT fkike1ox5yuar7aigeona7yn2u1 FOREIGN KEY (user_ud) REFERENCES users;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk2j1cixi6awdatgnlexmhq9t50') THEN
+        ALTER TABLE timeslots ADD CONSTRAINT fk2j1cixi6awdatgnlexmhq9t50 FOREIGN KEY (franchise_id) REFERENCES franchises;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fki2jnw1j3v88qm13794o6j6hw0') THEN
+        ALTER TABLE users ADD CONSTRAINT fki2jnw1j3v88qm13794o6j6hw0 FOREIGN KEY (main_location) REFERENCES locations;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkd8u6qiogyr0w5vfkohbn44gtl') THEN
+        ALTER TABLE users ADD CONSTRAINT fkd8u6qiogyr0w5vfkohbn44gtl FOREIGN KEY (membership_id) REFERENCES memberships;
+    END IF;
+END $$;
@@ -0,0 +1,28 @@
+-- Índices para las consultas más frecuentes.
+-- Los de estado de membresía ya existen como compuestos (status, end_date) y
+-- (status, suspension_end) desde V1, y cubren tanto el trabajo nocturno de
+-- expiración/reactivación como los recordatorios de renovación (status = ? AND end_date = ?).
+
+-- Restablecimiento de contraseña: findByPasswordResetToken. Solo unas pocas filas tienen token.
+CREATE INDEX IF NOT EXISTS idx_users_password_reset_token
+    ON users (password_reset_token)
+    WHERE password_reset_token IS NOT NULL;
+
+-- Listado de usuarios activos (GET /users y la paginación por llave de GET /users/page)
+-- filtra por is_active y ordena por id_user: un índice parcial sobre el ID cubre ambos.
+CREATE INDEX IF NOT EXISTS idx_users_active_id
+    ON users (id_user)
+    WHERE is_active = true;
+
+-- Refresco incremental de versiones de token: findTokenStatesUpdatedSince.
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at);
+
+-- Sedes por franquicia: findByFranchiseIdFranchise.
+CREATE INDEX IF NOT EXISTS idx_locations_franchise_id ON locations (franchise_id);
+
+-- Horarios por franquicia (colección timeslots de Franchise).
+CREATE INDEX IF NOT EXISTS idx_timeslots_franchise_id ON timeslots (franchise_id);
+
+-- Membresía de un usuario: findByUserId y las proyecciones de MembershipResponse.
+CREATE INDEX IF NOT EXISTS idx_memberships_user_ud ON memberships (user_ud);
+
@@ -0,0 +1,20 @@
+-- Registro de intentos de ingreso a las sedes (POST /checkins).
+-- Tabla de solo inserción, escrita por lotes desde CheckInRecorder. Sin llaves foráneas
+-- para que el registro no dependa de bloqueos sobre users, locations ni memberships.
+
+CREATE SEQUENCE IF NOT EXISTS checkins_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS checkins (
+    id_check_in BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    location_id BIGINT NOT NULL,
+    membership_id BIGINT,
+    decision VARCHAR(30) NOT NULL,
+    allowed BOOLEAN NOT NULL,
+    checked_in_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id_check_in)
+);
+
+-- Historial de ingresos por sede y por usuario en un rango de fechas.
+CREATE INDEX IF NOT EXISTS idx_checkins_location_checked_in_at ON checkins (location_id, checked_in_at);
+CREATE INDEX IF NOT EXISTS idx_checkins_user_checked_in_at ON checkins (user_id, checked_in_at);
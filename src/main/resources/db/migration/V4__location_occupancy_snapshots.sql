@@ -0,0 +1,21 @@
+-- Instantáneas periódicas de los contadores de ocupación por sede (OccupancyTracker).
+-- La última instantánea del día operativo de cada sede se usa para recuperar los contadores
+-- al reiniciar; las anteriores al periodo de retención se eliminan por captured_at.
+
+CREATE SEQUENCE IF NOT EXISTS location_occupancy_snapshots_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS location_occupancy_snapshots (
+    id_snapshot BIGINT NOT NULL,
+    location_id BIGINT NOT NULL,
+    business_day DATE NOT NULL,
+    entries BIGINT NOT NULL,
+    exits BIGINT NOT NULL,
+    occupancy BIGINT NOT NULL,
+    captured_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id_snapshot)
+);
+
+CREATE INDEX IF NOT EXISTS idx_occupancy_snapshots_day_location
+    ON location_occupancy_snapshots (business_day, location_id, captured_at);
+CREATE INDEX IF NOT EXISTS idx_occupancy_snapshots_captured_at
+    ON location_occupancy_snapshots (captured_at);
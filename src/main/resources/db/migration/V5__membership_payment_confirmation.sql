@@ -0,0 +1,22 @@
+-- Membresías pendientes de pago: se crean con la intención de pago de Stripe y se activan
+-- cuando llega el webhook payment_intent.succeeded o la verificación en segundo plano.
+
+ALTER TABLE memberships ADD COLUMN IF NOT EXISTS payment_intent_id VARCHAR(255);
+ALTER TABLE memberships ADD COLUMN IF NOT EXISTS payment_requested_at TIMESTAMP(6);
+
+-- Una intención de pago crea a lo sumo una membresía (idempotencia de POST /memberships/create)
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_memberships_payment_intent_id') THEN
+        ALTER TABLE memberships ADD CONSTRAINT uk_memberships_payment_intent_id UNIQUE (payment_intent_id);
+    END IF;
+END $$;
+
+-- Nuevo estado PENDING_PAYMENT en la restricción generada para el enum
+ALTER TABLE memberships DROP CONSTRAINT IF EXISTS memberships_status_check;
+ALTER TABLE memberships ADD CONSTRAINT memberships_status_check
+    CHECK (status IN ('PENDING_PAYMENT','ACTIVE','EXPIRED','SUSPENDED','CANCELLED'));
+
+-- Consulta periódica de las membresías pendientes, de la más antigua a la más reciente
+CREATE INDEX IF NOT EXISTS idx_memberships_status_payment_requested_at
+    ON memberships (status, payment_requested_at);
@@ -0,0 +1,32 @@
+-- Libro de intenciones de pago: cada intención de Stripe compra a lo sumo una membresía.
+-- La fila se inserta en la misma transacción que la membresía, así que la llave única decide
+-- cuál de varias solicitudes simultáneas con la misma intención crea la membresía.
+
+CREATE SEQUENCE IF NOT EXISTS payment_intents_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS payment_intents (
+    id_payment_intent BIGINT NOT NULL,
+    payment_intent_id VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL,
+    membership_id BIGINT,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING','SUCCEEDED','CANCELED')),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id_payment_intent)
+);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_payment_intents_payment_intent_id') THEN
+        ALTER TABLE payment_intents ADD CONSTRAINT uk_payment_intents_payment_intent_id UNIQUE (payment_intent_id);
+    END IF;
+END $$;
+
+-- Registra las intenciones de las membresías creadas antes del libro
+INSERT INTO payment_intents (id_payment_intent, payment_intent_id, user_id, membership_id, status, created_at, updated_at)
+SELECT nextval('payment_intents_seq'), m.payment_intent_id, m.user_ud, m.id_membership,
+       CASE m.status WHEN 'PENDING_PAYMENT' THEN 'PENDING' WHEN 'CANCELLED' THEN 'CANCELED' ELSE 'SUCCEEDED' END,
+       COALESCE(m.payment_requested_at, now()), COALESCE(m.payment_requested_at, now())
+FROM memberships m
+WHERE m.payment_intent_id IS NOT NULL
+ON CONFLICT (payment_intent_id) DO NOTHING;
@@ -0,0 +1,14 @@
+-- Códigos OTP compartidos entre instancias (JdbcOtpStore, otp.store=jdbc).
+-- La tabla es UNLOGGED: los OTP son efímeros y no necesitan sobrevivir a una caída, así que se
+-- evita el costo del WAL. Antes la creaba JdbcOtpStore al iniciar; IF NOT EXISTS conserva la
+-- tabla en las bases de datos donde ya existe.
+
+CREATE UNLOGGED TABLE IF NOT EXISTS otp_codes (
+    email VARCHAR(255) NOT NULL,
+    code VARCHAR(16) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    failed_attempts INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (email)
+);
+
+CREATE INDEX IF NOT EXISTS idx_otp_codes_expires_at ON otp_codes (expires_at);
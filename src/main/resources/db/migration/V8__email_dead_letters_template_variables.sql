@@ -0,0 +1,6 @@
+-- Los correos fallidos ya no guardan el HTML enviado, que en los correos de OTP y de
+-- recuperación de contraseña contiene el código en texto plano. Para reenviarlos se vuelve a
+-- renderizar la plantilla con las variables guardadas en template_variables.
+
+ALTER TABLE email_dead_letters ADD COLUMN IF NOT EXISTS template_variables TEXT;
+ALTER TABLE email_dead_letters DROP COLUMN IF EXISTS body;
@@ -0,0 +1,12 @@
+-- La consulta periódica de pagos pendientes recorre las membresías en orden de la última
+-- verificación, no de la solicitud, para que las intenciones abandonadas más antiguas no ocupen
+-- siempre el lote y todas las pendientes se verifiquen por turnos.
+
+ALTER TABLE memberships ADD COLUMN IF NOT EXISTS payment_last_polled_at TIMESTAMP(6);
+
+UPDATE memberships SET payment_last_polled_at = payment_requested_at
+WHERE payment_last_polled_at IS NULL AND payment_requested_at IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_memberships_status_payment_requested_at;
+CREATE INDEX IF NOT EXISTS idx_memberships_status_payment_last_polled_at
+    ON memberships (status, payment_last_polled_at NULLS FIRST);
@@ -0,0 +1,45 @@
+package co.edu.uniquindio.FitZone;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Aplica las migraciones de Flyway sobre PostgreSQL y levanta el contexto con
+ * spring.jpa.hibernate.ddl-auto=validate, como en producción, de modo que una entidad que no
+ * coincida con el esquema migrado hace fallar el arranque. Las demás pruebas usan H2 con el esquema
+ * generado por Hibernate y no detectan esas diferencias. Requiere Docker; sin él la prueba se omite.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.driver-class-name=org.postgresql.Driver"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationsTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migrationsApplyAndHibernateValidatesTheSchema() {
+        MigrationInfo current = flyway.info().current();
+
+        assertNotNull(current);
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(flyway.info().all()[flyway.info().all().length - 1].getVersion(), current.getVersion());
+    }
+}
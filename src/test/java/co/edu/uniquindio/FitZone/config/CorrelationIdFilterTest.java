@@ -0,0 +1,61 @@
+package co.edu.uniquindio.FitZone.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorrelationIdFilterTest {
+
+    private static final int IDS = 2_000;
+
+    @Test
+    void instancesWithTheSameSaltSampleTheSameIds() throws Exception {
+        CorrelationIdFilter first = new CorrelationIdFilter(0.5, "clave-compartida");
+        CorrelationIdFilter second = new CorrelationIdFilter(0.5, "clave-compartida");
+
+        for (int i = 0; i < IDS; i++) {
+            assertEquals(sampled(first, "req-" + i), sampled(second, "req-" + i));
+        }
+    }
+
+    @Test
+    void decisionDependsOnTheSaltNotOnlyOnTheId() throws Exception {
+        CorrelationIdFilter first = new CorrelationIdFilter(0.5, "clave-a");
+        CorrelationIdFilter second = new CorrelationIdFilter(0.5, "clave-b");
+
+        int differences = 0;
+        for (int i = 0; i < IDS; i++) {
+            if (sampled(first, "req-" + i) != sampled(second, "req-" + i)) {
+                differences++;
+            }
+        }
+        assertNotEquals(0, differences);
+    }
+
+    @Test
+    void sampledShareFollowsTheRate() throws Exception {
+        CorrelationIdFilter filter = new CorrelationIdFilter(0.1, "");
+
+        int sampled = 0;
+        for (int i = 0; i < IDS; i++) {
+            sampled += sampled(filter, "req-" + i) ? 1 : 0;
+        }
+        assertTrue(sampled > IDS * 0.05 && sampled < IDS * 0.15, "Muestreadas: " + sampled);
+    }
+
+    private static boolean sampled(CorrelationIdFilter filter, String correlationId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/public/franchise/hours/now");
+        request.addHeader(CorrelationIdFilter.HEADER, correlationId);
+        AtomicReference<String> sampled = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> sampled.set(MDC.get(DebugSamplingTurboFilter.SAMPLED_KEY)));
+        return Boolean.parseBoolean(sampled.get());
+    }
+}
@@ -0,0 +1,56 @@
+package co.edu.uniquindio.FitZone.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Acceso a /actuator/prometheus: solo el usuario de scraping con HTTP Basic puede leer las métricas.
+ */
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,prometheus",
+        "metrics.scrape.username=prometheus",
+        "metrics.scrape.password=scrape-secret"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void anonymousScrapeIsRejected() throws Exception {
+        mockMvc.perform(get(SecurityConfig.PROMETHEUS_PATH))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws Exception {
+        mockMvc.perform(get(SecurityConfig.PROMETHEUS_PATH).with(httpBasic("prometheus", "otra")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void applicationAdminCannotScrape() throws Exception {
+        mockMvc.perform(get(SecurityConfig.PROMETHEUS_PATH).with(user("admin@fitzone.test").authorities(() -> "ADMIN")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void scrapeUserReadsTheMetrics() throws Exception {
+        mockMvc.perform(get(SecurityConfig.PROMETHEUS_PATH).with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("# TYPE jvm_memory_used_bytes gauge")));
+    }
+}
@@ -0,0 +1,95 @@
+package co.edu.uniquindio.FitZone.controller;
+
+import co.edu.uniquindio.FitZone.dto.response.UserResponse;
+import co.edu.uniquindio.FitZone.exception.StreamingResponseAbortedException;
+import co.edu.uniquindio.FitZone.model.enums.DocumentType;
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
+import co.edu.uniquindio.FitZone.service.interfaces.IUserImportService;
+import co.edu.uniquindio.FitZone.service.interfaces.IUserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class UserControllerTest {
+
+    private final IUserService userService = mock(IUserService.class);
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final UserController controller = new UserController(userService, mock(IUserImportService.class), objectMapper);
+
+    @Test
+    void completeListIsWrittenAsJsonArray() throws Exception {
+        emitUsers(false);
+
+        String body = write(controller.getAllUsers(null).getBody());
+
+        assertEquals(2, objectMapper.readTree(body).size());
+    }
+
+    @Test
+    void failureMidStreamAbortsInsteadOfClosingTheArray() {
+        emitUsers(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        StreamingResponseBody body = controller.getAllUsers(null).getBody();
+
+        assertThrows(StreamingResponseAbortedException.class, () -> body.writeTo(out));
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.startsWith("["));
+        assertFalse(written.endsWith("]"));
+    }
+
+    @Test
+    void failureMidStreamAbortsNdjson() {
+        emitUsers(true);
+
+        StreamingResponseBody body = controller.getAllUsers(MediaType.APPLICATION_NDJSON_VALUE).getBody();
+
+        assertThrows(StreamingResponseAbortedException.class, () -> body.writeTo(new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Entrega dos usuarios al consumidor y, si se indica, falla a continuación como lo haría una
+     * conexión perdida con la base de datos a mitad del cursor.
+     */
+    @SuppressWarnings("unchecked")
+    private void emitUsers(boolean failAfterwards) {
+        doAnswer(invocation -> {
+            Consumer<UserResponse> consumer = invocation.getArgument(0);
+            consumer.accept(user(1L));
+            consumer.accept(user(2L));
+            if (failAfterwards) {
+                throw new DataAccessResourceFailureException("Conexión cerrada");
+            }
+            return null;
+        }).when(userService).forEachActiveUser(any(Consumer.class));
+    }
+
+    private static String write(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static UserResponse user(Long id) {
+        return new UserResponse(id, "Ana", "Pérez", "ana" + id + "@fitzone.test", DocumentType.CC, "100" + id,
+                "3000000000", LocalDate.of(1990, 1, 1), "3000000001", null, UserRole.MEMBER,
+                LocalDateTime.of(2026, 10, 1, 8, 0));
+    }
+}
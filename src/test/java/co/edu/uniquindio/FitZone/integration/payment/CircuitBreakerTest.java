@@ -0,0 +1,52 @@
+package co.edu.uniquindio.FitZone.integration.payment;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final CircuitBreaker breaker = new CircuitBreaker("Prueba", 2, 2, 50, Duration.ZERO, 1, state -> { });
+
+    @Test
+    void slowCallAdmittedBeforeOpeningDoesNotCloseTheCircuit() {
+        CircuitBreaker.Permit slow = breaker.tryAcquire();
+        open();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        assertTrue(probe.probe());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onSuccess(slow);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void slowFailureAdmittedBeforeOpeningDoesNotReopenTheCircuit() {
+        CircuitBreaker.Permit slow = breaker.tryAcquire();
+        open();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        breaker.onFailure(slow);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onFailure(probe);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private void open() {
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
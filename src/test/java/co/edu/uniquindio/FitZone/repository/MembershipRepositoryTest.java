@@ -0,0 +1,167 @@
+package co.edu.uniquindio.FitZone.repository;
+
+import co.edu.uniquindio.FitZone.dto.response.MembershipResponse;
+import co.edu.uniquindio.FitZone.model.entity.Franchise;
+import co.edu.uniquindio.FitZone.model.entity.Location;
+import co.edu.uniquindio.FitZone.model.entity.Membership;
+import co.edu.uniquindio.FitZone.model.entity.MembershipType;
+import co.edu.uniquindio.FitZone.model.entity.User;
+import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
+import co.edu.uniquindio.FitZone.repository.projection.PendingPayment;
+import co.edu.uniquindio.FitZone.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que la respuesta de la membresía se construye con una sola sentencia SQL, sin cargas
+ * perezosas del usuario, el tipo o la sede. Usa su propia base de datos en memoria para que la
+ * creación del esquema de este contexto no afecte a los contextos completos de las demás pruebas.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fitzone-jpa;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MembershipRepositoryTest {
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MembershipType type;
+    private User user;
+    private Membership membership;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Franchise franchise = new Franchise();
+        franchise.setName("FitZone");
+        entityManager.persist(franchise);
+
+        Location location = new Location();
+        location.setName("Sede Norte");
+        location.setAddress("Calle 1");
+        location.setPhoneNumber("6060000000");
+        location.setFranchise(franchise);
+        location.setIsActive(true);
+        entityManager.persist(location);
+
+        type = new MembershipType();
+        type.setName(MembershipTypeName.PREMIUM);
+        type.setMonthlyPrice(new BigDecimal("120000"));
+        type.setAccessToAllLocation(true);
+        type.setGroupClassesSessionsIncluded(8);
+        type.setPersonalTrainingIncluded(2);
+        type.setSpecializedClassesIncluded(true);
+        entityManager.persist(type);
+
+        user = entityManager.persist(TestUsers.newMember());
+
+        membership = new Membership();
+        membership.setUser(user);
+        membership.setType(type);
+        membership.setLocation(location);
+        membership.setStartDate(LocalDate.of(2026, 10, 1));
+        membership.setEndDate(LocalDate.of(2026, 11, 1));
+        membership.setStatus(MembershipStatus.ACTIVE);
+        membership.setPrice(type.getMonthlyPrice());
+        entityManager.persist(membership);
+        user.setMembership(membership);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void responseByUserIdIsOneStatement() {
+        MembershipResponse response = membershipRepository.findResponseByUserId(user.getIdUser()).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertExpected(response);
+    }
+
+    @Test
+    void responseByDocumentNumberIsOneStatement() {
+        String documentNumber = user.getPersonalInformation().getDocumentNumber();
+
+        MembershipResponse response = membershipRepository.findResponseByDocumentNumber(documentNumber).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertExpected(response);
+    }
+
+    @Test
+    void userWithoutMembershipIsOneStatement() {
+        User withoutMembership = entityManager.persistFlushFind(TestUsers.newMember());
+        statistics.clear();
+
+        assertTrue(membershipRepository.findResponseByUserId(withoutMembership.getIdUser()).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pendingPaymentsArePolledLeastRecentlyCheckedFirst() {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 12, 0);
+        pendingMembership("pi_antigua", now.minusHours(20), now.minusMinutes(1));
+        pendingMembership("pi_media", now.minusHours(10), now.minusHours(10));
+        pendingMembership("pi_reciente", now.minusHours(1), now.minusHours(1));
+        entityManager.flush();
+
+        List<String> polled = membershipRepository.findPendingPayments(MembershipStatus.PENDING_PAYMENT, now, Limit.of(2))
+                .stream().map(PendingPayment::getPaymentIntentId).toList();
+        assertEquals(List.of("pi_media", "pi_reciente"), polled);
+
+        membershipRepository.markPaymentsPolled(polled, now);
+        entityManager.clear();
+        assertEquals("pi_antigua", membershipRepository.findPendingPayments(MembershipStatus.PENDING_PAYMENT, now, Limit.of(1))
+                .getFirst().getPaymentIntentId());
+    }
+
+    private void pendingMembership(String paymentIntentId, LocalDateTime requestedAt, LocalDateTime lastPolledAt) {
+        Membership pending = new Membership();
+        pending.setUser(entityManager.persist(TestUsers.newMember()));
+        pending.setType(type);
+        pending.setStatus(MembershipStatus.PENDING_PAYMENT);
+        pending.setPrice(type.getMonthlyPrice());
+        pending.setStartDate(requestedAt.toLocalDate());
+        pending.setPaymentIntentId(paymentIntentId);
+        pending.setPaymentRequestedAt(requestedAt);
+        pending.setPaymentLastPolledAt(lastPolledAt);
+        entityManager.persist(pending);
+    }
+
+    private void assertExpected(MembershipResponse response) {
+        assertEquals(membership.getIdMembership(), response.id());
+        assertEquals(user.getIdUser(), response.userId());
+        assertEquals(MembershipTypeName.PREMIUM, response.membershipTypeName());
+        assertEquals(membership.getLocation().getIdLocation(), response.locationId());
+        assertEquals(MembershipStatus.ACTIVE, response.status());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,172 @@
+package co.edu.uniquindio.FitZone.service.impl;
+
+import co.edu.uniquindio.FitZone.dto.request.CreateMembershipRequest;
+import co.edu.uniquindio.FitZone.dto.response.MembershipResponse;
+import co.edu.uniquindio.FitZone.exception.ResourceAlreadyExistsException;
+import co.edu.uniquindio.FitZone.model.entity.Franchise;
+import co.edu.uniquindio.FitZone.model.entity.Location;
+import co.edu.uniquindio.FitZone.model.entity.Membership;
+import co.edu.uniquindio.FitZone.model.entity.User;
+import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
+import co.edu.uniquindio.FitZone.repository.FranchiseRepository;
+import co.edu.uniquindio.FitZone.repository.LocationRepository;
+import co.edu.uniquindio.FitZone.repository.MembershipRepository;
+import co.edu.uniquindio.FitZone.repository.MembershipTypeRepository;
+import co.edu.uniquindio.FitZone.repository.UserRepository;
+import co.edu.uniquindio.FitZone.service.impl.cache.LocationDirectory;
+import co.edu.uniquindio.FitZone.service.interfaces.IMembershipService;
+import co.edu.uniquindio.FitZone.support.StripeApiStub;
+import co.edu.uniquindio.FitZone.support.TestUsers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compras de membresía repetidas en paralelo con la misma intención de pago.
+ * Stripe se reemplaza por StripeApiStub, que cuenta las llamadas recibidas y reporta el pago como
+ * confirmado, así la verificación posterior al commit activa la membresía.
+ */
+@SpringBootTest
+class MembershipServiceImplTest {
+
+    private static final StripeApiStub STRIPE = startStripe();
+
+    @DynamicPropertySource
+    static void stripeProperties(DynamicPropertyRegistry registry) {
+        registry.add("stripe.api.base", STRIPE::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStripe() {
+        STRIPE.close();
+    }
+
+    @Autowired
+    private IMembershipService membershipService;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private MembershipTypeRepository membershipTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FranchiseRepository franchiseRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private LocationDirectory locationDirectory;
+
+    @Test
+    void duplicateSubmissionsCreateOneMembershipAndCallStripeOnce() throws Exception {
+        User user = userRepository.save(TestUsers.newMember());
+        CreateMembershipRequest request = new CreateMembershipRequest(user.getIdUser(),
+                membershipTypeRepository.findByName(MembershipTypeName.BASIC).orElseThrow().getIdMembershipType(),
+                newLocation().getIdLocation(),
+                "pi_" + UUID.randomUUID().toString().replace("-", ""));
+        int stripeRequestsBefore = STRIPE.requests();
+
+        int submissions = 100;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MembershipResponse>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < submissions; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return membershipService.createMembership(request);
+                }));
+            }
+            start.countDown();
+        }
+
+        Long membershipId = responses.getFirst().get().id();
+        for (Future<MembershipResponse> response : responses) {
+            assertEquals(membershipId, response.get().id());
+        }
+        assertEquals(1, StreamSupport.stream(membershipRepository.findAll().spliterator(), false)
+                .filter(membership -> request.paymentIntentId().equals(membership.getPaymentIntentId()))
+                .count());
+
+        awaitActivation(request);
+        assertEquals(1, STRIPE.requests() - stripeRequestsBefore);
+    }
+
+    @Test
+    void pendingPaymentMembershipCannotBeCancelled() {
+        User user = userRepository.save(TestUsers.newMember());
+        Membership pending = new Membership();
+        pending.setUser(user);
+        pending.setType(membershipTypeRepository.findByName(MembershipTypeName.BASIC).orElseThrow());
+        pending.setStatus(MembershipStatus.PENDING_PAYMENT);
+        pending.setStartDate(LocalDate.now());
+        pending.setPaymentIntentId("pi_" + UUID.randomUUID().toString().replace("-", ""));
+        pending = membershipRepository.save(pending);
+        user.setMembership(pending);
+        userRepository.save(user);
+
+        assertThrows(ResourceAlreadyExistsException.class, () -> membershipService.cancelMembership(user.getIdUser()));
+        assertEquals(MembershipStatus.PENDING_PAYMENT,
+                membershipRepository.findById(pending.getIdMembership()).orElseThrow().getStatus());
+    }
+
+    /**
+     * Repite la compra hasta que responda la membresía activa. La verificación en segundo plano la
+     * activa y descarta la respuesta pendiente guardada en caché; si la caché conservara la respuesta
+     * pendiente, la espera vencería.
+     */
+    private void awaitActivation(CreateMembershipRequest request) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (membershipService.createMembership(request).status() != MembershipStatus.ACTIVE) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("La membresía no se activó");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private Location newLocation() {
+        Franchise franchise = franchiseRepository.findByName("FitZone").orElseThrow();
+        String suffix = UUID.randomUUID().toString();
+        Location location = new Location();
+        location.setName("Sede " + suffix);
+        location.setAddress("Calle " + suffix);
+        location.setPhoneNumber(suffix);
+        location.setFranchise(franchise);
+        location.setIsActive(true);
+        location = locationRepository.save(location);
+        locationDirectory.reload();
+        return location;
+    }
+
+    private static StripeApiStub startStripe() {
+        try {
+            return StripeApiStub.start().paymentIntentStatus("succeeded");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
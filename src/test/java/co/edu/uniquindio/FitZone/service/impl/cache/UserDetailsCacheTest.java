@@ -0,0 +1,80 @@
+package co.edu.uniquindio.FitZone.service.impl.cache;
+
+import co.edu.uniquindio.FitZone.dto.request.UserUpdateRequest;
+import co.edu.uniquindio.FitZone.model.entity.User;
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
+import co.edu.uniquindio.FitZone.repository.UserRepository;
+import co.edu.uniquindio.FitZone.service.impl.UserDetailsServiceImpl;
+import co.edu.uniquindio.FitZone.service.interfaces.IUserService;
+import co.edu.uniquindio.FitZone.support.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class UserDetailsCacheTest {
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void emailChangeEvictsPreviousAndNewEmail() {
+        User user = userRepository.save(TestUsers.newMember());
+        String previousEmail = user.getEmail();
+        String newEmail = "nuevo-" + previousEmail;
+        assertEquals(previousEmail, userDetailsCache.get(previousEmail).getUsername());
+
+        userService.updateUser(user.getIdUser(), emailChange(newEmail));
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.get(previousEmail));
+        assertEquals(newEmail, userDetailsCache.get(newEmail).getUsername());
+        // Los tokens emitidos con el email anterior quedan revocados también en el modo sin estado
+        assertEquals(1L, userRepository.findById(user.getIdUser()).orElseThrow().currentTokenVersion());
+    }
+
+    @Test
+    void cachedDetailsCarryRoleAuthority() {
+        User user = userRepository.save(TestUsers.newUser(UserRole.RECEPTIONIST, "{noop}secret"));
+
+        assertEquals(UserDetailsServiceImpl.authoritiesFor(UserRole.RECEPTIONIST),
+                List.copyOf(userDetailsCache.get(user.getEmail()).getAuthorities()));
+    }
+
+    @Test
+    void lookupDuringUncommittedUpdateDoesNotSurviveCommit() {
+        User user = userRepository.save(TestUsers.newMember());
+        String previousEmail = user.getEmail();
+        String newEmail = "nuevo-" + previousEmail;
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateUser(user.getIdUser(), emailChange(newEmail));
+            // Otra solicitud autenticada antes de la confirmación todavía ve la fila anterior
+            String cached = CompletableFuture.supplyAsync(() -> userDetailsCache.get(previousEmail).getUsername()).join();
+            assertEquals(previousEmail, cached);
+        });
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.get(previousEmail));
+    }
+
+    private static UserUpdateRequest emailChange(String email) {
+        return new UserUpdateRequest(null, null, email, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,53 @@
+package co.edu.uniquindio.FitZone.service.impl.checkin;
+
+import co.edu.uniquindio.FitZone.model.entity.CheckIn;
+import co.edu.uniquindio.FitZone.model.enums.CheckInDecision;
+import co.edu.uniquindio.FitZone.repository.CheckInRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckInRecorderTest {
+
+    private final CheckInRepository checkInRepository = mock(CheckInRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CheckInRecorder recorder = new CheckInRecorder(checkInRepository, transactionManager, meterRegistry, 100, 10, 20);
+
+    @AfterEach
+    void stopRecorder() {
+        recorder.stop();
+    }
+
+    @Test
+    void writerSurvivesAFailureToOpenTheTransaction() {
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("Sin conexiones disponibles"))
+                .thenReturn(new SimpleTransactionStatus());
+        recorder.start();
+
+        recorder.record(checkIn(1L));
+        verify(transactionManager, timeout(2_000)).getTransaction(any());
+        recorder.record(checkIn(2L));
+
+        verify(checkInRepository, timeout(2_000)).saveAll(anyList());
+        assertEquals(1.0, meterRegistry.get("fitzone.checkins.dropped").tag("cause", "write_failed").counter().count());
+    }
+
+    private static CheckIn checkIn(Long userId) {
+        return new CheckIn(userId, 1L, 1L, CheckInDecision.ALLOWED, LocalDateTime.of(2026, 10, 18, 8, 0));
+    }
+}
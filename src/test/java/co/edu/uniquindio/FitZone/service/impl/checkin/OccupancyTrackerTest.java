@@ -0,0 +1,64 @@
+package co.edu.uniquindio.FitZone.service.impl.checkin;
+
+import co.edu.uniquindio.FitZone.dto.response.LocationOccupancyResponse;
+import co.edu.uniquindio.FitZone.repository.LocationOccupancySnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class OccupancyTrackerTest {
+
+    private static final Long LOCATION_ID = 1L;
+
+    private final OccupancyTracker tracker = new OccupancyTracker(mock(LocationOccupancySnapshotRepository.class),
+            new SimpleMeterRegistry(), LocalTime.of(4, 0), Duration.ofDays(30));
+
+    @Test
+    void concurrentExitsNeverCountMoreThanTheEntries() throws Exception {
+        int inside = 50;
+        int exits = 400;
+        for (int i = 0; i < inside; i++) {
+            tracker.recordEntry(LOCATION_ID);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < exits; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return tracker.recordExit(LOCATION_ID);
+                }));
+            }
+            start.countDown();
+        }
+
+        long counted = 0;
+        for (Future<Boolean> result : results) {
+            counted += result.get() ? 1 : 0;
+        }
+        LocationOccupancyResponse occupancy = tracker.current(LOCATION_ID);
+        assertEquals(inside, counted);
+        assertEquals(inside, occupancy.exits());
+        assertEquals(0, occupancy.occupancy());
+    }
+
+    @Test
+    void exitFromAnEmptyLocationDoesNotOffsetLaterEntries() {
+        tracker.recordExit(LOCATION_ID);
+        tracker.recordEntry(LOCATION_ID);
+
+        assertEquals(1, tracker.current(LOCATION_ID).occupancy());
+    }
+}
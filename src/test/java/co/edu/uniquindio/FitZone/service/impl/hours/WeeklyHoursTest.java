@@ -0,0 +1,42 @@
+package co.edu.uniquindio.FitZone.service.impl.hours;
+
+import co.edu.uniquindio.FitZone.model.enums.DayOfWeek;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeeklyHoursTest {
+
+    // 2026-10-16 es viernes
+    private static final LocalDateTime FRIDAY = LocalDateTime.of(2026, 10, 16, 0, 0);
+
+    @Test
+    void overnightSlotStaysOpenAfterMidnightOfTheNextDay() {
+        WeeklyHours hours = WeeklyHours.compile(List.of(
+                new WeeklyHours.Slot(DayOfWeek.FRIDAY, LocalTime.of(18, 0), LocalTime.of(2, 0))));
+
+        assertTrue(hours.isOpen(FRIDAY.withHour(23)));
+        assertTrue(hours.isOpen(FRIDAY.plusDays(1).withHour(1).withMinute(59)));
+        assertFalse(hours.isOpen(FRIDAY.plusDays(1).withHour(2)));
+        assertFalse(hours.isOpen(FRIDAY.withHour(1)));
+        assertEquals(FRIDAY.plusDays(1).withHour(2), hours.nextClosing(FRIDAY.plusDays(1).withHour(0).withMinute(30)).orElseThrow());
+    }
+
+    @Test
+    void sundayOvernightSlotContinuesOnMonday() {
+        WeeklyHours hours = WeeklyHours.compile(List.of(
+                new WeeklyHours.Slot(DayOfWeek.SUNDAY, LocalTime.of(20, 0), LocalTime.of(1, 0)),
+                new WeeklyHours.Slot(DayOfWeek.MONDAY, LocalTime.of(6, 0), LocalTime.of(22, 0))));
+        LocalDateTime monday = FRIDAY.plusDays(3);
+
+        assertTrue(hours.isOpen(monday.withHour(0).withMinute(30)));
+        assertFalse(hours.isOpen(monday.withHour(1)));
+        assertEquals(monday.withHour(6), hours.nextOpening(monday.withHour(1)).orElseThrow());
+    }
+}
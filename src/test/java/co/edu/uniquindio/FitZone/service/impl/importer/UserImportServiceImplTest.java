@@ -0,0 +1,107 @@
+package co.edu.uniquindio.FitZone.service.impl.importer;
+
+import co.edu.uniquindio.FitZone.controller.UserController;
+import co.edu.uniquindio.FitZone.dto.response.UserImportReport;
+import co.edu.uniquindio.FitZone.dto.response.UserImportRowResult;
+import co.edu.uniquindio.FitZone.model.enums.UserImportFormat;
+import co.edu.uniquindio.FitZone.model.enums.UserImportRowStatus;
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
+import co.edu.uniquindio.FitZone.repository.UserRepository;
+import co.edu.uniquindio.FitZone.service.impl.UserDetailsServiceImpl;
+import co.edu.uniquindio.FitZone.service.interfaces.IUserImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserImportServiceImplTest {
+
+    private static final String HEADER = "firstName,lastName,email,documentType,documentNumber,password,phoneNumber,"
+            + "birthDate,emergencyContactPhone,role\n";
+
+    @Autowired
+    private IUserImportService userImportService;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rowsCannotGrantRolesAboveTheImporter() {
+        authenticateAs(UserRole.RECEPTIONIST);
+        String prefix = UUID.randomUUID().toString();
+
+        UserImportReport report = userImportService.importUsers(csv(
+                row(prefix, 1, "ADMIN"),
+                row(prefix, 2, "RECEPTIONIST"),
+                row(prefix, 3, "INSTRUCTOR"),
+                row(prefix, 4, "")), UserImportFormat.CSV);
+
+        assertEquals(2, report.created());
+        assertRejected(report.rows().get(0));
+        assertRejected(report.rows().get(1));
+        assertEquals(UserRole.INSTRUCTOR, userRepository.findByEmail(email(prefix, 3)).orElseThrow().getRole());
+        assertEquals(UserRole.MEMBER, userRepository.findByEmail(email(prefix, 4)).orElseThrow().getRole());
+        assertTrue(userRepository.findByEmail(email(prefix, 1)).isEmpty());
+    }
+
+    @Test
+    void adminCanImportAnyRole() {
+        authenticateAs(UserRole.ADMIN);
+        String prefix = UUID.randomUUID().toString();
+
+        UserImportReport report = userImportService.importUsers(csv(row(prefix, 1, "ADMIN")), UserImportFormat.CSV);
+
+        assertEquals(1, report.created());
+        assertEquals(UserRole.ADMIN, userRepository.findByEmail(email(prefix, 1)).orElseThrow().getRole());
+    }
+
+    @Test
+    void importEndpointRequiresAdminAuthority() {
+        authenticateAs(UserRole.RECEPTIONIST);
+
+        assertThrows(AccessDeniedException.class, () -> userController.importUsers("text/csv", csv()));
+    }
+
+    private static void assertRejected(UserImportRowResult row) {
+        assertEquals(UserImportRowStatus.FAILED, row.status());
+        assertTrue(row.error().contains("no está autorizado"), row.error());
+    }
+
+    private static void authenticateAs(UserRole role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                role.name().toLowerCase() + "@fitzone.test", null, UserDetailsServiceImpl.authoritiesFor(role)));
+    }
+
+    private static ByteArrayInputStream csv(String... rows) {
+        return new ByteArrayInputStream((HEADER + String.join("", rows)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String row(String prefix, int n, String role) {
+        return "Usuario,Importado," + email(prefix, n) + ",CC," + (System.nanoTime() % 1_000_000_000L + 1_000_000_000L) + n
+                + ",Secreta1!,3001234567,1990-01-01,3007654321," + role + "\n";
+    }
+
+    private static String email(String prefix, int n) {
+        return "importado" + n + "-" + prefix + "@fitzone.test";
+    }
+}
@@ -0,0 +1,66 @@
+package co.edu.uniquindio.FitZone.service.impl.mail;
+
+import co.edu.uniquindio.FitZone.repository.NotificationBatchRepository;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica que al reanudar un envío masivo se omiten exactamente los destinatarios de los lotes ya
+ * enviados. Los lotes se guardan desde los hilos del envío, así que la prueba no abre una transacción
+ * propia y cada caso usa su propio identificador de trabajo.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:fitzone-bulk;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkEmailSenderTest {
+
+    @Autowired
+    private NotificationBatchRepository batchRepository;
+
+    private final EmailDispatcher emailDispatcher = mock(EmailDispatcher.class);
+
+    @Test
+    void resumeSkipsOnlyTheRecipientsThatWereSent() {
+        when(emailDispatcher.send(any(Mail.class), anyString(), anyString()))
+                .thenReturn(new DeliveryResult(true, 1, 202, null));
+        BulkEmailSender sender = new BulkEmailSender(emailDispatcher, batchRepository, new SimpleMeterRegistry(),
+                "noreply@fitzone.test", 10, 1);
+
+        sender.send("renewal-reminder:prueba", "renewal", "Asunto", "<p>-name-</p>",
+                List.of(recipient(5L), recipient(100L)));
+        BulkSendSummary resumed = sender.send("renewal-reminder:prueba", "renewal", "Asunto", "<p>-name-</p>",
+                List.of(recipient(5L), recipient(50L), recipient(100L)));
+
+        assertEquals(2, resumed.skipped());
+        assertEquals(1, resumed.delivered());
+
+        ArgumentCaptor<Mail> mails = ArgumentCaptor.forClass(Mail.class);
+        verify(emailDispatcher, times(2)).send(mails.capture(), anyString(), anyString());
+        List<Personalization> resumedBatch = mails.getAllValues().get(1).getPersonalization();
+        assertEquals(1, resumedBatch.size());
+        assertEquals("socio50@fitzone.test", resumedBatch.get(0).getTos().get(0).getEmail());
+    }
+
+    private static BulkRecipient recipient(Long referenceId) {
+        return new BulkRecipient(referenceId, "socio" + referenceId + "@fitzone.test", Map.of("-name-", "Socio " + referenceId));
+    }
+}
@@ -0,0 +1,152 @@
+package co.edu.uniquindio.FitZone.service.impl.mail;
+
+import co.edu.uniquindio.FitZone.exception.EmailDeliveryException;
+import co.edu.uniquindio.FitZone.model.entity.EmailDeadLetter;
+import co.edu.uniquindio.FitZone.repository.EmailDeadLetterRepository;
+import co.edu.uniquindio.FitZone.support.EmailTemplates;
+import co.edu.uniquindio.FitZone.util.EmailService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailDispatcherTest {
+
+    private final SendGrid sendGrid = mock(SendGrid.class);
+    private final EmailDeadLetterRepository deadLetterRepository = mock(EmailDeadLetterRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmailDispatcher dispatcher;
+
+    @AfterEach
+    void stopDispatcher() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void failedOtpEmailIsRecordedWithoutItsCode() throws IOException {
+        when(sendGrid.api(any(Request.class))).thenReturn(new Response(400, "rechazado", Map.of()));
+        EmailService emailService = emailService(startedDispatcher());
+
+        Context context = new Context();
+        context.setVariable("userName", "Ana");
+        context.setVariable("otp", "482913");
+        CompletableFuture<Void> result = emailService.sendTemplatedEmail("ana@fitzone.test", "Código", "otp-template", context);
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        EmailDeadLetter deadLetter = savedDeadLetter();
+        assertEquals("otp-template", deadLetter.getTemplate());
+        assertEquals("ana@fitzone.test", deadLetter.getRecipient());
+        assertNull(deadLetter.getTemplateVariables());
+        assertEquals(400, deadLetter.getLastStatusCode());
+    }
+
+    @Test
+    void failedReminderIsReplayedByRenderingItAgain() throws Exception {
+        when(sendGrid.api(any(Request.class)))
+                .thenReturn(new Response(400, "rechazado", Map.of()))
+                .thenReturn(new Response(202, "", Map.of()));
+        EmailService emailService = emailService(startedDispatcher());
+
+        Context context = new Context();
+        context.setVariable("userName", "Ana");
+        context.setVariable("membershipType", "PREMIUM");
+        context.setVariable("expiryDate", "2026-10-25");
+        context.setVariable("daysRemaining", 7L);
+        CompletableFuture<Void> first = emailService.sendTemplatedEmail("ana@fitzone.test", "Renovación",
+                "membership-renewal-reminder", context);
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+
+        EmailDeadLetter deadLetter = savedDeadLetter();
+        assertNotNull(deadLetter.getTemplateVariables());
+        deadLetter.setIdEmailDeadLetter(1L);
+        when(deadLetterRepository.findById(1L)).thenReturn(Optional.of(deadLetter));
+
+        emailService.replayDeadLetter(1L).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+        verify(sendGrid, times(2)).api(requests.capture());
+        String replayed = requests.getAllValues().get(1).getBody();
+        assertTrue(replayed.contains("Ana"));
+        assertTrue(replayed.contains("PREMIUM"));
+        verify(deadLetterRepository).delete(deadLetter);
+    }
+
+    @Test
+    void replayOfEmailWithoutVariablesIsRejected() {
+        EmailDeadLetter deadLetter = new EmailDeadLetter();
+        deadLetter.setTemplate("password-reset");
+        when(deadLetterRepository.findById(2L)).thenReturn(Optional.of(deadLetter));
+
+        assertThrows(EmailDeliveryException.class, () -> emailService(dispatcher(Duration.ZERO)).replayDeadLetter(2L));
+    }
+
+    @Test
+    void queuedEmailsAreRecordedOnShutdown() {
+        // Sin trabajadores iniciados los correos permanecen en la cola hasta que el canal se detiene
+        dispatcher = dispatcher(Duration.ofMillis(100));
+        List<CompletableFuture<Void>> results = List.of(
+                dispatcher.enqueue("a@fitzone.test", "Asunto", "<p>a</p>", "raw", null),
+                dispatcher.enqueue("b@fitzone.test", "Asunto", "<p>b</p>", "raw", null));
+
+        dispatcher.stop();
+
+        verify(deadLetterRepository, times(2)).save(any(EmailDeadLetter.class));
+        results.forEach(result -> assertTrue(result.isCompletedExceptionally()));
+        assertThrows(EmailDeliveryException.class,
+                () -> dispatcher.enqueue("c@fitzone.test", "Asunto", "<p>c</p>", "raw", null));
+        dispatcher = null;
+    }
+
+    private EmailDispatcher startedDispatcher() {
+        dispatcher = dispatcher(Duration.ofSeconds(1));
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private EmailDispatcher dispatcher(Duration drainTimeout) {
+        return new EmailDispatcher(sendGrid, deadLetterRepository, objectMapper, new SimpleMeterRegistry(),
+                "no-reply@fitzone.test", 10, 1, 1, Duration.ofMillis(1), Duration.ofMillis(1), drainTimeout);
+    }
+
+    private EmailService emailService(EmailDispatcher emailDispatcher) {
+        return new EmailService(EmailTemplates.renderingService(new SimpleMeterRegistry(), 2),
+                emailDispatcher, deadLetterRepository, objectMapper);
+    }
+
+    private EmailDeadLetter savedDeadLetter() {
+        ArgumentCaptor<EmailDeadLetter> captor = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepository).save(captor.capture());
+        EmailDeadLetter deadLetter = captor.getValue();
+        assertFalse(deadLetter.getTemplate().isBlank());
+        return deadLetter;
+    }
+}
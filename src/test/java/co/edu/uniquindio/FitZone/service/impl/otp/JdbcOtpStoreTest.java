@@ -0,0 +1,131 @@
+package co.edu.uniquindio.FitZone.service.impl.otp;
+
+import co.edu.uniquindio.FitZone.service.interfaces.IOtpStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de JdbcOtpStore sobre la tabla otp_codes de la base de datos embebida (otp.store=jdbc).
+ */
+@SpringBootTest
+class JdbcOtpStoreTest {
+
+    @Autowired
+    private IOtpStore otpStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testProfileUsesJdbcStore() {
+        assertInstanceOf(JdbcOtpStore.class, otpStore);
+    }
+
+    @Test
+    void validCodeIsConsumedOnce() {
+        String email = email();
+        otpStore.save(email, "123456");
+
+        assertTrue(otpStore.validate(email, "123456"));
+        assertFalse(otpStore.validate(email, "123456"));
+        assertEquals(0, rows(email));
+    }
+
+    @Test
+    void newCodeReplacesPreviousOne() {
+        String email = email();
+        otpStore.save(email, "111111");
+        otpStore.save(email, "222222");
+
+        assertFalse(otpStore.validate(email, "111111"));
+        assertTrue(otpStore.validate(email, "222222"));
+    }
+
+    @Test
+    void codeIsDiscardedAfterMaxFailedAttempts() {
+        JdbcOtpStore store = store(Duration.ofMinutes(5), 3);
+        String email = email();
+        store.save(email, "123456");
+
+        assertFalse(store.validate(email, "000000"));
+        assertFalse(store.validate(email, "000000"));
+        assertEquals(1, rows(email));
+        assertFalse(store.validate(email, "000000"));
+
+        assertEquals(0, rows(email));
+        assertFalse(store.validate(email, "123456"));
+    }
+
+    @Test
+    void sweepRemovesExpiredCodes() {
+        JdbcOtpStore expiredStore = store(Duration.ofSeconds(-1), 5);
+        String email = email();
+        expiredStore.save(email, "123456");
+
+        assertFalse(expiredStore.validate(email, "123456"));
+        expiredStore.sweep();
+        assertEquals(0, rows(email));
+    }
+
+    @Test
+    void concurrentValidationsConsumeCodeOnce() throws Exception {
+        String email = email();
+        otpStore.save(email, "654321");
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Callable<Boolean> attempt = () -> {
+                start.await();
+                return otpStore.validate(email, "654321");
+            };
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(attempt));
+            }
+            start.countDown();
+
+            int consumed = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    consumed++;
+                }
+            }
+            assertEquals(1, consumed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private JdbcOtpStore store(Duration ttl, int maxAttempts) {
+        return new JdbcOtpStore(jdbcTemplate, new SimpleMeterRegistry(), ttl, maxAttempts, 100);
+    }
+
+    private int rows(String email) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM otp_codes WHERE email = ?", Integer.class, email);
+        return count == null ? 0 : count;
+    }
+
+    private static String email() {
+        return "otp-" + UUID.randomUUID() + "@fitzone.test";
+    }
+}
@@ -0,0 +1,123 @@
+package co.edu.uniquindio.FitZone.service.impl.payment;
+
+import co.edu.uniquindio.FitZone.integration.payment.StripeService;
+import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.repository.MembershipRepository;
+import co.edu.uniquindio.FitZone.repository.PaymentIntentRepository;
+import co.edu.uniquindio.FitZone.repository.projection.PendingPayment;
+import co.edu.uniquindio.FitZone.service.impl.cache.RecentPaymentIntents;
+import co.edu.uniquindio.FitZone.service.impl.checkin.MembershipEligibilityTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCancelParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentConfirmationServiceTest {
+
+    private static final String PAYMENT_INTENT_ID = "pi_vencida";
+
+    private record Pending(String getPaymentIntentId, LocalDateTime getPaymentRequestedAt) implements PendingPayment {
+    }
+
+    private final MembershipRepository membershipRepository = mock(MembershipRepository.class);
+    private final StripeService stripeService = mock(StripeService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentConfirmationService service = new PaymentConfirmationService(membershipRepository,
+            mock(PaymentIntentRepository.class), mock(RecentPaymentIntents.class), stripeService,
+            mock(MembershipEligibilityTable.class), new ObjectMapper(), meterRegistry,
+            Duration.ofMinutes(2), Duration.ofHours(24), 100);
+
+    @AfterEach
+    void stopService() {
+        service.stop();
+    }
+
+    @Test
+    void expiredPendingPaymentThatSucceededIsActivatedNotCancelled() throws Exception {
+        pendingSince(LocalDateTime.now().minusDays(2));
+        when(stripeService.getPaymentIntent(PAYMENT_INTENT_ID)).thenReturn(paymentIntent("succeeded"));
+
+        service.pollPending();
+
+        verify(membershipRepository).activatePending(eq(PAYMENT_INTENT_ID), any(), any());
+        verify(stripeService, never()).cancelPaymentIntent(any(), any());
+        verify(membershipRepository, never()).cancelPending(any());
+    }
+
+    @Test
+    void expiredUnpaidPaymentIsCancelledInStripeBeforeTheMembership() throws Exception {
+        pendingSince(LocalDateTime.now().minusDays(2));
+        when(stripeService.getPaymentIntent(PAYMENT_INTENT_ID)).thenReturn(paymentIntent("requires_action"));
+        when(stripeService.cancelPaymentIntent(PAYMENT_INTENT_ID, PaymentIntentCancelParams.CancellationReason.ABANDONED))
+                .thenReturn(paymentIntent("canceled"));
+
+        service.pollPending();
+
+        verify(membershipRepository).cancelPending(PAYMENT_INTENT_ID);
+    }
+
+    @Test
+    void membershipStaysPendingWhenStripeRefusesTheCancellation() throws Exception {
+        pendingSince(LocalDateTime.now().minusDays(2));
+        when(stripeService.getPaymentIntent(PAYMENT_INTENT_ID)).thenReturn(paymentIntent("processing"));
+        when(stripeService.cancelPaymentIntent(any(), any())).thenThrow(new InvalidRequestException(
+                "La intención ya no admite cancelación", null, "req_1", "payment_intent_unexpected_state", 400, null));
+
+        service.pollPending();
+
+        verify(membershipRepository, never()).cancelPending(any());
+    }
+
+    @Test
+    void recentPendingPaymentIsOnlyVerified() throws Exception {
+        pendingSince(LocalDateTime.now().minusMinutes(10));
+        when(stripeService.getPaymentIntent(PAYMENT_INTENT_ID)).thenReturn(paymentIntent("requires_payment_method"));
+
+        service.pollPending();
+
+        verify(membershipRepository).markPaymentsPolled(eq(List.of(PAYMENT_INTENT_ID)), any());
+        verify(stripeService, never()).cancelPaymentIntent(any(), any());
+        verify(membershipRepository, never()).cancelPending(any());
+    }
+
+    @Test
+    void successForACancelledMembershipIsCountedForReconciliation() throws Exception {
+        pendingSince(LocalDateTime.now().minusMinutes(10));
+        when(stripeService.getPaymentIntent(PAYMENT_INTENT_ID)).thenReturn(paymentIntent("succeeded"));
+        when(membershipRepository.existsByPaymentIntentIdAndStatusAndEndDateIsNull(PAYMENT_INTENT_ID, MembershipStatus.CANCELLED))
+                .thenReturn(true);
+
+        service.pollPending();
+
+        assertEquals(1.0, meterRegistry.get("fitzone.payments.succeeded_after_cancel").counter().count());
+    }
+
+    private void pendingSince(LocalDateTime requestedAt) {
+        when(membershipRepository.findPendingPayments(eq(MembershipStatus.PENDING_PAYMENT), any(), any()))
+                .thenReturn(List.of(new Pending(PAYMENT_INTENT_ID, requestedAt)));
+        when(membershipRepository.markPaymentsPolled(anyList(), any())).thenReturn(1);
+    }
+
+    private static PaymentIntent paymentIntent(String status) {
+        PaymentIntent paymentIntent = new PaymentIntent();
+        paymentIntent.setId(PAYMENT_INTENT_ID);
+        paymentIntent.setStatus(status);
+        return paymentIntent;
+    }
+}
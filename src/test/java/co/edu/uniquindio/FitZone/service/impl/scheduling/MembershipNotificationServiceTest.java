@@ -0,0 +1,123 @@
+package co.edu.uniquindio.FitZone.service.impl.scheduling;
+
+import co.edu.uniquindio.FitZone.model.entity.JobRun;
+import co.edu.uniquindio.FitZone.model.enums.JobRunStatus;
+import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
+import co.edu.uniquindio.FitZone.repository.JobRunRepository;
+import co.edu.uniquindio.FitZone.repository.MembershipRepository;
+import co.edu.uniquindio.FitZone.repository.projection.RenewalRecipient;
+import co.edu.uniquindio.FitZone.service.impl.mail.BulkEmailSender;
+import co.edu.uniquindio.FitZone.service.impl.mail.BulkSendSummary;
+import co.edu.uniquindio.FitZone.util.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thymeleaf.context.Context;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MembershipNotificationServiceTest {
+
+    private final MembershipRepository membershipRepository = mock(MembershipRepository.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final BulkEmailSender bulkEmailSender = mock(BulkEmailSender.class);
+    private final JobRunRepository jobRunRepository = mock(JobRunRepository.class);
+    private final JobLeaseService jobLeaseService = mock(JobLeaseService.class);
+
+    private final LocalDate today = LocalDate.now();
+    private MembershipNotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(jobLeaseService.tryAcquire(anyString(), any(Duration.class))).thenReturn(true);
+        when(emailService.render(anyString(), any(Context.class))).thenReturn("<p>recordatorio</p>");
+        when(jobRunRepository.save(any(JobRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jobRunRepository.findByJobNameAndStatusNotAndRunDateAfter(anyString(), any(), any())).thenReturn(List.of());
+        when(bulkEmailSender.send(anyString(), anyString(), anyString(), anyString(), anyList()))
+                .thenReturn(new BulkSendSummary(1, 0, 1, 0));
+        service = new MembershipNotificationService(membershipRepository, emailService, bulkEmailSender,
+                jobRunRepository, jobLeaseService, "bulk", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void interruptedReminderIsResumedOnAnotherDayWithTheSameBatchKey() {
+        LocalDate endDate = today.plusDays(3);
+        JobRun interrupted = run("renewal-reminder-7d", endDate, JobRunStatus.RUNNING);
+        when(jobRunRepository.findByJobNameAndStatusNotAndRunDateAfter("renewal-reminder-7d", JobRunStatus.COMPLETED, today.plusDays(1)))
+                .thenReturn(List.of(interrupted));
+        when(jobRunRepository.findByJobNameAndRunDate("renewal-reminder-7d", endDate)).thenReturn(Optional.of(interrupted));
+        RenewalRecipient recipient = recipient(endDate);
+        when(membershipRepository.findRenewalRecipients(MembershipStatus.ACTIVE, endDate)).thenReturn(List.of(recipient));
+
+        service.resumeUnfinishedReminders();
+
+        verify(bulkEmailSender).send(eq("renewal-reminder:" + endDate + ":7d"), anyString(), anyString(), anyString(), anyList());
+        ArgumentCaptor<Context> context = ArgumentCaptor.forClass(Context.class);
+        verify(emailService).render(anyString(), context.capture());
+        assertEquals(3L, context.getValue().getVariable("daysRemaining"));
+        assertEquals(JobRunStatus.COMPLETED, interrupted.getStatus());
+    }
+
+    @Test
+    void reminderWithFailedBatchesStaysUnfinished() {
+        LocalDate endDate = today.plusDays(7);
+        RenewalRecipient recipient = recipient(endDate);
+        when(membershipRepository.findRenewalRecipients(any(), any())).thenReturn(List.of());
+        when(membershipRepository.findRenewalRecipients(MembershipStatus.ACTIVE, endDate)).thenReturn(List.of(recipient));
+        when(jobRunRepository.findByJobNameAndRunDate(anyString(), any())).thenReturn(Optional.empty());
+        when(bulkEmailSender.send(anyString(), anyString(), anyString(), anyString(), anyList()))
+                .thenReturn(new BulkSendSummary(1, 0, 0, 1));
+
+        service.sendRenewalReminders();
+
+        ArgumentCaptor<JobRun> saved = ArgumentCaptor.forClass(JobRun.class);
+        verify(jobRunRepository, times(2)).save(saved.capture());
+        JobRun run = saved.getValue();
+        assertEquals("renewal-reminder-7d", run.getJobName());
+        assertEquals(endDate, run.getRunDate());
+        assertEquals(JobRunStatus.FAILED, run.getStatus());
+    }
+
+    @Test
+    void nothingIsResumedWhenEveryReminderFinished() {
+        service.resumeUnfinishedReminders();
+
+        verify(bulkEmailSender, never()).send(anyString(), anyString(), anyString(), anyString(), anyList());
+    }
+
+    private static JobRun run(String jobName, LocalDate runDate, JobRunStatus status) {
+        JobRun run = new JobRun();
+        run.setJobName(jobName);
+        run.setRunDate(runDate);
+        run.setStatus(status);
+        run.setLastProcessedId(0L);
+        run.setScannedRows(0L);
+        run.setAffectedRows(0L);
+        return run;
+    }
+
+    private static RenewalRecipient recipient(LocalDate endDate) {
+        RenewalRecipient recipient = mock(RenewalRecipient.class);
+        when(recipient.getIdMembership()).thenReturn(10L);
+        when(recipient.getEmail()).thenReturn("socio@fitzone.test");
+        when(recipient.getFirstName()).thenReturn("Ana");
+        when(recipient.getMembershipType()).thenReturn(MembershipTypeName.values()[0]);
+        when(recipient.getEndDate()).thenReturn(endDate);
+        return recipient;
+    }
+}
@@ -0,0 +1,44 @@
+package co.edu.uniquindio.FitZone.support;
+
+import co.edu.uniquindio.FitZone.service.impl.template.TemplateRenderingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Construye TemplateRenderingService sobre las plantillas de src/main/resources/templates sin levantar
+ * el contexto de Spring, con el mismo motor de Thymeleaf que usa la aplicación (SpringTemplateEngine, HTML, UTF-8, caché).
+ */
+public final class EmailTemplates {
+
+    private EmailTemplates() {
+    }
+
+    /**
+     * Crea el motor de plantillas sin pasar por el servicio de renderizado.
+     */
+    public static SpringTemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        return templateEngine;
+    }
+
+    /**
+     * Crea el servicio de renderizado y precarga las plantillas transaccionales.
+     * @param meterRegistry registro donde se publican los tiempos de renderizado
+     * @param writerPoolSize tamaño del pool de buffers
+     */
+    public static TemplateRenderingService renderingService(MeterRegistry meterRegistry, int writerPoolSize) {
+        TemplateRenderingService service = new TemplateRenderingService(templateEngine(), meterRegistry, writerPoolSize);
+        service.preload();
+        return service;
+    }
+}
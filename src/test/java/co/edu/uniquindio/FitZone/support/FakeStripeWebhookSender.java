@@ -0,0 +1,83 @@
+package co.edu.uniquindio.FitZone.support;
+
+import com.stripe.Stripe;
+import com.stripe.net.Webhook;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Envía webhooks de Stripe firmados a una instancia local, sin pasar por Stripe.
+ * Firma el cuerpo con el mismo esquema que Stripe (encabezado Stripe-Signature con t= y v1=),
+ * así POST /payments/webhook los verifica igual que a los reales. Se usa desde pruebas o
+ * manualmente contra la aplicación levantada con el mismo stripe.webhook.secret.
+ */
+public class FakeStripeWebhookSender {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final String baseUrl;
+    private final String webhookSecret;
+
+    public FakeStripeWebhookSender(String baseUrl, String webhookSecret) {
+        this.baseUrl = baseUrl;
+        this.webhookSecret = webhookSecret;
+    }
+
+    /**
+     * Envía un evento payment_intent.succeeded para una intención de pago.
+     */
+    public HttpResponse<String> paymentIntentSucceeded(String paymentIntentId) throws IOException, InterruptedException {
+        return send(paymentIntentEvent("payment_intent.succeeded", paymentIntentId, "succeeded"));
+    }
+
+    /**
+     * Envía un evento payment_intent.canceled para una intención de pago.
+     */
+    public HttpResponse<String> paymentIntentCanceled(String paymentIntentId) throws IOException, InterruptedException {
+        return send(paymentIntentEvent("payment_intent.canceled", paymentIntentId, "canceled"));
+    }
+
+    /**
+     * Envía un cuerpo arbitrario firmado con el secreto del webhook.
+     */
+    public HttpResponse<String> send(String payload) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/payments/webhook"))
+                .header("Content-Type", "application/json")
+                .header("Stripe-Signature", signatureHeader(payload, webhookSecret, Instant.now().getEpochSecond()))
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Construye el encabezado Stripe-Signature de un cuerpo.
+     * @param payload cuerpo exacto que se enviará
+     * @param secret secreto de firma del endpoint (whsec_...)
+     * @param timestamp segundos desde la época; Stripe rechaza firmas con más de 5 minutos
+     */
+    public static String signatureHeader(String payload, String secret, long timestamp) {
+        try {
+            String signature = Webhook.Util.computeHmacSha256(secret, timestamp + "." + payload);
+            return "t=" + timestamp + ",v1=" + signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No fue posible firmar el webhook", e);
+        }
+    }
+
+    /**
+     * Construye el cuerpo de un evento de intención de pago como lo envía Stripe.
+     */
+    public static String paymentIntentEvent(String type, String paymentIntentId, String status) {
+        return """
+                {"id":"evt_%s","object":"event","api_version":"%s","created":%d,"type":"%s",\
+                "data":{"object":{"id":"%s","object":"payment_intent","status":"%s"}}}"""
+                .formatted(UUID.randomUUID().toString().replace("-", ""), Stripe.API_VERSION,
+                        Instant.now().getEpochSecond(), type, paymentIntentId, status);
+    }
+}
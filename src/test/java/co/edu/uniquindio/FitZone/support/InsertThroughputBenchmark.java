@@ -0,0 +1,211 @@
+package co.edu.uniquindio.FitZone.support;
+
+import ch.qos.logback.classic.Level;
+import co.edu.uniquindio.FitZone.model.entity.Franchise;
+import co.edu.uniquindio.FitZone.model.entity.Location;
+import co.edu.uniquindio.FitZone.model.entity.Membership;
+import co.edu.uniquindio.FitZone.model.entity.MembershipType;
+import co.edu.uniquindio.FitZone.model.entity.Timeslot;
+import co.edu.uniquindio.FitZone.model.entity.User;
+import co.edu.uniquindio.FitZone.model.enums.DayOfWeek;
+import co.edu.uniquindio.FitZone.model.enums.MembershipStatus;
+import co.edu.uniquindio.FitZone.model.enums.MembershipTypeName;
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Compara el throughput de inserción de membresías y horarios con IDs IDENTITY, como estaban antes,
+ * y con las secuencias con optimizador pooled (allocationSize 50) que usan ahora las entidades.
+ * Con IDENTITY, Hibernate necesita el ID que genera cada INSERT y no puede agrupar las inserciones
+ * en lotes JDBC; con la secuencia reserva 50 IDs por consulta y envía los INSERT en lotes de
+ * hibernate.jdbc.batch_size. Las mismas entidades se mapean en ambos escenarios; en el de IDENTITY
+ * un orm.xml reemplaza solo la estrategia de generación. La base de datos es H2 en modo PostgreSQL
+ * servida por TCP, para que cada sentencia pague un viaje de red local. Se ejecuta con su método main.
+ */
+public class InsertThroughputBenchmark {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Franchise.class, Timeslot.class, Location.class, MembershipType.class, Membership.class, User.class);
+
+    private static final String IDENTITY_MAPPING = """
+            <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+                <entity class="co.edu.uniquindio.FitZone.model.entity.Franchise">
+                    <attributes><id name="idFranchise"><generated-value strategy="IDENTITY"/></id></attributes>
+                </entity>
+                <entity class="co.edu.uniquindio.FitZone.model.entity.Timeslot">
+                    <attributes><id name="idTimeslot"><generated-value strategy="IDENTITY"/></id></attributes>
+                </entity>
+                <entity class="co.edu.uniquindio.FitZone.model.entity.Membership">
+                    <attributes><id name="idMembership"><generated-value strategy="IDENTITY"/></id></attributes>
+                </entity>
+            </entity-mappings>
+            """;
+
+    private static final int BATCH_SIZE = 100;
+    private static final int ROWS_PER_TRANSACTION = 1_000;
+    private static final int WARMUP_MEMBERSHIPS = 5_000;
+    private static final int MEASURED_MEMBERSHIPS = 20_000;
+    private static final int WARMUP_FRANCHISES = 500;
+    private static final int MEASURED_FRANCHISES = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        Server server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        try {
+            run(server, "Antes (IDENTITY)", true);
+            run(server, "Ahora (secuencia pooled)", false);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void run(Server server, String name, boolean identity) {
+        String url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:insert-" + (identity ? "identity" : "sequence")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(2);
+
+            try (SessionFactory sessionFactory = sessionFactory(dataSource, identity)) {
+                MembershipType type = inTransaction(sessionFactory, session -> {
+                    MembershipType membershipType = membershipType();
+                    session.persist(membershipType);
+                    return membershipType;
+                });
+                User user = inTransaction(sessionFactory, session -> {
+                    User member = TestUsers.newMember();
+                    session.persist(member);
+                    return member;
+                });
+
+                BiConsumer<Session, Integer> membership = (session, i) -> session.persist(membership(session, user, type));
+                AtomicInteger franchises = new AtomicInteger();
+                BiConsumer<Session, Integer> franchise = (session, i) -> session.persist(franchise("Franquicia " + franchises.incrementAndGet()));
+
+                insert(sessionFactory, WARMUP_MEMBERSHIPS, membership);
+                report(name, "membresías", 1, insert(sessionFactory, MEASURED_MEMBERSHIPS, membership), MEASURED_MEMBERSHIPS);
+
+                insert(sessionFactory, WARMUP_FRANCHISES, franchise);
+                report(name, "franquicias + 7 horarios", 1 + DayOfWeek.values().length,
+                        insert(sessionFactory, MEASURED_FRANCHISES, franchise), MEASURED_FRANCHISES);
+            }
+        }
+    }
+
+    private record Result(long nanos, long statements) {
+    }
+
+    /**
+     * Inserta las filas en transacciones de ROWS_PER_TRANSACTION, vaciando y limpiando la sesión
+     * cada BATCH_SIZE filas como lo hace la importación masiva.
+     */
+    private static Result insert(SessionFactory sessionFactory, int rows, BiConsumer<Session, Integer> persist) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long begin = System.nanoTime();
+        for (int from = 0; from < rows; from += ROWS_PER_TRANSACTION) {
+            int start = from;
+            int end = Math.min(rows, from + ROWS_PER_TRANSACTION);
+            sessionFactory.inTransaction(session -> {
+                for (int i = start; i < end; i++) {
+                    persist.accept(session, i);
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+            });
+        }
+        return new Result(System.nanoTime() - begin, statistics.getPrepareStatementCount());
+    }
+
+    private static void report(String name, String kind, int rowsPerEntity, Result result, int entities) {
+        long rows = (long) entities * rowsPerEntity;
+        System.out.printf("%-26s %-26s %8.0f filas/s, %6d sentencias preparadas para %d filas%n",
+                name, kind, rows / (result.nanos() / 1e9), result.statements(), rows);
+    }
+
+    private static <T> T inTransaction(SessionFactory sessionFactory, Function<Session, T> work) {
+        return sessionFactory.fromTransaction(work);
+    }
+
+    private static SessionFactory sessionFactory(HikariDataSource dataSource, boolean identity) {
+        Configuration configuration = new Configuration();
+        // Los mismos nombres de tablas y columnas que genera Spring Boot
+        configuration.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        configuration.setImplicitNamingStrategy(new SpringImplicitNamingStrategy());
+        ENTITIES.forEach(configuration::addAnnotatedClass);
+        if (identity) {
+            configuration.addInputStream(new ByteArrayInputStream(IDENTITY_MAPPING.getBytes(StandardCharsets.UTF_8)));
+        }
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        // Mismas propiedades de lotes que application.properties
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE));
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        configuration.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        configuration.setProperty(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+        configuration.setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        configuration.setProperty(AvailableSettings.LOG_SESSION_METRICS, "false");
+        return configuration.buildSessionFactory();
+    }
+
+    private static MembershipType membershipType() {
+        MembershipType type = new MembershipType();
+        type.setName(MembershipTypeName.PREMIUM);
+        type.setMonthlyPrice(new BigDecimal("120000"));
+        type.setAccessToAllLocation(true);
+        type.setGroupClassesSessionsIncluded(8);
+        type.setPersonalTrainingIncluded(2);
+        type.setSpecializedClassesIncluded(true);
+        return type;
+    }
+
+    private static Membership membership(Session session, User user, MembershipType type) {
+        Membership membership = new Membership();
+        membership.setUser(session.getReference(User.class, user.getIdUser()));
+        membership.setType(session.getReference(MembershipType.class, type.getIdMembershipType()));
+        membership.setStartDate(LocalDate.of(2026, 10, 1));
+        membership.setEndDate(LocalDate.of(2026, 11, 1));
+        membership.setStatus(MembershipStatus.ACTIVE);
+        membership.setPrice(type.getMonthlyPrice());
+        return membership;
+    }
+
+    private static Franchise franchise(String name) {
+        Franchise franchise = new Franchise();
+        franchise.setName(name);
+        Set<Timeslot> timeslots = new HashSet<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            Timeslot timeslot = new Timeslot();
+            timeslot.setDay(day);
+            timeslot.setOpenTime(LocalTime.of(5, 0));
+            timeslot.setCloseTime(LocalTime.of(22, 0));
+            timeslot.setFranchise(franchise);
+            timeslots.add(timeslot);
+        }
+        franchise.setTimeslots(timeslots);
+        return franchise;
+    }
+}
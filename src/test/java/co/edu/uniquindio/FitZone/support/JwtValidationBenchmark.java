@@ -0,0 +1,109 @@
+package co.edu.uniquindio.FitZone.support;
+
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
+import co.edu.uniquindio.FitZone.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara el costo por solicitud de validar un JWT con el camino anterior de JwtRequestFilter y con
+ * el actual. Antes el filtro extraía el email y luego validaba el token contra el usuario, lo que
+ * construía un parser y verificaba la firma HMAC tres veces; ahora JwtUtil.parseClaims verifica la
+ * firma una sola vez con un parser construido al inicio y validateClaims reutiliza los claims.
+ * Cada escenario se mide con tokens de distinto tamaño, agregando un claim de relleno, después de una
+ * fase de calentamiento. Se ejecuta con su método main.
+ */
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "fitzone-benchmark-secret-key-for-hmac-sha256-signing";
+    private static final String EMAIL = "socio@fitzone.test";
+    private static final int[] PADDING_SIZES = {0, 256, 1024, 4096};
+    private static final int WARMUP_CALLS = 5_000;
+    private static final int MEASURED_CALLS = 20_000;
+
+    private interface Scenario {
+        boolean validate(String token);
+    }
+
+    public static void main(String[] args) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3600, 2_592_000);
+        UserDetails userDetails = new User(EMAIL, "", List.of());
+
+        Scenario previous = token -> {
+            // Extracción del email en el filtro y validateToken(token, userDetails) de la versión anterior
+            String username = parseWithNewParser(key, token).getSubject();
+            boolean sameUser = parseWithNewParser(key, token).getSubject().equals(userDetails.getUsername());
+            boolean expired = parseWithNewParser(key, token).getExpiration().before(new Date());
+            return username != null && sameUser && !expired;
+        };
+        Scenario current = token -> jwtUtil.validateClaims(jwtUtil.parseClaims(token), userDetails);
+
+        for (int padding : PADDING_SIZES) {
+            String token = token(key, padding);
+            run("Anterior (3 verificaciones)", token, previous);
+            run("Actual (1 verificación)", token, current);
+        }
+    }
+
+    private static void run(String name, String token, Scenario scenario) {
+        measure(token, WARMUP_CALLS, scenario);
+        long nanos = measure(token, MEASURED_CALLS, scenario);
+        System.out.printf("%-28s token de %5d bytes %8.1f ns/validación%n",
+                name, token.length(), (double) nanos / MEASURED_CALLS);
+    }
+
+    private static long measure(String token, int calls, Scenario scenario) {
+        int valid = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            if (scenario.validate(token)) {
+                valid++;
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (valid != calls) {
+            throw new IllegalStateException("El token de prueba no fue válido en todas las llamadas");
+        }
+        return elapsed;
+    }
+
+    private static Claims parseWithNewParser(Key key, String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    /**
+     * Genera un token con los claims que emite AuthServiceImpl y un claim de relleno del tamaño indicado.
+     */
+    private static String token(Key key, int padding) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtUtil.CLAIM_USER_ID, 42L);
+        claims.put(JwtUtil.CLAIM_ROLE, UserRole.MEMBER.name());
+        claims.put(JwtUtil.CLAIM_TOKEN_VERSION, 0L);
+        if (padding > 0) {
+            claims.put("pad", "x".repeat(padding));
+        }
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(EMAIL)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,150 @@
+package co.edu.uniquindio.FitZone.support;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import co.edu.uniquindio.FitZone.config.DebugSamplingTurboFilter;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Mide el costo que el registro de eventos agrega a los hilos de las solicitudes, con la misma
+ * configuración de logback-spring.xml armada por código: escritura JSON en un archivo directa o a
+ * través de un AsyncAppender, y mensajes DEBUG en solicitudes muestreadas y no muestreadas por
+ * DebugSamplingTurboFilter. Cada escenario se ejecuta con varios hilos concurrentes y reporta el
+ * tiempo promedio por llamada medido en el hilo que registra, después de una fase de calentamiento.
+ * Se ejecuta con su método main; el archivo temporal se elimina al terminar.
+ */
+public class LoggingOverheadBenchmark {
+
+    private static final String APP_LOGGER = "co.edu.uniquindio.FitZone.benchmark";
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 100_000;
+
+    private interface Scenario {
+        void log(Logger logger, long i);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("fitzone-logging-benchmark", ".log");
+        try {
+            run("INFO síncrono", file, false, "true", Level.INFO,
+                    (logger, i) -> logger.info("Membresía creada pendiente de pago - ID: {}, Usuario ID: {}", i, i % 97));
+            run("INFO asíncrono", file, true, "true", Level.INFO,
+                    (logger, i) -> logger.info("Membresía creada pendiente de pago - ID: {}, Usuario ID: {}", i, i % 97));
+            run("DEBUG asíncrono, muestreado", file, true, "true", Level.DEBUG,
+                    (logger, i) -> logger.debug("Usuario encontrado con ID: {}", i));
+            run("DEBUG asíncrono, no muestreado", file, true, "false", Level.DEBUG,
+                    (logger, i) -> logger.debug("Usuario encontrado con ID: {}", i));
+            run("DEBUG con nivel INFO", file, true, "true", Level.INFO,
+                    (logger, i) -> logger.debug("Usuario encontrado con ID: {}", i));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void run(String name, Path file, boolean async, String sampled, Level level,
+                            Scenario scenario) throws Exception {
+        LoggerContext context = new LoggerContext();
+        // StructuredLogEncoder lee el Environment que Spring Boot deja en el contexto de Logback
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+        DebugSamplingTurboFilter turboFilter = new DebugSamplingTurboFilter();
+        turboFilter.setLoggerPrefix("co.edu.uniquindio.FitZone");
+        turboFilter.setContext(context);
+        turboFilter.start();
+        context.addTurboFilter(turboFilter);
+
+        Appender<ILoggingEvent> appender = fileAppender(context, file);
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(appender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        Logger logger = context.getLogger(APP_LOGGER);
+        logger.setLevel(level);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+
+        measure(logger, sampled, WARMUP_CALLS, scenario);
+        long nanos = measure(logger, sampled, MEASURED_CALLS, scenario);
+        context.stop();
+
+        System.out.printf("%-32s %8.1f ns/llamada (%d hilos)%n",
+                name, (double) nanos / ((long) THREADS * MEASURED_CALLS), THREADS);
+    }
+
+    private static FileAppender<ILoggingEvent> fileAppender(LoggerContext context, Path file) throws IOException {
+        Files.writeString(file, "");
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("logstash");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    /**
+     * Ejecuta las llamadas en varios hilos y devuelve la suma de los tiempos medidos en cada uno.
+     */
+    private static long measure(Logger logger, String sampled, int calls, Scenario scenario) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        long[] elapsed = new long[THREADS];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int index = t;
+            Thread thread = new Thread(() -> {
+                MDC.put("correlationId", UUID.randomUUID().toString());
+                MDC.put(DebugSamplingTurboFilter.SAMPLED_KEY, sampled);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long begin = System.nanoTime();
+                for (long i = 0; i < calls; i++) {
+                    scenario.log(logger, i);
+                }
+                elapsed[index] = System.nanoTime() - begin;
+                MDC.clear();
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long total = 0;
+        for (long nanos : elapsed) {
+            total += nanos;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,134 @@
+package co.edu.uniquindio.FitZone.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local que imita los endpoints de intenciones de pago de la API de Stripe.
+ * Con stripe.api.base apuntando a {@link #baseUrl()} permite probar StripeService bajo carga y
+ * provocar sus modos de fallo: latencia fija y una proporción de respuestas de error con el código
+ * indicado. Una latencia mayor que stripe.http.read-timeout simula un Stripe que no responde.
+ * Responde POST /v1/payment_intents, GET /v1/payment_intents/{id} y POST /v1/payment_intents/{id}/cancel.
+ */
+public class StripeApiStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double failureRate;
+    private volatile int failureStatus = 500;
+    private volatile String paymentIntentStatus = "requires_payment_method";
+
+    private StripeApiStub(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Inicia el servidor en un puerto libre.
+     */
+    public static StripeApiStub start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        StripeApiStub stub = new StripeApiStub(server);
+        server.createContext("/v1/payment_intents", stub::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Tiempo que espera cada respuesta antes de enviarse.
+     */
+    public StripeApiStub latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Proporción de solicitudes (entre 0 y 1) que responden con el código de error indicado.
+     */
+    public StripeApiStub failures(double failureRate, int status) {
+        this.failureRate = failureRate;
+        this.failureStatus = status;
+        return this;
+    }
+
+    /**
+     * Estado que reportan las intenciones de pago consultadas.
+     */
+    public StripeApiStub paymentIntentStatus(String status) {
+        this.paymentIntentStatus = status;
+        return this;
+    }
+
+    /**
+     * @return solicitudes recibidas desde el inicio
+     */
+    public int requests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            Duration delay = latency;
+            if (!delay.isZero()) {
+                Thread.sleep(delay);
+            }
+
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                respond(exchange, failureStatus, """
+                        {"error":{"type":"api_error","message":"Respuesta de error simulada"}}""");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            boolean cancel = path.endsWith("/cancel");
+            String id;
+            if (cancel) {
+                String intentPath = path.substring(0, path.length() - "/cancel".length());
+                id = intentPath.substring(intentPath.lastIndexOf('/') + 1);
+            } else if ("POST".equals(exchange.getRequestMethod())) {
+                id = "pi_" + UUID.randomUUID().toString().replace("-", "");
+            } else {
+                id = path.substring(path.lastIndexOf('/') + 1);
+            }
+            respond(exchange, 200, """
+                    {"id":"%s","object":"payment_intent","amount":1000,"currency":"usd","created":%d,\
+                    "status":"%s","client_secret":"%s_secret_stub","livemode":false}"""
+                    .formatted(id, Instant.now().getEpochSecond(), cancel ? "canceled" : paymentIntentStatus, id));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Request-Id", "req_stub");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package co.edu.uniquindio.FitZone.support;
+
+import co.edu.uniquindio.FitZone.service.impl.template.TemplateRenderingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Mide el renderizado de las plantillas de correo con el camino anterior de EmailService, que
+ * llamaba a TemplateEngine.process y escribía cada vez sobre un StringWriter nuevo, y con
+ * TemplateRenderingService, que precarga las plantillas y escribe sobre buffers de un pool.
+ * Se reporta el costo del primer renderizado de cada plantilla (análisis en frío frente a plantilla
+ * precargada), el throughput de 10.000 renderizados en un hilo y con tantos hilos como procesadores,
+ * y los bytes asignados por renderizado. Se ejecuta con su método main.
+ */
+public class TemplateRenderingBenchmark {
+
+    private static final List<String> TEMPLATES = List.of("otp-template", "password-reset", "membership-renewal-reminder");
+    private static final int WARMUP_RENDERS = 10_000;
+    private static final int MEASURED_RENDERS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        TemplateEngine previousEngine = EmailTemplates.templateEngine();
+        Function<String, String> previous = template -> previousEngine.process(template, context(template));
+
+        long coldStart = System.nanoTime();
+        TemplateRenderingService service = EmailTemplates.renderingService(new SimpleMeterRegistry(), 16);
+        long preloadNanos = System.nanoTime() - coldStart;
+        Function<String, String> current = template -> service.render(template, context(template));
+
+        System.out.printf("Precarga de %d plantillas al iniciar: %.1f ms%n", TEMPLATES.size(), preloadNanos / 1e6);
+        for (String template : TEMPLATES) {
+            System.out.printf("Primer renderizado de %-28s anterior %8.1f us, actual %8.1f us%n", template,
+                    firstRender(previous, template) / 1e3, firstRender(current, template) / 1e3);
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        run("Anterior (StringWriter nuevo)", previous, 1);
+        run("Actual (buffers del pool)", current, 1);
+        if (threads > 1) {
+            run("Anterior (StringWriter nuevo)", previous, threads);
+            run("Actual (buffers del pool)", current, threads);
+        }
+    }
+
+    private static long firstRender(Function<String, String> renderer, String template) {
+        long begin = System.nanoTime();
+        renderer.apply(template);
+        return System.nanoTime() - begin;
+    }
+
+    private static void run(String name, Function<String, String> renderer, int threads) throws Exception {
+        measure(renderer, threads, WARMUP_RENDERS);
+        long allocatedBefore = allocatedBytes();
+        long nanos = measure(renderer, threads, MEASURED_RENDERS);
+        long allocated = threads == 1 ? allocatedBytes() - allocatedBefore : -1;
+
+        System.out.printf("%-30s %d hilo(s): %9.0f renderizados/s, %7.1f us/renderizado%s%n",
+                name, threads, MEASURED_RENDERS / (nanos / 1e9), nanos / 1e3 / MEASURED_RENDERS * threads,
+                allocated < 0 ? "" : String.format(", %6.1f KB asignados/renderizado", allocated / 1024.0 / MEASURED_RENDERS));
+    }
+
+    /**
+     * Reparte los renderizados entre los hilos, rotando las plantillas.
+     * @return tiempo total transcurrido en nanosegundos
+     */
+    private static long measure(Function<String, String> renderer, int threads, int renders) throws Exception {
+        long begin = System.nanoTime();
+        if (threads == 1) {
+            consume(renderer, 0, renders);
+            return System.nanoTime() - begin;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            int perThread = renders / threads;
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                futures.add(executor.submit(() -> consume(renderer, offset, perThread)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static void consume(Function<String, String> renderer, int offset, int renders) {
+        long length = 0;
+        for (int i = 0; i < renders; i++) {
+            length += renderer.apply(TEMPLATES.get((offset + i) % TEMPLATES.size())).length();
+        }
+        if (length == 0) {
+            throw new IllegalStateException("Las plantillas no generaron contenido");
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Contexto con las variables que usan los servicios que envían cada plantilla.
+     */
+    private static Context context(String template) {
+        Context context = new Context();
+        context.setVariable("userName", "Ana María");
+        switch (template) {
+            case "otp-template" -> context.setVariable("otp", "482913");
+            case "password-reset" -> {
+                context.setVariable("verificationCode", "a1b2c3d4e5f6");
+                context.setVariable("expiryDate", LocalDateTime.of(2026, 10, 18, 10, 15));
+                context.setVariable("gymEmail", "fitzoneuq@gmail.com");
+            }
+            default -> {
+                context.setVariable("membershipType", "PREMIUM");
+                context.setVariable("expiryDate", "2026-10-25");
+                context.setVariable("daysRemaining", 7L);
+                context.setVariable("renewalLink", "");
+                context.setVariable("gymPhone", "***");
+                context.setVariable("gymEmail", "fitzoneuq@gmail.com");
+            }
+        }
+        return context;
+    }
+}
@@ -0,0 +1,54 @@
+package co.edu.uniquindio.FitZone.support;
+
+import co.edu.uniquindio.FitZone.model.entity.PersonalInformation;
+import co.edu.uniquindio.FitZone.model.entity.User;
+import co.edu.uniquindio.FitZone.model.enums.DocumentType;
+import co.edu.uniquindio.FitZone.model.enums.UserRole;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Usuarios de prueba con todos los campos obligatorios diligenciados.
+ * Cada usuario recibe un email y un número de documento únicos, así que las pruebas que comparten
+ * el contexto y la base de datos embebida no chocan entre sí.
+ */
+public final class TestUsers {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private TestUsers() {
+    }
+
+    /**
+     * Crea un usuario sin guardar con el rol indicado.
+     * @param role rol del usuario
+     * @param password contraseña ya codificada
+     */
+    public static User newUser(UserRole role, String password) {
+        int n = SEQUENCE.incrementAndGet();
+
+        PersonalInformation personalInformation = new PersonalInformation();
+        personalInformation.setFirstName("Usuario");
+        personalInformation.setLastName("Prueba " + n);
+        personalInformation.setDocumentType(DocumentType.CC);
+        personalInformation.setDocumentNumber("T" + System.nanoTime() + "-" + n);
+        personalInformation.setBirthDate(LocalDate.of(1990, 1, 1));
+        personalInformation.setPhoneNumber("3000000000");
+        personalInformation.setEmergencyContactPhone("3000000001");
+
+        User user = new User();
+        user.setEmail("usuario" + n + "-" + System.nanoTime() + "@fitzone.test");
+        user.setPassword(password);
+        user.setRole(role);
+        user.setPersonalInformation(personalInformation);
+        return user;
+    }
+
+    /**
+     * Crea un usuario sin guardar con rol MEMBER.
+     */
+    public static User newMember() {
+        return newUser(UserRole.MEMBER, "{noop}secret");
+    }
+}
@@ -0,0 +1,13 @@
+-- Tablas sin entidad JPA que en PostgreSQL crean las migraciones de Flyway.
+-- En H2 Hibernate solo genera las tablas de las entidades, así que estas se crean aquí.
+
+-- V7__otp_codes.sql, sin UNLOGGED (no existe en H2)
+CREATE TABLE IF NOT EXISTS otp_codes (
+    email VARCHAR(255) NOT NULL,
+    code VARCHAR(16) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    failed_attempts INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (email)
+);
+
+CREATE INDEX IF NOT EXISTS idx_otp_codes_expires_at ON otp_codes (expires_at);